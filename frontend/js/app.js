@@ -9,8 +9,11 @@
      */
     function init() {
         setupEventListeners();
-        loadAndRenderSweets();
-        updateCategoryDropdown();
+        Storage.init().then(() => {
+            SearchService.init(Storage.getSweets());
+            loadAndRenderSweets();
+            updateCategoryDropdown();
+        });
     }
     
     /**
@@ -26,9 +29,9 @@
         // Form Cancel
         document.getElementById('cancelAdd').addEventListener('click', handleCancelAdd);
         
-        // Search Input (with debounce)
+        // Search Input (short debounce; stale worker queries are dropped)
         document.getElementById('searchInput').addEventListener('input', 
-            Utils.debounce(handleFilterChange, 300));
+            Utils.debounce(handleFilterChange, 100));
         
         // Category Filter
         document.getElementById('categoryFilter').addEventListener('change', handleFilterChange);
@@ -77,7 +80,8 @@
         const newSweet = Storage.addSweet(formData);
         
         if (newSweet) {
-            UI.showNotification(`${newSweet.name} added successfully!`, 'success');
+            SearchService.upsert(newSweet);
+            notifyWhenSaved(`${newSweet.name} added successfully!`);
             isFormOpen = false;
             UI.toggleAddForm(false);
             UI.updateAddButtonText(false);
@@ -131,8 +135,9 @@
         const result = Storage.purchaseSweet(id, quantity);
         
         if (result.success) {
-            UI.showNotification(result.message, 'success');
-            loadAndRenderSweets();
+            SearchService.upsert(result.sweet);
+            notifyWhenSaved(result.message);
+            UI.updateSweetCard(result.sweet);
         } else {
             UI.showNotification(result.message, 'error');
         }
@@ -147,8 +152,9 @@
         const result = Storage.restockSweet(id, quantity);
         
         if (result.success) {
-            UI.showNotification(result.message, 'success');
-            loadAndRenderSweets();
+            SearchService.upsert(result.sweet);
+            notifyWhenSaved(result.message);
+            UI.updateSweetCard(result.sweet);
         } else {
             UI.showNotification(result.message, 'error');
         }
@@ -159,8 +165,7 @@
      * @param {number} id - Sweet ID
      */
     function handleDelete(id) {
-        const sweets = Storage.getSweets();
-        const sweet = sweets.find(s => s.id === id);
+        const sweet = Storage.getSweet(id);
         
         if (!sweet) return;
         
@@ -168,7 +173,8 @@
             const success = Storage.deleteSweet(id);
             
             if (success) {
-                UI.showNotification(`${sweet.name} deleted successfully!`, 'success');
+                SearchService.remove(id);
+                notifyWhenSaved(`${sweet.name} deleted successfully!`);
                 loadAndRenderSweets();
                 updateCategoryDropdown();
             } else {
@@ -177,24 +183,35 @@
         }
     }
     
+    /**
+     * Report a change as done only once its write has been stored
+     * @param {string} message - Success message
+     */
+    function notifyWhenSaved(message) {
+        Storage.flush().then(
+            () => UI.showNotification(message, 'success'),
+            () => UI.showNotification('Change could not be saved. Please try again.', 'error'));
+    }
+    
     /**
      * Load sweets and render with current filters
      */
     function loadAndRenderSweets() {
-        const allSweets = Storage.getSweets();
         const filters = UI.getFilterValues();
-        const filteredSweets = Utils.filterSweets(allSweets, filters);
-        const sortedSweets = Utils.sortSweets(filteredSweets, 'name', 'asc');
         
-        UI.renderSweets(sortedSweets);
+        SearchService.query(filters, 'name', 'asc').then(sortedSweets => {
+            // null means a newer query superseded this one
+            if (sortedSweets) {
+                UI.renderSweets(sortedSweets);
+            }
+        });
     }
     
     /**
      * Update category dropdown with current categories
      */
     function updateCategoryDropdown() {
-        const categories = Storage.getCategories();
-        UI.updateCategoryFilter(categories);
+        SearchService.getCategories().then(UI.updateCategoryFilter);
     }
     
     /**
@@ -0,0 +1,142 @@
+const SearchService = (function() {
+    'use strict';
+    
+    const WORKER_URL = 'js/searchWorker.js';
+    
+    let worker = null;
+    let latestQueryId = 0;
+    let nextRequestId = 0;
+    const pendingQueries = new Map();
+    const pendingCategories = new Map();
+    
+    /**
+     * Start the search worker and index the catalog
+     * Falls back to in-thread filtering when workers are unavailable
+     * (for example when the page is opened from file://)
+     * @param {Array} sweets - All sweets
+     */
+    function init(sweets) {
+        try {
+            worker = new Worker(WORKER_URL);
+            worker.onmessage = handleMessage;
+            worker.onerror = error => {
+                console.error('Search worker failed, filtering on the main thread:', error.message);
+                disableWorker();
+            };
+            worker.postMessage({ type: 'load', sweets });
+        } catch (error) {
+            console.warn('Search worker unavailable, filtering on the main thread:', error.message);
+            worker = null;
+        }
+    }
+    
+    /**
+     * Re-index one added or updated sweet
+     * @param {Object} sweet - Sweet object
+     */
+    function upsert(sweet) {
+        if (worker) worker.postMessage({ type: 'upsert', sweet });
+    }
+    
+    /**
+     * Remove one sweet from the index
+     * @param {number} id - Sweet ID
+     */
+    function remove(id) {
+        if (worker) worker.postMessage({ type: 'remove', id });
+    }
+    
+    /**
+     * Filter and sort the catalog
+     * Only the latest query resolves with results; superseded queries
+     * resolve with null so callers can ignore them
+     * @param {Object} filters - Filter criteria
+     * @param {string} sortBy - Sort criteria
+     * @param {string} order - Sort order (asc, desc)
+     * @returns {Promise<Array|null>} Matching sweets, or null if superseded
+     */
+    function query(filters, sortBy = 'name', order = 'asc') {
+        const queryId = ++latestQueryId;
+        
+        if (!worker) {
+            return Promise.resolve(queryOnMainThread(filters, sortBy, order));
+        }
+        
+        // Resolve any older query as superseded
+        pendingQueries.forEach(pending => pending.resolve(null));
+        pendingQueries.clear();
+        
+        return new Promise(resolve => {
+            pendingQueries.set(queryId, { resolve, filters, sortBy, order });
+            worker.postMessage({ type: 'query', queryId, filters, sortBy, order });
+        });
+    }
+    
+    /**
+     * Get all unique categories from the index
+     * @returns {Promise<Array>} Sorted category names
+     */
+    function getCategories() {
+        if (!worker) {
+            return Promise.resolve(Storage.getCategories());
+        }
+        const requestId = ++nextRequestId;
+        return new Promise(resolve => {
+            pendingCategories.set(requestId, resolve);
+            worker.postMessage({ type: 'categories', requestId });
+        });
+    }
+    
+    function queryOnMainThread(filters, sortBy, order) {
+        const filtered = Utils.filterSweets(Storage.getSweets(), filters);
+        return Utils.sortSweets(filtered, sortBy, order);
+    }
+    
+    function handleMessage(event) {
+        const message = event.data;
+        
+        if (message.type === 'result') {
+            const pending = pendingQueries.get(message.queryId);
+            if (!pending) return;
+            pendingQueries.delete(message.queryId);
+            
+            const ids = new Int32Array(message.ids);
+            const sweets = [];
+            ids.forEach(id => {
+                const sweet = Storage.getSweet(id);
+                if (sweet) sweets.push(sweet);
+            });
+            pending.resolve(message.queryId === latestQueryId ? sweets : null);
+        } else if (message.type === 'categories') {
+            const resolve = pendingCategories.get(message.requestId);
+            pendingCategories.delete(message.requestId);
+            if (resolve) resolve(message.categories);
+        }
+    }
+    
+    /**
+     * Stop using the worker and answer pending requests on the main thread
+     */
+    function disableWorker() {
+        if (worker) worker.terminate();
+        worker = null;
+        // Re-run the latest query here so its caller still gets results
+        pendingQueries.forEach((pending, queryId) => {
+            pending.resolve(queryId === latestQueryId
+                ? queryOnMainThread(pending.filters, pending.sortBy, pending.order)
+                : null);
+        });
+        pendingQueries.clear();
+        pendingCategories.forEach(resolve => resolve(Storage.getCategories()));
+        pendingCategories.clear();
+    }
+    
+    // Public API
+    return {
+        init,
+        upsert,
+        remove,
+        query,
+        getCategories
+    };
+})();
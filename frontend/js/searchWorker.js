@@ -0,0 +1,194 @@
+/**
+ * Search Worker
+ * Keeps a prebuilt in-memory index of the catalog (lowercased names,
+ * category map, name- and price-sorted orders) and answers filter/sort
+ * queries off the UI thread. Results are sent back as transferable
+ * Int32Array ID lists; queries superseded by a newer one are skipped.
+ */
+(function() {
+    'use strict';
+    
+    const records = new Map();
+    const categoryIds = new Map();
+    const collator = new Intl.Collator();
+    let nameOrder = [];
+    let priceOrder = [];
+    let ordersDirty = true;
+    let latestQueryId = 0;
+    
+    /**
+     * Replace the whole index
+     * @param {Array} sweets - All sweets
+     */
+    function load(sweets) {
+        records.clear();
+        categoryIds.clear();
+        sweets.forEach(addRecord);
+        ordersDirty = true;
+    }
+    
+    /**
+     * Add or update one sweet
+     * Sort orders are rebuilt lazily and only when a sort key changed
+     * @param {Object} sweet - Sweet to index
+     */
+    function upsert(sweet) {
+        const existing = records.get(sweet.id);
+        if (existing) {
+            if (existing.name !== sweet.name || existing.price !== sweet.price) {
+                ordersDirty = true;
+            }
+            removeRecord(sweet.id);
+        } else {
+            ordersDirty = true;
+        }
+        addRecord(sweet);
+    }
+    
+    /**
+     * Remove one sweet
+     * @param {number} id - Sweet ID
+     */
+    function remove(id) {
+        if (removeRecord(id)) {
+            ordersDirty = true;
+        }
+    }
+    
+    function addRecord(sweet) {
+        records.set(sweet.id, {
+            id: sweet.id,
+            name: sweet.name,
+            lowerName: sweet.name.toLowerCase(),
+            category: sweet.category,
+            price: sweet.price,
+            quantity: sweet.quantity
+        });
+        if (!categoryIds.has(sweet.category)) {
+            categoryIds.set(sweet.category, new Set());
+        }
+        categoryIds.get(sweet.category).add(sweet.id);
+    }
+    
+    function removeRecord(id) {
+        const existing = records.get(id);
+        if (!existing) return false;
+        
+        records.delete(id);
+        const ids = categoryIds.get(existing.category);
+        ids.delete(id);
+        if (ids.size === 0) {
+            categoryIds.delete(existing.category);
+        }
+        return true;
+    }
+    
+    function rebuildOrders() {
+        const all = Array.from(records.values());
+        nameOrder = all.slice()
+            .sort((a, b) => collator.compare(a.name, b.name))
+            .map(record => record.id);
+        priceOrder = all
+            .sort((a, b) => a.price - b.price)
+            .map(record => record.id);
+        ordersDirty = false;
+    }
+    
+    /**
+     * Run a filter/sort query
+     * @param {Object} filters - searchTerm, category, minPrice, maxPrice
+     * @param {string} sortBy - Sort criteria (name, price, quantity, category)
+     * @param {string} order - Sort order (asc, desc)
+     * @returns {Int32Array} Matching IDs in display order
+     */
+    function runQuery(filters, sortBy, order) {
+        if (ordersDirty) rebuildOrders();
+        
+        const term = filters.searchTerm.toLowerCase();
+        const minPrice = filters.minPrice !== '' ? parseFloat(filters.minPrice) : 0;
+        const maxPrice = filters.maxPrice !== '' ? parseFloat(filters.maxPrice) : Infinity;
+        const inCategory = filters.category === 'all' ? null : (categoryIds.get(filters.category) || new Set());
+        
+        const matches = id => {
+            const record = records.get(id);
+            return (!inCategory || inCategory.has(id)) &&
+                record.price >= minPrice && record.price <= maxPrice &&
+                (term === '' || record.lowerName.includes(term));
+        };
+        
+        let ids;
+        if (sortBy === 'price') {
+            ids = priceOrder.slice(lowerBound(minPrice), upperBound(maxPrice)).filter(matches);
+        } else {
+            const candidates = inCategory && inCategory.size < records.size / 4
+                ? nameOrder.filter(id => inCategory.has(id))
+                : nameOrder;
+            ids = candidates.filter(matches);
+            if (sortBy === 'quantity' || sortBy === 'category') {
+                ids.sort((a, b) => compareBy(sortBy, records.get(a), records.get(b)));
+            }
+        }
+        
+        if (order === 'desc') ids.reverse();
+        return Int32Array.from(ids);
+    }
+    
+    function compareBy(sortBy, a, b) {
+        return sortBy === 'quantity' ? a.quantity - b.quantity : collator.compare(a.category, b.category);
+    }
+    
+    // Binary searches over the price-sorted order
+    function lowerBound(price) {
+        let low = 0;
+        let high = priceOrder.length;
+        while (low < high) {
+            const mid = (low + high) >>> 1;
+            if (records.get(priceOrder[mid]).price < price) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+    
+    function upperBound(price) {
+        let low = 0;
+        let high = priceOrder.length;
+        while (low < high) {
+            const mid = (low + high) >>> 1;
+            if (records.get(priceOrder[mid]).price <= price) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+    
+    self.onmessage = function(event) {
+        const message = event.data;
+        
+        switch (message.type) {
+            case 'load':
+                load(message.sweets);
+                break;
+            case 'upsert':
+                upsert(message.sweet);
+                break;
+            case 'remove':
+                remove(message.id);
+                break;
+            case 'query':
+                // Defer so that a newer query already queued can supersede this one
+                latestQueryId = message.queryId;
+                setTimeout(() => {
+                    if (message.queryId !== latestQueryId) return;
+                    const ids = runQuery(message.filters, message.sortBy, message.order);
+                    self.postMessage({ type: 'result', queryId: message.queryId, ids: ids.buffer }, [ids.buffer]);
+                }, 0);
+                break;
+            case 'categories':
+                self.postMessage({
+                    type: 'categories',
+                    requestId: message.requestId,
+                    categories: Array.from(categoryIds.keys()).sort()
+                });
+                break;
+            default:
+                console.error('Unknown search worker message:', message.type);
+        }
+    };
+})();
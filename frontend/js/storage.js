@@ -2,29 +2,265 @@ const Storage = (function() {
     'use strict';
     
     const STORAGE_KEY = 'sweetshop_inventory';
+    const DB_NAME = 'sweetshop';
+    const DB_VERSION = 1;
+    const STORE_NAME = 'sweets';
+    
+    // In-memory working set; IndexedDB holds one record per sweet
+    const sweetsById = new Map();
+    const pendingWrites = new Map();
+    let db = null;
+    let maxId = 0;
+    let flushScheduled = false;
+    // Settles with the latest save; rejects if that save failed
+    let lastSave = Promise.resolve();
+    let readyPromise = null;
     
     /**
-     * Get all sweets from localStorage
-     * @returns {Array} Array of sweet objects
+     * Open the database, migrate legacy localStorage data and load records
+     * Falls back to localStorage when IndexedDB is unavailable
+     * @returns {Promise} Resolves when the storage is ready
      */
-    function getSweets() {
+    function init() {
+        if (readyPromise) return readyPromise;
+        
+        // Flush queued writes before the page may be frozen or discarded
+        window.addEventListener('pagehide', flush);
+        document.addEventListener('visibilitychange', () => {
+            if (document.visibilityState === 'hidden') flush();
+        });
+        
+        if (typeof indexedDB === 'undefined') {
+            readyPromise = Promise.resolve().then(loadFromLocalStorage);
+            return readyPromise;
+        }
+        
+        readyPromise = openDatabase()
+            .then(result => {
+                db = result.db;
+                // Retried on every open until the legacy key is gone
+                return result.created || hasLegacyData()
+                    ? migrateFromLocalStorage(result.created)
+                    : null;
+            })
+            .then(loadAllRecords)
+            .catch(error => {
+                console.error('IndexedDB unavailable, using localStorage:', error);
+                db = null;
+                loadFromLocalStorage();
+            });
+        return readyPromise;
+    }
+    
+    /**
+     * Open (and on first use create) the IndexedDB database
+     * @returns {Promise<Object>} Database handle and whether it was just created
+     */
+    function openDatabase() {
+        return new Promise((resolve, reject) => {
+            let created = false;
+            const request = indexedDB.open(DB_NAME, DB_VERSION);
+            
+            request.onupgradeneeded = event => {
+                const database = request.result;
+                if (event.oldVersion === 0) {
+                    created = true;
+                    const store = database.createObjectStore(STORE_NAME, { keyPath: 'id' });
+                    store.createIndex('category', 'category', { unique: false });
+                    store.createIndex('price', 'price', { unique: false });
+                }
+            };
+            request.onsuccess = () => resolve({ db: request.result, created });
+            request.onerror = () => reject(request.error);
+        });
+    }
+    
+    /**
+     * Whether the legacy localStorage catalog is still present
+     * @returns {boolean} True if it has not been migrated yet
+     */
+    function hasLegacyData() {
+        try {
+            return localStorage.getItem(STORAGE_KEY) !== null;
+        } catch (error) {
+            return false;
+        }
+    }
+    
+    /**
+     * Copy the legacy localStorage catalog (or sample data) into IndexedDB
+     * The legacy key is removed only after the write transaction commits.
+     * A retry on a later open keeps records IndexedDB already holds,
+     * since those are newer than their legacy copies
+     * @param {boolean} created - Whether the database was just created
+     * @returns {Promise} Resolves when the records are written
+     */
+    function migrateFromLocalStorage(created) {
+        let records;
+        try {
+            const legacy = localStorage.getItem(STORAGE_KEY);
+            records = legacy ? JSON.parse(legacy) : getInitialData();
+        } catch (error) {
+            console.error('Error reading legacy sweets:', error);
+            records = created ? getInitialData() : [];
+        }
+        
+        return runTransaction('readwrite', store => {
+            records.forEach(record => {
+                if (created) {
+                    store.put(record);
+                    return;
+                }
+                const request = store.add(record);
+                request.onerror = event => {
+                    // Existing key: keep the stored record and the transaction
+                    event.preventDefault();
+                    event.stopPropagation();
+                };
+            });
+        }).then(() => {
+            try {
+                localStorage.removeItem(STORAGE_KEY);
+            } catch (error) {
+                console.error('Error removing legacy sweets:', error);
+            }
+        });
+    }
+    
+    /**
+     * Load every record into memory
+     * @returns {Promise} Resolves when loaded
+     */
+    function loadAllRecords() {
+        return new Promise((resolve, reject) => {
+            const request = db.transaction(STORE_NAME, 'readonly').objectStore(STORE_NAME).getAll();
+            request.onsuccess = () => {
+                setWorkingSet(request.result);
+                resolve();
+            };
+            request.onerror = () => reject(request.error);
+        });
+    }
+    
+    /**
+     * Load the catalog from the legacy localStorage key
+     */
+    function loadFromLocalStorage() {
         try {
             const data = localStorage.getItem(STORAGE_KEY);
-            return data ? JSON.parse(data) : getInitialData();
+            setWorkingSet(data ? JSON.parse(data) : getInitialData());
         } catch (error) {
             console.error('Error loading sweets:', error);
-            return getInitialData();
+            setWorkingSet(getInitialData());
         }
     }
     
+    function setWorkingSet(records) {
+        sweetsById.clear();
+        maxId = 0;
+        records.forEach(record => {
+            sweetsById.set(record.id, record);
+            maxId = Math.max(maxId, record.id);
+        });
+    }
+    
     /**
-     * Save sweets to localStorage
+     * Run a single IndexedDB transaction
+     * @param {string} mode - 'readonly' or 'readwrite'
+     * @param {Function} work - Receives the object store
+     * @returns {Promise} Resolves when the transaction completes
+     */
+    function runTransaction(mode, work) {
+        return new Promise((resolve, reject) => {
+            const transaction = db.transaction(STORE_NAME, mode);
+            work(transaction.objectStore(STORE_NAME));
+            transaction.oncomplete = () => resolve();
+            transaction.onerror = () => reject(transaction.error);
+            transaction.onabort = () => reject(transaction.error);
+        });
+    }
+    
+    /**
+     * Queue a per-record write; queued writes share one transaction
+     * Call flush() to learn when they are stored
+     * @param {number} id - Sweet ID
+     * @param {Object|null} record - Record to put, or null to delete
+     */
+    function queueWrite(id, record) {
+        pendingWrites.set(id, record);
+        if (flushScheduled) return;
+        flushScheduled = true;
+        setTimeout(flush, 0);
+    }
+    
+    /**
+     * Write all queued records in one batched transaction
+     * The transaction starts synchronously, so a flush from pagehide is
+     * issued before the page goes away; IndexedDB runs overlapping
+     * readwrite transactions in the order they were created
+     * @returns {Promise} Resolves when everything queued so far is stored,
+     *     rejects if that write failed
+     */
+    function flush() {
+        flushScheduled = false;
+        if (pendingWrites.size === 0) return lastSave;
+        
+        const batch = new Map(pendingWrites);
+        pendingWrites.clear();
+        
+        if (!db) {
+            return trackSave(new Promise(resolve => {
+                localStorage.setItem(STORAGE_KEY, JSON.stringify(Array.from(sweetsById.values())));
+                resolve();
+            }));
+        }
+        
+        return trackSave(runTransaction('readwrite', store => {
+            batch.forEach((record, id) => {
+                if (record) {
+                    store.put(record);
+                } else {
+                    store.delete(id);
+                }
+            });
+        }));
+    }
+    
+    function trackSave(save) {
+        lastSave = save;
+        save.catch(error => console.error('Error saving sweets:', error));
+        return save;
+    }
+    
+    /**
+     * Get all sweets (from the in-memory working set)
+     * @returns {Array} Array of sweet objects
+     */
+    function getSweets() {
+        return Array.from(sweetsById.values());
+    }
+    
+    /**
+     * Get one sweet by ID
+     * @param {number} id - Sweet ID
+     * @returns {Object|undefined} Sweet object
+     */
+    function getSweet(id) {
+        return sweetsById.get(id);
+    }
+    
+    /**
+     * Replace the whole catalog
      * @param {Array} sweets - Array of sweet objects to save
      * @returns {boolean} Success status
      */
     function saveSweets(sweets) {
         try {
-            localStorage.setItem(STORAGE_KEY, JSON.stringify(sweets));
+            const keptIds = new Set(sweets.map(sweet => sweet.id));
+            const removed = getSweets().filter(sweet => !keptIds.has(sweet.id));
+            setWorkingSet(sweets);
+            removed.forEach(sweet => queueWrite(sweet.id, null));
+            sweets.forEach(sweet => queueWrite(sweet.id, sweet));
             return true;
         } catch (error) {
             console.error('Error saving sweets:', error);
@@ -61,7 +297,6 @@ const Storage = (function() {
             }
         ];
         
-        saveSweets(initialData);
         return initialData;
     }
     
@@ -72,17 +307,17 @@ const Storage = (function() {
      */
     function addSweet(sweet) {
         try {
-            const sweets = getSweets();
             const newSweet = {
-                id: getNextId(sweets),
+                id: getNextId(),
                 name: sweet.name,
                 category: sweet.category,
                 price: parseFloat(sweet.price),
                 quantity: parseInt(sweet.quantity, 10)
             };
             
-            sweets.push(newSweet);
-            saveSweets(sweets);
+            sweetsById.set(newSweet.id, newSweet);
+            maxId = Math.max(maxId, newSweet.id);
+            queueWrite(newSweet.id, newSweet);
             return newSweet;
         } catch (error) {
             console.error('Error adding sweet:', error);
@@ -97,9 +332,9 @@ const Storage = (function() {
      */
     function deleteSweet(id) {
         try {
-            let sweets = getSweets();
-            sweets = sweets.filter(sweet => sweet.id !== id);
-            return saveSweets(sweets);
+            if (!sweetsById.delete(id)) return false;
+            queueWrite(id, null);
+            return true;
         } catch (error) {
             console.error('Error deleting sweet:', error);
             return false;
@@ -110,12 +345,11 @@ const Storage = (function() {
      * Purchase sweet (decrease quantity)
      * @param {number} id - Sweet ID
      * @param {number} quantity - Quantity to purchase
-     * @returns {Object} Result object with success status and message
+     * @returns {Object} Result object with success status, message and updated sweet
      */
     function purchaseSweet(id, quantity) {
         try {
-            const sweets = getSweets();
-            const sweet = sweets.find(s => s.id === id);
+            const sweet = sweetsById.get(id);
             
             if (!sweet) {
                 return { success: false, message: 'Sweet not found' };
@@ -129,10 +363,11 @@ const Storage = (function() {
             }
             
             sweet.quantity -= quantity;
-            saveSweets(sweets);
+            queueWrite(id, sweet);
             return { 
                 success: true, 
-                message: `Purchased ${quantity} ${sweet.name}(s)` 
+                message: `Purchased ${quantity} ${sweet.name}(s)`,
+                sweet: { ...sweet }
             };
         } catch (error) {
             console.error('Error purchasing sweet:', error);
@@ -144,22 +379,22 @@ const Storage = (function() {
      * Restock sweet (increase quantity)
      * @param {number} id - Sweet ID
      * @param {number} quantity - Quantity to add
-     * @returns {Object} Result object with success status and message
+     * @returns {Object} Result object with success status, message and updated sweet
      */
     function restockSweet(id, quantity) {
         try {
-            const sweets = getSweets();
-            const sweet = sweets.find(s => s.id === id);
+            const sweet = sweetsById.get(id);
             
             if (!sweet) {
                 return { success: false, message: 'Sweet not found' };
             }
             
             sweet.quantity += quantity;
-            saveSweets(sweets);
+            queueWrite(id, sweet);
             return { 
                 success: true, 
-                message: 'Stock updated successfully!' 
+                message: 'Stock updated successfully!',
+                sweet: { ...sweet }
             };
         } catch (error) {
             console.error('Error restocking sweet:', error);
@@ -169,12 +404,10 @@ const Storage = (function() {
     
     /**
      * Get next available ID
-     * @param {Array} sweets - Current sweets array
      * @returns {number} Next ID
      */
-    function getNextId(sweets) {
-        if (sweets.length === 0) return 1001;
-        const maxId = Math.max(...sweets.map(s => s.id));
+    function getNextId() {
+        if (sweetsById.size === 0) return 1001;
         return maxId + 1;
     }
     
@@ -183,9 +416,48 @@ const Storage = (function() {
      * @returns {Array} Array of category names
      */
     function getCategories() {
-        const sweets = getSweets();
-        const categories = [...new Set(sweets.map(s => s.category))];
-        return categories.sort();
+        const categories = new Set();
+        sweetsById.forEach(sweet => categories.add(sweet.category));
+        return [...categories].sort();
+    }
+    
+    /**
+     * Query sweets of one category through the IndexedDB category index
+     * @param {string} category - Category name
+     * @returns {Promise<Array>} Matching sweets
+     */
+    function querySweetsByCategory(category) {
+        return queryIndex('category', () => IDBKeyRange.only(category),
+            sweet => sweet.category === category);
+    }
+    
+    /**
+     * Query sweets in a price range through the IndexedDB price index
+     * @param {number} minPrice - Minimum price (inclusive)
+     * @param {number} maxPrice - Maximum price (inclusive)
+     * @returns {Promise<Array>} Matching sweets in ascending price order
+     */
+    function querySweetsByPriceRange(minPrice, maxPrice) {
+        return queryIndex('price', () => IDBKeyRange.bound(minPrice, maxPrice),
+            sweet => sweet.price >= minPrice && sweet.price <= maxPrice);
+    }
+    
+    /**
+     * Read an index after pending writes have been flushed
+     * Uses the in-memory filter when IndexedDB is not in use
+     */
+    function queryIndex(indexName, createRange, fallbackFilter) {
+        if (!db) {
+            return Promise.resolve(getSweets().filter(fallbackFilter));
+        }
+        return flush().catch(() => null).then(() => new Promise((resolve, reject) => {
+            const request = db.transaction(STORE_NAME, 'readonly')
+                .objectStore(STORE_NAME)
+                .index(indexName)
+                .getAll(createRange());
+            request.onsuccess = () => resolve(request.result);
+            request.onerror = () => reject(request.error);
+        }));
     }
     
     /**
@@ -194,7 +466,13 @@ const Storage = (function() {
      */
     function clearAll() {
         try {
+            sweetsById.clear();
+            pendingWrites.clear();
+            maxId = 0;
             localStorage.removeItem(STORAGE_KEY);
+            if (db) {
+                trackSave(runTransaction('readwrite', store => store.clear()));
+            }
             return true;
         } catch (error) {
             console.error('Error clearing storage:', error);
@@ -204,13 +482,18 @@ const Storage = (function() {
     
     // Public API
     return {
+        init,
+        flush,
         getSweets,
+        getSweet,
         saveSweets,
         addSweet,
         deleteSweet,
         purchaseSweet,
         restockSweet,
         getCategories,
+        querySweetsByCategory,
+        querySweetsByPriceRange,
         clearAll
     };
 })();
\ No newline at end of file
@@ -65,21 +65,187 @@ const UI = (function() {
         };
     }
     
+    // Virtual scrolling state: only cards near the viewport are in the DOM
+    const OVERSCAN_ROWS = 2;
+    const DEFAULT_ROW_HEIGHT = 360;
+    const cardElements = new Map();
+    let currentSweets = [];
+    let indexById = new Map();
+    let columns = 1;
+    let rowHeight = 0;
+    let frameRequested = false;
+    let scrollListenersAttached = false;
+    
     /**
-     * Render all sweets in the grid
+     * Render sweets in the grid
+     * Only the rows around the viewport get DOM nodes; cards already on
+     * screen are reused by ID and patched in place
      */
     function renderSweets(sweets) {
         const grid = document.getElementById('sweetsGrid');
         const emptyState = document.getElementById('emptyState');
         
+        currentSweets = sweets;
+        indexById = new Map(sweets.map((sweet, index) => [sweet.id, index]));
+        attachScrollListeners();
+        
         if (sweets.length === 0) {
+            cardElements.clear();
             grid.innerHTML = '';
+            grid.style.paddingTop = '';
+            grid.style.paddingBottom = '';
             emptyState.classList.remove('hidden');
             return;
         }
         
         emptyState.classList.add('hidden');
-        grid.innerHTML = sweets.map(sweet => createSweetCard(sweet)).join('');
+        renderWindow();
+    }
+    
+    /**
+     * Update a single sweet card in place (after purchase or restock)
+     * @param {Object} sweet - Updated sweet
+     * @returns {boolean} True if the sweet is part of the current list
+     */
+    function updateSweetCard(sweet) {
+        const index = indexById.get(sweet.id);
+        if (index === undefined) return false;
+        
+        currentSweets[index] = sweet;
+        const card = cardElements.get(sweet.id);
+        if (card) {
+            patchCardElement(card, sweet);
+        }
+        return true;
+    }
+    
+    /**
+     * Render the rows intersecting the viewport plus a small overscan
+     */
+    function renderWindow() {
+        frameRequested = false;
+        if (currentSweets.length === 0) return;
+        
+        const grid = document.getElementById('sweetsGrid');
+        const rowSize = rowHeight || DEFAULT_ROW_HEIGHT;
+        const totalRows = Math.ceil(currentSweets.length / columns);
+        const viewportTop = Math.max(0, -grid.getBoundingClientRect().top);
+        
+        const firstRow = Math.max(0, Math.floor(viewportTop / rowSize) - OVERSCAN_ROWS);
+        const lastRow = Math.min(totalRows - 1,
+            Math.ceil((viewportTop + window.innerHeight) / rowSize) + OVERSCAN_ROWS);
+        
+        grid.style.paddingTop = `${firstRow * rowSize}px`;
+        grid.style.paddingBottom = `${Math.max(0, totalRows - lastRow - 1) * rowSize}px`;
+        syncCards(grid, currentSweets.slice(firstRow * columns, (lastRow + 1) * columns));
+        
+        // Re-render once if the measured layout differs from the estimate
+        const previousColumns = columns;
+        const previousRowHeight = rowHeight;
+        measureLayout(grid);
+        if (columns !== previousColumns || rowHeight !== previousRowHeight) {
+            scheduleRender();
+        }
+    }
+    
+    /**
+     * Make the grid children match the visible sweets, keyed by ID
+     */
+    function syncCards(grid, visible) {
+        const visibleIds = new Set(visible.map(sweet => sweet.id));
+        cardElements.forEach((card, id) => {
+            if (!visibleIds.has(id)) {
+                card.remove();
+                cardElements.delete(id);
+            }
+        });
+        
+        let cursor = grid.firstElementChild;
+        visible.forEach(sweet => {
+            let card = cardElements.get(sweet.id);
+            if (card) {
+                patchCardElement(card, sweet);
+            } else {
+                card = buildCardElement(sweet);
+                cardElements.set(sweet.id, card);
+            }
+            
+            if (card === cursor) {
+                cursor = cursor.nextElementSibling;
+            } else {
+                grid.insertBefore(card, cursor);
+            }
+        });
+    }
+    
+    /**
+     * Measure column count and row height from the rendered grid
+     */
+    function measureLayout(grid) {
+        const style = window.getComputedStyle(grid);
+        const tracks = style.gridTemplateColumns.split(' ').filter(track => track && track !== 'none');
+        columns = Math.max(1, tracks.length);
+        
+        const firstCard = grid.querySelector('.sweet-card');
+        if (firstCard) {
+            rowHeight = firstCard.offsetHeight + (parseFloat(style.rowGap) || 0);
+        }
+    }
+    
+    /**
+     * Coalesce scroll and resize events into one render per frame
+     */
+    function scheduleRender() {
+        if (frameRequested) return;
+        frameRequested = true;
+        window.requestAnimationFrame(renderWindow);
+    }
+    
+    function attachScrollListeners() {
+        if (scrollListenersAttached) return;
+        scrollListenersAttached = true;
+        window.addEventListener('scroll', scheduleRender, { passive: true });
+        window.addEventListener('resize', scheduleRender);
+    }
+    
+    /**
+     * Build a card DOM node from its HTML template
+     */
+    function buildCardElement(sweet) {
+        const template = document.createElement('template');
+        template.innerHTML = createSweetCard(sweet).trim();
+        const card = template.content.firstElementChild;
+        rememberCardState(card, sweet);
+        return card;
+    }
+    
+    /**
+     * Patch only the card fields that changed
+     */
+    function patchCardElement(card, sweet) {
+        if (card.dataset.name !== sweet.name) {
+            card.querySelector('.card-title').textContent = sweet.name;
+        }
+        if (card.dataset.category !== sweet.category) {
+            card.querySelector('.card-badge').textContent = sweet.category;
+        }
+        if (card.dataset.price !== String(sweet.price)) {
+            card.querySelector('.price-value').textContent = `₹${sweet.price}`;
+        }
+        if (card.dataset.quantity !== String(sweet.quantity)) {
+            const stock = card.querySelector('.stock-value');
+            stock.textContent = sweet.quantity;
+            stock.classList.toggle('stock-low', sweet.quantity < 10);
+            stock.classList.toggle('stock-ok', sweet.quantity >= 10);
+        }
+        rememberCardState(card, sweet);
+    }
+    
+    function rememberCardState(card, sweet) {
+        card.dataset.name = sweet.name;
+        card.dataset.category = sweet.category;
+        card.dataset.price = String(sweet.price);
+        card.dataset.quantity = String(sweet.quantity);
     }
     
     /**
@@ -101,11 +267,11 @@ const UI = (function() {
                     <div class="card-info">
                         <div class="info-left">
                             <p class="info-label">Price</p>
-                            <p class="info-value">₹${sweet.price}</p>
+                            <p class="info-value price-value">₹${sweet.price}</p>
                         </div>
                         <div class="info-right">
                             <p class="info-label">Stock</p>
-                            <p class="info-value ${stockClass}">${sweet.quantity}</p>
+                            <p class="info-value stock-value ${stockClass}">${sweet.quantity}</p>
                         </div>
                     </div>
                     
@@ -228,6 +394,7 @@ const UI = (function() {
         clearForm,
         getFormData,
         renderSweets,
+        updateSweetCard,
         updateCategoryFilter,
         getFilterValues,
         getPurchaseQuantity,
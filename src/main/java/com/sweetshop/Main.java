@@ -1,9 +1,15 @@
 package com.sweetshop;
 
+import com.sweetshop.export.ExportFormat;
+import com.sweetshop.export.InventoryExporter;
 import com.sweetshop.model.Sweet;
+import com.sweetshop.service.FuzzyNameIndex;
+import com.sweetshop.service.SearchCache;
 import com.sweetshop.service.SweetShop;
 import com.sweetshop.exception.InsufficientStockException;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
@@ -16,6 +22,8 @@ import java.util.Scanner;
  */
 public class Main {
     private static final SweetShop shop = new SweetShop();
+    private static final SearchCache searchCache = new SearchCache(shop, 256);
+    private static final FuzzyNameIndex fuzzyNames = new FuzzyNameIndex(shop);
     private static final Scanner scanner = new Scanner(System.in);
     
     public static void main(String[] args) {
@@ -58,6 +66,9 @@ public class Main {
                 case 8:
                     displayStatistics();
                     break;
+                case 9:
+                    exportInventory();
+                    break;
                 case 0:
                     running = false;
                     System.out.println("Thank you for using Sweet Shop Management System!");
@@ -88,6 +99,7 @@ public class Main {
         System.out.println("│ 6. Restock Sweet                        │");
         System.out.println("│ 7. Sort Sweets                          │");
         System.out.println("│ 8. Display Statistics                   │");
+        System.out.println("│ 9. Export Inventory                     │");
         System.out.println("│ 0. Exit                                 │");
         System.out.println("└─────────────────────────────────────────┘");
     }
@@ -194,6 +206,7 @@ public class Main {
         System.out.println("1. Search by Name");
         System.out.println("2. Search by Category");
         System.out.println("3. Search by Price Range");
+        System.out.println("4. Search by Name (typo-tolerant)");
         
         int choice = getIntInput("Enter choice: ");
         List<Sweet> results = null;
@@ -201,22 +214,26 @@ public class Main {
         switch (choice) {
             case 1:
                 String name = getStringInput("Enter name to search: ");
-                results = shop.searchByName(name);
+                results = searchCache.searchByName(name);
                 break;
             case 2:
                 String category = getStringInput("Enter category: ");
-                results = shop.searchByCategory(category);
+                results = searchCache.searchByCategory(category);
                 break;
             case 3:
                 double minPrice = getDoubleInput("Enter minimum price: ");
                 double maxPrice = getDoubleInput("Enter maximum price: ");
                 try {
-                    results = shop.searchByPriceRange(minPrice, maxPrice);
+                    results = searchCache.searchByPriceRange(minPrice, maxPrice);
                 } catch (IllegalArgumentException e) {
                     System.out.println("❌ Error: " + e.getMessage());
                     return;
                 }
                 break;
+            case 4:
+                String approximate = getStringInput("Enter name to search: ");
+                results = fuzzyNames.search(approximate, 2, 10);
+                break;
             default:
                 System.out.println("❌ Invalid choice.");
                 return;
@@ -269,7 +286,7 @@ public class Main {
         try {
             shop.purchaseSweet(id, quantity);
             System.out.println("✅ Purchased " + quantity + " " + sweet.getName() + "(s) successfully!");
-            System.out.println("Remaining stock: " + sweet.getQuantity());
+            System.out.println("Remaining stock: " + shop.getSweet(id).getQuantity());
         } catch (InsufficientStockException e) {
             System.out.println("❌ " + e.getMessage());
         } catch (Exception e) {
@@ -300,7 +317,7 @@ public class Main {
         try {
             shop.restockSweet(id, quantity);
             System.out.println("✅ Restocked " + quantity + " " + sweet.getName() + "(s) successfully!");
-            System.out.println("New stock: " + sweet.getQuantity());
+            System.out.println("New stock: " + shop.getSweet(id).getQuantity());
         } catch (Exception e) {
             System.out.println("❌ Error: " + e.getMessage());
         }
@@ -377,6 +394,35 @@ public class Main {
         }
     }
     
+    /**
+     * Export the inventory to a CSV, JSON or columnar file
+     */
+    private static void exportInventory() {
+        System.out.println("💾 Export Inventory");
+        System.out.println("─".repeat(40));
+        System.out.println("1. CSV");
+        System.out.println("2. JSON");
+        System.out.println("3. Columnar");
+        
+        int choice = getIntInput("Choose format: ");
+        if (choice < 1 || choice > ExportFormat.values().length) {
+            System.out.println("❌ Invalid choice.");
+            return;
+        }
+        ExportFormat format = ExportFormat.values()[choice - 1];
+        String file = getStringInput("Enter file name: ");
+        if (file.isEmpty()) {
+            file = "inventory." + format.getExtension();
+        }
+        
+        try {
+            long rows = new InventoryExporter().export(shop.snapshot(), format, Paths.get(file));
+            System.out.println("\n✅ Exported " + rows + " sweet(s) to " + file);
+        } catch (IOException e) {
+            System.out.println("❌ Error: " + e.getMessage());
+        }
+    }
+    
     // ==================== Helper Methods for Input ====================
     
     /**
@@ -0,0 +1,475 @@
+package com.sweetshop.analytics;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventoryListener;
+import com.sweetshop.service.SweetShop;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Demand forecasting and replenishment for a SweetShop
+ * 
+ * Registered as an InventoryListener, the engine keeps per-sweet state
+ * in primitive arrays: a time-decayed exponentially weighted sales rate
+ * (updated in O(1) per purchase and decayed lazily on read), the last
+ * seen stock and the quantity already on order. Every purchase, restock
+ * or addition puts the sweet on a dirty queue, and each tick evaluates
+ * only the queued sweets, so a tick costs O(changed sweets) however
+ * large the catalog is. A sweet with no events can only see its
+ * velocity fall, which never creates a new reorder.
+ * 
+ * Event callbacks run under the shop's write lock, so they only touch
+ * the arrays under the engine's monitor. A tick holds the monitor just
+ * long enough to swap the dirty queue out and copy the queued sweets'
+ * state, evaluates them without it, and takes it again to record the
+ * results.
+ * 
+ * In SUGGEST mode crossings of the reorder point become suggestions,
+ * at most one per sweet until it is restocked, and at most
+ * MAX_SUGGESTIONS pending (the oldest are dropped first); in AUTO mode
+ * they become orders that restock the shop after the policy's lead
+ * time on the scheduler.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class ReplenishmentEngine implements InventoryListener {
+    private static final double DAY_MILLIS = 24.0 * 60 * 60 * 1000;
+    private static final int DELETED = -1;
+    /** Largest number of undrained suggestions kept */
+    public static final int MAX_SUGGESTIONS = 4096;
+
+    /**
+     * What to do when a sweet crosses its reorder point
+     */
+    public enum Mode {
+        /** Record a RestockSuggestion */
+        SUGGEST,
+        /** Restock the shop automatically after the lead time */
+        AUTO
+    }
+
+    private final SweetShop shop;
+    private final ReplenishmentPolicy policy;
+    private final Mode mode;
+    private final LongSupplier clock;
+    private final double tau;
+
+    private int[] ids = new int[1024];
+    private double[] rates = new double[1024];
+    private long[] lastSale = new long[1024];
+    private int[] stock = new int[1024];
+    private int[] onOrder = new int[1024];
+    private boolean[] dirty = new boolean[1024];
+    private boolean[] suggested = new boolean[1024];
+    private int count;
+    private final IdIndex index = new IdIndex();
+
+    private int[] dirtyQueue = new int[1024];
+    private int[] spareQueue = new int[1024];
+    private int dirtyCount;
+
+    private final Object tickLock = new Object();
+    private final ArrayDeque<RestockSuggestion> suggestions = new ArrayDeque<>();
+    private volatile ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> ticker;
+
+    /**
+     * Constructor - uses the system clock
+     * 
+     * @param shop the shop to replenish
+     * @param policy replenishment tuning
+     * @param mode suggest or restock automatically
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ReplenishmentEngine(SweetShop shop, ReplenishmentPolicy policy, Mode mode) {
+        this(shop, policy, mode, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with a custom clock (useful for testing)
+     * Registers with the shop and tracks the sweets already in it
+     * 
+     * @param shop the shop to replenish
+     * @param policy replenishment tuning
+     * @param mode suggest or restock automatically
+     * @param clock supplier of epoch milliseconds
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ReplenishmentEngine(SweetShop shop, ReplenishmentPolicy policy, Mode mode, LongSupplier clock) {
+        if (shop == null || policy == null || mode == null || clock == null) {
+            throw new IllegalArgumentException("Shop, policy, mode and clock cannot be null");
+        }
+        this.shop = shop;
+        this.policy = policy;
+        this.mode = mode;
+        this.clock = clock;
+        this.tau = policy.getHalfLifeMillis() / Math.log(2);
+        synchronized (this) {
+            shop.addListener(this);
+            for (Sweet sweet : shop.snapshot()) {
+                track(sweet);
+            }
+        }
+    }
+
+    /**
+     * Evaluates dirty sweets every tickMillis on the executor
+     * The executor is also used for AUTO deliveries and is not shut down
+     * by the engine
+     * 
+     * @param executor scheduler to run ticks on
+     * @param tickMillis delay between ticks
+     * @throws IllegalArgumentException if executor is null or tick is not positive
+     */
+    public synchronized void start(ScheduledExecutorService executor, long tickMillis) {
+        if (executor == null || tickMillis <= 0) {
+            throw new IllegalArgumentException("Executor cannot be null and tick must be positive");
+        }
+        if (ticker != null) {
+            ticker.cancel(false);
+        }
+        scheduler = executor;
+        ticker = executor.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops scheduled ticks (deliveries already scheduled still happen)
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    /**
+     * Evaluates every sweet that changed since the last tick
+     * 
+     * @return number of sweets evaluated
+     */
+    public int tick() {
+        synchronized (tickLock) {
+            int[] queue;
+            int evaluated;
+            double[] itemRates;
+            long[] itemLastSale;
+            int[] itemStock;
+            long now;
+            synchronized (this) {
+                now = clock.getAsLong();
+                queue = dirtyQueue;
+                evaluated = dirtyCount;
+                dirtyQueue = spareQueue.length >= queue.length ? spareQueue : new int[queue.length];
+                dirtyCount = 0;
+                itemRates = new double[evaluated];
+                itemLastSale = new long[evaluated];
+                itemStock = new int[evaluated];
+                for (int i = 0; i < evaluated; i++) {
+                    int item = queue[i];
+                    dirty[item] = false;
+                    itemRates[i] = rates[item];
+                    itemLastSale[i] = lastSale[item];
+                    itemStock[i] = stock[item];
+                }
+            }
+
+            // forecast without the monitor, so purchases are not held up
+            double[] velocities = new double[evaluated];
+            for (int i = 0; i < evaluated; i++) {
+                if (itemStock[i] != DELETED) {
+                    velocities[i] = decay(itemRates[i], itemLastSale[i], now);
+                }
+            }
+
+            List<int[]> orders = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < evaluated; i++) {
+                    int[] order = decide(queue[i], velocities[i], now);
+                    if (order != null) {
+                        orders.add(order);
+                    }
+                }
+                spareQueue = queue;
+            }
+            schedule(orders);
+            return evaluated;
+        }
+    }
+
+    private void schedule(List<int[]> orders) {
+        ScheduledExecutorService executor = scheduler;
+        for (int[] order : orders) {
+            if (executor != null && !executor.isShutdown()) {
+                executor.schedule(() -> deliver(order[0], order[1]),
+                        policy.getLeadTimeMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                deliver(order[0], order[1]);
+            }
+        }
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Get the forecast sales velocity of a sweet
+     * 
+     * @param sweetId the ID of the sweet
+     * @return units per day (0 for unknown sweets)
+     */
+    public synchronized double getUnitsPerDay(int sweetId) {
+        int item = index.get(sweetId);
+        return item < 0 ? 0.0 : velocity(item, clock.getAsLong()) * DAY_MILLIS;
+    }
+
+    /**
+     * Get the current reorder point of a sweet
+     * 
+     * @param sweetId the ID of the sweet
+     * @return units (0 for unknown sweets)
+     */
+    public synchronized int getReorderPoint(int sweetId) {
+        int item = index.get(sweetId);
+        return item < 0 ? 0 : reorderPoint(velocity(item, clock.getAsLong()));
+    }
+
+    /**
+     * Get the quantity ordered but not yet delivered
+     * 
+     * @param sweetId the ID of the sweet
+     * @return units on order
+     */
+    public synchronized int getOnOrder(int sweetId) {
+        int item = index.get(sweetId);
+        return item < 0 ? 0 : onOrder[item];
+    }
+
+    /**
+     * Returns and clears the pending suggestions (SUGGEST mode)
+     * 
+     * @return suggestions in the order they were made
+     */
+    public synchronized List<RestockSuggestion> drainSuggestions() {
+        // sweets stay marked as suggested until they are restocked
+        List<RestockSuggestion> drained = Collections.unmodifiableList(new ArrayList<>(suggestions));
+        suggestions.clear();
+        return drained;
+    }
+
+    // ==================== Event Capture ====================
+
+    @Override
+    public synchronized void onSweetAdded(Sweet sweet) {
+        track(sweet);
+    }
+
+    @Override
+    public synchronized void onSweetDeleted(Sweet sweet) {
+        int item = index.get(sweet.getId());
+        if (item >= 0) {
+            stock[item] = DELETED;
+        }
+    }
+
+    @Override
+    public synchronized void onPurchase(Sweet sweet, int quantity) {
+        int item = index.get(sweet.getId());
+        if (item < 0) {
+            item = track(sweet);
+        }
+        long now = clock.getAsLong();
+        rates[item] = velocity(item, now) + quantity / tau;
+        lastSale[item] = now;
+        stock[item] = sweet.getQuantity();
+        markDirty(item);
+    }
+
+    @Override
+    public synchronized void onRestock(Sweet sweet, int quantity) {
+        int item = index.get(sweet.getId());
+        if (item < 0) {
+            item = track(sweet);
+        }
+        stock[item] = sweet.getQuantity();
+        suggested[item] = false;
+        markDirty(item);
+    }
+
+    @Override
+    public synchronized void onInventoryCleared() {
+        for (int item = 0; item < count; item++) {
+            stock[item] = DELETED;
+        }
+    }
+
+    // ==================== Forecasting ====================
+
+    /**
+     * Decays the stored rate to now; a rate is units per millisecond
+     */
+    private double velocity(int item, long now) {
+        return decay(rates[item], lastSale[item], now);
+    }
+
+    private double decay(double rate, long since, long now) {
+        return rate * Math.exp(-Math.max(0, now - since) / tau);
+    }
+
+    private int reorderPoint(double velocity) {
+        return (int) Math.ceil(velocity * (policy.getLeadTimeMillis() + policy.getSafetyMillis()));
+    }
+
+    /**
+     * Decides whether a sweet needs an order, given the velocity forecast
+     * for the tick and its current stock; must hold the monitor
+     * @return {sweetId, quantity} for AUTO mode, otherwise null
+     */
+    private int[] decide(int item, double velocity, long now) {
+        int itemStock = stock[item];
+        if (itemStock == DELETED || velocity <= 0) {
+            return null;
+        }
+        if (mode == Mode.SUGGEST && suggested[item]) {
+            return null;
+        }
+        int reorderPoint = reorderPoint(velocity);
+        long position = (long) itemStock + onOrder[item];
+        if (position > reorderPoint) {
+            return null;
+        }
+        long target = reorderPoint + (long) Math.ceil(velocity * policy.getCoverMillis());
+        int quantity = (int) Math.min(Integer.MAX_VALUE, Math.max(policy.getMinimumOrder(), target - position));
+        if (mode == Mode.SUGGEST) {
+            if (suggestions.size() == MAX_SUGGESTIONS) {
+                int dropped = index.get(suggestions.poll().getSweetId());
+                if (dropped >= 0) {
+                    suggested[dropped] = false;
+                }
+            }
+            suggested[item] = true;
+            suggestions.add(new RestockSuggestion(ids[item], quantity, itemStock, reorderPoint,
+                    velocity * DAY_MILLIS, now));
+            return null;
+        }
+        onOrder[item] += quantity;
+        return new int[] { ids[item], quantity };
+    }
+
+    private void deliver(int sweetId, int quantity) {
+        try {
+            shop.restockSweet(sweetId, quantity);
+        } catch (IllegalArgumentException e) {
+            // sweet was deleted while the order was outstanding
+        } finally {
+            synchronized (this) {
+                int item = index.get(sweetId);
+                if (item >= 0) {
+                    onOrder[item] = Math.max(0, onOrder[item] - quantity);
+                }
+            }
+        }
+    }
+
+    // ==================== Storage ====================
+
+    private int track(Sweet sweet) {
+        int item = index.get(sweet.getId());
+        if (item < 0) {
+            if (count == ids.length) {
+                grow();
+            }
+            item = count++;
+            ids[item] = sweet.getId();
+            index.put(sweet.getId(), item);
+        }
+        stock[item] = sweet.getQuantity();
+        suggested[item] = false;
+        markDirty(item);
+        return item;
+    }
+
+    private void markDirty(int item) {
+        if (dirty[item]) {
+            return;
+        }
+        dirty[item] = true;
+        if (dirtyCount == dirtyQueue.length) {
+            dirtyQueue = Arrays.copyOf(dirtyQueue, dirtyQueue.length * 2);
+        }
+        dirtyQueue[dirtyCount++] = item;
+    }
+
+    private void grow() {
+        int size = ids.length * 2;
+        ids = Arrays.copyOf(ids, size);
+        rates = Arrays.copyOf(rates, size);
+        lastSale = Arrays.copyOf(lastSale, size);
+        stock = Arrays.copyOf(stock, size);
+        onOrder = Arrays.copyOf(onOrder, size);
+        dirty = Arrays.copyOf(dirty, size);
+        suggested = Arrays.copyOf(suggested, size);
+    }
+
+    /**
+     * Open-addressed map from sweet ID to dense item index
+     */
+    private static final class IdIndex {
+        private int[] keys = new int[2048];
+        private int[] values = new int[2048];
+        private boolean[] used = new boolean[2048];
+        private int size;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            used[slot] = true;
+            size++;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new int[capacity];
+            values = new int[capacity];
+            used = new boolean[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
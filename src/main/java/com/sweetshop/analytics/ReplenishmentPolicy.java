@@ -0,0 +1,88 @@
+package com.sweetshop.analytics;
+
+/**
+ * Tuning for a ReplenishmentEngine
+ * Reorder point = velocity x (lead time + safety time); an order tops
+ * the stock position up to the reorder point plus velocity x cover time
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class ReplenishmentPolicy {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    /** One-day half-life, two-day lead time, one day of safety stock, one week of cover */
+    public static final ReplenishmentPolicy DEFAULT =
+            new ReplenishmentPolicy(DAY_MILLIS, 2 * DAY_MILLIS, DAY_MILLIS, 7 * DAY_MILLIS, 1);
+
+    private final long halfLifeMillis;
+    private final long leadTimeMillis;
+    private final long safetyMillis;
+    private final long coverMillis;
+    private final int minimumOrder;
+
+    /**
+     * Constructor
+     * 
+     * @param halfLifeMillis time for an old sale's weight in the velocity to halve
+     * @param leadTimeMillis time from placing an order to its delivery
+     * @param safetyMillis extra demand to cover beyond the lead time
+     * @param coverMillis demand each order should cover once delivered
+     * @param minimumOrder smallest quantity to order
+     * @throws IllegalArgumentException if any value is out of range
+     */
+    public ReplenishmentPolicy(long halfLifeMillis, long leadTimeMillis, long safetyMillis,
+                               long coverMillis, int minimumOrder) {
+        if (halfLifeMillis <= 0 || coverMillis <= 0 || minimumOrder <= 0) {
+            throw new IllegalArgumentException("Half-life, cover and minimum order must be positive");
+        }
+        if (leadTimeMillis < 0 || safetyMillis < 0) {
+            throw new IllegalArgumentException("Lead time and safety time cannot be negative");
+        }
+        this.halfLifeMillis = halfLifeMillis;
+        this.leadTimeMillis = leadTimeMillis;
+        this.safetyMillis = safetyMillis;
+        this.coverMillis = coverMillis;
+        this.minimumOrder = minimumOrder;
+    }
+
+    /**
+     * Get the velocity half-life
+     * @return milliseconds
+     */
+    public long getHalfLifeMillis() {
+        return halfLifeMillis;
+    }
+
+    /**
+     * Get the delivery lead time
+     * @return milliseconds
+     */
+    public long getLeadTimeMillis() {
+        return leadTimeMillis;
+    }
+
+    /**
+     * Get the safety time
+     * @return milliseconds
+     */
+    public long getSafetyMillis() {
+        return safetyMillis;
+    }
+
+    /**
+     * Get the cover time
+     * @return milliseconds
+     */
+    public long getCoverMillis() {
+        return coverMillis;
+    }
+
+    /**
+     * Get the minimum order quantity
+     * @return units
+     */
+    public int getMinimumOrder() {
+        return minimumOrder;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sweetshop.analytics;
+
+/**
+ * Order proposed by a ReplenishmentEngine
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class RestockSuggestion {
+    private final int sweetId;
+    private final int quantity;
+    private final int stock;
+    private final int reorderPoint;
+    private final double unitsPerDay;
+    private final long createdAt;
+
+    RestockSuggestion(int sweetId, int quantity, int stock, int reorderPoint, double unitsPerDay, long createdAt) {
+        this.sweetId = sweetId;
+        this.quantity = quantity;
+        this.stock = stock;
+        this.reorderPoint = reorderPoint;
+        this.unitsPerDay = unitsPerDay;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Get the ID of the sweet to reorder
+     * @return sweet ID
+     */
+    public int getSweetId() {
+        return sweetId;
+    }
+
+    /**
+     * Get the quantity to order
+     * @return units
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the stock when the suggestion was made
+     * @return units in stock
+     */
+    public int getStock() {
+        return stock;
+    }
+
+    /**
+     * Get the reorder point that was crossed
+     * @return units
+     */
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    /**
+     * Get the sales velocity the suggestion is based on
+     * @return units per day
+     */
+    public double getUnitsPerDay() {
+        return unitsPerDay;
+    }
+
+    /**
+     * Get when the suggestion was made
+     * @return epoch milliseconds
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RestockSuggestion[id=%d, quantity=%d, stock=%d, reorderPoint=%d, perDay=%.2f]",
+                sweetId, quantity, stock, reorderPoint, unitsPerDay);
+    }
+}
@@ -0,0 +1,178 @@
+package com.sweetshop.analytics;
+
+/**
+ * Ring-buffered units and revenue totals for every SalesWindow
+ * Only buckets that saw a sale are stored, so a rarely sold sweet costs
+ * a few longs per window instead of a full ring; rings are allocated on
+ * first use and grow up to the window's bucket count. Buckets that fall
+ * out of a window are dropped as newer sales arrive, and running totals
+ * cover the window ending at the newest sale.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class RollingCounter {
+    private static final SalesWindow[] WINDOWS = SalesWindow.values();
+
+    /** Longs per stored bucket: slot number, units, revenue */
+    private static final int STRIDE = 3;
+    private static final int SLOT = 0;
+    private static final int UNITS = 1;
+    private static final int REVENUE = 2;
+    private static final int INITIAL_BUCKETS = 2;
+
+    private final long[][] rings = new long[WINDOWS.length][];
+    /** Per window: index of the oldest stored bucket, number stored */
+    private final int[] positions = new int[WINDOWS.length * 2];
+    /** Per window: running units and revenue of the stored buckets */
+    private final long[] totals = new long[WINDOWS.length * 2];
+
+    /**
+     * Adds a sale to every window
+     */
+    void record(long timestamp, int quantity, long revenueMinor) {
+        for (SalesWindow window : WINDOWS) {
+            record(window, Math.floorDiv(timestamp, window.getBucketMillis()), quantity, revenueMinor);
+        }
+    }
+
+    private void record(SalesWindow window, long slot, int quantity, long revenueMinor) {
+        int w = window.ordinal();
+        long[] ring = rings[w];
+        if (ring == null) {
+            ring = rings[w] = new long[INITIAL_BUCKETS * STRIDE];
+        }
+        int capacity = ring.length / STRIDE;
+        int head = positions[2 * w];
+        int count = positions[2 * w + 1];
+        int index;
+        if (count > 0 && ring[((head + count - 1) % capacity) * STRIDE + SLOT] == slot) {
+            index = (head + count - 1) % capacity;
+        } else if (count == 0 || slot > ring[((head + count - 1) % capacity) * STRIDE + SLOT]) {
+            while (count > 0 && ring[head * STRIDE + SLOT] <= slot - window.getBuckets()) {
+                totals[2 * w] -= ring[head * STRIDE + UNITS];
+                totals[2 * w + 1] -= ring[head * STRIDE + REVENUE];
+                head = (head + 1) % capacity;
+                count--;
+            }
+            if (count == capacity) {
+                ring = grow(w, head, count, window);
+                capacity = ring.length / STRIDE;
+                head = 0;
+            }
+            index = (head + count) % capacity;
+            ring[index * STRIDE + SLOT] = slot;
+            ring[index * STRIDE + UNITS] = 0;
+            ring[index * STRIDE + REVENUE] = 0;
+            count++;
+        } else {
+            index = insertLate(w, window, slot);
+            if (index < 0) {
+                return;
+            }
+            ring = rings[w];
+            head = positions[2 * w];
+            count = positions[2 * w + 1];
+        }
+        ring[index * STRIDE + UNITS] += quantity;
+        ring[index * STRIDE + REVENUE] += revenueMinor;
+        totals[2 * w] += quantity;
+        totals[2 * w + 1] += revenueMinor;
+        positions[2 * w] = head;
+        positions[2 * w + 1] = count;
+    }
+
+    /**
+     * Finds or makes room for a bucket older than the newest stored one
+     * (a clock that stepped back); rare, so it keeps the ring simple by
+     * laying it out from index 0 first
+     *
+     * @return index of the bucket, or -1 if it is already outside the window
+     */
+    private int insertLate(int w, SalesWindow window, long slot) {
+        long[] ring = grow(w, positions[2 * w], positions[2 * w + 1], window);
+        int count = positions[2 * w + 1];
+        if (slot <= ring[(count - 1) * STRIDE + SLOT] - window.getBuckets()) {
+            return -1;
+        }
+        int at = count;
+        while (at > 0 && ring[(at - 1) * STRIDE + SLOT] > slot) {
+            at--;
+        }
+        if (at > 0 && ring[(at - 1) * STRIDE + SLOT] == slot) {
+            return at - 1;
+        }
+        System.arraycopy(ring, at * STRIDE, ring, (at + 1) * STRIDE, (count - at) * STRIDE);
+        ring[at * STRIDE + SLOT] = slot;
+        ring[at * STRIDE + UNITS] = 0;
+        ring[at * STRIDE + REVENUE] = 0;
+        positions[2 * w + 1] = count + 1;
+        return at;
+    }
+
+    /**
+     * Copies a ring out oldest first into an array with room for one
+     * more bucket, up to the window's bucket count
+     */
+    private long[] grow(int w, int head, int count, SalesWindow window) {
+        long[] ring = rings[w];
+        int capacity = ring.length / STRIDE;
+        int grown = count < capacity ? capacity : Math.min(window.getBuckets(), capacity * 2);
+        long[] copy = new long[Math.max(grown, count + 1) * STRIDE];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(ring, ((head + i) % capacity) * STRIDE, copy, i * STRIDE, STRIDE);
+        }
+        rings[w] = copy;
+        positions[2 * w] = 0;
+        return copy;
+    }
+
+    /**
+     * Units in the window ending at the newest sale
+     */
+    long recentUnits(SalesWindow window) {
+        return totals[2 * window.ordinal()];
+    }
+
+    /**
+     * Revenue (minor units) in the window ending at the newest sale
+     */
+    long recentRevenue(SalesWindow window) {
+        return totals[2 * window.ordinal() + 1];
+    }
+
+    /**
+     * Sums units sold in the window ending at now
+     */
+    long units(SalesWindow window, long now) {
+        return sum(window, now, UNITS);
+    }
+
+    /**
+     * Sums revenue (minor units) in the window ending at now
+     */
+    long revenue(SalesWindow window, long now) {
+        return sum(window, now, REVENUE);
+    }
+
+    private long sum(SalesWindow window, long now, int field) {
+        int w = window.ordinal();
+        long[] ring = rings[w];
+        if (ring == null) {
+            return 0;
+        }
+        int capacity = ring.length / STRIDE;
+        int head = positions[2 * w];
+        int count = positions[2 * w + 1];
+        long current = Math.floorDiv(now, window.getBucketMillis());
+        long oldest = current - window.getBuckets();
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            int index = ((head + i) % capacity) * STRIDE;
+            if (ring[index + SLOT] > oldest && ring[index + SLOT] <= current) {
+                total += ring[index + field];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,427 @@
+package com.sweetshop.analytics;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventoryListener;
+import com.sweetshop.service.PriceResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process sales ledger
+ * Register with SweetShop.addListener to record every purchase in an
+ * append-only, primitive-packed log and in ring-buffered rolling windows
+ * (1 minute, 1 hour, 24 hours) per sweet, per category and overall
+ * 
+ * Per-sweet windows store only the buckets that saw a sale. Recording
+ * also updates, per window, bounded min-heaps of the best sellers by
+ * units and by revenue (TRACKED entries each), re-scored whenever a
+ * window moves to a new bucket. Top-N queries read those heaps, so they
+ * cost the same however many sweets have sold; the result is exact as
+ * long as the leaders stay among the tracked entries, and a sweet that
+ * dropped out re-enters on its next sale. Larger limits scan every sweet.
+ * 
+ * Revenue is reported exactly, in paise. Categories are matched ignoring
+ * case, as in the shop's category search.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class SalesLedger implements InventoryListener {
+    private static final int CHUNK_RECORDS = 1 << 14;
+    private static final int LONGS_PER_RECORD = 3;
+    private static final int TRACKED = 128;
+
+    private final LongSupplier clock;
+    private final PriceResolver prices;
+    private long[][] chunks = new long[16][];
+    private int size;
+
+    private final Map<Integer, ItemSales> items = new HashMap<>();
+    /** Counters by case-folded category */
+    private final Map<String, RollingCounter> categories = new HashMap<>();
+    /** The same counters by category as sweets spell it, so a sale folds nothing */
+    private final Map<String, RollingCounter> categorySpellings = new HashMap<>();
+    private final RollingCounter overall = new RollingCounter();
+    private final Tracker[] trackers = new Tracker[SalesWindow.values().length * 2];
+
+    /**
+     * Visitor for raw ledger records
+     */
+    @FunctionalInterface
+    public interface SaleVisitor {
+        /**
+         * Called once per recorded sale, oldest first
+         * 
+         * @param timestamp sale time in epoch milliseconds
+         * @param sweetId the ID of the sweet sold
+         * @param quantity units sold
+         * @param unitPriceMinor unit price in paise
+         */
+        void visit(long timestamp, int sweetId, int quantity, long unitPriceMinor);
+    }
+
+    /**
+     * Constructor - uses the system clock
+     */
+    public SalesLedger() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with a custom clock (useful for testing)
+     * 
+     * @param clock supplier of epoch milliseconds
+     * @throws IllegalArgumentException if clock is null
+     */
+    public SalesLedger(LongSupplier clock) {
+        this(clock, PriceResolver.LIST_PRICE);
+    }
+
+    /**
+     * Constructor recording sales at effective prices
+     * Pass the shop's PricingEngine so revenue reflects promotions
+     * 
+     * @param clock supplier of epoch milliseconds
+     * @param prices resolver for the unit price charged
+     * @throws IllegalArgumentException if clock or prices is null
+     */
+    public SalesLedger(LongSupplier clock, PriceResolver prices) {
+        if (clock == null || prices == null) {
+            throw new IllegalArgumentException("Clock and price resolver cannot be null");
+        }
+        this.clock = clock;
+        this.prices = prices;
+        for (SalesWindow window : SalesWindow.values()) {
+            trackers[tracker(window, false)] = new Tracker(window, false, tracker(window, false));
+            trackers[tracker(window, true)] = new Tracker(window, true, tracker(window, true));
+        }
+    }
+
+    @Override
+    public void onPurchase(Sweet sweet, int quantity) {
+        record(clock.getAsLong(), sweet, quantity, prices.effectivePriceMinor(sweet));
+    }
+
+    /**
+     * Appends a sale to the log and the rolling windows
+     */
+    private synchronized void record(long timestamp, Sweet sweet, int quantity, long unitPriceMinor) {
+        int chunk = size / CHUNK_RECORDS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new long[CHUNK_RECORDS * LONGS_PER_RECORD];
+        }
+        int offset = (size % CHUNK_RECORDS) * LONGS_PER_RECORD;
+        chunks[chunk][offset] = timestamp;
+        chunks[chunk][offset + 1] = ((long) sweet.getId() << 32) | (quantity & 0xFFFFFFFFL);
+        chunks[chunk][offset + 2] = unitPriceMinor;
+        size++;
+
+        long revenueMinor = unitPriceMinor * quantity;
+        ItemSales item = items.get(sweet.getId());
+        if (item == null) {
+            item = new ItemSales(sweet.getId());
+            items.put(sweet.getId(), item);
+        }
+        item.sweet = sweet;
+        item.counter.record(timestamp, quantity, revenueMinor);
+        for (Tracker tracker : trackers) {
+            tracker.sweep(timestamp);
+            tracker.offer(item, tracker.byRevenue ? item.counter.recentRevenue(tracker.window)
+                    : item.counter.recentUnits(tracker.window));
+        }
+        String category = sweet.getCategory();
+        if (category != null) {
+            RollingCounter counter = categorySpellings.get(category);
+            if (counter == null) {
+                counter = categories.computeIfAbsent(fold(category), folded -> new RollingCounter());
+                categorySpellings.put(category, counter);
+            }
+            counter.record(timestamp, quantity, revenueMinor);
+        }
+        overall.record(timestamp, quantity, revenueMinor);
+    }
+
+    /**
+     * Returns the number of sales recorded
+     * 
+     * @return ledger size
+     */
+    public synchronized int getSaleCount() {
+        return size;
+    }
+
+    /**
+     * Visits every recorded sale, oldest first
+     * 
+     * @param visitor the visitor
+     */
+    public synchronized void forEachSale(SaleVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            long[] chunk = chunks[i / CHUNK_RECORDS];
+            int offset = (i % CHUNK_RECORDS) * LONGS_PER_RECORD;
+            long packed = chunk[offset + 1];
+            visitor.visit(chunk[offset], (int) (packed >> 32), (int) packed, chunk[offset + 2]);
+        }
+    }
+
+    /**
+     * Total units sold in a window
+     * 
+     * @param window the window
+     * @return units sold
+     */
+    public synchronized long getUnitsSold(SalesWindow window) {
+        return overall.units(window, clock.getAsLong());
+    }
+
+    /**
+     * Total revenue in a window
+     * 
+     * @param window the window
+     * @return revenue in paise
+     */
+    public synchronized long getRevenueMinor(SalesWindow window) {
+        return overall.revenue(window, clock.getAsLong());
+    }
+
+    /**
+     * Units of one sweet sold in a window
+     * 
+     * @param sweetId the ID of the sweet
+     * @param window the window
+     * @return units sold (0 if never sold)
+     */
+    public synchronized long getUnitsSold(int sweetId, SalesWindow window) {
+        ItemSales item = items.get(sweetId);
+        return item == null ? 0 : item.counter.units(window, clock.getAsLong());
+    }
+
+    /**
+     * Revenue of one sweet in a window
+     * 
+     * @param sweetId the ID of the sweet
+     * @param window the window
+     * @return revenue in paise (0 if never sold)
+     */
+    public synchronized long getRevenueMinor(int sweetId, SalesWindow window) {
+        ItemSales item = items.get(sweetId);
+        return item == null ? 0 : item.counter.revenue(window, clock.getAsLong());
+    }
+
+    /**
+     * Units of a category sold in a window
+     * 
+     * @param category the category (case-insensitive)
+     * @param window the window
+     * @return units sold (0 if never sold)
+     */
+    public synchronized long getCategoryUnitsSold(String category, SalesWindow window) {
+        RollingCounter counter = categories.get(fold(category));
+        return counter == null ? 0 : counter.units(window, clock.getAsLong());
+    }
+
+    /**
+     * Revenue of a category in a window
+     * 
+     * @param category the category (case-insensitive)
+     * @param window the window
+     * @return revenue in paise (0 if never sold)
+     */
+    public synchronized long getCategoryRevenueMinor(String category, SalesWindow window) {
+        RollingCounter counter = categories.get(fold(category));
+        return counter == null ? 0 : counter.revenue(window, clock.getAsLong());
+    }
+
+    private static String fold(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Best sellers by units in a window, highest first
+     * 
+     * @param window the window
+     * @param limit maximum number of results
+     * @return top sellers
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public List<SalesTotal> getTopSellers(SalesWindow window, int limit) {
+        return top(window, limit, false);
+    }
+
+    /**
+     * Best sellers by revenue in a window, highest first
+     * 
+     * @param window the window
+     * @param limit maximum number of results
+     * @return top earners
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public List<SalesTotal> getTopEarners(SalesWindow window, int limit) {
+        return top(window, limit, true);
+    }
+
+    private synchronized List<SalesTotal> top(SalesWindow window, int limit, boolean byRevenue) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        long now = clock.getAsLong();
+        Comparator<SalesTotal> order = Comparator.comparingLong(
+                byRevenue ? (ToLongFunction<SalesTotal>) SalesTotal::getRevenueMinor : SalesTotal::getUnits)
+                .thenComparing(Comparator.comparingInt(SalesTotal::getSweetId).reversed());
+        Collection<ItemSales> candidates;
+        if (limit > TRACKED) {
+            candidates = items.values();
+        } else {
+            Tracker tracker = trackers[tracker(window, byRevenue)];
+            tracker.sweep(now);
+            candidates = Arrays.asList(tracker.heap).subList(0, tracker.size);
+        }
+
+        List<SalesTotal> result = new ArrayList<>();
+        for (ItemSales item : candidates) {
+            long units = item.counter.units(window, now);
+            if (units > 0) {
+                result.add(new SalesTotal(item.id, item.sweet.getName(), item.sweet.getCategory(),
+                        units, item.counter.revenue(window, now)));
+            }
+        }
+        result.sort(order.reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private static int tracker(SalesWindow window, boolean byRevenue) {
+        return window.ordinal() * 2 + (byRevenue ? 1 : 0);
+    }
+
+    private static final class ItemSales {
+        final int id;
+        final RollingCounter counter = new RollingCounter();
+        /** Position in each tracker's heap, -1 when not tracked */
+        final int[] heapIndex = new int[SalesWindow.values().length * 2];
+        Sweet sweet;
+
+        ItemSales(int id) {
+            this.id = id;
+            Arrays.fill(heapIndex, -1);
+        }
+    }
+
+    /**
+     * Bounded min-heap of the sweets with the most units (or revenue) in
+     * one window; scores are recomputed whenever the window moves to a
+     * new bucket and only grow in between, so the root is always the
+     * weakest tracked sweet
+     */
+    private static final class Tracker {
+        final SalesWindow window;
+        final boolean byRevenue;
+        final int index;
+        final ItemSales[] heap = new ItemSales[TRACKED];
+        final long[] scores = new long[TRACKED];
+        int size;
+        long sweptSlot = Long.MIN_VALUE;
+
+        Tracker(SalesWindow window, boolean byRevenue, int index) {
+            this.window = window;
+            this.byRevenue = byRevenue;
+            this.index = index;
+        }
+
+        void offer(ItemSales item, long score) {
+            int at = item.heapIndex[index];
+            if (at >= 0) {
+                scores[at] = score;
+                siftDown(siftUp(at));
+            } else if (size < TRACKED) {
+                set(size, item, score);
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                heap[0].heapIndex[index] = -1;
+                set(0, item, score);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Re-scores every tracked sweet once per bucket, dropping those
+         * whose sales have left the window
+         */
+        void sweep(long now) {
+            long slot = Math.floorDiv(now, window.getBucketMillis());
+            if (slot == sweptSlot) {
+                return;
+            }
+            sweptSlot = slot;
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                ItemSales item = heap[i];
+                long score = byRevenue ? item.counter.revenue(window, now) : item.counter.units(window, now);
+                if (score > 0) {
+                    set(kept++, item, score);
+                } else {
+                    item.heapIndex[index] = -1;
+                }
+            }
+            Arrays.fill(heap, kept, size, null);
+            size = kept;
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        private int siftUp(int at) {
+            while (at > 0) {
+                int parent = (at - 1) / 2;
+                if (scores[parent] <= scores[at]) {
+                    break;
+                }
+                swap(at, parent);
+                at = parent;
+            }
+            return at;
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int smallest = at;
+                int left = 2 * at + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (left + 1 < size && scores[left + 1] < scores[smallest]) {
+                    smallest = left + 1;
+                }
+                if (smallest == at) {
+                    return;
+                }
+                swap(at, smallest);
+                at = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            ItemSales item = heap[a];
+            long score = scores[a];
+            set(a, heap[b], scores[b]);
+            set(b, item, score);
+        }
+
+        private void set(int at, ItemSales item, long score) {
+            heap[at] = item;
+            scores[at] = score;
+            item.heapIndex[index] = at;
+        }
+    }
+}
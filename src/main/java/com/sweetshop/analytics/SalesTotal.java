@@ -0,0 +1,71 @@
+package com.sweetshop.analytics;
+
+import com.sweetshop.util.Money;
+
+/**
+ * Units and revenue of one sweet over a SalesWindow
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class SalesTotal {
+    private final int sweetId;
+    private final String name;
+    private final String category;
+    private final long units;
+    private final long revenueMinor;
+
+    SalesTotal(int sweetId, String name, String category, long units, long revenueMinor) {
+        this.sweetId = sweetId;
+        this.name = name;
+        this.category = category;
+        this.units = units;
+        this.revenueMinor = revenueMinor;
+    }
+
+    /**
+     * Get the ID of the sweet
+     * @return sweet ID
+     */
+    public int getSweetId() {
+        return sweetId;
+    }
+
+    /**
+     * Get the name of the sweet at the time of its latest sale
+     * @return sweet name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the category of the sweet at the time of its latest sale
+     * @return sweet category
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Get the number of units sold
+     * @return units sold
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Get the exact revenue
+     * @return revenue in paise
+     */
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SalesTotal[id=%d, name='%s', units=%d, revenue=%s]",
+                sweetId, name, units, Money.toPlainString(revenueMinor));
+    }
+}
@@ -0,0 +1,39 @@
+package com.sweetshop.analytics;
+
+/**
+ * Rolling time windows tracked by the SalesLedger
+ * Each window is a ring of fixed-width buckets, so a window covers its
+ * nominal span rounded to whole buckets
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public enum SalesWindow {
+    ONE_MINUTE(60, 1_000L),
+    ONE_HOUR(60, 60_000L),
+    ONE_DAY(24, 3_600_000L);
+
+    private final int buckets;
+    private final long bucketMillis;
+
+    SalesWindow(int buckets, long bucketMillis) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * Get the number of buckets in the ring
+     * @return bucket count
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Get the width of one bucket
+     * @return bucket width in milliseconds
+     */
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
@@ -4,10 +4,28 @@ package com.sweetshop.exception;
  * Custom Exception for Insufficient Stock
  * Thrown when attempting to purchase more sweets than available in stock
  * 
+ * Sold-out items can turn most checkouts into failures, so the counts
+ * constructor skips the stack trace and builds its message only when
+ * asked; a refused purchase then costs about as much as a successful one
+ * 
  * @author Sweet Shop Management System
  * @version 1.0
  */
 public class InsufficientStockException extends RuntimeException {
+    private final int available;
+    private final int requested;
+    private String message;
+    
+    /**
+     * Constructor with the stock counts (no stack trace)
+     * @param available units in stock
+     * @param requested units asked for
+     */
+    public InsufficientStockException(int available, int requested) {
+        super(null, null, false, false);
+        this.available = available;
+        this.requested = requested;
+    }
     
     /**
      * Constructor with error message
@@ -15,6 +33,9 @@ public class InsufficientStockException extends RuntimeException {
      */
     public InsufficientStockException(String message) {
         super(message);
+        this.available = -1;
+        this.requested = -1;
+        this.message = message;
     }
     
     /**
@@ -24,5 +45,34 @@ public class InsufficientStockException extends RuntimeException {
      */
     public InsufficientStockException(String message, Throwable cause) {
         super(message, cause);
+        this.available = -1;
+        this.requested = -1;
+        this.message = message;
+    }
+    
+    /**
+     * Get the units that were in stock
+     * @return available units, or -1 if not known
+     */
+    public int getAvailable() {
+        return available;
+    }
+    
+    /**
+     * Get the units that were asked for
+     * @return requested units, or -1 if not known
+     */
+    public int getRequested() {
+        return requested;
+    }
+    
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = "Insufficient stock. Available: " + available + ", Requested: " + requested;
+            message = result;
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.sweetshop.export;
+
+/**
+ * File formats supported by InventoryExporter
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public enum ExportFormat {
+    /** Comma-separated values with a header row; prices in rupees */
+    CSV("csv"),
+    /** JSON array of objects; prices in rupees */
+    JSON("json"),
+    /**
+     * Binary columnar file: a header, one row group per chunk with each
+     * column stored contiguously, and a footer with the row count
+     */
+    COLUMNAR("swcol");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Get the conventional file extension
+     * @return extension without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
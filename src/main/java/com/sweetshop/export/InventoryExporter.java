@@ -0,0 +1,381 @@
+package com.sweetshop.export;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventorySnapshot;
+import com.sweetshop.util.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Parallel file export of the inventory or any query result
+ *
+ * The rows are cut into fixed-size chunks; a wave of chunks is encoded
+ * in parallel on a fork-join pool (each chunk into its own buffer, so
+ * workers never share output state) and the wave's buffers are written
+ * in order with one gathering FileChannel write. Waves bound memory to
+ * a few chunks per worker however many rows are exported.
+ *
+ * Exports read an immutable InventorySnapshot, so purchases continue
+ * unblocked and the file is a consistent point-in-time view.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class InventoryExporter {
+    /** Magic number opening and closing a columnar file ("SWCO") */
+    public static final int COLUMNAR_MAGIC = 0x5357434F;
+    /** Columnar format version */
+    public static final int COLUMNAR_VERSION = 1;
+
+    private static final int DEFAULT_CHUNK_ROWS = 16 * 1024;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int chunkRows;
+
+    /**
+     * Constructor - uses the common fork-join pool
+     */
+    public InventoryExporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Constructor with a custom pool and chunk size
+     *
+     * @param pool pool to encode chunks on
+     * @param chunkRows rows per chunk
+     * @throws IllegalArgumentException if pool is null or chunkRows is not positive
+     */
+    public InventoryExporter(ForkJoinPool pool, int chunkRows) {
+        if (pool == null || chunkRows <= 0) {
+            throw new IllegalArgumentException("Pool cannot be null and chunk size must be positive");
+        }
+        this.pool = pool;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Exports every sweet in a snapshot
+     *
+     * @param snapshot the snapshot to export
+     * @param format file format
+     * @param target file to create or overwrite
+     * @return number of rows written
+     * @throws IOException if the file cannot be written
+     */
+    public long export(InventorySnapshot snapshot, ExportFormat format, Path target) throws IOException {
+        return export(snapshot, sweet -> true, format, target);
+    }
+
+    /**
+     * Exports the sweets in a snapshot that match a filter
+     *
+     * @param snapshot the snapshot to export
+     * @param filter rows to include
+     * @param format file format
+     * @param target file to create or overwrite
+     * @return number of rows written
+     * @throws IOException if the file cannot be written
+     */
+    public long export(InventorySnapshot snapshot, Predicate<Sweet> filter, ExportFormat format, Path target)
+            throws IOException {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        return export(snapshot.getSweets(), filter, format, target);
+    }
+
+    /**
+     * Exports a query result (e.g. SweetShop.searchByCategory)
+     *
+     * @param sweets rows to export, in order
+     * @param format file format
+     * @param target file to create or overwrite
+     * @return number of rows written
+     * @throws IOException if the file cannot be written
+     */
+    public long export(List<Sweet> sweets, ExportFormat format, Path target) throws IOException {
+        return export(sweets, sweet -> true, format, target);
+    }
+
+    private long export(List<Sweet> rows, Predicate<Sweet> filter, ExportFormat format, Path target)
+            throws IOException {
+        if (rows == null || filter == null || format == null || target == null) {
+            throw new IllegalArgumentException("Rows, filter, format and target cannot be null");
+        }
+        int chunkCount = (rows.size() + chunkRows - 1) / chunkRows;
+        int waveChunks = Math.max(1, pool.getParallelism() * CHUNKS_PER_WORKER);
+        Chunk[] wave = new Chunk[waveChunks];
+        ByteBuffer[] buffers = new ByteBuffer[waveChunks];
+        long written = 0;
+        int groups = 0;
+        boolean first = true;
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header(format));
+            for (int start = 0; start < chunkCount; start += waveChunks) {
+                int count = Math.min(waveChunks, chunkCount - start);
+                pool.invoke(new EncodeTask(rows, filter, format, wave, start, 0, count));
+                int buffered = 0;
+                for (int i = 0; i < count; i++) {
+                    Chunk chunk = wave[i];
+                    wave[i] = null;
+                    if (chunk.rows == 0) {
+                        continue;
+                    }
+                    if (first && format == ExportFormat.JSON) {
+                        chunk.bytes.position(1);
+                    }
+                    first = false;
+                    written += chunk.rows;
+                    groups++;
+                    buffers[buffered++] = chunk.bytes;
+                }
+                writeFully(channel, buffers, buffered);
+            }
+            writeFully(channel, footer(format, written, groups));
+        }
+        return written;
+    }
+
+    // ==================== Writing ====================
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Gathering write of buffers[0..count), retried until all are drained
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        int offset = 0;
+        while (offset < count) {
+            channel.write(buffers, offset, count - offset);
+            while (offset < count && !buffers[offset].hasRemaining()) {
+                buffers[offset++] = null;
+            }
+        }
+    }
+
+    private static ByteBuffer header(ExportFormat format) {
+        switch (format) {
+            case CSV:
+                return utf8("id,name,category,price,quantity\n");
+            case JSON:
+                return utf8("[");
+            default:
+                ByteBuffer header = ByteBuffer.allocate(8);
+                header.putInt(COLUMNAR_MAGIC).putInt(COLUMNAR_VERSION).flip();
+                return header;
+        }
+    }
+
+    private static ByteBuffer footer(ExportFormat format, long rows, int groups) {
+        switch (format) {
+            case CSV:
+                return ByteBuffer.allocate(0);
+            case JSON:
+                return utf8(rows == 0 ? "]\n" : "\n]\n");
+            default:
+                ByteBuffer footer = ByteBuffer.allocate(16);
+                footer.putLong(rows).putInt(groups).putInt(COLUMNAR_MAGIC).flip();
+                return footer;
+        }
+    }
+
+    private static ByteBuffer utf8(CharSequence text) {
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+    }
+
+    // ==================== Encoding ====================
+
+    /**
+     * Encoded rows of one chunk
+     */
+    private static final class Chunk {
+        final ByteBuffer bytes;
+        final int rows;
+
+        Chunk(ByteBuffer bytes, int rows) {
+            this.bytes = bytes;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Splits a wave of chunks in half until one chunk is left, then
+     * encodes it into its slot of the wave array
+     */
+    private final class EncodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Sweet> rows;
+        private final Predicate<Sweet> filter;
+        private final ExportFormat format;
+        private final Chunk[] wave;
+        private final int firstChunk;
+        private final int from;
+        private final int to;
+
+        EncodeTask(List<Sweet> rows, Predicate<Sweet> filter, ExportFormat format,
+                   Chunk[] wave, int firstChunk, int from, int to) {
+            this.rows = rows;
+            this.filter = filter;
+            this.format = format;
+            this.wave = wave;
+            this.firstChunk = firstChunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EncodeTask(rows, filter, format, wave, firstChunk, from, middle),
+                        new EncodeTask(rows, filter, format, wave, firstChunk, middle, to));
+                return;
+            }
+            int start = (firstChunk + from) * chunkRows;
+            int end = Math.min(rows.size(), start + chunkRows);
+            wave[from] = format == ExportFormat.COLUMNAR
+                    ? encodeColumnar(rows, filter, start, end)
+                    : encodeText(rows, filter, format, start, end);
+        }
+    }
+
+    private static Chunk encodeText(List<Sweet> rows, Predicate<Sweet> filter, ExportFormat format,
+                                    int start, int end) {
+        StringBuilder text = new StringBuilder((end - start) * 64);
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            Sweet sweet = rows.get(i);
+            if (!filter.test(sweet)) {
+                continue;
+            }
+            count++;
+            if (format == ExportFormat.CSV) {
+                text.append(sweet.getId()).append(',');
+                appendCsv(text, sweet.getName());
+                text.append(',');
+                appendCsv(text, sweet.getCategory());
+                text.append(',').append(Money.toPlainString(sweet.getPriceMinor()))
+                        .append(',').append(sweet.getQuantity()).append('\n');
+            } else {
+                text.append(",\n  {\"id\":").append(sweet.getId()).append(",\"name\":");
+                appendJson(text, sweet.getName());
+                text.append(",\"category\":");
+                appendJson(text, sweet.getCategory());
+                text.append(",\"price\":").append(Money.toPlainString(sweet.getPriceMinor()))
+                        .append(",\"quantity\":").append(sweet.getQuantity()).append('}');
+            }
+        }
+        return new Chunk(utf8(text), count);
+    }
+
+    /**
+     * Row group: [int rows][int ids][int quantities][long prices]
+     * [int name lengths][name bytes][int category lengths, -1 for null][category bytes]
+     */
+    private static Chunk encodeColumnar(List<Sweet> rows, Predicate<Sweet> filter, int start, int end) {
+        int[] selected = new int[end - start];
+        byte[][] names = new byte[end - start][];
+        byte[][] categories = new byte[end - start][];
+        int count = 0;
+        int stringBytes = 0;
+        for (int i = start; i < end; i++) {
+            Sweet sweet = rows.get(i);
+            if (filter.test(sweet)) {
+                names[count] = sweet.getName().getBytes(StandardCharsets.UTF_8);
+                categories[count] = sweet.getCategory() == null
+                        ? null : sweet.getCategory().getBytes(StandardCharsets.UTF_8);
+                stringBytes += names[count].length + (categories[count] == null ? 0 : categories[count].length);
+                selected[count++] = i;
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(4 + count * (4 + 4 + 8 + 4 + 4) + stringBytes);
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            out.putInt(rows.get(selected[i]).getId());
+        }
+        for (int i = 0; i < count; i++) {
+            out.putInt(rows.get(selected[i]).getQuantity());
+        }
+        for (int i = 0; i < count; i++) {
+            out.putLong(rows.get(selected[i]).getPriceMinor());
+        }
+        for (int i = 0; i < count; i++) {
+            out.putInt(names[i].length);
+        }
+        for (int i = 0; i < count; i++) {
+            out.put(names[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            out.putInt(categories[i] == null ? -1 : categories[i].length);
+        }
+        for (int i = 0; i < count; i++) {
+            if (categories[i] != null) {
+                out.put(categories[i]);
+            }
+        }
+        out.flip();
+        return new Chunk(out, count);
+    }
+
+    private static void appendCsv(StringBuilder text, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            text.append(value);
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                text.append('"');
+            }
+            text.append(c);
+        }
+        text.append('"');
+    }
+
+    private static void appendJson(StringBuilder text, String value) {
+        if (value == null) {
+            text.append("null");
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\').append(c);
+            } else if (c < 0x20) {
+                text.append(String.format("\\u%04x", (int) c));
+            } else {
+                text.append(c);
+            }
+        }
+        text.append('"');
+    }
+}
@@ -0,0 +1,229 @@
+package com.sweetshop.load;
+
+import com.sweetshop.service.PurchaseResult;
+import com.sweetshop.service.SweetShop;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a SweetShop with a workload from N threads at a target rate
+ * The load is open-loop: each thread issues operations on a fixed
+ * schedule (rate / N per second) whether or not the previous one was
+ * slow, catching up without pausing when it falls behind. Latency is
+ * taken from the scheduled start, so a stall is charged to everything
+ * that should have run during it, as real customers would experience;
+ * measuring from the actual start instead (service time) would hide it.
+ * Threads stop issuing when the run ends; operations still owed then
+ * are reported as missed, and throughput is taken over the time the
+ * issued ones really took, so an overloaded shop shows up as a shortfall
+ * against the target rather than as the target rate.
+ * A target rate of 0 runs every thread flat out (closed-loop).
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class LoadGenerator {
+    private final SweetShop shop;
+    private final Workload workload;
+    private final int threads;
+    private final double targetRate;
+    private final long seed;
+
+    /**
+     * Constructor
+     *
+     * @param shop the shop to drive
+     * @param workload source of operations
+     * @param threads number of load threads
+     * @param targetRate operations per second across all threads, or 0 for unthrottled
+     * @param seed seed for the per-thread random sources
+     * @throws IllegalArgumentException if an argument is invalid
+     */
+    public LoadGenerator(SweetShop shop, Workload workload, int threads, double targetRate, long seed) {
+        if (shop == null || workload == null) {
+            throw new IllegalArgumentException("Shop and workload cannot be null");
+        }
+        if (threads <= 0 || targetRate < 0 || Double.isNaN(targetRate)) {
+            throw new IllegalArgumentException("Threads must be positive and rate cannot be negative");
+        }
+        this.shop = shop;
+        this.workload = workload;
+        this.threads = threads;
+        this.targetRate = targetRate;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the load and reports on the measured interval
+     * Operations scheduled during the warm-up run but are not recorded;
+     * the run ends early if the workload is exhausted
+     *
+     * @param warmupMillis time to run before recording
+     * @param durationMillis time to record
+     * @return the report
+     * @throws IllegalArgumentException if a time is negative or the duration is 0
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public LoadReport run(long warmupMillis, long durationMillis) throws InterruptedException {
+        if (warmupMillis < 0 || durationMillis <= 0) {
+            throw new IllegalArgumentException("Warm-up cannot be negative and duration must be positive");
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMillis * 1_000_000;
+        long end = measureFrom + durationMillis * 1_000_000;
+        long interval = targetRate > 0 ? (long) (threads * 1e9 / targetRate) : 0;
+
+        List<Worker> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(new Random(seed + i), start + interval * i / threads,
+                    interval, measureFrom, end);
+            worker.setName("load-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        long finished = measureFrom;
+        long missed = 0;
+        for (Worker worker : workers) {
+            worker.join();
+            finished = Math.max(finished, worker.finished);
+            missed += worker.missed;
+        }
+
+        Map<LoadOperation.Type, long[]> counts = new EnumMap<>(LoadOperation.Type.class);
+        Map<LoadOperation.Type, LatencyHistogram> responseTimes = new EnumMap<>(LoadOperation.Type.class);
+        Map<LoadOperation.Type, LatencyHistogram> serviceTimes = new EnumMap<>(LoadOperation.Type.class);
+        for (LoadOperation.Type type : LoadOperation.Type.values()) {
+            counts.put(type, new long[2]);
+            responseTimes.put(type, new LatencyHistogram());
+            serviceTimes.put(type, new LatencyHistogram());
+        }
+        for (Worker worker : workers) {
+            for (LoadOperation.Type type : LoadOperation.Type.values()) {
+                int t = type.ordinal();
+                counts.get(type)[0] += worker.rejected[t];
+                counts.get(type)[1] += worker.errors[t];
+                responseTimes.get(type).add(worker.responseTimes[t]);
+                serviceTimes.get(type).add(worker.serviceTimes[t]);
+            }
+        }
+        return new LoadReport(threads, targetRate, finished - measureFrom, missed,
+                counts, responseTimes, serviceTimes);
+    }
+
+    /**
+     * Issues one operation
+     *
+     * @return true if the shop accepted it, false if it refused it
+     */
+    private boolean execute(LoadOperation operation) {
+        switch (operation.getType()) {
+            case PURCHASE:
+                return PurchaseResult.isSuccess(shop.tryPurchase(operation.getSweetId(), operation.getQuantity()));
+            case SEARCH:
+                shop.searchByName(operation.getTerm());
+                return true;
+            default:
+                try {
+                    shop.restockSweet(operation.getSweetId(), operation.getQuantity());
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+        }
+    }
+
+    /**
+     * One load thread with its own schedule and histograms
+     */
+    private final class Worker extends Thread {
+        private final Random random;
+        private final long firstStart;
+        private final long interval;
+        private final long measureFrom;
+        private final long end;
+        final LatencyHistogram[] responseTimes = new LatencyHistogram[LoadOperation.Type.values().length];
+        final LatencyHistogram[] serviceTimes = new LatencyHistogram[LoadOperation.Type.values().length];
+        final long[] rejected = new long[LoadOperation.Type.values().length];
+        final long[] errors = new long[LoadOperation.Type.values().length];
+        long finished;
+        long missed;
+
+        Worker(Random random, long firstStart, long interval, long measureFrom, long end) {
+            this.random = random;
+            this.firstStart = firstStart;
+            this.interval = interval;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (int i = 0; i < responseTimes.length; i++) {
+                responseTimes[i] = new LatencyHistogram();
+                serviceTimes[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            long scheduled = firstStart;
+            while (true) {
+                long now = System.nanoTime();
+                if (interval > 0) {
+                    while (now < scheduled) {
+                        LockSupport.parkNanos(scheduled - now);
+                        now = System.nanoTime();
+                    }
+                } else {
+                    scheduled = now;
+                }
+                if (scheduled >= end) {
+                    break;
+                }
+                if (now >= end) {
+                    missed = owed(scheduled);
+                    break;
+                }
+                LoadOperation operation = workload.next(random);
+                if (operation == null) {
+                    break;
+                }
+                int type = operation.getType().ordinal();
+                long started = System.nanoTime();
+                boolean accepted;
+                boolean failed = false;
+                try {
+                    accepted = execute(operation);
+                } catch (RuntimeException e) {
+                    accepted = false;
+                    failed = true;
+                }
+                long done = System.nanoTime();
+                if (scheduled >= measureFrom) {
+                    responseTimes[type].record(done - scheduled);
+                    serviceTimes[type].record(done - started);
+                    if (failed) {
+                        errors[type]++;
+                    } else if (!accepted) {
+                        rejected[type]++;
+                    }
+                }
+                finished = done;
+                scheduled += interval;
+            }
+        }
+
+        /**
+         * Counts the measured operations from a schedule slot up to the end
+         */
+        private long owed(long scheduled) {
+            long first = scheduled;
+            if (first < measureFrom) {
+                first += (measureFrom - first + interval - 1) / interval * interval;
+            }
+            return first < end ? (end - first + interval - 1) / interval : 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.sweetshop.load;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SweetShop;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-alone load generator
+ * Usage: LoadMain [name=value ...] with
+ *   sweets=10000     catalog size
+ *   threads=4        load threads
+ *   rate=20000       target operations per second (0 = unthrottled)
+ *   seconds=10       measured duration
+ *   warmup=2         warm-up seconds (not recorded)
+ *   zipf=1.0         popularity skew
+ *   mix=70:25:5      purchase:search:restock weights
+ *   trace=file       replay a trace instead of the synthetic mix
+ *   record=file      write the synthetic mix to a trace and exit
+ *   seed=1           random seed
+ * Prints the throughput and latency percentiles per operation
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class LoadMain {
+
+    private LoadMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                System.err.println("Usage: LoadMain [sweets=N threads=N rate=OPS seconds=N warmup=N "
+                        + "zipf=S mix=P:S:R trace=FILE record=FILE seed=N]");
+                System.exit(2);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int sweets = Integer.parseInt(options.getOrDefault("sweets", "10000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "20000"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "10"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "2"));
+        double zipf = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+        String[] mix = options.getOrDefault("mix", "70:25:5").split(":");
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+
+        SweetShop shop = new SweetShop();
+        for (int i = 0; i < sweets; i++) {
+            shop.addSweet(Sweet.ofMinorPrice(1000 + i, "Sweet " + i, "Category " + (i % 16),
+                    1000 + i % 5000, 1_000_000));
+        }
+        List<Sweet> catalog = shop.getAllSweets();
+        Workload workload = new SyntheticWorkload(catalog, zipf, Integer.parseInt(mix[0]),
+                Integer.parseInt(mix[1]), Integer.parseInt(mix[2]), 5, seed);
+
+        if (options.containsKey("record")) {
+            Path file = Paths.get(options.get("record"));
+            int count = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (long) (rate * seconds)));
+            TraceWorkload.record(workload, count, seed, file);
+            System.out.println("Recorded " + count + " operations to " + file);
+            return;
+        }
+        if (options.containsKey("trace")) {
+            workload = TraceWorkload.read(Paths.get(options.get("trace")), true);
+        }
+
+        LoadGenerator generator = new LoadGenerator(shop, workload, threads, rate, seed);
+        System.out.print(generator.run(warmup * 1000, seconds * 1000));
+    }
+}
@@ -0,0 +1,149 @@
+package com.sweetshop.load;
+
+/**
+ * One operation of a workload, synthetic or replayed from a trace
+ * Trace lines read "PURCHASE id quantity", "RESTOCK id quantity" or
+ * "SEARCH term".
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class LoadOperation {
+    /**
+     * Kind of operation
+     */
+    public enum Type {
+        /** SweetShop.tryPurchase */
+        PURCHASE,
+        /** SweetShop.searchByName */
+        SEARCH,
+        /** SweetShop.restockSweet */
+        RESTOCK
+    }
+
+    private final Type type;
+    private final int sweetId;
+    private final int quantity;
+    private final String term;
+
+    private LoadOperation(Type type, int sweetId, int quantity, String term) {
+        this.type = type;
+        this.sweetId = sweetId;
+        this.quantity = quantity;
+        this.term = term;
+    }
+
+    /**
+     * Creates a purchase
+     *
+     * @param sweetId the ID of the sweet
+     * @param quantity units to buy
+     * @return the operation
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public static LoadOperation purchase(int sweetId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        return new LoadOperation(Type.PURCHASE, sweetId, quantity, null);
+    }
+
+    /**
+     * Creates a restock
+     *
+     * @param sweetId the ID of the sweet
+     * @param quantity units to add
+     * @return the operation
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public static LoadOperation restock(int sweetId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        return new LoadOperation(Type.RESTOCK, sweetId, quantity, null);
+    }
+
+    /**
+     * Creates a name search
+     *
+     * @param term the search term
+     * @return the operation
+     * @throws IllegalArgumentException if term is null or empty
+     */
+    public static LoadOperation search(String term) {
+        if (term == null || term.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search term cannot be null or empty");
+        }
+        return new LoadOperation(Type.SEARCH, 0, 0, term);
+    }
+
+    /**
+     * Parses one trace line
+     *
+     * @param line the line
+     * @return the operation
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static LoadOperation parse(String line) {
+        String[] parts = line.trim().split("\\s+", 2);
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "PURCHASE":
+                case "RESTOCK": {
+                    String[] args = parts[1].trim().split("\\s+");
+                    int id = Integer.parseInt(args[0]);
+                    int quantity = Integer.parseInt(args[1]);
+                    return parts[0].equalsIgnoreCase("PURCHASE") ? purchase(id, quantity) : restock(id, quantity);
+                }
+                case "SEARCH":
+                    return search(parts[1]);
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed trace line: " + line, e);
+        }
+        throw new IllegalArgumentException("Malformed trace line: " + line);
+    }
+
+    /**
+     * Get the kind of operation
+     * @return type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the sweet ID (purchases and restocks)
+     * @return sweet ID
+     */
+    public int getSweetId() {
+        return sweetId;
+    }
+
+    /**
+     * Get the quantity (purchases and restocks)
+     * @return quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the search term (searches)
+     * @return term or null
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    /**
+     * Formats the operation as a trace line
+     * @return trace line
+     */
+    @Override
+    public String toString() {
+        return type == Type.SEARCH ? "SEARCH " + term : type + " " + sweetId + " " + quantity;
+    }
+}
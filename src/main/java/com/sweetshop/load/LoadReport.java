@@ -0,0 +1,205 @@
+package com.sweetshop.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Results of a LoadGenerator run
+ * Response times are measured from when each operation was scheduled to
+ * start, so a stall also counts against every operation that queued up
+ * behind it (corrected for coordinated omission). Service times are
+ * measured from when the operation actually started; the gap between
+ * the two shows how far the shop fell behind the offered load.
+ * Operations the shop was still owed when the run ended are counted as
+ * missed; throughput only counts the ones that completed.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class LoadReport {
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    private final int threads;
+    private final double targetRate;
+    private final long elapsedNanos;
+    private final long missed;
+    private final Map<LoadOperation.Type, long[]> counts;
+    private final Map<LoadOperation.Type, LatencyHistogram> responseTimes;
+    private final Map<LoadOperation.Type, LatencyHistogram> serviceTimes;
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    LoadReport(int threads, double targetRate, long elapsedNanos, long missed,
+               Map<LoadOperation.Type, long[]> counts,
+               Map<LoadOperation.Type, LatencyHistogram> responseTimes,
+               Map<LoadOperation.Type, LatencyHistogram> serviceTimes) {
+        this.threads = threads;
+        this.targetRate = targetRate;
+        this.elapsedNanos = elapsedNanos;
+        this.missed = missed;
+        this.counts = new EnumMap<>(counts);
+        this.responseTimes = new EnumMap<>(responseTimes);
+        this.serviceTimes = new EnumMap<>(serviceTimes);
+        for (LatencyHistogram histogram : responseTimes.values()) {
+            responseTime.add(histogram);
+        }
+        for (LatencyHistogram histogram : serviceTimes.values()) {
+            serviceTime.add(histogram);
+        }
+    }
+
+    /**
+     * Get the number of load threads
+     * @return threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Get the offered rate
+     * @return operations per second, or 0 for an unthrottled run
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Get the time from the start of the measured interval until the
+     * last operation completed
+     * @return seconds
+     */
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    /**
+     * Get the completed operations per second
+     * @return throughput
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCount() / getElapsedSeconds();
+    }
+
+    /**
+     * Get the number of completed operations
+     * @return count
+     */
+    public long getCount() {
+        return responseTime.getCount();
+    }
+
+    /**
+     * Get the number of completed operations of one kind
+     * @param type kind of operation
+     * @return count
+     */
+    public long getCount(LoadOperation.Type type) {
+        return responseTimes.get(type).getCount();
+    }
+
+    /**
+     * Get the operations scheduled in the measured interval that were
+     * never issued because the shop fell behind the offered load
+     * @return count
+     */
+    public long getMissedCount() {
+        return missed;
+    }
+
+    /**
+     * Get the operations the shop refused (sold out, unknown sweet)
+     * @param type kind of operation
+     * @return count
+     */
+    public long getRejectedCount(LoadOperation.Type type) {
+        return counts.get(type)[0];
+    }
+
+    /**
+     * Get the operations that failed unexpectedly
+     * @param type kind of operation
+     * @return count
+     */
+    public long getErrorCount(LoadOperation.Type type) {
+        return counts.get(type)[1];
+    }
+
+    /**
+     * Get the corrected response times of all operations
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Get the corrected response times of one kind of operation
+     * @param type kind of operation
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getResponseTime(LoadOperation.Type type) {
+        return responseTimes.get(type);
+    }
+
+    /**
+     * Get the service times of all operations
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    /**
+     * Get the service times of one kind of operation
+     * @param type kind of operation
+     * @return histogram in nanoseconds
+     */
+    public LatencyHistogram getServiceTime(LoadOperation.Type type) {
+        return serviceTimes.get(type);
+    }
+
+    /**
+     * Formats the report as text tables (latencies in microseconds)
+     * @return report
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("threads %d, target %s, achieved %.0f ops/s over %.1f s, %d missed%n",
+                threads, targetRate > 0 ? String.format("%.0f ops/s", targetRate) : "unthrottled",
+                getThroughput(), getElapsedSeconds(), missed));
+        table(out, "Response time (corrected for coordinated omission)", responseTimes, responseTime);
+        table(out, "Service time", serviceTimes, serviceTime);
+        return out.toString();
+    }
+
+    private void table(StringBuilder out, String title, Map<LoadOperation.Type, LatencyHistogram> byType,
+                       LatencyHistogram all) {
+        out.append(String.format("%n%s, us%n", title));
+        out.append(String.format("%-9s %10s %9s %7s", "op", "count", "rejected", "errors"));
+        for (double percentile : PERCENTILES) {
+            out.append(String.format(" %9s", "p" + (percentile == (long) percentile
+                    ? String.valueOf((long) percentile) : String.valueOf(percentile))));
+        }
+        out.append(String.format(" %9s%n", "max"));
+        for (LoadOperation.Type type : LoadOperation.Type.values()) {
+            row(out, type.name().toLowerCase(), byType.get(type), counts.get(type)[0], counts.get(type)[1]);
+        }
+        long rejected = 0;
+        long errors = 0;
+        for (long[] count : counts.values()) {
+            rejected += count[0];
+            errors += count[1];
+        }
+        row(out, "all", all, rejected, errors);
+    }
+
+    private static void row(StringBuilder out, String name, LatencyHistogram histogram, long rejected, long errors) {
+        out.append(String.format("%-9s %10d %9d %7d", name, histogram.getCount(), rejected, errors));
+        for (double percentile : PERCENTILES) {
+            out.append(String.format(" %9.1f", histogram.getValueAtPercentile(percentile) / 1e3));
+        }
+        out.append(String.format(" %9.1f%n", histogram.getMax() / 1e3));
+    }
+}
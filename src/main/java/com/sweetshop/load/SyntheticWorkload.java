@@ -0,0 +1,69 @@
+package com.sweetshop.load;
+
+import com.sweetshop.model.Sweet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Endless synthetic mix of purchases, searches and restocks
+ * Items are picked by Zipf-distributed popularity over a shuffled copy
+ * of the catalog (so popularity does not follow ID order), and the kind
+ * of each operation by weighted draw.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class SyntheticWorkload implements Workload {
+    private final List<Sweet> items;
+    private final ZipfDistribution popularity;
+    private final int purchaseWeight;
+    private final int searchWeight;
+    private final int totalWeight;
+    private final int maxQuantity;
+
+    /**
+     * Constructor
+     *
+     * @param catalog the sweets to draw from
+     * @param zipfExponent popularity skew (0 is uniform)
+     * @param purchaseWeight relative share of purchases
+     * @param searchWeight relative share of name searches
+     * @param restockWeight relative share of restocks
+     * @param maxQuantity largest quantity per purchase or restock
+     * @param seed seed for shuffling the popularity order
+     * @throws IllegalArgumentException if the catalog is empty or a weight is invalid
+     */
+    public SyntheticWorkload(List<Sweet> catalog, double zipfExponent, int purchaseWeight,
+                             int searchWeight, int restockWeight, int maxQuantity, long seed) {
+        if (catalog == null || catalog.isEmpty()) {
+            throw new IllegalArgumentException("Catalog cannot be null or empty");
+        }
+        if (purchaseWeight < 0 || searchWeight < 0 || restockWeight < 0
+                || purchaseWeight + searchWeight + restockWeight == 0 || maxQuantity <= 0) {
+            throw new IllegalArgumentException("Weights cannot be negative or all zero and quantity must be positive");
+        }
+        this.items = new ArrayList<>(catalog);
+        Collections.shuffle(items, new Random(seed));
+        this.popularity = new ZipfDistribution(items.size(), zipfExponent);
+        this.purchaseWeight = purchaseWeight;
+        this.searchWeight = searchWeight;
+        this.totalWeight = purchaseWeight + searchWeight + restockWeight;
+        this.maxQuantity = maxQuantity;
+    }
+
+    @Override
+    public LoadOperation next(Random random) {
+        Sweet sweet = items.get(popularity.sample(random));
+        int draw = random.nextInt(totalWeight);
+        if (draw < purchaseWeight) {
+            return LoadOperation.purchase(sweet.getId(), 1 + random.nextInt(maxQuantity));
+        }
+        if (draw < purchaseWeight + searchWeight) {
+            return LoadOperation.search(sweet.getName());
+        }
+        return LoadOperation.restock(sweet.getId(), 1 + random.nextInt(maxQuantity));
+    }
+}
@@ -0,0 +1,103 @@
+package com.sweetshop.load;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a recorded list of operations in order
+ * Threads take operations from one shared cursor, so every operation is
+ * issued exactly once per pass; the trace can optionally loop.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class TraceWorkload implements Workload {
+    private final List<LoadOperation> operations;
+    private final boolean loop;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param operations operations to replay
+     * @param loop whether to start over after the last operation
+     * @throws IllegalArgumentException if operations is null or empty
+     */
+    public TraceWorkload(List<LoadOperation> operations, boolean loop) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Trace cannot be null or empty");
+        }
+        this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+        this.loop = loop;
+    }
+
+    /**
+     * Reads a trace file, one operation per line; blank lines and lines
+     * starting with # are skipped
+     *
+     * @param file the trace file
+     * @param loop whether to start over after the last operation
+     * @return the workload
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed or the trace is empty
+     */
+    public static TraceWorkload read(Path file, boolean loop) throws IOException {
+        List<LoadOperation> operations = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                operations.add(LoadOperation.parse(trimmed));
+            }
+        }
+        return new TraceWorkload(operations, loop);
+    }
+
+    /**
+     * Records operations from another workload into a trace file, so a
+     * synthetic run can be replayed exactly
+     *
+     * @param source workload to draw from
+     * @param count number of operations
+     * @param seed seed for the source's random draws
+     * @param file the trace file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void record(Workload source, int count, long seed, Path file) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                LoadOperation operation = source.next(random);
+                if (operation == null) {
+                    break;
+                }
+                out.write(operation.toString());
+                out.newLine();
+            }
+        }
+    }
+
+    @Override
+    public LoadOperation next(Random random) {
+        long position = cursor.getAndIncrement();
+        if (position >= operations.size() && !loop) {
+            return null;
+        }
+        return operations.get((int) (position % operations.size()));
+    }
+
+    /**
+     * Get the number of operations in one pass
+     * @return trace length
+     */
+    public int size() {
+        return operations.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.sweetshop.load;
+
+import java.util.Random;
+
+/**
+ * Source of operations for a LoadGenerator
+ * Called concurrently by every load thread, each with its own Random
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface Workload {
+
+    /**
+     * Returns the next operation to issue
+     *
+     * @param random the calling thread's random source
+     * @return the operation, or null when the workload is exhausted
+     */
+    LoadOperation next(Random random);
+}
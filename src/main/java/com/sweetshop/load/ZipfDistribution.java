@@ -0,0 +1,79 @@
+package com.sweetshop.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf-distributed ranks: rank k (0-based) is drawn with probability
+ * proportional to 1 / (k + 1)^exponent, so a handful of items take most
+ * of the traffic as in real shops. Samples by binary search over a
+ * precomputed cumulative table; immutable and safe to share.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class ZipfDistribution {
+    private final double[] cumulative;
+    private final double exponent;
+
+    /**
+     * Constructor
+     *
+     * @param size number of ranks
+     * @param exponent skew; 0 is uniform, around 1 is typical of retail
+     * @throws IllegalArgumentException if size is not positive or exponent is negative
+     */
+    public ZipfDistribution(int size, double exponent) {
+        if (size <= 0 || exponent < 0 || Double.isNaN(exponent)) {
+            throw new IllegalArgumentException("Size must be positive and exponent cannot be negative");
+        }
+        this.exponent = exponent;
+        this.cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+        cumulative[size - 1] = 1.0;
+    }
+
+    /**
+     * Draws a rank
+     *
+     * @param random source of randomness
+     * @return rank between 0 (most popular) and size - 1
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the probability of a rank
+     *
+     * @param rank the rank
+     * @return probability between 0 and 1
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    /**
+     * Get the number of ranks
+     * @return size
+     */
+    public int size() {
+        return cumulative.length;
+    }
+
+    /**
+     * Get the skew exponent
+     * @return exponent
+     */
+    public double getExponent() {
+        return exponent;
+    }
+}
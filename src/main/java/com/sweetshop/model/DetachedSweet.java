@@ -0,0 +1,45 @@
+package com.sweetshop.model;
+
+import com.sweetshop.util.SymbolTable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Frozen copy of a view whose strings live outside the heap
+ * (for example a record in an off-heap store). It keeps its own
+ * category instead of a SymbolTable symbol, so copying such views
+ * never adds their strings to the shared table
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class DetachedSweet extends FrozenSweet {
+    private final String category;
+    private final byte[] foldedCategory;
+
+    DetachedSweet(int id, String name, String category, long priceMinor, int quantity) {
+        this(id, name, name.getBytes(StandardCharsets.UTF_8), category, priceMinor, quantity);
+    }
+
+    private DetachedSweet(int id, String name, byte[] utf8, String category, long priceMinor, int quantity) {
+        super(id, utf8, SymbolTable.foldedForm(name, utf8), SymbolTable.NONE, priceMinor, quantity);
+        this.category = category;
+        this.foldedCategory = category == null ? null : SymbolTable.fold(category);
+    }
+
+    @Override
+    public String getCategory() {
+        return category;
+    }
+
+    @Override
+    public boolean isInCategory(byte[] foldedCategory) {
+        return this.foldedCategory != null && Arrays.equals(this.foldedCategory, foldedCategory);
+    }
+
+    @Override
+    Sweet copyWithQuantity(int quantity) {
+        return new DetachedSweet(getId(), getName(), category, getPriceMinor(), quantity);
+    }
+}
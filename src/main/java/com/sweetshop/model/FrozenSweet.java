@@ -0,0 +1,65 @@
+package com.sweetshop.model;
+
+/**
+ * Immutable Sweet copy published in inventory snapshots
+ * All mutators throw UnsupportedOperationException so readers can
+ * safely share the same instance across threads
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class FrozenSweet extends Sweet {
+
+    FrozenSweet(int id, byte[] name, byte[] foldedName, int categorySymbol, long priceMinor, int quantity) {
+        super(id, name, foldedName, categorySymbol, priceMinor, quantity);
+    }
+
+    @Override
+    public Sweet freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    public void setName(String name) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setCategory(String category) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setPrice(double price) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setPriceMinor(long priceMinor) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setQuantity(int quantity) {
+        throw unsupported();
+    }
+
+    @Override
+    public void decreaseQuantity(int amount) {
+        throw unsupported();
+    }
+
+    @Override
+    public void increaseQuantity(int amount) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Snapshot sweets are read-only");
+    }
+}
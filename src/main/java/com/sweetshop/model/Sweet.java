@@ -1,20 +1,34 @@
 package com.sweetshop.model;
 
 import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.util.Money;
+import com.sweetshop.util.SymbolTable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Sweet Model Class
  * Represents a sweet item in the shop inventory
+ * The price is stored exactly in paise; the rupee accessors convert.
+ * The name is kept as UTF-8 bytes that searches and sorts use without
+ * decoding; it is owned by the sweet (and shared with its frozen
+ * copies), so a rename or delete leaves nothing behind. The category is
+ * a symbol in the shared SymbolTable, so the few distinct categories
+ * are stored and decoded once.
  * 
  * @author Sweet Shop Management System
  * @version 1.0
  */
 public class Sweet {
     private final int id;
-    private String name;
-    private String category;
-    private double price;
+    /** UTF-8 name; null for views that keep their state elsewhere */
+    private byte[] name;
+    /** Case-folded name from SymbolTable.foldedForm(), or null if name matches as stored */
+    private byte[] foldedName;
+    private int categorySymbol = SymbolTable.NONE;
+    private long priceMinor;
     private int quantity;
 
     /**
@@ -38,10 +52,50 @@ public class Sweet {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
         
+        this.id = id;
+        storeName(name);
+        this.categorySymbol = category == null ? SymbolTable.NONE : SymbolTable.shared().intern(category);
+        this.priceMinor = Money.toMinor(price);
+        this.quantity = quantity;
+    }
+
+    /**
+     * Creates a sweet with its price given in paise
+     * 
+     * @param id Unique identifier for the sweet
+     * @param name Name of the sweet
+     * @param category Category (e.g., Chocolate, Candy, Nut-Based)
+     * @param priceMinor Price of the sweet in paise
+     * @param quantity Quantity in stock
+     * @return new sweet
+     * @throws IllegalArgumentException if any validation fails
+     */
+    public static Sweet ofMinorPrice(int id, String name, String category, long priceMinor, int quantity) {
+        Sweet sweet = new Sweet(id, name, category, 0.0, quantity);
+        sweet.setPriceMinor(priceMinor);
+        return sweet;
+    }
+
+    /**
+     * Constructor for subclasses that keep their state elsewhere
+     * (for example flyweight views over off-heap storage); such
+     * subclasses must override every accessor and mutator
+     * 
+     * @param id Unique identifier for the sweet
+     */
+    protected Sweet(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Constructor for frozen copies, sharing the name bytes and category symbol
+     */
+    Sweet(int id, byte[] name, byte[] foldedName, int categorySymbol, long priceMinor, int quantity) {
         this.id = id;
         this.name = name;
-        this.category = category;
-        this.price = price;
+        this.foldedName = foldedName;
+        this.categorySymbol = categorySymbol;
+        this.priceMinor = priceMinor;
         this.quantity = quantity;
     }
 
@@ -58,7 +112,7 @@ public class Sweet {
      * @return sweet name
      */
     public String getName() {
-        return name;
+        return name == null ? null : new String(name, StandardCharsets.UTF_8);
     }
 
     /**
@@ -69,7 +123,13 @@ public class Sweet {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Name cannot be null or empty");
         }
-        this.name = name;
+        storeName(name);
+    }
+
+    private void storeName(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        this.foldedName = SymbolTable.foldedForm(value, utf8);
+        this.name = utf8;
     }
 
     /**
@@ -77,7 +137,7 @@ public class Sweet {
      * @return sweet category
      */
     public String getCategory() {
-        return category;
+        return categorySymbol == SymbolTable.NONE ? null : SymbolTable.shared().toString(categorySymbol);
     }
 
     /**
@@ -85,27 +145,146 @@ public class Sweet {
      * @param category new category
      */
     public void setCategory(String category) {
-        this.category = category;
+        this.categorySymbol = category == null ? SymbolTable.NONE : SymbolTable.shared().intern(category);
+    }
+
+    /**
+     * Check whether the name contains a term, ignoring case
+     * 
+     * @param foldedTerm term from SymbolTable.fold()
+     * @return true if the name contains it
+     */
+    public boolean nameContains(byte[] foldedTerm) {
+        byte[] source = foldedName != null ? foldedName : name;
+        if (source == null) {
+            source = SymbolTable.fold(getName());
+        }
+        return SymbolTable.indexOf(source, 0, source.length, foldedTerm) >= 0;
+    }
+
+    /**
+     * Compare names in String.compareTo (UTF-16) order without decoding them
+     * UTF-8 bytes sort in code point order, which differs from UTF-16 only
+     * where a character from U+E000 to U+FFFF meets a supplementary one:
+     * UTF-16 puts the supplementary character first, as its surrogates
+     * sort below U+E000. Only the first differing character is examined.
+     * 
+     * @param other the sweet to compare with
+     * @return negative, zero or positive as this name sorts before, with or after the other
+     */
+    public int compareNameTo(Sweet other) {
+        byte[] a = nameBytes();
+        byte[] b = other.nameBytes();
+        int i = Arrays.mismatch(a, b);
+        if (i < 0) {
+            return 0;
+        }
+        if (i == a.length || i == b.length) {
+            return a.length - b.length;
+        }
+        int start = i;
+        while (start > 0 && (a[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        boolean aSupplementary = (a[start] & 0xFF) >= 0xF0;
+        boolean bSupplementary = (b[start] & 0xFF) >= 0xF0;
+        if (aSupplementary != bSupplementary && ((aSupplementary ? b[start] : a[start]) & 0xFF) >= 0xEE) {
+            return aSupplementary ? -1 : 1;
+        }
+        return (a[i] & 0xFF) - (b[i] & 0xFF);
+    }
+
+    private byte[] nameBytes() {
+        return name != null ? name : getName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy the UTF-8 name into a buffer without decoding it
+     * 
+     * @param target buffer to write to
+     * @param maxBytes most bytes to write; a longer name is cut at a character boundary
+     * @return number of bytes written
+     */
+    public int writeName(ByteBuffer target, int maxBytes) {
+        byte[] source = nameBytes();
+        int length = SymbolTable.prefixLength(source, 0, source.length, maxBytes);
+        target.put(source, 0, length);
+        return length;
+    }
+
+    /**
+     * Copy the UTF-8 category into a buffer without decoding it
+     * 
+     * @param target buffer to write to
+     * @param maxBytes most bytes to write; a longer category is cut at a character boundary
+     * @return number of bytes written, or -1 (writing nothing) if there is no category
+     */
+    public int writeCategory(ByteBuffer target, int maxBytes) {
+        if (categorySymbol != SymbolTable.NONE) {
+            return SymbolTable.shared().write(categorySymbol, target, maxBytes);
+        }
+        String category = getCategory();
+        if (category == null) {
+            return -1;
+        }
+        byte[] source = category.getBytes(StandardCharsets.UTF_8);
+        int length = SymbolTable.prefixLength(source, 0, source.length, maxBytes);
+        target.put(source, 0, length);
+        return length;
+    }
+
+    /**
+     * Check whether the sweet is in a category, ignoring case
+     * 
+     * @param foldedCategory category from SymbolTable.fold()
+     * @return true if the categories match
+     */
+    public boolean isInCategory(byte[] foldedCategory) {
+        if (categorySymbol == SymbolTable.NONE) {
+            String category = getCategory();
+            return category != null && Arrays.equals(SymbolTable.fold(category), foldedCategory);
+        }
+        return SymbolTable.shared().foldedEquals(categorySymbol, foldedCategory);
     }
 
     /**
      * Get the price of the sweet
-     * @return sweet price
+     * @return sweet price in rupees
      */
     public double getPrice() {
-        return price;
+        return Money.toMajor(getPriceMinor());
     }
 
     /**
      * Set the price of the sweet
-     * @param price new price
+     * @param price new price in rupees (rounded to the nearest paisa)
      * @throws IllegalArgumentException if price is negative
      */
     public void setPrice(double price) {
         if (price < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
-        this.price = price;
+        setPriceMinor(Money.toMinor(price));
+    }
+
+    /**
+     * Get the exact price of the sweet
+     * @return sweet price in paise
+     */
+    public long getPriceMinor() {
+        return priceMinor;
+    }
+
+    /**
+     * Set the exact price of the sweet
+     * @param priceMinor new price in paise
+     * @throws IllegalArgumentException if price is negative
+     */
+    public void setPriceMinor(long priceMinor) {
+        if (priceMinor < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        this.priceMinor = priceMinor;
     }
 
     /**
@@ -136,12 +315,11 @@ public class Sweet {
      * @throws InsufficientStockException if requested amount exceeds available stock
      */
     public void decreaseQuantity(int amount) {
-        if (amount > quantity) {
-            throw new InsufficientStockException(
-                String.format("Insufficient stock. Available: %d, Requested: %d", quantity, amount)
-            );
+        int available = getQuantity();
+        if (amount > available) {
+            throw new InsufficientStockException(available, amount);
         }
-        this.quantity -= amount;
+        setQuantity(available - amount);
     }
 
     /**
@@ -155,7 +333,46 @@ public class Sweet {
         if (amount < 0) {
             throw new IllegalArgumentException("Amount cannot be negative");
         }
-        this.quantity += amount;
+        setQuantity(getQuantity() + amount);
+    }
+
+    /**
+     * Create an immutable point-in-time copy of this sweet
+     * Mutators on the copy throw UnsupportedOperationException
+     * 
+     * @return frozen copy (or this sweet if it is already frozen)
+     */
+    public Sweet freeze() {
+        if (name == null) {
+            return new DetachedSweet(getId(), getName(), getCategory(), getPriceMinor(), getQuantity());
+        }
+        return new FrozenSweet(getId(), name, foldedName, categorySymbol, getPriceMinor(), getQuantity());
+    }
+
+    /**
+     * Create an immutable copy of this sweet with another quantity
+     * 
+     * @param quantity quantity of the copy
+     * @return frozen copy
+     */
+    public Sweet freezeWithQuantity(int quantity) {
+        Sweet frozen = freeze();
+        return frozen.getQuantity() == quantity ? frozen : frozen.copyWithQuantity(quantity);
+    }
+
+    /**
+     * Copies a frozen sweet with another quantity
+     */
+    Sweet copyWithQuantity(int quantity) {
+        return new FrozenSweet(getId(), name, foldedName, categorySymbol, getPriceMinor(), quantity);
+    }
+
+    /**
+     * Check whether this sweet is an immutable copy
+     * @return true if mutators are disabled
+     */
+    public boolean isFrozen() {
+        return false;
     }
 
     /**
@@ -166,9 +383,9 @@ public class Sweet {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Sweet)) return false;
         Sweet sweet = (Sweet) o;
-        return id == sweet.id;
+        return getId() == sweet.getId();
     }
 
     /**
@@ -177,7 +394,7 @@ public class Sweet {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 
     /**
@@ -187,6 +404,6 @@ public class Sweet {
     @Override
     public String toString() {
         return String.format("Sweet[id=%d, name='%s', category='%s', price=%.2f, quantity=%d]",
-                id, name, category, price, quantity);
+                getId(), getName(), getCategory(), getPrice(), getQuantity());
     }
 }
\ No newline at end of file
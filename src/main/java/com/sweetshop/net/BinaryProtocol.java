@@ -0,0 +1,74 @@
+package com.sweetshop.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format for the point-of-sale binary protocol
+ * 
+ * All integers are big-endian. Every frame starts with an int length
+ * covering the rest of the frame.
+ * 
+ * Request:  [int length][byte opcode][int requestId][arguments]
+ *   GET       [int sweetId]
+ *   PURCHASE  [int sweetId][int quantity]
+ *   RESTOCK   [int sweetId][int quantity]
+ *   BATCH     [short count] then count x ([byte opcode][int requestId][arguments])
+ * 
+ * Response: [int length][byte status][int requestId][body]
+ *   GET OK                [int sweetId][long effectivePriceMinor][int quantity][string name][string category]
+ *   PURCHASE/RESTOCK OK   [int quantity]
+ *   INSUFFICIENT_STOCK    [int available]
+ *   any other status      no body
+ * 
+ * Strings are [short byteLength][UTF-8 bytes], with length -1 for null.
+ * A BATCH gets one response frame per sub-request, in order. If a
+ * sub-request cannot be decoded, it and every later sub-request are
+ * answered with INVALID_REQUEST, the later ones carrying the batch's
+ * requestId. A BATCH count outside 0..MAX_BATCH gets one INVALID_REQUEST
+ * and the connection is closed.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class BinaryProtocol {
+    public static final byte OP_GET = 1;
+    public static final byte OP_PURCHASE = 2;
+    public static final byte OP_RESTOCK = 3;
+    public static final byte OP_BATCH = 16;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_NOT_FOUND = 1;
+    public static final byte STATUS_INSUFFICIENT_STOCK = 2;
+    public static final byte STATUS_INVALID_REQUEST = 3;
+    public static final byte STATUS_ERROR = 4;
+
+    /** Largest request frame (including the length prefix) */
+    public static final int MAX_REQUEST_FRAME = 16 * 1024;
+    /** Largest number of sub-requests in one BATCH */
+    public static final int MAX_BATCH = 256;
+    /** Strings longer than this many UTF-8 bytes are truncated on the wire */
+    public static final int MAX_STRING_BYTES = 256;
+    /** Largest response frame for a single request */
+    public static final int MAX_RESPONSE_FRAME = 4 + 1 + 4 + 4 + 8 + 4 + 2 * (2 + MAX_STRING_BYTES);
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Returns the size of a request's arguments for an opcode
+     * 
+     * @param opcode the opcode
+     * @return argument bytes, or -1 for an unknown opcode
+     */
+    public static int argumentBytes(byte opcode) {
+        switch (opcode) {
+            case OP_GET:
+                return 4;
+            case OP_PURCHASE:
+            case OP_RESTOCK:
+                return 8;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.sweetshop.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of equally sized direct buffers
+ * Connections borrow their read and write buffers here, so accepting
+ * and closing connections does not allocate direct memory every time
+ * 
+ * Not thread-safe; owned by the server's selector thread
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class DirectBufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+    DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffer != null && free.size() < maxPooled) {
+            buffer.clear();
+            free.push(buffer);
+        }
+    }
+}
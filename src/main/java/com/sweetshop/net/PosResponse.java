@@ -0,0 +1,70 @@
+package com.sweetshop.net;
+
+import com.sweetshop.model.Sweet;
+
+/**
+ * Decoded response from the point-of-sale server
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class PosResponse {
+    private final byte status;
+    private final int requestId;
+    private final int quantity;
+    private final Sweet sweet;
+
+    PosResponse(byte status, int requestId, int quantity, Sweet sweet) {
+        this.status = status;
+        this.requestId = requestId;
+        this.quantity = quantity;
+        this.sweet = sweet;
+    }
+
+    /**
+     * Get the status code (one of BinaryProtocol.STATUS_*)
+     * @return status
+     */
+    public byte getStatus() {
+        return status;
+    }
+
+    /**
+     * Check whether the request succeeded
+     * @return true for STATUS_OK
+     */
+    public boolean isOk() {
+        return status == BinaryProtocol.STATUS_OK;
+    }
+
+    /**
+     * Get the request ID this response answers
+     * @return request ID
+     */
+    public int getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Get the stock after a purchase or restock, or the available stock
+     * when a purchase was rejected for insufficient stock
+     * @return quantity
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Get the sweet returned by a GET request
+     * @return read-only sweet, or null for other responses
+     */
+    public Sweet getSweet() {
+        return sweet;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PosResponse[status=%d, requestId=%d, quantity=%d, sweet=%s]",
+                status, requestId, quantity, sweet);
+    }
+}
@@ -0,0 +1,244 @@
+package com.sweetshop.net;
+
+import com.sweetshop.model.Sweet;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sweetshop.net.BinaryProtocol.*;
+
+/**
+ * Blocking client for the point-of-sale binary protocol
+ * Single calls send one frame and wait for its response; a Batch sends
+ * many requests either as one BATCH frame or as pipelined frames in a
+ * single write, then reads all responses. Not thread-safe.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class SweetShopClient implements Closeable {
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(MAX_REQUEST_FRAME * 16);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MAX_RESPONSE_FRAME * MAX_BATCH);
+    private int nextRequestId = 1;
+
+    /**
+     * Connects to a server
+     * 
+     * @param address server address
+     * @throws IOException if the connection fails
+     */
+    public SweetShopClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        this.channel.socket().setTcpNoDelay(true);
+        this.in.flip();
+    }
+
+    /**
+     * Gets a sweet
+     * 
+     * @param sweetId the ID of the sweet
+     * @return response carrying the sweet, or STATUS_NOT_FOUND
+     * @throws IOException on connection failure
+     */
+    public PosResponse getSweet(int sweetId) throws IOException {
+        return newBatch().get(sweetId).executePipelined().get(0);
+    }
+
+    /**
+     * Purchases sweets
+     * 
+     * @param sweetId the ID of the sweet
+     * @param quantity quantity to purchase
+     * @return response carrying the remaining stock, or a failure status
+     * @throws IOException on connection failure
+     */
+    public PosResponse purchase(int sweetId, int quantity) throws IOException {
+        return newBatch().purchase(sweetId, quantity).executePipelined().get(0);
+    }
+
+    /**
+     * Restocks sweets
+     * 
+     * @param sweetId the ID of the sweet
+     * @param quantity quantity to add
+     * @return response carrying the new stock, or a failure status
+     * @throws IOException on connection failure
+     */
+    public PosResponse restock(int sweetId, int quantity) throws IOException {
+        return newBatch().restock(sweetId, quantity).executePipelined().get(0);
+    }
+
+    /**
+     * Starts a batch of requests
+     * 
+     * @return empty batch
+     */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Requests collected for one round trip
+     */
+    public final class Batch {
+        private final List<int[]> requests = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Adds a GET request
+         * @param sweetId the ID of the sweet
+         * @return this batch
+         */
+        public Batch get(int sweetId) {
+            return add(OP_GET, sweetId, 0);
+        }
+
+        /**
+         * Adds a PURCHASE request
+         * @param sweetId the ID of the sweet
+         * @param quantity quantity to purchase
+         * @return this batch
+         */
+        public Batch purchase(int sweetId, int quantity) {
+            return add(OP_PURCHASE, sweetId, quantity);
+        }
+
+        /**
+         * Adds a RESTOCK request
+         * @param sweetId the ID of the sweet
+         * @param quantity quantity to add
+         * @return this batch
+         */
+        public Batch restock(int sweetId, int quantity) {
+            return add(OP_RESTOCK, sweetId, quantity);
+        }
+
+        private Batch add(byte opcode, int sweetId, int quantity) {
+            if (requests.size() == MAX_BATCH) {
+                throw new IllegalStateException("Batch cannot exceed " + MAX_BATCH + " requests");
+            }
+            requests.add(new int[] { opcode, nextRequestId++, sweetId, quantity });
+            return this;
+        }
+
+        /**
+         * Sends all requests in one BATCH frame
+         * @return responses in request order
+         * @throws IOException on connection failure
+         */
+        public List<PosResponse> execute() throws IOException {
+            out.clear();
+            int start = out.position();
+            out.putInt(0);
+            out.put(OP_BATCH);
+            out.putInt(0);
+            out.putShort((short) requests.size());
+            for (int[] request : requests) {
+                putRequest(request);
+            }
+            out.putInt(start, out.position() - start - 4);
+            return send();
+        }
+
+        /**
+         * Sends every request as its own frame, all in one write
+         * @return responses in request order
+         * @throws IOException on connection failure
+         */
+        public List<PosResponse> executePipelined() throws IOException {
+            out.clear();
+            for (int[] request : requests) {
+                int start = out.position();
+                out.putInt(0);
+                putRequest(request);
+                out.putInt(start, out.position() - start - 4);
+            }
+            return send();
+        }
+
+        private void putRequest(int[] request) {
+            byte opcode = (byte) request[0];
+            out.put(opcode);
+            out.putInt(request[1]);
+            out.putInt(request[2]);
+            if (opcode != OP_GET) {
+                out.putInt(request[3]);
+            }
+        }
+
+        private List<PosResponse> send() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            List<PosResponse> responses = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                responses.add(readResponse());
+            }
+            return responses;
+        }
+    }
+
+    private PosResponse readResponse() throws IOException {
+        fill(4);
+        int length = in.getInt();
+        fill(length);
+        int end = in.position() + length;
+        byte status = in.get();
+        int requestId = in.getInt();
+        int quantity = 0;
+        Sweet sweet = null;
+        if (in.position() < end) {
+            if (status == STATUS_OK && end - in.position() > 4) {
+                int id = in.getInt();
+                long priceMinor = in.getLong();
+                quantity = in.getInt();
+                String name = getString();
+                String category = getString();
+                sweet = Sweet.ofMinorPrice(id, name, category, priceMinor, quantity).freeze();
+            } else {
+                quantity = in.getInt();
+            }
+        }
+        in.position(end);
+        return new PosResponse(status, requestId, quantity, sweet);
+    }
+
+    private String getString() {
+        int length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) {
+            return;
+        }
+        in.compact();
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+        in.flip();
+    }
+}
@@ -0,0 +1,420 @@
+package com.sweetshop.net;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.PurchaseResult;
+import com.sweetshop.service.SweetShop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.sweetshop.net.BinaryProtocol.*;
+
+/**
+ * NIO server speaking the BinaryProtocol for point-of-sale terminals
+ * One selector thread serves all connections. Each connection borrows a
+ * pooled direct read buffer and write buffer; every complete frame in
+ * the read buffer is decoded in place and its response appended to the
+ * write buffer, so pipelined and batched requests are answered with one
+ * socket write and the codec allocates nothing per request.
+ * 
+ * If the write buffer cannot take the worst-case response of the next
+ * frame, decoding pauses and the connection stops reading until the
+ * client drains its responses.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class SweetShopServer implements Closeable {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int WRITE_BUFFER_BYTES = 256 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final SweetShop shop;
+    private final InetSocketAddress address;
+    private final DirectBufferPool readBuffers = new DirectBufferPool(READ_BUFFER_BYTES, MAX_POOLED_BUFFERS);
+    private final DirectBufferPool writeBuffers = new DirectBufferPool(WRITE_BUFFER_BYTES, MAX_POOLED_BUFFERS);
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     * 
+     * @param shop the shop to serve
+     * @param address address to bind (port 0 picks a free port)
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public SweetShopServer(SweetShop shop, InetSocketAddress address) {
+        if (shop == null || address == null) {
+            throw new IllegalArgumentException("Shop and address cannot be null");
+        }
+        this.shop = shop;
+        this.address = address;
+    }
+
+    /**
+     * Binds the socket and starts the selector thread
+     * 
+     * @throws IOException if the socket cannot be bound
+     * @throws IllegalStateException if already started
+     */
+    public synchronized void start() throws IOException {
+        if (selectorThread != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(this::runLoop, "sweetshop-pos-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Returns the bound port
+     * 
+     * @return local port
+     * @throws IllegalStateException if the server has not been started
+     */
+    public int getPort() {
+        if (serverChannel == null) {
+            throw new IllegalStateException("Server not started");
+        }
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the number of requests handled (batched requests count individually)
+     * 
+     * @return request count
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Stops the selector thread and closes all connections
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    // ==================== Selector Loop ====================
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isWritable()) {
+                                flush(connection);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                read(connection);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        // Only this connection fails; the selector keeps serving the rest
+                        if (key.attachment() != null) {
+                            closeConnection((Connection) key.attachment());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // The selector itself failed; close() releases the channels
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel, readBuffers.acquire(), writeBuffers.acquire());
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        int read = connection.channel.read(connection.in);
+        if (read < 0) {
+            closeConnection(connection);
+            return;
+        }
+        decodeFrames(connection);
+        flush(connection);
+    }
+
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        out.flip();
+        connection.channel.write(out);
+        out.compact();
+
+        if (connection.stalled && out.position() < out.capacity() / 2) {
+            decodeFrames(connection);
+            out.flip();
+            connection.channel.write(out);
+            out.compact();
+        }
+        if (connection.closing) {
+            closeConnection(connection);
+            return;
+        }
+        int interest = (connection.stalled ? 0 : SelectionKey.OP_READ)
+                | (out.position() > 0 ? SelectionKey.OP_WRITE : 0);
+        connection.key.interestOps(interest);
+    }
+
+    private void closeConnection(Connection connection) {
+        if (connection.in == null) {
+            return;
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+            // Already closing; nothing else to release
+        }
+        readBuffers.release(connection.in);
+        writeBuffers.release(connection.out);
+        connection.in = null;
+        connection.out = null;
+    }
+
+    // ==================== Codec ====================
+
+    /**
+     * Decodes every complete frame that fits the write buffer's free space
+     */
+    private void decodeFrames(Connection connection) {
+        ByteBuffer in = connection.in;
+        ByteBuffer out = connection.out;
+        connection.stalled = false;
+        in.flip();
+        while (in.remaining() >= 4) {
+            int start = in.position();
+            int length = in.getInt(start);
+            if (length < 5 || length + 4 > MAX_REQUEST_FRAME) {
+                connection.closing = true;
+                break;
+            }
+            if (in.remaining() < 4 + length) {
+                break;
+            }
+            if (out.remaining() < responseBudget(in, start, length)) {
+                connection.stalled = true;
+                break;
+            }
+            int frameEnd = start + 4 + length;
+            in.position(start + 4);
+            decodeFrame(connection, in, frameEnd, out);
+            in.position(frameEnd);
+            if (connection.closing) {
+                break;
+            }
+        }
+        in.compact();
+    }
+
+    private static int responseBudget(ByteBuffer in, int start, int length) {
+        if (in.get(start + 4) == OP_BATCH && length >= 7) {
+            int count = in.getShort(start + 9);
+            return Math.max(1, Math.min(count, MAX_BATCH)) * MAX_RESPONSE_FRAME;
+        }
+        return MAX_RESPONSE_FRAME;
+    }
+
+    private void decodeFrame(Connection connection, ByteBuffer in, int frameEnd, ByteBuffer out) {
+        byte opcode = in.get();
+        int requestId = in.getInt();
+        if (opcode != OP_BATCH) {
+            handleRequest(opcode, requestId, in, frameEnd, out);
+            return;
+        }
+        if (frameEnd - in.position() < 2) {
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+            return;
+        }
+        int count = in.getShort();
+        if (count < 0 || count > MAX_BATCH) {
+            // The client expects more responses than a batch may have
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+            connection.closing = true;
+            return;
+        }
+        int answered = 0;
+        while (answered < count && frameEnd - in.position() >= 5) {
+            byte subOpcode = in.get();
+            int subRequestId = in.getInt();
+            answered++;
+            if (!handleRequest(subOpcode, subRequestId, in, frameEnd, out)) {
+                break;
+            }
+        }
+        // Later sub-requests cannot be located once one fails to decode
+        for (; answered < count; answered++) {
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+        }
+    }
+
+    /**
+     * Executes one request and appends its response
+     * @return false if the arguments could not be decoded (rest of frame is skipped)
+     */
+    private boolean handleRequest(byte opcode, int requestId, ByteBuffer in, int frameEnd, ByteBuffer out) {
+        int argumentBytes = argumentBytes(opcode);
+        if (argumentBytes < 0 || frameEnd - in.position() < argumentBytes) {
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+            return false;
+        }
+        requestCount.incrementAndGet();
+        int sweetId = in.getInt();
+        switch (opcode) {
+            case OP_GET:
+                Sweet sweet = shop.getSweet(sweetId);
+                if (sweet == null) {
+                    writeStatus(out, STATUS_NOT_FOUND, requestId);
+                } else {
+                    writeSweet(out, requestId, sweet, shop.getEffectivePriceMinor(sweet));
+                }
+                break;
+            case OP_PURCHASE:
+                purchase(out, requestId, sweetId, in.getInt());
+                break;
+            default:
+                restock(out, requestId, sweetId, in.getInt());
+                break;
+        }
+        return true;
+    }
+
+    private void purchase(ByteBuffer out, int requestId, int sweetId, int quantity) {
+        if (quantity <= 0) {
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+            return;
+        }
+        try {
+            long outcome = shop.tryPurchase(sweetId, quantity);
+            switch (PurchaseResult.status(outcome)) {
+                case OK:
+                    writeQuantity(out, STATUS_OK, requestId, PurchaseResult.available(outcome));
+                    break;
+                case INSUFFICIENT_STOCK:
+                    writeQuantity(out, STATUS_INSUFFICIENT_STOCK, requestId, PurchaseResult.available(outcome));
+                    break;
+                default:
+                    writeStatus(out, STATUS_NOT_FOUND, requestId);
+                    break;
+            }
+        } catch (RuntimeException e) {
+            writeStatus(out, STATUS_ERROR, requestId);
+        }
+    }
+
+    private void restock(ByteBuffer out, int requestId, int sweetId, int quantity) {
+        if (quantity <= 0) {
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+            return;
+        }
+        try {
+            long outcome = shop.tryRestock(sweetId, quantity);
+            if (PurchaseResult.status(outcome) == PurchaseResult.Status.OK) {
+                writeQuantity(out, STATUS_OK, requestId, PurchaseResult.available(outcome));
+            } else {
+                writeStatus(out, STATUS_NOT_FOUND, requestId);
+            }
+        } catch (IllegalArgumentException e) {
+            // the stock would overflow
+            writeStatus(out, STATUS_INVALID_REQUEST, requestId);
+        } catch (RuntimeException e) {
+            writeStatus(out, STATUS_ERROR, requestId);
+        }
+    }
+
+    private static void writeStatus(ByteBuffer out, byte status, int requestId) {
+        out.putInt(5);
+        out.put(status);
+        out.putInt(requestId);
+    }
+
+    private static void writeQuantity(ByteBuffer out, byte status, int requestId, int quantity) {
+        out.putInt(9);
+        out.put(status);
+        out.putInt(requestId);
+        out.putInt(quantity);
+    }
+
+    private static void writeSweet(ByteBuffer out, int requestId, Sweet sweet, long priceMinor) {
+        int start = out.position();
+        out.putInt(0);
+        out.put(STATUS_OK);
+        out.putInt(requestId);
+        out.putInt(sweet.getId());
+        out.putLong(priceMinor);
+        out.putInt(sweet.getQuantity());
+        int lengthPosition = out.position();
+        out.position(lengthPosition + 2);
+        out.putShort(lengthPosition, (short) sweet.writeName(out, MAX_STRING_BYTES));
+        lengthPosition = out.position();
+        out.position(lengthPosition + 2);
+        out.putShort(lengthPosition, (short) sweet.writeCategory(out, MAX_STRING_BYTES));
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        ByteBuffer in;
+        ByteBuffer out;
+        SelectionKey key;
+        boolean stalled;
+        boolean closing;
+
+        Connection(SocketChannel channel, ByteBuffer in, ByteBuffer out) {
+            this.channel = channel;
+            this.in = in;
+            this.out = out;
+        }
+    }
+}
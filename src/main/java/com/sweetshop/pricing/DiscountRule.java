@@ -0,0 +1,145 @@
+package com.sweetshop.pricing;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.util.Money;
+import com.sweetshop.util.SymbolTable;
+
+import java.util.Locale;
+
+/**
+ * Percentage discount for one sweet or one category over a time window
+ * Rules are immutable; the window is [startMillis, endMillis)
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class DiscountRule {
+    private final int sweetId;
+    private final String category;
+    private final byte[] foldedCategory;
+    private final int basisPoints;
+    private final long startMillis;
+    private final long endMillis;
+
+    private DiscountRule(int sweetId, String category, int basisPoints, long startMillis, long endMillis) {
+        if (basisPoints <= 0 || basisPoints > Money.BASIS_POINTS) {
+            throw new IllegalArgumentException("Discount must be between 1 and 10000 basis points");
+        }
+        if (startMillis >= endMillis) {
+            throw new IllegalArgumentException("Discount must end after it starts");
+        }
+        this.sweetId = sweetId;
+        this.category = category;
+        this.foldedCategory = category == null ? null : SymbolTable.fold(category);
+        this.basisPoints = basisPoints;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    /**
+     * Creates a discount on a single sweet
+     * 
+     * @param sweetId the ID of the sweet
+     * @param basisPoints discount in basis points (1000 = 10% off)
+     * @param startMillis epoch millis the discount starts (inclusive)
+     * @param endMillis epoch millis the discount ends (exclusive)
+     * @return the rule
+     * @throws IllegalArgumentException if the discount or window is invalid
+     */
+    public static DiscountRule forSweet(int sweetId, int basisPoints, long startMillis, long endMillis) {
+        return new DiscountRule(sweetId, null, basisPoints, startMillis, endMillis);
+    }
+
+    /**
+     * Creates a discount on every sweet in a category (case-insensitive)
+     * 
+     * @param category the category
+     * @param basisPoints discount in basis points (1000 = 10% off)
+     * @param startMillis epoch millis the discount starts (inclusive)
+     * @param endMillis epoch millis the discount ends (exclusive)
+     * @return the rule
+     * @throws IllegalArgumentException if the category, discount or window is invalid
+     */
+    public static DiscountRule forCategory(String category, int basisPoints, long startMillis, long endMillis) {
+        if (category == null || category.trim().isEmpty()) {
+            throw new IllegalArgumentException("Category cannot be null or empty");
+        }
+        return new DiscountRule(0, category.toLowerCase(Locale.ROOT), basisPoints, startMillis, endMillis);
+    }
+
+    /**
+     * Check whether the rule is scoped to a category
+     * @return true for category rules, false for single-sweet rules
+     */
+    public boolean isCategoryRule() {
+        return category != null;
+    }
+
+    /**
+     * Get the sweet this rule applies to (single-sweet rules only)
+     * @return sweet ID
+     */
+    public int getSweetId() {
+        return sweetId;
+    }
+
+    /**
+     * Get the category this rule applies to (category rules only)
+     * @return lower-cased category, or null
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Get the discount
+     * @return discount in basis points
+     */
+    public int getBasisPoints() {
+        return basisPoints;
+    }
+
+    /**
+     * Get the start of the window
+     * @return epoch millis (inclusive)
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Get the end of the window
+     * @return epoch millis (exclusive)
+     */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * Check whether the rule is in effect at a time
+     * @param now epoch millis
+     * @return true if start &lt;= now &lt; end
+     */
+    public boolean isActiveAt(long now) {
+        return now >= startMillis && now < endMillis;
+    }
+
+    /**
+     * Check whether the rule covers a sweet
+     * @param sweet the sweet
+     * @return true if the rule's sweet ID or category matches
+     */
+    public boolean appliesTo(Sweet sweet) {
+        if (category == null) {
+            return sweet.getId() == sweetId;
+        }
+        return sweet.isInCategory(foldedCategory);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DiscountRule[%s, %d bp, %d..%d]",
+                category == null ? "id=" + sweetId : "category='" + category + "'",
+                basisPoints, startMillis, endMillis);
+    }
+}
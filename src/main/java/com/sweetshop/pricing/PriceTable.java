@@ -0,0 +1,156 @@
+package com.sweetshop.pricing;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable table of precomputed effective prices
+ * Prices live in dense primitive arrays addressed through an
+ * open-addressed id index, so a lookup is a couple of array reads.
+ * The table is valid for the time range between the rule boundaries
+ * surrounding the moment it was built.
+ * 
+ * Catalog changes are applied as row patches: a small sorted overlay
+ * that is copied on write and shares the base arrays, so updating one
+ * sweet costs a copy of the overlay instead of re-pricing the catalog.
+ * The engine rebuilds the base once the overlay grows past a limit.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class PriceTable {
+    static final PriceTable EMPTY = new PriceTable(new int[0], new long[0], new long[0],
+            Long.MIN_VALUE, Long.MIN_VALUE, List.of());
+
+    private final int[] ids;
+    private final long[] listPrices;
+    private final long[] effectivePrices;
+    private final int[] index;
+    private final int mask;
+
+    private final int[] patchIds;
+    private final long[] patchListPrices;
+    private final long[] patchEffectivePrices;
+
+    final long validFrom;
+    final long validUntil;
+    final List<DiscountRule> activeRules;
+
+    PriceTable(int[] ids, long[] listPrices, long[] effectivePrices,
+               long validFrom, long validUntil, List<DiscountRule> activeRules) {
+        this.ids = ids;
+        this.listPrices = listPrices;
+        this.effectivePrices = effectivePrices;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.activeRules = activeRules;
+        this.patchIds = new int[0];
+        this.patchListPrices = new long[0];
+        this.patchEffectivePrices = new long[0];
+
+        int capacity = Integer.highestOneBit(Math.max(2, ids.length) * 2 - 1) << 1;
+        this.index = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < ids.length; i++) {
+            int slot = mix(ids[i]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+    }
+
+    private PriceTable(PriceTable base, int[] patchIds, long[] patchListPrices, long[] patchEffectivePrices) {
+        this.ids = base.ids;
+        this.listPrices = base.listPrices;
+        this.effectivePrices = base.effectivePrices;
+        this.index = base.index;
+        this.mask = base.mask;
+        this.validFrom = base.validFrom;
+        this.validUntil = base.validUntil;
+        this.activeRules = base.activeRules;
+        this.patchIds = patchIds;
+        this.patchListPrices = patchListPrices;
+        this.patchEffectivePrices = patchEffectivePrices;
+    }
+
+    /**
+     * Returns a copy of this table with one sweet's row replaced
+     * 
+     * @param sweetId the ID of the sweet
+     * @param listPrice its list price, or -1 for a removed sweet
+     * @param effectivePrice its effective price under activeRules
+     * @return patched table
+     */
+    PriceTable withRow(int sweetId, long listPrice, long effectivePrice) {
+        int at = Arrays.binarySearch(patchIds, sweetId);
+        int[] newIds;
+        long[] newListPrices;
+        long[] newEffectivePrices;
+        if (at >= 0) {
+            newIds = patchIds;
+            newListPrices = patchListPrices.clone();
+            newEffectivePrices = patchEffectivePrices.clone();
+        } else {
+            at = -at - 1;
+            int size = patchIds.length;
+            newIds = new int[size + 1];
+            newListPrices = new long[size + 1];
+            newEffectivePrices = new long[size + 1];
+            System.arraycopy(patchIds, 0, newIds, 0, at);
+            System.arraycopy(patchIds, at, newIds, at + 1, size - at);
+            System.arraycopy(patchListPrices, 0, newListPrices, 0, at);
+            System.arraycopy(patchListPrices, at, newListPrices, at + 1, size - at);
+            System.arraycopy(patchEffectivePrices, 0, newEffectivePrices, 0, at);
+            System.arraycopy(patchEffectivePrices, at, newEffectivePrices, at + 1, size - at);
+            newIds[at] = sweetId;
+        }
+        newListPrices[at] = listPrice;
+        newEffectivePrices[at] = effectivePrice;
+        return new PriceTable(this, newIds, newListPrices, newEffectivePrices);
+    }
+
+    /**
+     * Returns the number of patched rows
+     */
+    int patchCount() {
+        return patchIds.length;
+    }
+
+    /**
+     * Checks whether the table still describes the active rules at a time
+     */
+    boolean isValidAt(long now) {
+        return now >= validFrom && now < validUntil;
+    }
+
+    /**
+     * Looks up a precomputed price
+     * 
+     * @return effective price in paise, or -1 if the table has no entry
+     *         for the sweet at this list price
+     */
+    long lookup(int sweetId, long listPrice) {
+        if (patchIds.length > 0) {
+            int patch = Arrays.binarySearch(patchIds, sweetId);
+            if (patch >= 0) {
+                return patchListPrices[patch] == listPrice ? patchEffectivePrices[patch] : -1;
+            }
+        }
+        int slot = mix(sweetId) & mask;
+        int entry;
+        while ((entry = index[slot]) != 0) {
+            int i = entry - 1;
+            if (ids[i] == sweetId) {
+                return listPrices[i] == listPrice ? effectivePrices[i] : -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,360 @@
+package com.sweetshop.pricing;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventoryListener;
+import com.sweetshop.service.InventorySnapshot;
+import com.sweetshop.service.PriceResolver;
+import com.sweetshop.service.SweetShop;
+import com.sweetshop.util.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Effective prices for a SweetShop under time-windowed discount rules
+ * 
+ * The engine precomputes every sweet's effective price into a PriceTable
+ * for the rules active right now and swaps it in with one volatile write
+ * when a promotion starts or ends or when rules change. A catalog change
+ * patches just that sweet's row; after MAX_PATCHED_ROWS patches the table
+ * is rebuilt, on the scheduler when started and inline otherwise. Lookups
+ * read the table in O(1); a sweet the table does not cover (looked up
+ * just past a boundary before the swap) is priced directly from the
+ * rules, so answers are always exact and the table is only a fast path.
+ * 
+ * When several active rules cover a sweet the largest discount wins;
+ * discounts do not stack.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class PricingEngine implements PriceResolver, InventoryListener {
+    private static final int MAX_PATCHED_ROWS = 1024;
+
+    private final SweetShop shop;
+    private final LongSupplier clock;
+    private final List<DiscountRule> rules = new CopyOnWriteArrayList<>();
+    private final Object refreshLock = new Object();
+
+    private volatile PriceTable table = PriceTable.EMPTY;
+    private volatile boolean stale = true;
+    private volatile ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> nextBoundary;
+
+    /**
+     * Constructor - uses the system clock
+     * 
+     * @param shop the shop to price
+     * @throws IllegalArgumentException if shop is null
+     */
+    public PricingEngine(SweetShop shop) {
+        this(shop, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with a custom clock (useful for testing)
+     * Registers with the shop as its price resolver and listener
+     * 
+     * @param shop the shop to price
+     * @param clock supplier of epoch milliseconds
+     * @throws IllegalArgumentException if shop or clock is null
+     */
+    public PricingEngine(SweetShop shop, LongSupplier clock) {
+        if (shop == null || clock == null) {
+            throw new IllegalArgumentException("Shop and clock cannot be null");
+        }
+        this.shop = shop;
+        this.clock = clock;
+        shop.addListener(this);
+        refresh();
+        shop.setPriceResolver(this);
+    }
+
+    /**
+     * Rebuilds the price table at every rule boundary from now on
+     * The executor is not shut down by the engine
+     * 
+     * @param executor scheduler to run refreshes on
+     * @throws IllegalArgumentException if executor is null
+     */
+    public void start(ScheduledExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        scheduler = executor;
+        stale = true;
+        refresh();
+    }
+
+    /**
+     * Adds a discount rule
+     * 
+     * @param rule the rule
+     * @throws IllegalArgumentException if rule is null
+     */
+    public void addRule(DiscountRule rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Rule cannot be null");
+        }
+        rules.add(rule);
+        stale = true;
+        refresh();
+    }
+
+    /**
+     * Removes a discount rule
+     * 
+     * @param rule the rule
+     * @return true if the rule was registered
+     */
+    public boolean removeRule(DiscountRule rule) {
+        boolean removed = rules.remove(rule);
+        if (removed) {
+            stale = true;
+            refresh();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns all registered rules, active or not
+     * 
+     * @return unmodifiable list of rules
+     */
+    public List<DiscountRule> getRules() {
+        return Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    /**
+     * Returns the rules in effect right now
+     * 
+     * @return unmodifiable list of active rules
+     */
+    public List<DiscountRule> getActiveRules() {
+        long now = clock.getAsLong();
+        PriceTable current = table;
+        if (current.isValidAt(now)) {
+            return current.activeRules;
+        }
+        return activeRules(now);
+    }
+
+    /**
+     * Returns the effective price of a sweet in the shop
+     * 
+     * @param sweetId the ID of the sweet
+     * @return effective price in paise
+     * @throws IllegalArgumentException if sweet not found
+     */
+    public long getEffectivePriceMinor(int sweetId) {
+        Sweet sweet = shop.snapshot().getSweet(sweetId);
+        if (sweet == null) {
+            throw new IllegalArgumentException("Sweet with ID " + sweetId + " not found");
+        }
+        return effectivePriceMinor(sweet);
+    }
+
+    @Override
+    public long effectivePriceMinor(Sweet sweet) {
+        long now = clock.getAsLong();
+        long listPrice = sweet.getPriceMinor();
+        PriceTable current = table;
+        if (current.isValidAt(now)) {
+            long price = current.lookup(sweet.getId(), listPrice);
+            if (price >= 0) {
+                return price;
+            }
+        }
+        return Money.discount(listPrice, bestDiscount(sweet, now));
+    }
+
+    /**
+     * Brings the price table up to date
+     * Rebuilds it if a rule boundary has passed, rules changed or the
+     * catalog changed, and tells the shop when the set of active rules
+     * differs from before. Runs on the scheduler when started; callers
+     * may also invoke it directly.
+     */
+    public void refresh() {
+        boolean pricesChanged;
+        synchronized (refreshLock) {
+            long now = clock.getAsLong();
+            PriceTable current = table;
+            if (!stale && current.isValidAt(now)) {
+                return;
+            }
+            stale = false;
+            PriceTable next = build(now);
+            table = next;
+            pricesChanged = !new HashSet<>(next.activeRules).equals(new HashSet<>(current.activeRules));
+            scheduleNextBoundary(next, now);
+        }
+        if (pricesChanged) {
+            shop.notifyPricesChanged();
+        }
+    }
+
+    // ==================== Catalog Changes ====================
+
+    @Override
+    public void onSweetAdded(Sweet sweet) {
+        patchRow(sweet.getId(), sweet);
+    }
+
+    @Override
+    public void onSweetDeleted(Sweet sweet) {
+        patchRow(sweet.getId(), null);
+    }
+
+    @Override
+    public void onSweetUpdated(Sweet before, Sweet after) {
+        patchRow(after.getId(), after);
+    }
+
+    @Override
+    public void onInventoryCleared() {
+        rebuildSoon();
+    }
+
+    @Override
+    public void onInventoryReplaced(InventorySnapshot snapshot) {
+        rebuildSoon();
+    }
+
+    /**
+     * Re-prices one sweet (null when removed) under the table's rules.
+     * Runs under the shop's write lock, after the snapshot holding the
+     * change was published, so a concurrent rebuild either sees the
+     * change or is patched by it
+     */
+    private void patchRow(int sweetId, Sweet sweet) {
+        boolean full;
+        synchronized (refreshLock) {
+            PriceTable current = table;
+            PriceTable next = sweet == null
+                    ? current.withRow(sweetId, -1, -1)
+                    : current.withRow(sweetId, sweet.getPriceMinor(),
+                            Money.discount(sweet.getPriceMinor(), bestDiscount(sweet, current.activeRules)));
+            table = next;
+            full = next.patchCount() > MAX_PATCHED_ROWS;
+        }
+        if (full) {
+            rebuildSoon();
+        }
+    }
+
+    /**
+     * Rebuilds the whole table, handing it to the scheduler (if any) so
+     * the write lock is not held while the catalog is re-priced
+     */
+    private void rebuildSoon() {
+        stale = true;
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null && !executor.isShutdown()) {
+            executor.execute(this::refresh);
+        } else {
+            refresh();
+        }
+    }
+
+    // ==================== Table Building ====================
+
+    private PriceTable build(long now) {
+        List<DiscountRule> active = activeRules(now);
+        Map<Integer, Integer> sweetDiscounts = new HashMap<>();
+        List<DiscountRule> categoryRules = new ArrayList<>();
+        for (DiscountRule rule : active) {
+            if (rule.isCategoryRule()) {
+                categoryRules.add(rule);
+            } else {
+                sweetDiscounts.merge(rule.getSweetId(), rule.getBasisPoints(), Math::max);
+            }
+        }
+
+        InventorySnapshot snapshot = shop.snapshot();
+        int size = snapshot.size();
+        int[] ids = new int[size];
+        long[] listPrices = new long[size];
+        long[] effectivePrices = new long[size];
+        int i = 0;
+        for (Sweet sweet : snapshot) {
+            int discount = Math.max(sweetDiscounts.getOrDefault(sweet.getId(), 0),
+                    bestDiscount(sweet, categoryRules));
+            ids[i] = sweet.getId();
+            listPrices[i] = sweet.getPriceMinor();
+            effectivePrices[i] = Money.discount(sweet.getPriceMinor(), discount);
+            i++;
+        }
+
+        long validFrom = Long.MIN_VALUE;
+        long validUntil = Long.MAX_VALUE;
+        for (DiscountRule rule : rules) {
+            for (long boundary : new long[] { rule.getStartMillis(), rule.getEndMillis() }) {
+                if (boundary <= now) {
+                    validFrom = Math.max(validFrom, boundary);
+                } else {
+                    validUntil = Math.min(validUntil, boundary);
+                }
+            }
+        }
+        return new PriceTable(ids, listPrices, effectivePrices, validFrom, validUntil,
+                Collections.unmodifiableList(active));
+    }
+
+    private List<DiscountRule> activeRules(long now) {
+        List<DiscountRule> active = new ArrayList<>();
+        for (DiscountRule rule : rules) {
+            if (rule.isActiveAt(now)) {
+                active.add(rule);
+            }
+        }
+        return active;
+    }
+
+    private static int bestDiscount(Sweet sweet, List<DiscountRule> active) {
+        int best = 0;
+        for (DiscountRule rule : active) {
+            if (rule.getBasisPoints() > best && rule.appliesTo(sweet)) {
+                best = rule.getBasisPoints();
+            }
+        }
+        return best;
+    }
+
+    private int bestDiscount(Sweet sweet, long now) {
+        int best = 0;
+        for (DiscountRule rule : rules) {
+            if (rule.isActiveAt(now) && rule.appliesTo(sweet)) {
+                best = Math.max(best, rule.getBasisPoints());
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Must be called while holding the refresh lock
+     */
+    private void scheduleNextBoundary(PriceTable next, long now) {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null || executor.isShutdown()) {
+            return;
+        }
+        if (nextBoundary != null) {
+            nextBoundary.cancel(false);
+            nextBoundary = null;
+        }
+        if (next.validUntil != Long.MAX_VALUE) {
+            nextBoundary = executor.schedule(this::refresh,
+                    Math.max(0, next.validUntil - now), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.sweetshop.replication;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SweetShop;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sweetshop.replication.ReplicationProtocol.*;
+
+/**
+ * Read replica fed by a ReplicationPrimary
+ * A background thread connects to the primary, sends the last version
+ * it applied and applies the snapshot and log entries it receives to a
+ * local SweetShop, which callers use for reads only. On disconnect it
+ * reconnects and resumes from its own version; if an entry cannot be
+ * applied it asks for a fresh snapshot.
+ * 
+ * Lag is observable in entries (known primary version minus applied
+ * version) and in milliseconds since the replica was last known to be
+ * caught up; both are accurate to within one heartbeat interval.
+ * 
+ * Discount rules are not replicated (see ReplicationPrimary); install a
+ * PricingEngine with the same rules on the local shop if replica reads
+ * need effective prices.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class ReplicaFollower implements Closeable {
+    private static final long RECONNECT_MILLIS = 200;
+
+    private final SweetShop shop;
+    private final InetSocketAddress primary;
+    private final Object progress = new Object();
+
+    private volatile long appliedVersion = RESYNC;
+    private volatile long primaryVersion = RESYNC;
+    private volatile long caughtUpAt;
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread worker;
+
+    /**
+     * Constructor - replicates into a new SweetShop
+     * 
+     * @param primary address of the primary
+     * @throws IllegalArgumentException if primary is null
+     */
+    public ReplicaFollower(InetSocketAddress primary) {
+        this(new SweetShop(), primary);
+    }
+
+    /**
+     * Constructor
+     * The shop must not be mutated by anything but this follower
+     * 
+     * @param shop local shop to apply the log to
+     * @param primary address of the primary
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ReplicaFollower(SweetShop shop, InetSocketAddress primary) {
+        if (shop == null || primary == null) {
+            throw new IllegalArgumentException("Shop and primary address cannot be null");
+        }
+        this.shop = shop;
+        this.primary = primary;
+    }
+
+    /**
+     * Starts replicating in the background
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "replica-follower");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Returns the replicated shop for reads
+     * 
+     * @return local shop
+     */
+    public SweetShop getShop() {
+        return shop;
+    }
+
+    /**
+     * Returns the replicated shop if it is fresh enough
+     * 
+     * @param maxLagMillis largest acceptable lag
+     * @return local shop
+     * @throws IllegalStateException if the replica lags further behind
+     */
+    public SweetShop getShop(long maxLagMillis) {
+        long lag = getLagMillis();
+        if (lag > maxLagMillis) {
+            throw new IllegalStateException("Replica is " + lag + " ms behind the primary");
+        }
+        return shop;
+    }
+
+    /**
+     * Returns the primary version applied so far
+     * 
+     * @return applied version, or -1 before the first snapshot
+     */
+    public long getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    /**
+     * Returns the newest primary version this replica has heard of
+     * 
+     * @return primary version, or -1 if never connected
+     */
+    public long getPrimaryVersion() {
+        return primaryVersion;
+    }
+
+    /**
+     * Returns how many known entries are not yet applied
+     * 
+     * @return lag in entries
+     */
+    public long getLagEntries() {
+        return Math.max(0, primaryVersion - appliedVersion);
+    }
+
+    /**
+     * Returns how long ago the replica was last known to be caught up
+     * 
+     * @return 0 when connected and caught up, otherwise milliseconds
+     *         since it last was (Long.MAX_VALUE if it never was)
+     */
+    public long getLagMillis() {
+        if (connected && appliedVersion >= primaryVersion && appliedVersion >= 0) {
+            return 0;
+        }
+        long since = caughtUpAt;
+        return since == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - since;
+    }
+
+    /**
+     * Check whether the replica is connected to the primary
+     * @return true if connected
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Waits until a primary version has been applied
+     * 
+     * @param version the version to wait for
+     * @param timeoutMillis maximum time to wait
+     * @return true if the version was applied in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitVersion(long version, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (progress) {
+            while (appliedVersion < version) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                progress.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // ==================== Replication Loop ====================
+
+    private void run() {
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(primary);
+                connection.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(connection.getOutputStream());
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16));
+                out.writeLong(appliedVersion);
+                out.flush();
+                connected = true;
+                while (running) {
+                    if (!readFrame(in)) {
+                        appliedVersion = RESYNC;
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // primary unreachable or gone; retry below
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads and applies one frame
+     * 
+     * @return false if the replica diverged and must resynchronize
+     */
+    private boolean readFrame(DataInputStream in) throws IOException {
+        byte frame = in.readByte();
+        switch (frame) {
+            case FRAME_SNAPSHOT:
+                applySnapshot(in);
+                return true;
+            case FRAME_ENTRY:
+                return applyEntry(in);
+            case FRAME_HEARTBEAT:
+                long version = in.readLong();
+                in.readLong();
+                primaryVersion = Math.max(primaryVersion, version);
+                advanced();
+                return true;
+            default:
+                throw new IOException("Unknown replication frame " + frame);
+        }
+    }
+
+    /**
+     * Reads the whole snapshot before touching the shop, then swaps it in
+     * as one inventory snapshot; until then the known primary version is
+     * ahead of the applied one, so the replica reports itself as lagging
+     */
+    private void applySnapshot(DataInputStream in) throws IOException {
+        long version = in.readLong();
+        int count = in.readInt();
+        primaryVersion = Math.max(primaryVersion, version);
+        List<Sweet> sweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sweets.add(readSweet(in));
+        }
+        shop.replaceInventory(sweets);
+        appliedVersion = version;
+        advanced();
+    }
+
+    private boolean applyEntry(DataInputStream in) throws IOException {
+        long version = in.readLong();
+        in.readLong();
+        byte op = in.readByte();
+        int sweetId = in.readInt();
+        int quantity = in.readInt();
+        Sweet state = op == OP_ADD || op == OP_PRICE || op == OP_RENAME ? readSweet(in) : null;
+        primaryVersion = Math.max(primaryVersion, version);
+        if (version != appliedVersion + 1) {
+            return false;
+        }
+        try {
+            switch (op) {
+                case OP_ADD:
+                    shop.addSweet(state);
+                    break;
+                case OP_DELETE:
+                    shop.deleteSweet(sweetId);
+                    break;
+                case OP_PURCHASE:
+                    shop.purchaseSweet(sweetId, quantity);
+                    break;
+                case OP_RESTOCK:
+                    shop.restockSweet(sweetId, quantity);
+                    break;
+                case OP_PRICE:
+                    shop.updatePriceMinor(sweetId, state.getPriceMinor());
+                    break;
+                case OP_RENAME:
+                    shop.renameSweet(sweetId, state.getName());
+                    break;
+                case OP_CLEAR:
+                    shop.clearInventory();
+                    break;
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+        appliedVersion = version;
+        advanced();
+        return true;
+    }
+
+    private void advanced() {
+        if (appliedVersion >= primaryVersion) {
+            caughtUpAt = System.currentTimeMillis();
+        }
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.sweetshop.replication;
+
+import com.sweetshop.model.Sweet;
+
+import java.net.InetSocketAddress;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-alone replica process
+ * Usage: ReplicaMain host port version [timeoutMillis]
+ * Connects to a primary, waits until the given version is applied and
+ * prints the replicated inventory, one "id quantity priceMinor" line per
+ * sweet; exits with status 1 if the version is not reached in time
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class ReplicaMain {
+
+    private ReplicaMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: ReplicaMain host port version [timeoutMillis]");
+            System.exit(2);
+        }
+        InetSocketAddress primary = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+        long version = Long.parseLong(args[2]);
+        long timeout = args.length > 3 ? Long.parseLong(args[3]) : 10_000;
+
+        try (ReplicaFollower follower = new ReplicaFollower(primary)) {
+            follower.start();
+            if (!follower.awaitVersion(version, timeout)) {
+                System.err.println("Timed out at version " + follower.getAppliedVersion());
+                System.exit(1);
+            }
+            List<Sweet> sweets = follower.getShop().getAllSweets().stream()
+                    .sorted(Comparator.comparingInt(Sweet::getId))
+                    .collect(Collectors.toList());
+            System.out.println("version " + follower.getAppliedVersion());
+            for (Sweet sweet : sweets) {
+                System.out.println(sweet.getId() + " " + sweet.getQuantity() + " " + sweet.getPriceMinor());
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.sweetshop.replication;
+
+import java.util.List;
+
+/**
+ * Bounded in-memory mutation log
+ * Holds the most recent encoded entries in a ring indexed by version;
+ * replicas that fall further behind than the ring reaches are caught up
+ * from a snapshot instead
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class ReplicationLog {
+    private final byte[][] entries;
+    private long first;
+    private long last;
+
+    /**
+     * @param lastVersion version of the state before the first entry
+     * @param capacity number of entries retained
+     */
+    ReplicationLog(long lastVersion, int capacity) {
+        this.entries = new byte[capacity][];
+        this.first = lastVersion + 1;
+        this.last = lastVersion;
+    }
+
+    synchronized void append(long version, byte[] entry) {
+        if (version != last + 1) {
+            first = version;
+        }
+        entries[(int) (version % entries.length)] = entry;
+        last = version;
+        if (last - first + 1 > entries.length) {
+            first = last - entries.length + 1;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Drops every entry; the next one appended follows version, and
+     * replicas behind it are caught up from a snapshot
+     */
+    synchronized void restartAt(long version) {
+        first = version + 1;
+        last = version;
+        notifyAll();
+    }
+
+    synchronized long lastVersion() {
+        return last;
+    }
+
+    /**
+     * Checks whether entries starting at a version are retained or still
+     * to come
+     */
+    synchronized boolean canServeFrom(long version) {
+        return version >= first && version <= last + 1;
+    }
+
+    /**
+     * Waits until an entry at or after a version is available and copies
+     * up to max entries into out
+     * 
+     * @return number of entries copied, 0 on timeout, or -1 if the entry
+     *         at from is no longer retained
+     */
+    synchronized int await(long from, List<byte[]> out, int max, long timeoutMillis) throws InterruptedException {
+        if (from > last) {
+            wait(timeoutMillis);
+        }
+        if (!canServeFrom(from)) {
+            return -1;
+        }
+        int count = (int) Math.min(max, last - from + 1);
+        for (int i = 0; i < count; i++) {
+            out.add(entries[(int) ((from + i) % entries.length)]);
+        }
+        return count;
+    }
+}
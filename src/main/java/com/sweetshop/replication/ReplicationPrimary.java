@@ -0,0 +1,287 @@
+package com.sweetshop.replication;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventoryListener;
+import com.sweetshop.service.InventorySnapshot;
+import com.sweetshop.service.SweetShop;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sweetshop.replication.ReplicationProtocol.*;
+
+/**
+ * Ships a SweetShop's ordered mutation log to read replicas
+ * Registered as an InventoryListener, the primary encodes every
+ * mutation once, under the shop's write lock and in mutation order, into
+ * a bounded ReplicationLog keyed by snapshot version. Each connected
+ * replica gets its own sender thread that streams entries after the
+ * replica's last applied version; a replica too far behind for the log
+ * (or new) is first sent the current snapshot and then streamed from
+ * that snapshot's version. Idle connections carry heartbeats so
+ * replicas can measure their lag.
+ * 
+ * Only the inventory is replicated: list prices, names, categories and
+ * stock. Discount rules and the effective prices a PricingEngine
+ * resolves on the primary are not shipped, so a replica reports list
+ * prices unless the same rules are installed on a PricingEngine over
+ * the replica's shop.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class ReplicationPrimary implements InventoryListener, Closeable {
+    private static final int DEFAULT_LOG_CAPACITY = 1 << 16;
+    private static final int SEND_BATCH = 512;
+    static final long HEARTBEAT_MILLIS = 100;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final SweetShop shop;
+    private final InetSocketAddress address;
+    private final int logCapacity;
+    private final Set<Socket> replicas = ConcurrentHashMap.newKeySet();
+
+    private ReplicationLog log;
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     * 
+     * @param shop the shop to replicate
+     * @param address address to listen on (port 0 picks a free port)
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ReplicationPrimary(SweetShop shop, InetSocketAddress address) {
+        this(shop, address, DEFAULT_LOG_CAPACITY);
+    }
+
+    /**
+     * Constructor with a custom log size
+     * 
+     * @param shop the shop to replicate
+     * @param address address to listen on (port 0 picks a free port)
+     * @param logCapacity number of mutations retained for catch-up
+     * @throws IllegalArgumentException if any argument is null or capacity is not positive
+     */
+    public ReplicationPrimary(SweetShop shop, InetSocketAddress address, int logCapacity) {
+        if (shop == null || address == null) {
+            throw new IllegalArgumentException("Shop and address cannot be null");
+        }
+        if (logCapacity <= 0) {
+            throw new IllegalArgumentException("Log capacity must be positive");
+        }
+        this.shop = shop;
+        this.address = address;
+        this.logCapacity = logCapacity;
+    }
+
+    /**
+     * Starts logging mutations and accepting replicas
+     * 
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+        log = new ReplicationLog(shop.snapshot().getVersion(), logCapacity);
+        shop.addListener(this);
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "replication-primary");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the primary listens on
+     * 
+     * @return bound port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the version of the newest logged mutation
+     * 
+     * @return primary version
+     */
+    public long getVersion() {
+        return log.lastVersion();
+    }
+
+    /**
+     * Returns the number of connected replicas
+     * 
+     * @return replica count
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        shop.removeListener(this);
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Socket socket : replicas) {
+            socket.close();
+        }
+    }
+
+    // ==================== Log Capture ====================
+
+    @Override
+    public void onSweetAdded(Sweet sweet) {
+        append(OP_ADD, sweet, 0);
+    }
+
+    @Override
+    public void onSweetDeleted(Sweet sweet) {
+        append(OP_DELETE, sweet, 0);
+    }
+
+    @Override
+    public void onSweetUpdated(Sweet before, Sweet after) {
+        append(before.compareNameTo(after) == 0 ? OP_PRICE : OP_RENAME, after, 0);
+    }
+
+    @Override
+    public void onPurchase(Sweet sweet, int quantity) {
+        append(OP_PURCHASE, sweet, quantity);
+    }
+
+    @Override
+    public void onRestock(Sweet sweet, int quantity) {
+        append(OP_RESTOCK, sweet, quantity);
+    }
+
+    @Override
+    public void onInventoryCleared() {
+        append(OP_CLEAR, null, 0);
+    }
+
+    @Override
+    public void onInventoryReplaced(InventorySnapshot snapshot) {
+        log.restartAt(snapshot.getVersion());
+    }
+
+    /**
+     * Encodes one entry; runs under the shop's write lock, so the current
+     * snapshot version is exactly this mutation's version
+     */
+    private void append(byte op, Sweet sweet, int quantity) {
+        long version = shop.snapshot().getVersion();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(FRAME_ENTRY);
+            out.writeLong(version);
+            out.writeLong(System.currentTimeMillis());
+            out.writeByte(op);
+            out.writeInt(sweet == null ? 0 : sweet.getId());
+            out.writeInt(quantity);
+            if (op == OP_ADD || op == OP_PRICE || op == OP_RENAME) {
+                writeSweet(out, sweet);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.append(version, bytes.toByteArray());
+    }
+
+    // ==================== Shipping ====================
+
+    private void acceptLoop() {
+        long backoff = 0;
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                backoff = 0;
+                socket.setTcpNoDelay(true);
+                replicas.add(socket);
+                Thread sender = new Thread(() -> serve(socket), "replication-sender");
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                // e.g. out of file descriptors; back off instead of spinning
+                if (running) {
+                    backoff = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, Math.max(MIN_ACCEPT_BACKOFF_MILLIS, backoff * 2));
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            long next = in.readLong() + 1;
+            List<byte[]> batch = new ArrayList<>(SEND_BATCH);
+            while (running) {
+                if (next <= 0 || !log.canServeFrom(next)) {
+                    next = sendSnapshot(out) + 1;
+                    out.flush();
+                    continue;
+                }
+                batch.clear();
+                int count = log.await(next, batch, SEND_BATCH, HEARTBEAT_MILLIS);
+                if (count < 0) {
+                    continue;
+                }
+                if (count == 0) {
+                    out.writeByte(FRAME_HEARTBEAT);
+                    out.writeLong(log.lastVersion());
+                    out.writeLong(System.currentTimeMillis());
+                } else {
+                    for (byte[] entry : batch) {
+                        out.write(entry);
+                    }
+                    next += count;
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // replica disconnected; it reconnects and resumes from its own version
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            replicas.remove(socket);
+        }
+    }
+
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        InventorySnapshot snapshot = shop.snapshot();
+        out.writeByte(FRAME_SNAPSHOT);
+        out.writeLong(snapshot.getVersion());
+        out.writeInt(snapshot.size());
+        for (Sweet sweet : snapshot) {
+            writeSweet(out, sweet);
+        }
+        return snapshot.getVersion();
+    }
+}
@@ -0,0 +1,64 @@
+package com.sweetshop.replication;
+
+import com.sweetshop.model.Sweet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Wire format for primary to replica log shipping
+ * 
+ * Handshake (replica to primary): [long lastAppliedVersion], or -1 to
+ * ask for a fresh snapshot. Everything after that flows primary to
+ * replica as frames:
+ *   SNAPSHOT   [long version][int count] then count x sweet
+ *   ENTRY      [long version][long timestamp][byte op][int sweetId][int quantity][sweet if ADD, PRICE or RENAME]
+ *   HEARTBEAT  [long primaryVersion][long timestamp]
+ * 
+ * A sweet is [int id][UTF name][boolean hasCategory][UTF category if present]
+ * [long priceMinor][int quantity]. Versions are the primary's
+ * InventorySnapshot versions; consecutive entries differ by exactly one.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class ReplicationProtocol {
+    static final byte FRAME_SNAPSHOT = 1;
+    static final byte FRAME_ENTRY = 2;
+    static final byte FRAME_HEARTBEAT = 3;
+
+    static final byte OP_ADD = 1;
+    static final byte OP_DELETE = 2;
+    static final byte OP_PURCHASE = 3;
+    static final byte OP_RESTOCK = 4;
+    static final byte OP_PRICE = 5;
+    static final byte OP_CLEAR = 6;
+    static final byte OP_RENAME = 7;
+
+    /** Handshake value asking the primary for a snapshot */
+    static final long RESYNC = -1L;
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeSweet(DataOutputStream out, Sweet sweet) throws IOException {
+        out.writeInt(sweet.getId());
+        out.writeUTF(sweet.getName());
+        out.writeBoolean(sweet.getCategory() != null);
+        if (sweet.getCategory() != null) {
+            out.writeUTF(sweet.getCategory());
+        }
+        out.writeLong(sweet.getPriceMinor());
+        out.writeInt(sweet.getQuantity());
+    }
+
+    static Sweet readSweet(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        String name = in.readUTF();
+        String category = in.readBoolean() ? in.readUTF() : null;
+        long priceMinor = in.readLong();
+        int quantity = in.readInt();
+        return Sweet.ofMinorPrice(id, name, category, priceMinor, quantity);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Lazy filtering cursor over snapshot sweets
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class FilteringCursor implements Iterator<Sweet> {
+    private final Iterator<Sweet> source;
+    private final Predicate<Sweet> filter;
+    private Sweet next;
+
+    FilteringCursor(Iterator<Sweet> source, Predicate<Sweet> filter) {
+        this.source = source;
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && source.hasNext()) {
+            Sweet candidate = source.next();
+            if (filter.test(candidate)) {
+                next = candidate;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Sweet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Sweet result = next;
+        next = null;
+        return result;
+    }
+}
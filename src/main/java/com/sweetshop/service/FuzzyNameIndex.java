@@ -0,0 +1,644 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Typo-tolerant name search ("gulab jamon" finds "Gulab Jamun")
+ * Lower-cased names are kept in a trie held in one int array. A query
+ * walks the trie carrying one row of the edit-distance matrix per level,
+ * which simulates a Levenshtein automaton: a branch is dropped as soon
+ * as every cell of its row exceeds the allowed distance, so only the few
+ * prefixes that can still match are visited, however many names exist.
+ * Adjacent transpositions ("rasuglla") count as one edit.
+ *
+ * Each node is a packed record, and the records are renumbered
+ * breadth-first whenever the trie has doubled since the last pass, so
+ * siblings (which a search scans together) share cache lines and the
+ * shallow levels every search crosses stay compact. The pass also drops
+ * branches whose names were all deleted.
+ *
+ * The index registers with the shop and follows adds, deletes and
+ * renames. Writers update their own trie under the index lock, which
+ * searches never take: a search walks an immutable copy published
+ * with the changes made since it was taken (new names, which it matches
+ * one by one, and IDs whose names in the copy are stale). Once those
+ * pile up, the writer republishes a fresh copy, so a renaming or
+ * deleting thread never waits for a slow search and a search never
+ * sees a half-made change.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class FuzzyNameIndex implements InventoryListener {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int INITIAL_NODES = 1024;
+    /** Changes a published copy may carry before it is replaced */
+    private static final int MAX_PENDING_CHANGES = 1024;
+
+    // Node record layout
+    private static final int LABEL = 0;
+    private static final int PARENT = 1;
+    private static final int FIRST_CHILD = 2;
+    private static final int NEXT_SIBLING = 3;
+    private static final int LIVE = 4;
+    private static final int FIRST_ENTRY = 5;
+    private static final int NODE_INTS = 6;
+
+    private final SweetShop shop;
+    private final Object lock = new Object();
+
+    private int[] nodes = new int[INITIAL_NODES * NODE_INTS];
+    private int nodeCount;
+    private int compactedCount = INITIAL_NODES;
+    private int maxDepth;
+
+    private int[] entryIds = new int[INITIAL_NODES];
+    private int[] nextEntries = new int[INITIAL_NODES];
+    private int entryCount;
+    private int freeEntry = NONE;
+    private int size;
+
+    private volatile View view;
+
+    /**
+     * Constructor - indexes the current inventory and registers with the shop
+     *
+     * @param shop the shop whose names to index
+     * @throws IllegalArgumentException if shop is null
+     */
+    public FuzzyNameIndex(SweetShop shop) {
+        if (shop == null) {
+            throw new IllegalArgumentException("Shop cannot be null");
+        }
+        this.shop = shop;
+        newNode(NONE, 0);
+        view = copy();
+        // Register first, then load under the lock: an event delivered
+        // before the load is already in the snapshot, one delivered after
+        // it waits for the load and is applied on top
+        shop.addListener(this);
+        synchronized (lock) {
+            load(shop.snapshot().getSweets());
+            view = copy();
+        }
+    }
+
+    /**
+     * Finds the sweets whose names are within an edit distance of a query
+     * Ranked by distance, then ID; once enough closer names are found the
+     * walk stops looking at the outer distances
+     *
+     * @param name the (possibly misspelt) name
+     * @param maxDistance maximum number of edits
+     * @param limit maximum number of results
+     * @return unmodifiable ranked list of read-only sweets
+     * @throws IllegalArgumentException if maxDistance is negative or limit is not positive
+     */
+    public List<Sweet> search(String name, int maxDistance, int limit) {
+        if (maxDistance < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Distance cannot be negative and limit must be positive");
+        }
+        if (name == null || name.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        char[] query = name.trim().toLowerCase(Locale.ROOT).toCharArray();
+        View current = view;
+        Walk walk = new Walk(current, query, maxDistance, limit);
+        for (int i = 0; i <= query.length; i++) {
+            walk.rows[i] = i;
+        }
+        int[] trie = current.nodes;
+        for (int child = trie[FIRST_CHILD]; child != NONE; child = trie[child * NODE_INTS + NEXT_SIBLING]) {
+            walk.visit(child, 1);
+        }
+        for (int i = 0; i < current.addedIds.length; i++) {
+            char[] key = current.addedKeys[i];
+            if (Math.abs(key.length - query.length) <= walk.bound) {
+                walk.hit(distance(query, key), current.addedIds[i]);
+            }
+        }
+
+        // Hits are (distance << 32 | id), so sorting ranks them
+        long[] hits = Arrays.copyOf(walk.hits, walk.hitCount);
+        Arrays.sort(hits);
+        InventorySnapshot snapshot = shop.snapshot();
+        List<Sweet> result = new ArrayList<>(Math.min(limit, hits.length));
+        for (int i = 0; i < hits.length && result.size() < limit; i++) {
+            Sweet sweet = snapshot.getSweet((int) hits[i]);
+            if (sweet != null) {
+                result.add(sweet);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Edit distance between two names as the index measures it
+     * (case-insensitive, adjacent transpositions count as one edit)
+     *
+     * @param a first name
+     * @param b second name
+     * @return number of edits
+     */
+    public static int distance(String a, String b) {
+        return distance(a.toLowerCase(Locale.ROOT).toCharArray(), b.toLowerCase(Locale.ROOT).toCharArray());
+    }
+
+    private static int distance(char[] x, char[] y) {
+        int[][] d = new int[x.length + 1][y.length + 1];
+        for (int i = 0; i <= x.length; i++) {
+            for (int j = 0; j <= y.length; j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                    continue;
+                }
+                int cost = x[i - 1] == y[j - 1] ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && x[i - 1] == y[j - 2] && x[i - 2] == y[j - 1]) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[x.length][y.length];
+    }
+
+    /**
+     * Get the number of indexed names
+     * @return indexed sweet count
+     */
+    public int size() {
+        return view.size;
+    }
+
+    // ==================== Maintenance ====================
+
+    @Override
+    public void onSweetAdded(Sweet sweet) {
+        synchronized (lock) {
+            add(sweet.getId(), sweet.getName().toLowerCase(Locale.ROOT));
+            publishIfBehind();
+        }
+    }
+
+    @Override
+    public void onSweetDeleted(Sweet sweet) {
+        synchronized (lock) {
+            drop(sweet.getId(), sweet.getName());
+            publishIfBehind();
+        }
+    }
+
+    @Override
+    public void onSweetUpdated(Sweet before, Sweet after) {
+        if (before.compareNameTo(after) == 0) {
+            return;
+        }
+        synchronized (lock) {
+            drop(before.getId(), before.getName());
+            add(after.getId(), after.getName().toLowerCase(Locale.ROOT));
+            publishIfBehind();
+        }
+    }
+
+    @Override
+    public void onInventoryCleared() {
+        synchronized (lock) {
+            nodes = new int[INITIAL_NODES * NODE_INTS];
+            nodeCount = 0;
+            compactedCount = INITIAL_NODES;
+            maxDepth = 0;
+            entryCount = 0;
+            freeEntry = NONE;
+            size = 0;
+            newNode(NONE, 0);
+            view = copy();
+        }
+    }
+
+    /**
+     * Indexes a name in the writers' trie and lists it in the published view
+     * Must be called while holding the lock
+     */
+    private void add(int id, String key) {
+        if (insert(id, key)) {
+            compactIfGrown();
+            view = view.withAdded(id, key.toCharArray(), size);
+        }
+    }
+
+    /**
+     * Drops a name from the writers' trie and marks it stale in the published view
+     * Must be called while holding the lock
+     */
+    private void drop(int id, String name) {
+        if (remove(id, name)) {
+            view = view.withRemoved(id, size);
+        }
+    }
+
+    private void publishIfBehind() {
+        if (view.pendingChanges() > MAX_PENDING_CHANGES) {
+            view = copy();
+        }
+    }
+
+    /**
+     * Copies the writers' trie into a view with no pending changes
+     * Must be called while holding the lock
+     */
+    private View copy() {
+        return new View(Arrays.copyOf(nodes, nodeCount * NODE_INTS), Arrays.copyOf(entryIds, entryCount),
+                Arrays.copyOf(nextEntries, entryCount), maxDepth, size);
+    }
+
+    /**
+     * Bulk-loads sweets in key order, so each insert extends the path
+     * the previous one just walked, then lays the trie out once
+     * Must be called while holding the lock
+     */
+    private void load(List<Sweet> sweets) {
+        String[] keys = new String[sweets.size()];
+        Integer[] order = new Integer[sweets.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sweets.get(i).getName().toLowerCase(Locale.ROOT);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+        for (int i : order) {
+            insert(sweets.get(i).getId(), keys[i]);
+        }
+        compact();
+    }
+
+    /**
+     * Adds an ID under its lower-cased name unless it is already there
+     * Must be called while holding the lock
+     *
+     * @return true if the ID was added
+     */
+    private boolean insert(int id, String key) {
+        int node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            node = child(node, key.charAt(i));
+        }
+        int base = node * NODE_INTS;
+        for (int entry = nodes[base + FIRST_ENTRY]; entry != NONE; entry = nextEntries[entry]) {
+            if (entryIds[entry] == id) {
+                return false;
+            }
+        }
+        maxDepth = Math.max(maxDepth, key.length());
+
+        int entry = newEntry();
+        entryIds[entry] = id;
+        nextEntries[entry] = nodes[base + FIRST_ENTRY];
+        nodes[base + FIRST_ENTRY] = entry;
+        for (int n = node; n != NONE; n = nodes[n * NODE_INTS + PARENT]) {
+            nodes[n * NODE_INTS + LIVE]++;
+        }
+        size++;
+        return true;
+    }
+
+    private void compactIfGrown() {
+        if (nodeCount >= 2 * compactedCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops an ID indexed under a name; emptied nodes are skipped by
+     * searches and reclaimed by the next compaction
+     * Must be called while holding the lock
+     *
+     * @return true if the ID was indexed under the name
+     */
+    private boolean remove(int id, String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node != NONE; i++) {
+            node = find(node, key.charAt(i));
+        }
+        if (node == NONE) {
+            return false;
+        }
+        int base = node * NODE_INTS;
+        int previous = NONE;
+        for (int entry = nodes[base + FIRST_ENTRY]; entry != NONE; entry = nextEntries[entry]) {
+            if (entryIds[entry] == id) {
+                if (previous == NONE) {
+                    nodes[base + FIRST_ENTRY] = nextEntries[entry];
+                } else {
+                    nextEntries[previous] = nextEntries[entry];
+                }
+                nextEntries[entry] = freeEntry;
+                freeEntry = entry;
+                for (int n = node; n != NONE; n = nodes[n * NODE_INTS + PARENT]) {
+                    nodes[n * NODE_INTS + LIVE]--;
+                }
+                size--;
+                return true;
+            }
+            previous = entry;
+        }
+        return false;
+    }
+
+    private int find(int node, char label) {
+        for (int child = nodes[node * NODE_INTS + FIRST_CHILD]; child != NONE;
+                child = nodes[child * NODE_INTS + NEXT_SIBLING]) {
+            if (nodes[child * NODE_INTS + LABEL] == label) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int child(int node, char label) {
+        int child = find(node, label);
+        if (child == NONE) {
+            child = newNode(node, label);
+            nodes[child * NODE_INTS + NEXT_SIBLING] = nodes[node * NODE_INTS + FIRST_CHILD];
+            nodes[node * NODE_INTS + FIRST_CHILD] = child;
+        }
+        return child;
+    }
+
+    private int newNode(int parent, int label) {
+        if ((nodeCount + 1) * NODE_INTS > nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        int node = nodeCount++;
+        int base = node * NODE_INTS;
+        nodes[base + LABEL] = label;
+        nodes[base + PARENT] = parent;
+        nodes[base + FIRST_CHILD] = NONE;
+        nodes[base + NEXT_SIBLING] = NONE;
+        nodes[base + LIVE] = 0;
+        nodes[base + FIRST_ENTRY] = NONE;
+        return node;
+    }
+
+    private int newEntry() {
+        if (freeEntry != NONE) {
+            int entry = freeEntry;
+            freeEntry = nextEntries[entry];
+            return entry;
+        }
+        if (entryCount == entryIds.length) {
+            entryIds = Arrays.copyOf(entryIds, entryCount * 2);
+            nextEntries = Arrays.copyOf(nextEntries, entryCount * 2);
+        }
+        return entryCount++;
+    }
+
+    /**
+     * Renumbers the live nodes breadth-first, so every node's children
+     * are adjacent records, and drops the dead ones
+     * Must be called while holding the lock
+     */
+    private void compact() {
+        int[] order = new int[nodeCount];
+        int[] renumbered = new int[nodeCount];
+        Arrays.fill(renumbered, NONE);
+        int count = 1;
+        order[0] = ROOT;
+        renumbered[ROOT] = 0;
+        for (int next = 0; next < count; next++) {
+            for (int child = nodes[order[next] * NODE_INTS + FIRST_CHILD]; child != NONE;
+                    child = nodes[child * NODE_INTS + NEXT_SIBLING]) {
+                if (nodes[child * NODE_INTS + LIVE] > 0) {
+                    renumbered[child] = count;
+                    order[count++] = child;
+                }
+            }
+        }
+
+        int[] compacted = new int[Math.max(INITIAL_NODES, count) * NODE_INTS];
+        for (int node = 0; node < count; node++) {
+            compacted[node * NODE_INTS + NEXT_SIBLING] = NONE;
+        }
+        for (int node = 0; node < count; node++) {
+            int oldBase = order[node] * NODE_INTS;
+            int base = node * NODE_INTS;
+            int oldParent = nodes[oldBase + PARENT];
+            compacted[base + LABEL] = nodes[oldBase + LABEL];
+            compacted[base + PARENT] = oldParent == NONE ? NONE : renumbered[oldParent];
+            compacted[base + FIRST_CHILD] = NONE;
+            compacted[base + LIVE] = nodes[oldBase + LIVE];
+            compacted[base + FIRST_ENTRY] = nodes[oldBase + FIRST_ENTRY];
+            int previous = NONE;
+            for (int child = nodes[oldBase + FIRST_CHILD]; child != NONE;
+                    child = nodes[child * NODE_INTS + NEXT_SIBLING]) {
+                int newChild = renumbered[child];
+                if (newChild == NONE) {
+                    continue;
+                }
+                if (previous == NONE) {
+                    compacted[base + FIRST_CHILD] = newChild;
+                } else {
+                    compacted[previous * NODE_INTS + NEXT_SIBLING] = newChild;
+                }
+                previous = newChild;
+            }
+        }
+        nodes = compacted;
+        nodeCount = count;
+        compactedCount = Math.max(INITIAL_NODES, count);
+    }
+
+    // ==================== Search ====================
+
+    /**
+     * Immutable copy of the trie searches walk, plus the changes made
+     * since it was copied; each change replaces the view with a new one
+     */
+    private static final class View {
+        private static final int[] NO_IDS = new int[0];
+        private static final char[][] NO_KEYS = new char[0][];
+
+        final int[] nodes;
+        final int[] entryIds;
+        final int[] nextEntries;
+        final int maxDepth;
+        final int size;
+        /** Sorted IDs whose entries in this copy no longer count */
+        final int[] stale;
+        /** Names indexed since the copy, matched one by one */
+        final int[] addedIds;
+        final char[][] addedKeys;
+
+        View(int[] nodes, int[] entryIds, int[] nextEntries, int maxDepth, int size) {
+            this(nodes, entryIds, nextEntries, maxDepth, size, NO_IDS, NO_IDS, NO_KEYS);
+        }
+
+        private View(int[] nodes, int[] entryIds, int[] nextEntries, int maxDepth, int size,
+                int[] stale, int[] addedIds, char[][] addedKeys) {
+            this.nodes = nodes;
+            this.entryIds = entryIds;
+            this.nextEntries = nextEntries;
+            this.maxDepth = maxDepth;
+            this.size = size;
+            this.stale = stale;
+            this.addedIds = addedIds;
+            this.addedKeys = addedKeys;
+        }
+
+        int pendingChanges() {
+            return stale.length + addedIds.length;
+        }
+
+        boolean isStale(int id) {
+            return stale.length > 0 && Arrays.binarySearch(stale, id) >= 0;
+        }
+
+        View withAdded(int id, char[] key, int newSize) {
+            int[] ids = Arrays.copyOf(addedIds, addedIds.length + 1);
+            char[][] keys = Arrays.copyOf(addedKeys, addedKeys.length + 1);
+            ids[addedIds.length] = id;
+            keys[addedKeys.length] = key;
+            return new View(nodes, entryIds, nextEntries, maxDepth, newSize, stale, ids, keys);
+        }
+
+        /**
+         * Forgets a name added since the copy, whose copied entry (if it
+         * had one) is already stale, or else marks the copied entry stale
+         */
+        View withRemoved(int id, int newSize) {
+            for (int i = 0; i < addedIds.length; i++) {
+                if (addedIds[i] == id) {
+                    int[] ids = new int[addedIds.length - 1];
+                    char[][] keys = new char[addedKeys.length - 1][];
+                    System.arraycopy(addedIds, 0, ids, 0, i);
+                    System.arraycopy(addedIds, i + 1, ids, i, ids.length - i);
+                    System.arraycopy(addedKeys, 0, keys, 0, i);
+                    System.arraycopy(addedKeys, i + 1, keys, i, keys.length - i);
+                    return new View(nodes, entryIds, nextEntries, maxDepth, newSize, stale, ids, keys);
+                }
+            }
+            int at = Arrays.binarySearch(stale, id);
+            if (at >= 0) {
+                return new View(nodes, entryIds, nextEntries, maxDepth, newSize, stale, addedIds, addedKeys);
+            }
+            at = -at - 1;
+            int[] marked = new int[stale.length + 1];
+            System.arraycopy(stale, 0, marked, 0, at);
+            marked[at] = id;
+            System.arraycopy(stale, at, marked, at + 1, stale.length - at);
+            return new View(nodes, entryIds, nextEntries, maxDepth, newSize, marked, addedIds, addedKeys);
+        }
+    }
+
+    /**
+     * One query's walk over a view's trie; rows[d * width + i] is the edit
+     * distance between the first d characters of the path and the first
+     * i characters of the query, capped at bound + 1
+     */
+    private static final class Walk {
+        final int[] nodes;
+        final int[] entryIds;
+        final int[] nextEntries;
+        final View view;
+        final char[] query;
+        final int limit;
+        final int width;
+        final int[] rows;
+        final char[] path;
+        final int[] hitsAt;
+        int bound;
+        long[] hits = new long[16];
+        int hitCount;
+
+        Walk(View view, char[] query, int maxDistance, int limit) {
+            this.view = view;
+            this.nodes = view.nodes;
+            this.entryIds = view.entryIds;
+            this.nextEntries = view.nextEntries;
+            this.query = query;
+            this.limit = limit;
+            this.bound = maxDistance;
+            this.width = query.length + 1;
+            this.rows = new int[(view.maxDepth + 1) * width];
+            this.path = new char[view.maxDepth + 1];
+            this.hitsAt = new int[maxDistance + 1];
+        }
+
+        void visit(int node, int depth) {
+            int base = node * NODE_INTS;
+            if (nodes[base + LIVE] == 0) {
+                return;
+            }
+            char label = (char) nodes[base + LABEL];
+            path[depth] = label;
+            int row = depth * width;
+            int above = row - width;
+            int cap = bound + 1;
+            // Only cells within bound of the diagonal can stay in range;
+            // the ones just outside the band read as cap
+            int lo = Math.max(1, depth - bound);
+            int hi = Math.min(width - 1, depth + bound);
+            if (lo > hi) {
+                return;
+            }
+            rows[row + lo - 1] = lo == 1 ? depth : cap;
+            if (hi + 1 < width) {
+                rows[row + hi + 1] = cap;
+            }
+            int best = lo == 1 ? depth : cap;
+            for (int i = lo; i <= hi; i++) {
+                int cost = query[i - 1] == label ? 0 : 1;
+                int value = Math.min(Math.min(rows[above + i] + 1, rows[row + i - 1] + 1), rows[above + i - 1] + cost);
+                if (depth > 1 && i > 1 && query[i - 1] == path[depth - 1] && query[i - 2] == label) {
+                    value = Math.min(value, rows[above - width + i - 2] + 1);
+                }
+                value = Math.min(value, cap);
+                rows[row + i] = value;
+                best = Math.min(best, value);
+            }
+            if (best > bound) {
+                return;
+            }
+            if (hi == width - 1 && rows[row + hi] <= bound) {
+                int distance = rows[row + hi];
+                for (int entry = nodes[base + FIRST_ENTRY]; entry != NONE; entry = nextEntries[entry]) {
+                    if (!view.isStale(entryIds[entry])) {
+                        hit(distance, entryIds[entry]);
+                    }
+                }
+            }
+            for (int child = nodes[base + FIRST_CHILD]; child != NONE; child = nodes[child * NODE_INTS + NEXT_SIBLING]) {
+                visit(child, depth + 1);
+            }
+        }
+
+        /**
+         * Records a hit; once limit hits are within some distance, farther
+         * names cannot make the results and the bound drops to it
+         */
+        void hit(int distance, int id) {
+            if (distance > bound) {
+                return;
+            }
+            if (hitCount == hits.length) {
+                hits = Arrays.copyOf(hits, hitCount * 2);
+            }
+            hits[hitCount++] = (long) distance << 32 | (id & 0xFFFFFFFFL);
+            hitsAt[distance]++;
+            int closer = 0;
+            for (int d = 0; d < bound; d++) {
+                closer += hitsAt[d];
+                if (closer >= limit) {
+                    bound = d;
+                    break;
+                }
+            }
+        }
+    }
+}
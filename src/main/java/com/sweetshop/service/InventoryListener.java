@@ -0,0 +1,81 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+
+/**
+ * Listener for inventory mutations
+ * Callbacks run on the mutating thread, in mutation order, while the
+ * SweetShop write lock is held; implementations must be quick and must
+ * not call back into SweetShop mutators
+ * 
+ * Every Sweet passed to a callback is a read-only snapshot copy taken
+ * right after the mutation was applied
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public interface InventoryListener {
+
+    /**
+     * Called after a sweet has been added
+     * @param sweet the added sweet
+     */
+    default void onSweetAdded(Sweet sweet) {
+    }
+
+    /**
+     * Called after a sweet has been deleted
+     * @param sweet the sweet as it was just before deletion
+     */
+    default void onSweetDeleted(Sweet sweet) {
+    }
+
+    /**
+     * Called after a sweet's details (such as its list price) changed
+     * @param before the sweet just before the change
+     * @param after the sweet after the change
+     */
+    default void onSweetUpdated(Sweet before, Sweet after) {
+    }
+
+    /**
+     * Called after a successful purchase
+     * @param sweet the sweet after the purchase
+     * @param quantity the quantity purchased
+     */
+    default void onPurchase(Sweet sweet, int quantity) {
+    }
+
+    /**
+     * Called after a restock
+     * @param sweet the sweet after the restock
+     * @param quantity the quantity added
+     */
+    default void onRestock(Sweet sweet, int quantity) {
+    }
+
+    /**
+     * Called after the whole inventory has been cleared
+     */
+    default void onInventoryCleared() {
+    }
+
+    /**
+     * Called after the whole inventory was replaced in one step
+     * The default treats it as a clear followed by one add per sweet
+     * @param snapshot the snapshot holding the new inventory
+     */
+    default void onInventoryReplaced(InventorySnapshot snapshot) {
+        onInventoryCleared();
+        for (Sweet sweet : snapshot) {
+            onSweetAdded(sweet);
+        }
+    }
+
+    /**
+     * Called after effective prices changed without any sweet changing,
+     * e.g. when a promotion starts or ends
+     */
+    default void onPricesChanged() {
+    }
+}
@@ -0,0 +1,128 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.util.PersistentIntMap;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, versioned view of the inventory
+ * Published by SweetShop after every mutation; readers take the current
+ * snapshot without locking and see a consistent point-in-time state
+ * while purchases and restocks continue
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class InventorySnapshot implements Iterable<Sweet> {
+    static final InventorySnapshot EMPTY = new InventorySnapshot(0, PersistentIntMap.empty());
+
+    private final long version;
+    private final PersistentIntMap<Sweet> sweets;
+    private volatile List<Sweet> values;
+
+    InventorySnapshot(long version, PersistentIntMap<Sweet> sweets) {
+        this.version = version;
+        this.sweets = sweets;
+    }
+
+    /**
+     * Returns a snapshot with the given sweet added or replaced
+     */
+    InventorySnapshot with(Sweet frozen) {
+        return new InventorySnapshot(version + 1, sweets.put(frozen.getId(), frozen));
+    }
+
+    /**
+     * Returns a snapshot with the given sweet removed
+     */
+    InventorySnapshot without(int id) {
+        return new InventorySnapshot(version + 1, sweets.remove(id));
+    }
+
+    /**
+     * Returns a snapshot following this one with entirely new contents
+     */
+    InventorySnapshot replacedBy(PersistentIntMap<Sweet> frozen) {
+        return new InventorySnapshot(version + 1, frozen);
+    }
+
+    /**
+     * Returns an empty snapshot following this one
+     */
+    InventorySnapshot cleared() {
+        return new InventorySnapshot(version + 1, PersistentIntMap.empty());
+    }
+
+    /**
+     * Get the version number (incremented on every mutation)
+     * @return snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets a sweet as of this snapshot
+     *
+     * @param id the ID of the sweet
+     * @return read-only Sweet or null if not present
+     */
+    public Sweet getSweet(int id) {
+        return sweets.get(id);
+    }
+
+    /**
+     * Returns the number of sweets in this snapshot
+     *
+     * @return inventory size
+     */
+    public int size() {
+        return sweets.size();
+    }
+
+    /**
+     * Returns all sweets in this snapshot
+     * The list is built once per snapshot and shared by later callers
+     *
+     * @return unmodifiable list of read-only sweets
+     */
+    public List<Sweet> getSweets() {
+        List<Sweet> result = values;
+        if (result == null) {
+            result = sweets.values();
+            values = result;
+        }
+        return result;
+    }
+
+    /**
+     * Iterates the sweets lazily without materializing a list
+     *
+     * @return iterator over read-only sweets
+     */
+    @Override
+    public Iterator<Sweet> iterator() {
+        return sweets.iterator();
+    }
+
+    /**
+     * Streams the sweets in this snapshot straight off the trie, without
+     * materializing the list getSweets() builds
+     *
+     * @return stream of read-only sweets
+     */
+    public Stream<Sweet> stream() {
+        List<Sweet> built = values;
+        if (built != null) {
+            return built.stream();
+        }
+        return StreamSupport.stream(Spliterators.spliterator(sweets.iterator(), sweets.size(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+}
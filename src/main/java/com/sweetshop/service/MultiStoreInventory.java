@@ -0,0 +1,344 @@
+package com.sweetshop.service;
+
+import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.model.Sweet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock for many outlets over one shared catalog
+ * Each sweet in the catalog gets a dense item index; every location
+ * keeps its quantities in primitive int blocks indexed by it, so the
+ * location x item matrix costs four bytes per cell and blocks a
+ * location never stocks are never allocated.
+ * 
+ * Each location has its own lock, so purchases and restocks at
+ * different outlets never wait on each other. Network-wide totals are
+ * maintained per item alongside every change, split into stripes picked
+ * by location ID (laid out a block apart so stripes of one item do not
+ * share a cache line), so outlets selling the same sweet do not fight
+ * over one counter. Availability sums a fixed number of stripes, which
+ * keeps it O(1) in the number of locations; a total may briefly lag a
+ * location update that is still in progress.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class MultiStoreInventory {
+    private static final int BLOCK_SHIFT = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int TOTAL_STRIPES = Math.min(16,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final Object structureLock = new Object();
+    private final Map<Integer, Integer> itemIndex = new ConcurrentHashMap<>();
+    private volatile Sweet[] items = new Sweet[16];
+    private volatile AtomicLongArray[] totals = new AtomicLongArray[0];
+    private volatile Location[] locations = new Location[0];
+    private int itemCount;
+
+    // ==================== Catalog and Locations ====================
+
+    /**
+     * Adds a sweet definition to the shared catalog
+     * The sweet's own quantity is ignored; stock is held per location
+     * 
+     * @param sweet the sweet to add
+     * @throws IllegalArgumentException if sweet is null or ID already exists
+     */
+    public void addSweet(Sweet sweet) {
+        if (sweet == null) {
+            throw new IllegalArgumentException("Sweet cannot be null");
+        }
+        synchronized (structureLock) {
+            if (itemIndex.containsKey(sweet.getId())) {
+                throw new IllegalArgumentException("Sweet with ID " + sweet.getId() + " already exists");
+            }
+            int index = itemCount;
+            Sweet[] current = items;
+            if (index == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[index] = sweet.freeze();
+            if ((index >>> BLOCK_SHIFT) == totals.length) {
+                AtomicLongArray[] grown = Arrays.copyOf(totals, totals.length + 1);
+                grown[grown.length - 1] = new AtomicLongArray(BLOCK_SIZE * TOTAL_STRIPES);
+                totals = grown;
+            }
+            items = current;
+            itemCount++;
+            itemIndex.put(sweet.getId(), index);
+        }
+    }
+
+    /**
+     * Gets a catalog entry
+     * 
+     * @param sweetId the ID of the sweet
+     * @return read-only sweet definition or null if not in the catalog
+     */
+    public Sweet getSweet(int sweetId) {
+        Integer index = itemIndex.get(sweetId);
+        return index == null ? null : items[index];
+    }
+
+    /**
+     * Returns the whole catalog in the order sweets were added
+     * 
+     * @return unmodifiable list of read-only sweet definitions
+     */
+    public List<Sweet> getCatalog() {
+        Sweet[] current;
+        int count;
+        synchronized (structureLock) {
+            current = items;
+            count = itemCount;
+        }
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(current).subList(0, count)));
+    }
+
+    /**
+     * Opens a new location with no stock
+     * 
+     * @param name display name of the location
+     * @return the new location's ID
+     * @throws IllegalArgumentException if name is null or empty
+     */
+    public int addLocation(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Location name cannot be null or empty");
+        }
+        synchronized (structureLock) {
+            Location[] grown = Arrays.copyOf(locations, locations.length + 1);
+            grown[grown.length - 1] = new Location(grown.length - 1, name);
+            locations = grown;
+            return grown.length - 1;
+        }
+    }
+
+    /**
+     * Get the name of a location
+     * 
+     * @param locationId the ID of the location
+     * @return location name
+     * @throws IllegalArgumentException if location not found
+     */
+    public String getLocationName(int locationId) {
+        return requireLocation(locationId).name;
+    }
+
+    /**
+     * Returns the number of locations
+     * 
+     * @return location count
+     */
+    public int getLocationCount() {
+        return locations.length;
+    }
+
+    // ==================== Stock Operations ====================
+
+    /**
+     * Gets the stock of a sweet at one location
+     * 
+     * @param locationId the ID of the location
+     * @param sweetId the ID of the sweet
+     * @return quantity at that location
+     * @throws IllegalArgumentException if location or sweet not found
+     */
+    public int getQuantity(int locationId, int sweetId) {
+        Location location = requireLocation(locationId);
+        int item = requireItem(sweetId);
+        synchronized (location) {
+            return location.get(item);
+        }
+    }
+
+    /**
+     * Gets the stock of a sweet across every location in O(1)
+     * 
+     * @param sweetId the ID of the sweet
+     * @return network-wide quantity
+     * @throws IllegalArgumentException if sweet not found
+     */
+    public long getTotalQuantity(int sweetId) {
+        int item = requireItem(sweetId);
+        AtomicLongArray block = totals[item >>> BLOCK_SHIFT];
+        long total = 0;
+        for (int stripe = 0; stripe < TOTAL_STRIPES; stripe++) {
+            total += block.get(stripe * BLOCK_SIZE + (item & BLOCK_MASK));
+        }
+        return total;
+    }
+
+    /**
+     * Gets the stock of a sweet at every location
+     * 
+     * @param sweetId the ID of the sweet
+     * @return quantities indexed by location ID
+     * @throws IllegalArgumentException if sweet not found
+     */
+    public int[] getQuantitiesByLocation(int sweetId) {
+        int item = requireItem(sweetId);
+        Location[] current = locations;
+        int[] quantities = new int[current.length];
+        for (Location location : current) {
+            synchronized (location) {
+                quantities[location.id] = location.get(item);
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * Purchases sweets at one location
+     * 
+     * @param locationId the ID of the location
+     * @param sweetId the ID of the sweet
+     * @param quantity the quantity to purchase
+     * @return stock remaining at that location
+     * @throws IllegalArgumentException if location or sweet not found or quantity invalid
+     * @throws InsufficientStockException if the location has too little stock
+     */
+    public int purchase(int locationId, int sweetId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Purchase quantity must be positive");
+        }
+        Location location = requireLocation(locationId);
+        int item = requireItem(sweetId);
+        int remaining;
+        synchronized (location) {
+            int available = location.get(item);
+            if (quantity > available) {
+                throw new InsufficientStockException(available, quantity);
+            }
+            remaining = available - quantity;
+            location.set(item, remaining);
+        }
+        addToTotal(location, item, -quantity);
+        return remaining;
+    }
+
+    /**
+     * Restocks sweets at one location
+     * 
+     * @param locationId the ID of the location
+     * @param sweetId the ID of the sweet
+     * @param quantity the quantity to add
+     * @return stock at that location after the restock
+     * @throws IllegalArgumentException if location or sweet not found or quantity invalid
+     */
+    public int restock(int locationId, int sweetId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Restock quantity must be positive");
+        }
+        Location location = requireLocation(locationId);
+        int item = requireItem(sweetId);
+        int updated;
+        synchronized (location) {
+            updated = Math.addExact(location.get(item), quantity);
+            location.set(item, updated);
+        }
+        addToTotal(location, item, quantity);
+        return updated;
+    }
+
+    /**
+     * Moves stock from one location to another
+     * Both locations are locked (in ID order) so the move is atomic;
+     * the network-wide total does not change, so its stripes are left
+     * alone (only their sum is meaningful)
+     * 
+     * @param fromLocationId the ID of the source location
+     * @param toLocationId the ID of the destination location
+     * @param sweetId the ID of the sweet
+     * @param quantity the quantity to move
+     * @throws IllegalArgumentException if a location or sweet is not found,
+     *         the locations are the same or quantity is invalid
+     * @throws InsufficientStockException if the source has too little stock
+     */
+    public void transfer(int fromLocationId, int toLocationId, int sweetId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Transfer quantity must be positive");
+        }
+        if (fromLocationId == toLocationId) {
+            throw new IllegalArgumentException("Cannot transfer to the same location");
+        }
+        Location from = requireLocation(fromLocationId);
+        Location to = requireLocation(toLocationId);
+        int item = requireItem(sweetId);
+        Location first = from.id < to.id ? from : to;
+        Location second = first == from ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                int available = from.get(item);
+                if (quantity > available) {
+                    throw new InsufficientStockException(available, quantity);
+                }
+                int received = Math.addExact(to.get(item), quantity);
+                from.set(item, available - quantity);
+                to.set(item, received);
+            }
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private void addToTotal(Location location, int item, long delta) {
+        int stripe = location.id & (TOTAL_STRIPES - 1);
+        totals[item >>> BLOCK_SHIFT].addAndGet(stripe * BLOCK_SIZE + (item & BLOCK_MASK), delta);
+    }
+
+    private int requireItem(int sweetId) {
+        Integer index = itemIndex.get(sweetId);
+        if (index == null) {
+            throw new IllegalArgumentException("Sweet with ID " + sweetId + " not found");
+        }
+        return index;
+    }
+
+    private Location requireLocation(int locationId) {
+        Location[] current = locations;
+        if (locationId < 0 || locationId >= current.length) {
+            throw new IllegalArgumentException("Location with ID " + locationId + " not found");
+        }
+        return current[locationId];
+    }
+
+    /**
+     * One outlet's row of the matrix; guarded by its own monitor
+     */
+    private static final class Location {
+        final int id;
+        final String name;
+        private int[][] blocks = new int[0][];
+
+        Location(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        int get(int item) {
+            int block = item >>> BLOCK_SHIFT;
+            return block < blocks.length && blocks[block] != null ? blocks[block][item & BLOCK_MASK] : 0;
+        }
+
+        void set(int item, int quantity) {
+            int block = item >>> BLOCK_SHIFT;
+            if (block >= blocks.length) {
+                blocks = Arrays.copyOf(blocks, block + 1);
+            }
+            if (blocks[block] == null) {
+                blocks[block] = new int[BLOCK_SIZE];
+            }
+            blocks[block][item & BLOCK_MASK] = quantity;
+        }
+    }
+}
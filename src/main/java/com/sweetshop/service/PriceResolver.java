@@ -0,0 +1,26 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+
+/**
+ * Resolves the price a sweet actually sells for
+ * Installed on a SweetShop so price-range searches and price ordering
+ * use effective prices (after promotions) instead of list prices
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface PriceResolver {
+    /** Resolver that returns the list price unchanged */
+    PriceResolver LIST_PRICE = Sweet::getPriceMinor;
+
+    /**
+     * Returns the effective price of a sweet
+     * Must be cheap and must not call back into SweetShop mutators
+     * 
+     * @param sweet the sweet (usually a read-only snapshot copy)
+     * @return effective price in paise
+     */
+    long effectivePriceMinor(Sweet sweet);
+}
@@ -0,0 +1,90 @@
+package com.sweetshop.service;
+
+import com.sweetshop.exception.InsufficientStockException;
+
+/**
+ * Decodes the outcomes SweetShop.tryPurchase packs into a long
+ * The status sits in the high half and the available units in the low
+ * half, so a purchase attempt allocates nothing; callers that expect
+ * many refusals (sold-out items) branch on the status instead of
+ * catching exceptions. SweetShop.tryRestock uses the same encoding,
+ * with OK carrying the stock after the restock.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class PurchaseResult {
+    /**
+     * How a purchase attempt ended
+     */
+    public enum Status {
+        /** Stock was taken */
+        OK,
+        /** Fewer units were in stock than requested; nothing was taken */
+        INSUFFICIENT_STOCK,
+        /** No sweet has the requested ID */
+        NOT_FOUND
+    }
+
+    private static final Status[] STATUSES = Status.values();
+
+    private PurchaseResult() {
+    }
+
+    /**
+     * Get the status of an outcome
+     * @param outcome value returned by tryPurchase
+     * @return status
+     */
+    public static Status status(long outcome) {
+        return STATUSES[(int) (outcome >>> 32)];
+    }
+
+    /**
+     * Check whether stock was taken
+     * @param outcome value returned by tryPurchase
+     * @return true if the status is OK
+     */
+    public static boolean isSuccess(long outcome) {
+        return outcome >>> 32 == 0;
+    }
+
+    /**
+     * Get the units in stock: what is left after a successful purchase,
+     * or what was on hand when the purchase was refused; 0 if not found
+     * @param outcome value returned by tryPurchase
+     * @return available quantity
+     */
+    public static int available(long outcome) {
+        return (int) outcome;
+    }
+
+    /**
+     * Converts a failed outcome into the exception purchaseSweet throws
+     *
+     * @param outcome value returned by tryPurchase
+     * @param sweetId the ID the purchase was for
+     * @param requested the units asked for
+     * @return the matching exception
+     * @throws IllegalStateException if the purchase succeeded
+     */
+    public static RuntimeException toException(long outcome, int sweetId, int requested) {
+        switch (status(outcome)) {
+            case INSUFFICIENT_STOCK:
+                return new InsufficientStockException(available(outcome), requested);
+            case NOT_FOUND:
+                return new IllegalArgumentException("Sweet with ID " + sweetId + " not found");
+            default:
+                throw new IllegalStateException("Purchase succeeded");
+        }
+    }
+
+    /**
+     * Describes an outcome for logs
+     * @param outcome value returned by tryPurchase
+     * @return status and available units
+     */
+    public static String toString(long outcome) {
+        return String.format("PurchaseResult{status=%s, available=%d}", status(outcome), available(outcome));
+    }
+}
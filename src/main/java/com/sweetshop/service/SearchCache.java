@@ -0,0 +1,448 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.util.Money;
+import com.sweetshop.util.SymbolTable;
+import com.sweetshop.util.TinyLfuCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through result cache for SweetShop searches
+ * Results are kept in a bounded W-TinyLFU cache as the IDs of the
+ * matching sweets; a hit re-reads each sweet from the shop, so purchases
+ * and restocks, which never change which sweets match, leave the cache
+ * alone. Other mutations remove only the cached queries the changed
+ * sweet matches (its category, a name term contained in its name, or a
+ * price range containing its effective price). Cached queries are
+ * indexed by folded category, name term and price bucket, so a mutation
+ * looks up just those entries instead of scanning the cache. A price
+ * change that touches no sweet (a promotion starting or ending) drops
+ * all cached price ranges.
+ *
+ * A miss registers a pending ticket before reading the shop, and a
+ * mutation that matches the query voids the ticket, so a result computed
+ * from a snapshot older than an overlapping mutation is never cached.
+ * Voiding and the check-then-store of a result share one lock, so a
+ * mutation either voids the ticket first or removes the stored result.
+ * In-flight misses are few (at most one per searching thread), so
+ * mutations still check those directly.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class SearchCache implements InventoryListener {
+    private static final long PRICE_BUCKET_MINOR = 10_000;
+    private static final long MAX_PRICE_BUCKETS = 64;
+
+    private final SweetShop shop;
+    private final TinyLfuCache<Query, int[]> cache;
+    private final Map<Query, Ticket> pending = new ConcurrentHashMap<>();
+    private final Object invalidationLock = new Object();
+
+    // Indexes of the cached queries, guarded by invalidationLock
+    private final Map<String, Query> categoryQueries = new HashMap<>();
+    private final Map<String, Query> nameQueries = new HashMap<>();
+    private final Map<Integer, Integer> nameTermLengths = new HashMap<>();
+    private final Map<Long, Set<Query>> priceBuckets = new HashMap<>();
+    private final Set<Query> widePriceQueries = new HashSet<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructor - creates the cache and registers it with the shop
+     *
+     * @param shop the shop to read through to
+     * @param maximumSize maximum number of cached queries
+     * @throws IllegalArgumentException if shop is null or size is too small
+     */
+    public SearchCache(SweetShop shop, int maximumSize) {
+        if (shop == null) {
+            throw new IllegalArgumentException("Shop cannot be null");
+        }
+        this.shop = shop;
+        this.cache = new TinyLfuCache<>(maximumSize, this::unindex);
+        shop.addListener(this);
+    }
+
+    /**
+     * Cached SweetShop.searchByName
+     *
+     * @param name the name to search for
+     * @return unmodifiable list of matching sweets
+     */
+    public List<Sweet> searchByName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return shop.getAllSweets();
+        }
+        return lookup(Query.name(name));
+    }
+
+    /**
+     * Cached SweetShop.searchByCategory
+     *
+     * @param category the category to search for
+     * @return unmodifiable list of matching sweets
+     */
+    public List<Sweet> searchByCategory(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return shop.getAllSweets();
+        }
+        return lookup(Query.category(category));
+    }
+
+    /**
+     * Cached SweetShop.searchByPriceRange
+     *
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return unmodifiable list of sweets within the price range
+     * @throws IllegalArgumentException if price range is invalid
+     */
+    public List<Sweet> searchByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            throw new IllegalArgumentException("Invalid price range");
+        }
+        return lookup(Query.priceRange(minPrice, maxPrice));
+    }
+
+    private List<Sweet> lookup(Query query) {
+        int[] cached = cache.get(query);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return read(cached);
+        }
+        misses.incrementAndGet();
+
+        Ticket ticket = new Ticket();
+        pending.put(query, ticket);
+        List<Sweet> result = query.execute(shop);
+        int[] ids = new int[result.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = result.get(i).getId();
+        }
+        synchronized (invalidationLock) {
+            if (pending.remove(query, ticket) && !ticket.voided) {
+                index(query);
+                cache.put(query, ids);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private List<Sweet> read(int[] ids) {
+        List<Sweet> sweets = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Sweet sweet = shop.getSweet(id);
+            if (sweet != null) {
+                sweets.add(sweet);
+            }
+        }
+        return Collections.unmodifiableList(sweets);
+    }
+
+    // ==================== Invalidation ====================
+
+    @Override
+    public void onSweetAdded(Sweet sweet) {
+        invalidate(sweet);
+    }
+
+    @Override
+    public void onSweetDeleted(Sweet sweet) {
+        invalidate(sweet);
+    }
+
+    @Override
+    public void onSweetUpdated(Sweet before, Sweet after) {
+        invalidate(before);
+        invalidate(after);
+    }
+
+    @Override
+    public void onInventoryCleared() {
+        synchronized (invalidationLock) {
+            pending.values().forEach(ticket -> ticket.voided = true);
+            invalidations.addAndGet(cache.size());
+            cache.clear();
+            categoryQueries.clear();
+            nameQueries.clear();
+            nameTermLengths.clear();
+            priceBuckets.clear();
+            widePriceQueries.clear();
+        }
+    }
+
+    @Override
+    public void onPricesChanged() {
+        synchronized (invalidationLock) {
+            for (Map.Entry<Query, Ticket> entry : pending.entrySet()) {
+                if (entry.getKey().type == Query.PRICE) {
+                    entry.getValue().voided = true;
+                }
+            }
+            invalidations.addAndGet(cache.removeIf(query -> query.type == Query.PRICE));
+            priceBuckets.clear();
+            widePriceQueries.clear();
+        }
+    }
+
+    /**
+     * Drops cached and in-flight queries whose result the sweet belongs to
+     */
+    void invalidate(Sweet sweet) {
+        synchronized (invalidationLock) {
+            for (Map.Entry<Query, Ticket> entry : pending.entrySet()) {
+                if (entry.getKey().matches(shop, sweet)) {
+                    entry.getValue().voided = true;
+                }
+            }
+            for (Query query : candidates(sweet)) {
+                if (query.matches(shop, sweet) && cache.remove(query)) {
+                    unindex(query);
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // ==================== Query Index ====================
+
+    private void index(Query query) {
+        switch (query.type) {
+            case Query.NAME:
+                if (nameQueries.put(query.term, query) == null) {
+                    nameTermLengths.merge(query.term.length(), 1, Integer::sum);
+                }
+                break;
+            case Query.CATEGORY:
+                categoryQueries.put(query.term, query);
+                break;
+            default:
+                if (isWide(query)) {
+                    widePriceQueries.add(query);
+                } else {
+                    for (long bucket = bucket(query.minMinor); bucket <= bucket(query.maxMinor); bucket++) {
+                        priceBuckets.computeIfAbsent(bucket, b -> new HashSet<>()).add(query);
+                    }
+                }
+        }
+    }
+
+    private void unindex(Query query) {
+        switch (query.type) {
+            case Query.NAME:
+                if (nameQueries.remove(query.term) != null
+                        && nameTermLengths.merge(query.term.length(), -1, Integer::sum) == 0) {
+                    nameTermLengths.remove(query.term.length());
+                }
+                break;
+            case Query.CATEGORY:
+                categoryQueries.remove(query.term);
+                break;
+            default:
+                if (isWide(query)) {
+                    widePriceQueries.remove(query);
+                } else {
+                    for (long bucket = bucket(query.minMinor); bucket <= bucket(query.maxMinor); bucket++) {
+                        Set<Query> queries = priceBuckets.get(bucket);
+                        if (queries != null && queries.remove(query) && queries.isEmpty()) {
+                            priceBuckets.remove(bucket);
+                        }
+                    }
+                }
+        }
+    }
+
+    /**
+     * Collects the indexed queries the sweet may match: the query for
+     * its category, the queries whose term occurs in its name (found by
+     * looking up each substring of a cached term length), and the price
+     * ranges sharing its price bucket
+     */
+    private List<Query> candidates(Sweet sweet) {
+        List<Query> candidates = new ArrayList<>();
+        String category = sweet.getCategory();
+        if (category != null && !categoryQueries.isEmpty()) {
+            Query query = categoryQueries.get(category.toLowerCase(Locale.ROOT));
+            if (query != null) {
+                candidates.add(query);
+            }
+        }
+        if (!nameQueries.isEmpty()) {
+            String name = sweet.getName().toLowerCase(Locale.ROOT);
+            for (int length : nameTermLengths.keySet()) {
+                for (int start = 0; start + length <= name.length(); start++) {
+                    Query query = nameQueries.get(name.substring(start, start + length));
+                    if (query != null) {
+                        candidates.add(query);
+                    }
+                }
+            }
+        }
+        if (!priceBuckets.isEmpty() || !widePriceQueries.isEmpty()) {
+            Set<Query> queries = priceBuckets.get(bucket(shop.getEffectivePriceMinor(sweet)));
+            if (queries != null) {
+                candidates.addAll(queries);
+            }
+            candidates.addAll(widePriceQueries);
+        }
+        return candidates;
+    }
+
+    private static boolean isWide(Query query) {
+        return bucket(query.maxMinor) - bucket(query.minMinor) >= MAX_PRICE_BUCKETS;
+    }
+
+    private static long bucket(long priceMinor) {
+        return priceMinor / PRICE_BUCKET_MINOR;
+    }
+
+    // ==================== Statistics ====================
+
+    /**
+     * Get the number of cache hits
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of cache misses
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the fraction of lookups served from the cache
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Get the number of entries evicted for capacity
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * Get the number of entries removed because a mutation touched them
+     * @return invalidation count
+     */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Get the number of cached queries
+     * @return cache size
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Cache key describing one search and the sweets it matches
+     */
+    private static final class Query {
+        private static final int NAME = 0;
+        private static final int CATEGORY = 1;
+        private static final int PRICE = 2;
+
+        final int type;
+        final String term;
+        final byte[] folded;
+        final double min;
+        final double max;
+        final long minMinor;
+        final long maxMinor;
+
+        private Query(int type, String term, double min, double max) {
+            this.type = type;
+            this.term = term;
+            this.folded = term == null ? null : SymbolTable.fold(term);
+            this.min = min;
+            this.max = max;
+            this.minMinor = Money.toMinor(min);
+            this.maxMinor = Money.toMinor(max);
+        }
+
+        static Query name(String name) {
+            return new Query(NAME, name.toLowerCase(Locale.ROOT), 0, 0);
+        }
+
+        static Query category(String category) {
+            return new Query(CATEGORY, category.toLowerCase(Locale.ROOT), 0, 0);
+        }
+
+        static Query priceRange(double min, double max) {
+            return new Query(PRICE, null, min, max);
+        }
+
+        List<Sweet> execute(SweetShop shop) {
+            switch (type) {
+                case NAME:
+                    return shop.searchByName(term);
+                case CATEGORY:
+                    return shop.searchByCategory(term);
+                default:
+                    return shop.searchByPriceRange(min, max);
+            }
+        }
+
+        boolean matches(SweetShop shop, Sweet sweet) {
+            switch (type) {
+                case NAME:
+                    return sweet.nameContains(folded);
+                case CATEGORY:
+                    return sweet.isInCategory(folded);
+                default:
+                    long price = shop.getEffectivePriceMinor(sweet);
+                    return price >= minMinor && price <= maxMinor;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query query = (Query) o;
+            return type == query.type
+                    && Double.compare(min, query.min) == 0
+                    && Double.compare(max, query.max) == 0
+                    && Objects.equals(term, query.term);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, term, min, max);
+        }
+    }
+
+    /**
+     * In-flight miss; voided when an overlapping mutation happens
+     */
+    private static final class Ticket {
+        volatile boolean voided;
+    }
+}
@@ -0,0 +1,243 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorted cursor over a snapshot
+ * Items are produced in chunks: each chunk is one pass over the snapshot
+ * that keeps the smallest items after the last one emitted in a bounded
+ * heap. The first chunk is small so the first items arrive after a
+ * single O(n) pass, and later chunks double up to MAX_CHUNK, so a full
+ * stream makes about n / MAX_CHUNK + 8 passes while holding at most
+ * MAX_CHUNK references. Ordering by key also keeps one long per sweet,
+ * read once on the first request, so prices that change mid-stream
+ * cannot skip or repeat items. Ties are broken by ID so the ordering is
+ * total.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class SortedCursor implements Iterator<Sweet> {
+    static final int FIRST_CHUNK = 256;
+    static final int MAX_CHUNK = 1 << 16;
+
+    private final InventorySnapshot snapshot;
+    private final Comparator<Sweet> order;
+    private final ToLongFunction<Sweet> key;
+    private long[] keys;
+    private Sweet[] chunk = new Sweet[0];
+    private long[] chunkKeys = new long[0];
+    private int chunkSize;
+    private int chunkCapacity = FIRST_CHUNK;
+    private int position;
+    private int remaining;
+    private Sweet last;
+    private long lastKey;
+
+    private SortedCursor(InventorySnapshot snapshot, Comparator<Sweet> order, ToLongFunction<Sweet> key) {
+        this.snapshot = snapshot;
+        this.order = order;
+        this.key = key;
+        this.remaining = snapshot.size();
+    }
+
+    /**
+     * Orders by a comparator over fields that frozen sweets never change
+     */
+    static SortedCursor byOrder(InventorySnapshot snapshot, Comparator<Sweet> order) {
+        return new SortedCursor(snapshot, order.thenComparingInt(Sweet::getId), null);
+    }
+
+    /**
+     * Orders by a numeric key that is read once per sweet
+     */
+    static SortedCursor byKey(InventorySnapshot snapshot, ToLongFunction<Sweet> key) {
+        return new SortedCursor(snapshot, null, key);
+    }
+
+    /**
+     * Sorts a snapshot's sweets by a key read once per sweet
+     *
+     * @return sweets in ascending key order, ties by ID
+     */
+    static Sweet[] sortByKey(InventorySnapshot snapshot, ToLongFunction<Sweet> key) {
+        Sweet[] items = snapshot.getSweets().toArray(new Sweet[0]);
+        long[] keys = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            keys[i] = key.applyAsLong(items[i]);
+        }
+        mergeSort(items, keys);
+        return items;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < chunkSize) {
+            return true;
+        }
+        if (remaining == 0) {
+            return false;
+        }
+        fill();
+        return chunkSize > 0;
+    }
+
+    @Override
+    public Sweet next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Sweet sweet = chunk[position];
+        // drop the reference so emitted items can be collected
+        chunk[position++] = null;
+        remaining--;
+        return sweet;
+    }
+
+    /**
+     * Selects the next chunk with a max-heap of the smallest items seen
+     * after the last emitted one, then heap-sorts it into ascending order
+     */
+    private void fill() {
+        if (key != null && keys == null) {
+            keys = new long[remaining];
+            int i = 0;
+            for (Sweet sweet : snapshot) {
+                keys[i++] = key.applyAsLong(sweet);
+            }
+        }
+        int capacity = Math.min(chunkCapacity, remaining);
+        if (chunk.length < capacity) {
+            chunk = new Sweet[capacity];
+            chunkKeys = new long[capacity];
+        }
+        int size = 0;
+        int index = 0;
+        for (Sweet sweet : snapshot) {
+            long sweetKey = keys == null ? 0 : keys[index];
+            index++;
+            if (last != null && compare(sweet, sweetKey, last, lastKey) <= 0) {
+                continue;
+            }
+            if (size < capacity) {
+                chunk[size] = sweet;
+                chunkKeys[size] = sweetKey;
+                siftUp(size++);
+            } else if (compare(sweet, sweetKey, chunk[0], chunkKeys[0]) < 0) {
+                chunk[0] = sweet;
+                chunkKeys[0] = sweetKey;
+                siftDown(0, size);
+            }
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        chunkSize = size;
+        position = 0;
+        if (size > 0) {
+            last = chunk[size - 1];
+            lastKey = chunkKeys[size - 1];
+        }
+        chunkCapacity = Math.min(chunkCapacity * 2, MAX_CHUNK);
+    }
+
+    private void siftUp(int child) {
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (compare(chunk[child], chunkKeys[child], chunk[parent], chunkKeys[parent]) <= 0) {
+                return;
+            }
+            swap(child, parent);
+            child = parent;
+        }
+    }
+
+    private void siftDown(int parent, int size) {
+        while (true) {
+            int largest = parent;
+            int left = 2 * parent + 1;
+            int right = left + 1;
+            if (left < size && compare(chunk[left], chunkKeys[left], chunk[largest], chunkKeys[largest]) > 0) {
+                largest = left;
+            }
+            if (right < size && compare(chunk[right], chunkKeys[right], chunk[largest], chunkKeys[largest]) > 0) {
+                largest = right;
+            }
+            if (largest == parent) {
+                return;
+            }
+            swap(parent, largest);
+            parent = largest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Sweet sweet = chunk[i];
+        chunk[i] = chunk[j];
+        chunk[j] = sweet;
+        long swapKey = chunkKeys[i];
+        chunkKeys[i] = chunkKeys[j];
+        chunkKeys[j] = swapKey;
+    }
+
+    private int compare(Sweet sweet, long sweetKey, Sweet other, long otherKey) {
+        if (order != null) {
+            return order.compare(sweet, other);
+        }
+        if (sweetKey != otherKey) {
+            return sweetKey < otherKey ? -1 : 1;
+        }
+        return Integer.compare(sweet.getId(), other.getId());
+    }
+
+    /**
+     * Bottom-up merge sort of items and their keys side by side,
+     * avoiding a boxed key per sweet
+     */
+    private static void mergeSort(Sweet[] items, long[] keys) {
+        int n = items.length;
+        Sweet[] itemBuffer = new Sweet[n];
+        long[] keyBuffer = new long[n];
+        Sweet[] fromItems = items;
+        long[] fromKeys = keys;
+        Sweet[] toItems = itemBuffer;
+        long[] toKeys = keyBuffer;
+        for (int width = 1; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + 2 * width, n);
+                int i = low;
+                int j = mid;
+                for (int k = low; k < high; k++) {
+                    if (j >= high || (i < mid && !before(fromKeys[j], fromItems[j], fromKeys[i], fromItems[i]))) {
+                        toItems[k] = fromItems[i];
+                        toKeys[k] = fromKeys[i++];
+                    } else {
+                        toItems[k] = fromItems[j];
+                        toKeys[k] = fromKeys[j++];
+                    }
+                }
+            }
+            Sweet[] swapItems = fromItems;
+            fromItems = toItems;
+            toItems = swapItems;
+            long[] swapKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swapKeys;
+        }
+        if (fromItems != items) {
+            System.arraycopy(fromItems, 0, items, 0, n);
+            System.arraycopy(fromKeys, 0, keys, 0, n);
+        }
+    }
+
+    private static boolean before(long key, Sweet sweet, long otherKey, Sweet other) {
+        return key < otherKey || (key == otherKey && sweet.getId() < other.getId());
+    }
+}
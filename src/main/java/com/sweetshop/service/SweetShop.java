@@ -2,8 +2,20 @@ package com.sweetshop.service;
 
 import com.sweetshop.model.Sweet;
 import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.util.CursorPublisher;
+import com.sweetshop.util.IdempotencyTable;
+import com.sweetshop.util.Money;
+import com.sweetshop.util.PersistentIntMap;
+import com.sweetshop.util.StripedStock;
+import com.sweetshop.util.SymbolTable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -11,23 +23,172 @@ import java.util.stream.Collectors;
  * Manages the inventory of sweets and provides operations for
  * adding, deleting, searching, purchasing, and restocking sweets
  * 
+ * Mutations are serialized and each one publishes a new immutable
+ * InventorySnapshot; listing, searching and sorting read the current
+ * snapshot without locks, so they never block (or observe) a purchase
+ * in progress
+ * 
+ * Items that many buyers contend for (a flash sale) switch to hot mode:
+ * their stock moves into a StripedStock so checkouts claim units with a
+ * per-core CAS instead of queueing on the write lock, and the sales are
+ * folded into the snapshot in batches by whichever buyer gets there
+ * first. Accounting stays exact; the snapshot trails a hot item by the
+ * sales still being folded in. An item whose batches shrink back to
+ * single sales returns to normal mode.
+ * 
  * @author Sweet Shop Management System
  * @version 1.0
  */
 public class SweetShop {
+    private static final long DEDUP_WINDOW_MILLIS = 10 * 60 * 1000L;
+    private static final int DEDUP_CAPACITY = 1 << 18;
+
+    /** Outcome codes, equal to the PurchaseResult.Status ordinals tryPurchase hands out */
+    private static final int OUTCOME_OK = 0;
+    private static final int OUTCOME_INSUFFICIENT_STOCK = 1;
+    private static final int OUTCOME_NOT_FOUND = 2;
+
+    private static final long CONTENDED_WAIT_NANOS = 20_000;
+    private static final int CONTENTION_SLOTS = 256;
+    private static final int HOT_THRESHOLD = 32;
+    private static final int CONTENTION_DECAY_PERIOD = 4096;
+    private static final int COOL_DOWN_FLUSHES = 64;
+
     private final Map<Integer, Sweet> inventory;
+    private final Object writeLock = new Object();
+    private final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final IdempotencyTable completedRequests;
+    private final Map<Integer, HotItem> hotItems = new ConcurrentHashMap<>();
+    private final int[] contention = new int[CONTENTION_SLOTS];
+    private int contendedPurchases;
+    private volatile InventorySnapshot snapshot;
+    private volatile PriceResolver priceResolver = PriceResolver.LIST_PRICE;
     private int nextId;
 
     /**
      * Constructor - initializes empty inventory
+     * Purchase and restock request IDs are remembered for ten minutes,
+     * up to 2^18 of them (about 430 requests per second sustained)
      */
     public SweetShop() {
-        this.inventory = new HashMap<>();
+        this(DEDUP_WINDOW_MILLIS, DEDUP_CAPACITY);
+    }
+
+    /**
+     * Constructor with a custom deduplication window and capacity
+     * Capacity should cover the request rate over the whole window;
+     * request IDs dropped early show up in getDedupEvictionCount
+     * 
+     * @param dedupWindowMillis how long request IDs are remembered
+     * @param dedupCapacity maximum number of remembered request IDs
+     * @throws IllegalArgumentException if window or capacity is not positive
+     */
+    public SweetShop(long dedupWindowMillis, int dedupCapacity) {
+        this(new IdempotencyTable(dedupWindowMillis, dedupCapacity));
+    }
+
+    /**
+     * Constructor with a custom deduplication window
+     * 
+     * @param completedRequests table remembering outcomes by request ID
+     * @throws IllegalArgumentException if completedRequests is null
+     */
+    public SweetShop(IdempotencyTable completedRequests) {
+        if (completedRequests == null) {
+            throw new IllegalArgumentException("Idempotency table cannot be null");
+        }
+        this.completedRequests = completedRequests;
+        this.inventory = new ConcurrentHashMap<>();
+        this.snapshot = InventorySnapshot.EMPTY;
         this.nextId = 1001;
     }
 
+    /**
+     * Returns how many request IDs were forgotten before their window
+     * ended because the deduplication table was full; a retry of one of
+     * them is applied again
+     * 
+     * @return early eviction count
+     */
+    public long getDedupEvictionCount() {
+        return completedRequests.getEvictionCount();
+    }
+
+    /**
+     * Returns the current immutable inventory snapshot
+     * Readers may hold on to it for as long as they need a consistent view
+     * 
+     * @return current snapshot
+     */
+    public InventorySnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Registers a listener notified after every mutation
+     * 
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addListener(InventoryListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener
+     * 
+     * @param listener the listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(InventoryListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Installs the resolver used for effective prices
+     * Listeners are told that prices changed
+     * 
+     * @param resolver the resolver (PriceResolver.LIST_PRICE for none)
+     * @throws IllegalArgumentException if resolver is null
+     */
+    public void setPriceResolver(PriceResolver resolver) {
+        if (resolver == null) {
+            throw new IllegalArgumentException("Price resolver cannot be null");
+        }
+        priceResolver = resolver;
+        notifyPricesChanged();
+    }
+
+    /**
+     * Returns the effective price of a sweet under the installed resolver
+     * 
+     * @param sweet the sweet
+     * @return effective price in paise
+     */
+    public long getEffectivePriceMinor(Sweet sweet) {
+        return priceResolver.effectivePriceMinor(sweet);
+    }
+
+    /**
+     * Tells listeners that effective prices changed
+     * Called by the installed price resolver when a promotion starts or
+     * ends; must not be called from inside a listener callback
+     */
+    public void notifyPricesChanged() {
+        synchronized (writeLock) {
+            for (InventoryListener listener : listeners) {
+                listener.onPricesChanged();
+            }
+        }
+    }
+
     /**
      * Adds a new sweet to the shop inventory
+     * The shop keeps its own copy; later changes to the argument do not
+     * affect the inventory
      * 
      * @param sweet the sweet to add
      * @throws IllegalArgumentException if sweet is null or ID already exists
@@ -36,10 +197,18 @@ public class SweetShop {
         if (sweet == null) {
             throw new IllegalArgumentException("Sweet cannot be null");
         }
-        if (inventory.containsKey(sweet.getId())) {
-            throw new IllegalArgumentException("Sweet with ID " + sweet.getId() + " already exists");
+        synchronized (writeLock) {
+            if (inventory.containsKey(sweet.getId())) {
+                throw new IllegalArgumentException("Sweet with ID " + sweet.getId() + " already exists");
+            }
+            Sweet copy = Sweet.ofMinorPrice(sweet.getId(), sweet.getName(), sweet.getCategory(),
+                    sweet.getPriceMinor(), sweet.getQuantity());
+            inventory.put(copy.getId(), copy);
+            Sweet frozen = publish(copy);
+            for (InventoryListener listener : listeners) {
+                listener.onSweetAdded(frozen);
+            }
         }
-        inventory.put(sweet.getId(), sweet);
     }
 
     /**
@@ -49,13 +218,20 @@ public class SweetShop {
      * @param category category of the sweet
      * @param price price of the sweet
      * @param quantity quantity in stock
-     * @return the created Sweet object
+     * @return read-only view of the created sweet
      * @throws IllegalArgumentException if any parameter is invalid
      */
     public Sweet addSweet(String name, String category, double price, int quantity) {
-        Sweet sweet = new Sweet(nextId++, name, category, price, quantity);
-        inventory.put(sweet.getId(), sweet);
-        return sweet;
+        synchronized (writeLock) {
+            Sweet sweet = new Sweet(nextId, name, category, price, quantity);
+            nextId++;
+            inventory.put(sweet.getId(), sweet);
+            Sweet frozen = publish(sweet);
+            for (InventoryListener listener : listeners) {
+                listener.onSweetAdded(frozen);
+            }
+            return frozen;
+        }
     }
 
     /**
@@ -65,26 +241,113 @@ public class SweetShop {
      * @return true if deleted successfully, false if not found
      */
     public boolean deleteSweet(int id) {
-        return inventory.remove(id) != null;
+        synchronized (writeLock) {
+            HotItem hot = hotItems.get(id);
+            if (hot != null) {
+                coolDown(hot);
+            }
+            if (inventory.remove(id) == null) {
+                return false;
+            }
+            Sweet removed = snapshot.getSweet(id);
+            snapshot = snapshot.without(id);
+            for (InventoryListener listener : listeners) {
+                listener.onSweetDeleted(removed);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Changes the list price of a sweet
+     * 
+     * @param id the ID of the sweet
+     * @param price the new price in rupees
+     * @throws IllegalArgumentException if sweet not found or price is negative
+     */
+    public void updatePrice(int id, double price) {
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        updatePriceMinor(id, Money.toMinor(price));
+    }
+
+    /**
+     * Changes the list price of a sweet
+     * 
+     * @param id the ID of the sweet
+     * @param priceMinor the new price in paise
+     * @throws IllegalArgumentException if sweet not found or price is negative
+     */
+    public void updatePriceMinor(int id, long priceMinor) {
+        if (priceMinor < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        synchronized (writeLock) {
+            Sweet sweet = inventory.get(id);
+            if (sweet == null) {
+                throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+            }
+            foldHotSales(id);
+            Sweet before = snapshot.getSweet(id);
+            sweet.setPriceMinor(priceMinor);
+            Sweet after = publish(sweet);
+            for (InventoryListener listener : listeners) {
+                listener.onSweetUpdated(before, after);
+            }
+        }
+    }
+
+    /**
+     * Changes the name of a sweet
+     * 
+     * @param id the ID of the sweet
+     * @param name the new name
+     * @throws IllegalArgumentException if sweet not found or name is empty
+     */
+    public void renameSweet(int id, String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be null or empty");
+        }
+        synchronized (writeLock) {
+            Sweet sweet = inventory.get(id);
+            if (sweet == null) {
+                throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+            }
+            foldHotSales(id);
+            Sweet before = snapshot.getSweet(id);
+            sweet.setName(name);
+            Sweet after = publish(sweet);
+            for (InventoryListener listener : listeners) {
+                listener.onSweetUpdated(before, after);
+            }
+        }
     }
 
     /**
-     * Gets a sweet by ID
+     * Gets a sweet by ID as of the current snapshot
+     * A hot item reports the units its striped counter holds right now
+     * rather than the trailing snapshot quantity
      * 
      * @param id the ID of the sweet
-     * @return the Sweet object or null if not found
+     * @return read-only sweet or null if not found
      */
     public Sweet getSweet(int id) {
-        return inventory.get(id);
+        HotItem hot = hotItems.get(id);
+        Sweet sweet = snapshot.getSweet(id);
+        if (hot == null || sweet == null) {
+            return sweet;
+        }
+        return sweet.freezeWithQuantity((int) hot.stock.available());
     }
 
     /**
-     * Returns all sweets in inventory
+     * Returns all sweets in inventory as of the current snapshot
      * 
-     * @return list of all sweets
+     * @return unmodifiable list of read-only sweets
      */
     public List<Sweet> getAllSweets() {
-        return new ArrayList<>(inventory.values());
+        return snapshot.getSweets();
     }
 
     /**
@@ -98,9 +361,9 @@ public class SweetShop {
             return getAllSweets();
         }
         
-        String searchTerm = name.toLowerCase();
-        return inventory.values().stream()
-                .filter(sweet -> sweet.getName().toLowerCase().contains(searchTerm))
+        byte[] searchTerm = SymbolTable.fold(name);
+        return snapshot.stream()
+                .filter(sweet -> sweet.nameContains(searchTerm))
                 .collect(Collectors.toList());
     }
 
@@ -115,13 +378,14 @@ public class SweetShop {
             return getAllSweets();
         }
         
-        return inventory.values().stream()
-                .filter(sweet -> sweet.getCategory().equalsIgnoreCase(category))
+        byte[] folded = SymbolTable.fold(category);
+        return snapshot.stream()
+                .filter(sweet -> sweet.isInCategory(folded))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Searches sweets within a price range
+     * Searches sweets whose effective price is within a range
      * 
      * @param minPrice minimum price (inclusive)
      * @param maxPrice maximum price (inclusive)
@@ -133,8 +397,8 @@ public class SweetShop {
             throw new IllegalArgumentException("Invalid price range");
         }
         
-        return inventory.values().stream()
-                .filter(sweet -> sweet.getPrice() >= minPrice && sweet.getPrice() <= maxPrice)
+        return snapshot.stream()
+                .filter(priceBetween(minPrice, maxPrice))
                 .collect(Collectors.toList());
     }
 
@@ -147,15 +411,91 @@ public class SweetShop {
      * @throws InsufficientStockException if not enough stock available
      */
     public void purchaseSweet(int id, int quantity) {
-        Sweet sweet = inventory.get(id);
-        if (sweet == null) {
-            throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Purchase quantity must be positive");
         }
+        replay(purchase(id, quantity), id, quantity);
+    }
+
+    /**
+     * Purchases sweets without throwing when stock is short
+     * Meant for callers where refusals are routine (sold-out items)
+     * 
+     * @param id the ID of the sweet to purchase
+     * @param quantity the quantity to purchase
+     * @return packed outcome, read with PurchaseResult's static methods
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public long tryPurchase(int id, int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Purchase quantity must be positive");
         }
-        
-        sweet.decreaseQuantity(quantity);
+        return purchase(id, quantity);
+    }
+
+    /**
+     * Purchases through the striped counter of a hot item, or else under
+     * the write lock, and encodes the outcome
+     */
+    private long purchase(int id, int quantity) {
+        HotItem hot = hotItems.get(id);
+        if (hot != null) {
+            long taken = hot.stock.tryTake(quantity);
+            if (taken == StripedStock.TAKEN) {
+                hot.salesPending();
+                return outcome(OUTCOME_OK, (int) hot.stock.available());
+            }
+            if (taken != StripedStock.CLOSED) {
+                return outcome(OUTCOME_INSUFFICIENT_STOCK, (int) taken);
+            }
+        }
+        long outcome;
+        long waitStart = System.nanoTime();
+        synchronized (writeLock) {
+            boolean contended = System.nanoTime() - waitStart > CONTENDED_WAIT_NANOS;
+            outcome = applyPurchase(id, quantity);
+            if (contended) {
+                noteContention(id);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Purchases sweets at most once per client request ID
+     * A retry with the same request ID inside the deduplication window
+     * does not touch stock again; it returns (or throws) exactly what
+     * the first attempt did
+     * 
+     * @param id the ID of the sweet to purchase
+     * @param quantity the quantity to purchase
+     * @param requestId client-chosen ID, unique per purchase attempt (not 0)
+     * @return stock remaining after the original purchase
+     * @throws IllegalArgumentException if sweet not found, quantity invalid, requestId is 0
+     *         or requestId was already used for a different request
+     * @throws InsufficientStockException if the original purchase found too little stock
+     */
+    public int purchaseSweet(int id, int quantity, long requestId) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Purchase quantity must be positive");
+        }
+        long request = request(false, id, quantity);
+        long outcome = completedRequests.get(requestId, request);
+        if (outcome == IdempotencyTable.MISSING) {
+            long waitStart = System.nanoTime();
+            synchronized (writeLock) {
+                boolean contended = System.nanoTime() - waitStart > CONTENDED_WAIT_NANOS;
+                outcome = completedRequests.get(requestId, request);
+                if (outcome == IdempotencyTable.MISSING) {
+                    outcome = applyPurchase(id, quantity);
+                    completedRequests.putIfAbsent(requestId, request, outcome);
+                }
+                if (contended) {
+                    noteContention(id);
+                }
+            }
+        }
+        return replay(outcome, requestId, request);
     }
 
     /**
@@ -166,15 +506,54 @@ public class SweetShop {
      * @throws IllegalArgumentException if sweet not found or quantity invalid
      */
     public void restockSweet(int id, int quantity) {
-        Sweet sweet = inventory.get(id);
-        if (sweet == null) {
-            throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+        replay(tryRestock(id, quantity), id, quantity);
+    }
+
+    /**
+     * Restocks sweets without throwing when the sweet is missing
+     * 
+     * @param id the ID of the sweet to restock
+     * @param quantity the quantity to add
+     * @return packed outcome, read with PurchaseResult's static methods;
+     *         OK carries the stock after the restock
+     * @throws IllegalArgumentException if quantity is not positive or
+     *         the stock would overflow
+     */
+    public long tryRestock(int id, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Restock quantity must be positive");
+        }
+        synchronized (writeLock) {
+            return applyRestock(id, quantity);
         }
+    }
+
+    /**
+     * Restocks sweets at most once per client request ID
+     * 
+     * @param id the ID of the sweet to restock
+     * @param quantity the quantity to add
+     * @param requestId client-chosen ID, unique per restock attempt (not 0)
+     * @return stock after the original restock
+     * @throws IllegalArgumentException if sweet not found, quantity invalid, requestId is 0
+     *         or requestId was already used for a different request
+     */
+    public int restockSweet(int id, int quantity, long requestId) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Restock quantity must be positive");
         }
-        
-        sweet.increaseQuantity(quantity);
+        long request = request(true, id, quantity);
+        long outcome = completedRequests.get(requestId, request);
+        if (outcome == IdempotencyTable.MISSING) {
+            synchronized (writeLock) {
+                outcome = completedRequests.get(requestId, request);
+                if (outcome == IdempotencyTable.MISSING) {
+                    outcome = applyRestock(id, quantity);
+                    completedRequests.putIfAbsent(requestId, request, outcome);
+                }
+            }
+        }
+        return replay(outcome, requestId, request);
     }
 
     /**
@@ -183,20 +562,126 @@ public class SweetShop {
      * @return sorted list of sweets
      */
     public List<Sweet> getSweetsSortedByName() {
-        return inventory.values().stream()
-                .sorted(Comparator.comparing(Sweet::getName))
+        return snapshot.stream()
+                .sorted(Sweet::compareNameTo)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Returns sweets sorted by price (ascending)
+     * Returns sweets sorted by effective price (ascending)
      * 
      * @return sorted list of sweets
      */
     public List<Sweet> getSweetsSortedByPrice() {
-        return inventory.values().stream()
-                .sorted(Comparator.comparing(Sweet::getPrice))
-                .collect(Collectors.toList());
+        PriceResolver resolver = priceResolver;
+        return new ArrayList<>(Arrays.asList(SortedCursor.sortByKey(snapshot, resolver::effectivePriceMinor)));
+    }
+
+    // ==================== Streaming Queries ====================
+
+    /**
+     * Streams all sweets with demand-driven backpressure
+     * Each subscriber reads the snapshot current at its first request;
+     * items are delivered on the thread that calls request()
+     * 
+     * @return publisher of read-only sweets
+     */
+    public Flow.Publisher<Sweet> publishAllSweets() {
+        return publishMatching(sweet -> true, Runnable::run);
+    }
+
+    /**
+     * Streaming variant of searchByName
+     * 
+     * @param name the name to search for
+     * @return publisher of matching read-only sweets
+     */
+    public Flow.Publisher<Sweet> publishByName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return publishAllSweets();
+        }
+        byte[] searchTerm = SymbolTable.fold(name);
+        return publishMatching(sweet -> sweet.nameContains(searchTerm), Runnable::run);
+    }
+
+    /**
+     * Streaming variant of searchByCategory
+     * 
+     * @param category the category to search for
+     * @return publisher of matching read-only sweets
+     */
+    public Flow.Publisher<Sweet> publishByCategory(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return publishAllSweets();
+        }
+        byte[] folded = SymbolTable.fold(category);
+        return publishMatching(sweet -> sweet.isInCategory(folded), Runnable::run);
+    }
+
+    /**
+     * Streaming variant of searchByPriceRange
+     * 
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return publisher of read-only sweets within the price range
+     * @throws IllegalArgumentException if price range is invalid
+     */
+    public Flow.Publisher<Sweet> publishByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            throw new IllegalArgumentException("Invalid price range");
+        }
+        return publishMatching(priceBetween(minPrice, maxPrice), Runnable::run);
+    }
+
+    /**
+     * Streams all sweets matching a filter on the given executor
+     * 
+     * @param filter the filter to apply
+     * @param executor executor used to deliver items
+     * @return publisher of matching read-only sweets
+     */
+    public Flow.Publisher<Sweet> publishMatching(Predicate<Sweet> filter, Executor executor) {
+        return new CursorPublisher<>(() -> new FilteringCursor(snapshot.iterator(), filter), executor);
+    }
+
+    /**
+     * Streaming variant of getSweetsSortedByName
+     * Each subscriber selects items in chunks of at most
+     * SortedCursor.MAX_CHUNK per pass over the snapshot, so the first
+     * items arrive after one pass and memory does not grow with the
+     * catalog
+     * 
+     * @return publisher of read-only sweets in name order
+     */
+    public Flow.Publisher<Sweet> publishSortedByName() {
+        return new CursorPublisher<>(() -> SortedCursor.byOrder(snapshot, Sweet::compareNameTo),
+                Runnable::run);
+    }
+
+    /**
+     * Streaming variant of getSweetsSortedByPrice
+     * Effective prices are read once per sweet on the first request into
+     * a primitive array, so price changes during the stream do not
+     * affect its order; items are then selected in bounded chunks as for
+     * publishSortedByName
+     * 
+     * @return publisher of read-only sweets in price order
+     */
+    public Flow.Publisher<Sweet> publishSortedByPrice() {
+        return new CursorPublisher<>(() -> {
+            PriceResolver resolver = priceResolver;
+            return SortedCursor.byKey(snapshot, resolver::effectivePriceMinor);
+        }, Runnable::run);
+    }
+
+    private Predicate<Sweet> priceBetween(double minPrice, double maxPrice) {
+        PriceResolver resolver = priceResolver;
+        long min = Money.toMinor(minPrice);
+        long max = Money.toMinor(maxPrice);
+        return sweet -> {
+            long price = resolver.effectivePriceMinor(sweet);
+            return price >= min && price <= max;
+        };
     }
 
     /**
@@ -212,6 +697,318 @@ public class SweetShop {
      * Clears all inventory (useful for testing)
      */
     public void clearInventory() {
-        inventory.clear();
+        synchronized (writeLock) {
+            for (HotItem hot : hotItems.values()) {
+                hot.stock.close();
+            }
+            hotItems.clear();
+            inventory.clear();
+            snapshot = snapshot.cleared();
+            for (InventoryListener listener : listeners) {
+                listener.onInventoryCleared();
+            }
+        }
+    }
+
+    /**
+     * Replaces the whole inventory in one step
+     * The new sweets are copied and published as a single snapshot, so
+     * readers see either the old inventory or the new one, never a mix,
+     * and listeners get one onInventoryReplaced.
+     * 
+     * @param sweets the new inventory
+     * @throws IllegalArgumentException if sweets is null or holds a null sweet or a duplicate ID
+     */
+    public void replaceInventory(Collection<Sweet> sweets) {
+        if (sweets == null) {
+            throw new IllegalArgumentException("Sweets cannot be null");
+        }
+        List<Sweet> copies = new ArrayList<>(sweets.size());
+        PersistentIntMap<Sweet> frozen = PersistentIntMap.empty();
+        for (Sweet sweet : sweets) {
+            if (sweet == null) {
+                throw new IllegalArgumentException("Sweet cannot be null");
+            }
+            if (frozen.containsKey(sweet.getId())) {
+                throw new IllegalArgumentException("Sweet with ID " + sweet.getId() + " already exists");
+            }
+            Sweet copy = Sweet.ofMinorPrice(sweet.getId(), sweet.getName(), sweet.getCategory(),
+                    sweet.getPriceMinor(), sweet.getQuantity());
+            copies.add(copy);
+            frozen = frozen.put(copy.getId(), copy.freeze());
+        }
+        synchronized (writeLock) {
+            for (HotItem hot : hotItems.values()) {
+                hot.stock.close();
+            }
+            hotItems.clear();
+            inventory.clear();
+            for (Sweet copy : copies) {
+                inventory.put(copy.getId(), copy);
+            }
+            snapshot = snapshot.replacedBy(frozen);
+            for (InventoryListener listener : listeners) {
+                listener.onInventoryReplaced(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Publishes a frozen copy of a live sweet in a new snapshot
+     * Must be called while holding the write lock
+     */
+    private Sweet publish(Sweet sweet) {
+        Sweet frozen = sweet.freeze();
+        snapshot = snapshot.with(frozen);
+        return frozen;
+    }
+
+    /**
+     * Applies a purchase and encodes its outcome
+     * Must be called while holding the write lock
+     */
+    private long applyPurchase(int id, int quantity) {
+        Sweet sweet = inventory.get(id);
+        if (sweet == null) {
+            return outcome(OUTCOME_NOT_FOUND, 0);
+        }
+        HotItem hot = hotItems.get(id);
+        if (hot != null) {
+            long taken = hot.stock.tryTake(quantity);
+            if (taken != StripedStock.TAKEN) {
+                return outcome(OUTCOME_INSUFFICIENT_STOCK, (int) taken);
+            }
+            foldHotSales(hot);
+            return outcome(OUTCOME_OK, (int) hot.stock.available());
+        }
+        int available = sweet.getQuantity();
+        if (quantity > available) {
+            return outcome(OUTCOME_INSUFFICIENT_STOCK, available);
+        }
+        sweet.decreaseQuantity(quantity);
+        Sweet frozen = publish(sweet);
+        for (InventoryListener listener : listeners) {
+            listener.onPurchase(frozen, quantity);
+        }
+        return outcome(OUTCOME_OK, frozen.getQuantity());
+    }
+
+    /**
+     * Applies a restock and encodes its outcome
+     * Must be called while holding the write lock
+     */
+    private long applyRestock(int id, int quantity) {
+        Sweet sweet = inventory.get(id);
+        if (sweet == null) {
+            return outcome(OUTCOME_NOT_FOUND, 0);
+        }
+        HotItem hot = hotItems.get(id);
+        if (hot != null) {
+            foldHotSales(hot);
+        }
+        if (sweet.getQuantity() > Integer.MAX_VALUE - quantity) {
+            throw new IllegalArgumentException("Restocking sweet with ID " + id + " would overflow its stock");
+        }
+        if (hot != null) {
+            hot.stock.add(quantity);
+        }
+        sweet.increaseQuantity(quantity);
+        Sweet frozen = publish(sweet);
+        for (InventoryListener listener : listeners) {
+            listener.onRestock(frozen, quantity);
+        }
+        return outcome(OUTCOME_OK, frozen.getQuantity());
+    }
+
+    // ==================== Hot Items ====================
+
+    /**
+     * Switches an item to hot mode ahead of a known flash sale
+     * Items are also switched automatically once buyers queue for them
+     * 
+     * @param id the ID of the sweet
+     * @throws IllegalArgumentException if sweet not found
+     */
+    public void markHot(int id) {
+        synchronized (writeLock) {
+            if (inventory.get(id) == null) {
+                throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+            }
+            heatUp(id);
+        }
+    }
+
+    /**
+     * Checks whether an item is in hot mode
+     * 
+     * @param id the ID of the sweet
+     * @return true if its stock is striped
+     */
+    public boolean isHot(int id) {
+        return hotItems.containsKey(id);
+    }
+
+    /**
+     * Counts a purchase that queued on the write lock and heats the item
+     * up once it keeps showing up; counts halve periodically so only
+     * items contended right now qualify
+     * Must be called while holding the write lock
+     */
+    private void noteContention(int id) {
+        if (++contendedPurchases == CONTENTION_DECAY_PERIOD) {
+            contendedPurchases = 0;
+            for (int i = 0; i < CONTENTION_SLOTS; i++) {
+                contention[i] >>>= 1;
+            }
+        }
+        int slot = (id * 0x9E3779B9 >>> 24) & (CONTENTION_SLOTS - 1);
+        if (++contention[slot] >= HOT_THRESHOLD) {
+            contention[slot] = 0;
+            if (inventory.containsKey(id)) {
+                heatUp(id);
+            }
+        }
+    }
+
+    /**
+     * Moves a sweet's stock into a striped counter
+     * Must be called while holding the write lock
+     */
+    private void heatUp(int id) {
+        if (!hotItems.containsKey(id)) {
+            hotItems.put(id, new HotItem(id, new StripedStock(inventory.get(id).getQuantity())));
+        }
+    }
+
+    /**
+     * Closes a hot item's striped counter and folds its last sales in;
+     * the live sweet holds the exact stock again afterwards
+     * Must be called while holding the write lock
+     */
+    private void coolDown(HotItem hot) {
+        hot.stock.close();
+        hotItems.remove(hot.id);
+        publishHotSales(hot);
+    }
+
+    private void foldHotSales(int id) {
+        HotItem hot = hotItems.get(id);
+        if (hot != null) {
+            foldHotSales(hot);
+        }
+    }
+
+    /**
+     * Publishes the sales taken from a hot item since the last fold as
+     * one purchase event, and cools the item down once folds keep
+     * carrying a single sale
+     * Must be called while holding the write lock
+     */
+    private void foldHotSales(HotItem hot) {
+        if (hotItems.get(hot.id) != hot) {
+            return;
+        }
+        long takes = hot.stock.getTakeCount();
+        boolean batched = takes - hot.foldedTakes > 1;
+        hot.foldedTakes = takes;
+        publishHotSales(hot);
+        hot.quietFolds = batched ? 0 : hot.quietFolds + 1;
+        if (hot.quietFolds >= COOL_DOWN_FLUSHES) {
+            coolDown(hot);
+        }
+    }
+
+    /**
+     * Brings the live sweet in line with the striped counter
+     * Invariant: live quantity = units available + sales not yet folded
+     */
+    private void publishHotSales(HotItem hot) {
+        Sweet sweet = inventory.get(hot.id);
+        int sold = sweet.getQuantity() - (int) hot.stock.available();
+        if (sold > 0) {
+            sweet.decreaseQuantity(sold);
+            Sweet frozen = publish(sweet);
+            for (InventoryListener listener : listeners) {
+                listener.onPurchase(frozen, sold);
+            }
+        }
+    }
+
+    /**
+     * Striped stock of a hot item plus fold bookkeeping
+     * A buyer that takes stock raises the pending flag and, unless
+     * another buyer is already folding, folds under the write lock,
+     * repeating while sales keep arriving
+     */
+    private final class HotItem {
+        final int id;
+        final StripedStock stock;
+        final AtomicBoolean folding = new AtomicBoolean();
+        volatile boolean pending;
+        long foldedTakes;
+        int quietFolds;
+
+        HotItem(int id, StripedStock stock) {
+            this.id = id;
+            this.stock = stock;
+        }
+
+        void salesPending() {
+            if (!pending) {
+                pending = true;
+            }
+            while (pending && !folding.get() && folding.compareAndSet(false, true)) {
+                pending = false;
+                try {
+                    synchronized (writeLock) {
+                        foldHotSales(this);
+                    }
+                } finally {
+                    folding.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs an outcome code and stock level into one long
+     */
+    private static long outcome(int code, int quantity) {
+        return ((long) code << 32) | (quantity & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fingerprints a request for the idempotency table: the sweet ID in
+     * the high word, the (positive) quantity in the low word with its
+     * top bit marking a restock
+     */
+    private static long request(boolean restock, int id, int quantity) {
+        return ((long) id << 32) | (quantity & 0xFFFFFFFFL) | (restock ? 0x80000000L : 0);
+    }
+
+    /**
+     * Replays a recorded outcome for a request ID, using the sweet and
+     * quantity of the request that produced it
+     */
+    private static int replay(long outcome, long requestId, long request) {
+        if (outcome == IdempotencyTable.CONFLICT) {
+            throw new IllegalArgumentException("Request ID " + requestId + " was already used for a different request");
+        }
+        return replay(outcome, (int) (request >>> 32), (int) request & 0x7FFFFFFF);
+    }
+
+    /**
+     * Turns a recorded outcome back into a return value or exception
+     */
+    private static int replay(long outcome, int id, int quantity) {
+        int stock = (int) outcome;
+        switch ((int) (outcome >>> 32)) {
+            case OUTCOME_OK:
+                return stock;
+            case OUTCOME_INSUFFICIENT_STOCK:
+                throw new InsufficientStockException(stock, quantity);
+            default:
+                throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+        }
     }
 }
\ No newline at end of file
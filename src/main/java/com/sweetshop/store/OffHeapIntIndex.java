@@ -0,0 +1,139 @@
+package com.sweetshop.store;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Open-addressing int to int hash index in direct memory
+ * Linear probing with backward-shift deletion, so there are no
+ * tombstones and lookups never degrade after many deletes
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class OffHeapIntIndex {
+    static final int MISSING = -1;
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+
+    private IntBuffer table;
+    private int capacity;
+    private int size;
+
+    OffHeapIntIndex(int initialCapacity) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1));
+    }
+
+    /**
+     * Gets the value for a key
+     * @return the value or MISSING
+     */
+    int get(int key) {
+        int mask = capacity - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int existing = table.get(2 * i);
+            if (existing == key) {
+                return table.get(2 * i + 1);
+            }
+            if (existing == EMPTY_KEY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Maps a key to a non-negative value
+     * @throws IllegalArgumentException for the reserved key Integer.MIN_VALUE
+     */
+    void put(int key, int value) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("ID " + key + " is reserved");
+        }
+        if ((size + 1) * 4 > capacity * 3) {
+            resize();
+        }
+        int mask = capacity - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int existing = table.get(2 * i);
+            if (existing == EMPTY_KEY || existing == key) {
+                if (existing == EMPTY_KEY) {
+                    size++;
+                }
+                table.put(2 * i, key);
+                table.put(2 * i + 1, value);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes a key
+     * @return the removed value or MISSING
+     */
+    int remove(int key) {
+        int mask = capacity - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            int existing = table.get(2 * i);
+            if (existing == EMPTY_KEY) {
+                return MISSING;
+            }
+            if (existing == key) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = table.get(2 * i + 1);
+        size--;
+
+        int gap = i;
+        for (int j = (gap + 1) & mask; ; j = (j + 1) & mask) {
+            int candidate = table.get(2 * j);
+            if (candidate == EMPTY_KEY) {
+                break;
+            }
+            int home = hash(candidate) & mask;
+            boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+            if (movable) {
+                table.put(2 * gap, candidate);
+                table.put(2 * gap + 1, table.get(2 * j + 1));
+                gap = j;
+            }
+        }
+        table.put(2 * gap, EMPTY_KEY);
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getBytesReserved() {
+        return (long) capacity * 2 * Integer.BYTES;
+    }
+
+    private void resize() {
+        IntBuffer old = table;
+        int oldCapacity = capacity;
+        allocate(capacity * 2);
+        for (int i = 0; i < oldCapacity; i++) {
+            int key = old.get(2 * i);
+            if (key != EMPTY_KEY) {
+                put(key, old.get(2 * i + 1));
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        size = 0;
+        table = ByteBuffer.allocateDirect(newCapacity * 2 * Integer.BYTES).asIntBuffer();
+        for (int i = 0; i < newCapacity; i++) {
+            table.put(2 * i, EMPTY_KEY);
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
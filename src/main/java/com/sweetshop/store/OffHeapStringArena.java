@@ -0,0 +1,191 @@
+package com.sweetshop.store;
+
+import com.sweetshop.util.SymbolTable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only UTF-8 string arena in direct memory
+ * Strings are addressed by a packed long handle (chunk, offset, length)
+ * so the heap holds no per-string objects. Released strings are only
+ * counted as dead bytes; the owner reclaims them by copying the live
+ * strings into a fresh arena once enough have died
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class OffHeapStringArena {
+    static final int CHUNK_BYTES = 1 << 20;
+    private static final int FIELD_BITS = 21;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int chunkCount;
+    private int position;
+    private long bytesUsed;
+    private long deadBytes;
+
+    /**
+     * Stores a string and returns its handle
+     * 
+     * @param value the string to store
+     * @return handle for get()
+     * @throws IllegalArgumentException if the encoded string exceeds one chunk
+     */
+    long put(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > CHUNK_BYTES) {
+            throw new IllegalArgumentException("String too long for off-heap arena");
+        }
+        ByteBuffer target = reserve(bytes.length);
+        target.put(bytes);
+        return commit(bytes.length);
+    }
+
+    /**
+     * Copies a string from another arena without decoding it
+     * 
+     * @param source arena holding the string
+     * @param handle its handle in the source arena
+     * @return handle in this arena
+     */
+    long copyFrom(OffHeapStringArena source, long handle) {
+        int length = length(handle);
+        ByteBuffer target = reserve(length);
+        target.put(source.slice(handle));
+        return commit(length);
+    }
+
+    private ByteBuffer reserve(int length) {
+        if (chunkCount == 0 || position + length > CHUNK_BYTES) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(CHUNK_BYTES);
+            position = 0;
+        }
+        ByteBuffer target = chunks[chunkCount - 1].duplicate();
+        target.position(position);
+        return target;
+    }
+
+    private long commit(int length) {
+        long handle = ((long) (chunkCount - 1) << (2 * FIELD_BITS)) | ((long) position << FIELD_BITS) | length;
+        position += length;
+        bytesUsed += length;
+        return handle;
+    }
+
+    /**
+     * Marks a string as no longer referenced
+     * 
+     * @param handle handle returned by put()
+     */
+    void release(long handle) {
+        deadBytes += length(handle);
+    }
+
+    /**
+     * Checks whether a string contains a folded term, ignoring case
+     * ASCII letters are folded in place; only a string with other
+     * characters that did not match that way is decoded and folded
+     * 
+     * @param handle handle returned by put()
+     * @param foldedTerm term from SymbolTable.fold()
+     * @return true if the term occurs in the string
+     */
+    boolean foldedContains(long handle, byte[] foldedTerm) {
+        ByteBuffer source = chunks[chunk(handle)];
+        int start = offset(handle);
+        int length = length(handle);
+        boolean ascii = true;
+        for (int i = start; i < start + length; i++) {
+            if (source.get(i) < 0) {
+                ascii = false;
+                break;
+            }
+        }
+        if (!ascii) {
+            byte[] folded = SymbolTable.fold(get(handle));
+            return SymbolTable.indexOf(folded, 0, folded.length, foldedTerm) >= 0;
+        }
+        if (foldedTerm.length == 0) {
+            return true;
+        }
+        int last = start + length - foldedTerm.length;
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < foldedTerm.length && lower(source.get(i + j)) == foldedTerm[j]) {
+                j++;
+            }
+            if (j == foldedTerm.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private ByteBuffer slice(long handle) {
+        ByteBuffer source = chunks[chunk(handle)].duplicate();
+        source.position(offset(handle));
+        source.limit(offset(handle) + length(handle));
+        return source;
+    }
+
+    private static int chunk(long handle) {
+        return (int) (handle >>> (2 * FIELD_BITS));
+    }
+
+    private static int offset(long handle) {
+        return (int) ((handle >>> FIELD_BITS) & FIELD_MASK);
+    }
+
+    static int length(long handle) {
+        return (int) (handle & FIELD_MASK);
+    }
+
+    /**
+     * Decodes the string behind a handle
+     * 
+     * @param handle handle returned by put()
+     * @return the string
+     */
+    String get(long handle) {
+        byte[] bytes = new byte[length(handle)];
+        slice(handle).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of string bytes stored
+     * 
+     * @return bytes used
+     */
+    long getBytesUsed() {
+        return bytesUsed;
+    }
+
+    /**
+     * Returns the number of bytes held by released strings
+     * 
+     * @return dead bytes
+     */
+    long getDeadBytes() {
+        return deadBytes;
+    }
+
+    /**
+     * Returns the direct memory reserved by the arena
+     * 
+     * @return bytes reserved
+     */
+    long getBytesReserved() {
+        return (long) chunkCount * CHUNK_BYTES;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sweetshop.store;
+
+import com.sweetshop.model.Sweet;
+
+/**
+ * Flyweight Sweet view over a record in an OffHeapSweetStore
+ * Holds only the store, slot and ID; every accessor reads or writes the
+ * off-heap record, so any number of views add no per-item heap state
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+final class OffHeapSweet extends Sweet {
+    private final OffHeapSweetStore store;
+    private int slot;
+    private int id;
+
+    OffHeapSweet(OffHeapSweetStore store, int slot, int id) {
+        super(id);
+        this.store = store;
+        this.slot = slot;
+        this.id = id;
+    }
+
+    /**
+     * Re-points this view at another record (cursor-style iteration)
+     */
+    void moveTo(int slot, int id) {
+        this.slot = slot;
+        this.id = id;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return store.readName(slot, id);
+    }
+
+    @Override
+    public void setName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be null or empty");
+        }
+        store.writeName(slot, id, name);
+    }
+
+    @Override
+    public String getCategory() {
+        return store.readCategory(slot, id);
+    }
+
+    @Override
+    public void setCategory(String category) {
+        store.writeCategory(slot, id, category);
+    }
+
+    @Override
+    public long getPriceMinor() {
+        return store.readPrice(slot, id);
+    }
+
+    @Override
+    public void setPriceMinor(long priceMinor) {
+        if (priceMinor < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        store.writePrice(slot, id, priceMinor);
+    }
+
+    @Override
+    public int getQuantity() {
+        return store.readQuantity(slot, id);
+    }
+
+    @Override
+    public void setQuantity(int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        store.writeQuantity(slot, id, quantity);
+    }
+
+    @Override
+    public void decreaseQuantity(int amount) {
+        store.decreaseQuantity(slot, id, amount);
+    }
+
+    @Override
+    public void increaseQuantity(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+        store.increaseQuantity(slot, id, amount);
+    }
+}
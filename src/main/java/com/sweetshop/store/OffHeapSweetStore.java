@@ -0,0 +1,486 @@
+package com.sweetshop.store;
+
+import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.model.Sweet;
+import com.sweetshop.util.Money;
+import com.sweetshop.util.SymbolTable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Off-heap inventory store for very large catalogs
+ * Numeric fields live in fixed-width records inside direct ByteBuffer
+ * slabs, names and categories in an off-heap string arena, and the ID
+ * index in an off-heap hash table; the heap only holds the slab and
+ * chunk arrays plus a small category dictionary, so old-gen size and GC
+ * work stay roughly constant as the catalog grows
+ * 
+ * Names freed by deletes and renames, and categories no record uses any
+ * more, are counted as dead arena bytes; once they reach a chunk and at
+ * least half of the arena, the live strings are copied into a fresh
+ * arena so churn does not grow direct memory without bound.
+ * 
+ * Reads return flyweight Sweet views bound to a record; forEach reuses a
+ * single cursor view and must not retain it. All operations are
+ * synchronized on the store.
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class OffHeapSweetStore {
+    static final int RECORD_BYTES = 40;
+    private static final int RECORDS_PER_SLAB = 1 << 15;
+
+    private static final int ID = 0;
+    private static final int QUANTITY = 4;
+    private static final int NAME = 8;
+    private static final int CATEGORY = 16;
+    private static final int PRICE = 24;
+    private static final int FLAGS = 32;
+
+    private static final int FLAG_LIVE = 1;
+    private static final long NO_CATEGORY = -1L;
+    private static final int NO_SLOT = -1;
+    private static final long COMPACT_MIN_DEAD_BYTES = OffHeapStringArena.CHUNK_BYTES;
+
+    private ByteBuffer[] slabs = new ByteBuffer[4];
+    private int slabCount;
+    private int highWaterSlot;
+    private int freeHead = NO_SLOT;
+    private int size;
+    private int nextId = 1001;
+
+    private OffHeapStringArena strings = new OffHeapStringArena();
+    private final Map<String, Long> categoryHandles = new HashMap<>();
+    private Map<Long, Integer> categoryUses = new HashMap<>();
+    private final OffHeapIntIndex index;
+
+    /**
+     * Constructor - initializes an empty store
+     */
+    public OffHeapSweetStore() {
+        this(1024);
+    }
+
+    /**
+     * Constructor with an expected catalog size
+     * 
+     * @param expectedSize number of sweets to pre-size the ID index for
+     */
+    public OffHeapSweetStore(int expectedSize) {
+        this.index = new OffHeapIntIndex(expectedSize * 2);
+    }
+
+    /**
+     * Adds a copy of a sweet to the store
+     * 
+     * @param sweet the sweet to add
+     * @throws IllegalArgumentException if sweet is null or ID already exists
+     */
+    public synchronized void addSweet(Sweet sweet) {
+        if (sweet == null) {
+            throw new IllegalArgumentException("Sweet cannot be null");
+        }
+        if (index.get(sweet.getId()) != OffHeapIntIndex.MISSING) {
+            throw new IllegalArgumentException("Sweet with ID " + sweet.getId() + " already exists");
+        }
+        insert(sweet.getId(), sweet.getName(), sweet.getCategory(), sweet.getPriceMinor(), sweet.getQuantity());
+    }
+
+    /**
+     * Adds a sweet with auto-generated ID
+     * 
+     * @param name name of the sweet
+     * @param category category of the sweet
+     * @param price price of the sweet
+     * @param quantity quantity in stock
+     * @return view of the created sweet
+     * @throws IllegalArgumentException if any parameter is invalid
+     */
+    public synchronized Sweet addSweet(String name, String category, double price, int quantity) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be null or empty");
+        }
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        while (index.get(nextId) != OffHeapIntIndex.MISSING) {
+            nextId++;
+        }
+        int id = nextId++;
+        int slot = insert(id, name, category, Money.toMinor(price), quantity);
+        return new OffHeapSweet(this, slot, id);
+    }
+
+    /**
+     * Deletes a sweet by ID
+     * 
+     * @param id the ID of the sweet to delete
+     * @return true if deleted successfully, false if not found
+     */
+    public synchronized boolean deleteSweet(int id) {
+        int slot = index.remove(id);
+        if (slot == OffHeapIntIndex.MISSING) {
+            return false;
+        }
+        ByteBuffer slab = slab(slot);
+        int base = base(slot);
+        strings.release(slab.getLong(base + NAME));
+        releaseCategory(slab.getLong(base + CATEGORY));
+        freeSlot(slot);
+        size--;
+        compactStringsIfWasteful();
+        return true;
+    }
+
+    /**
+     * Gets a flyweight view of a sweet
+     * 
+     * @param id the ID of the sweet
+     * @return view or null if not found
+     */
+    public synchronized Sweet getSweet(int id) {
+        int slot = index.get(id);
+        return slot == OffHeapIntIndex.MISSING ? null : new OffHeapSweet(this, slot, id);
+    }
+
+    /**
+     * Purchases sweets, decreasing quantity
+     * 
+     * @param id the ID of the sweet to purchase
+     * @param quantity the quantity to purchase
+     * @throws IllegalArgumentException if sweet not found or quantity invalid
+     * @throws InsufficientStockException if not enough stock available
+     */
+    public synchronized void purchaseSweet(int id, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Purchase quantity must be positive");
+        }
+        decreaseQuantity(requireSlot(id), id, quantity);
+    }
+
+    /**
+     * Restocks sweets, increasing quantity
+     * 
+     * @param id the ID of the sweet to restock
+     * @param quantity the quantity to add
+     * @throws IllegalArgumentException if sweet not found or quantity invalid
+     */
+    public synchronized void restockSweet(int id, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Restock quantity must be positive");
+        }
+        increaseQuantity(requireSlot(id), id, quantity);
+    }
+
+    /**
+     * Searches sweets by name (case-insensitive partial match)
+     * 
+     * @param name the name to search for
+     * @return views of matching sweets
+     */
+    public synchronized List<Sweet> searchByName(String name) {
+        byte[] searchTerm = SymbolTable.fold(name == null ? "" : name.trim());
+        return collect(slot -> strings.foldedContains(slab(slot).getLong(base(slot) + NAME), searchTerm));
+    }
+
+    /**
+     * Searches sweets by category (exact match, case-insensitive)
+     * 
+     * @param category the category to search for
+     * @return views of matching sweets
+     */
+    public synchronized List<Sweet> searchByCategory(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return collect(slot -> true);
+        }
+        long[] handles = categoryHandles.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(category))
+                .mapToLong(Map.Entry::getValue)
+                .toArray();
+        return collect(slot -> {
+            long handle = slab(slot).getLong(base(slot) + CATEGORY);
+            for (long candidate : handles) {
+                if (candidate == handle) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Searches sweets within a price range
+     * 
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return views of sweets within the price range
+     * @throws IllegalArgumentException if price range is invalid
+     */
+    public synchronized List<Sweet> searchByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            throw new IllegalArgumentException("Invalid price range");
+        }
+        long min = Money.toMinor(minPrice);
+        long max = Money.toMinor(maxPrice);
+        return collect(slot -> {
+            long price = slab(slot).getLong(base(slot) + PRICE);
+            return price >= min && price <= max;
+        });
+    }
+
+    /**
+     * Visits every sweet through one reusable cursor view
+     * The view is re-pointed for each record and must not be retained
+     * 
+     * @param action the action to run for each sweet
+     */
+    public synchronized void forEach(Consumer<Sweet> action) {
+        OffHeapSweet cursor = new OffHeapSweet(this, 0, 0);
+        for (int slot = 0; slot < highWaterSlot; slot++) {
+            if (isLive(slot)) {
+                cursor.moveTo(slot, slab(slot).getInt(base(slot) + ID));
+                action.accept(cursor);
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of sweets in the store
+     * 
+     * @return inventory size
+     */
+    public synchronized int getInventorySize() {
+        return size;
+    }
+
+    /**
+     * Returns the direct memory reserved by records, strings and index
+     * 
+     * @return off-heap bytes
+     */
+    public synchronized long getOffHeapBytes() {
+        return (long) slabCount * RECORDS_PER_SLAB * RECORD_BYTES
+                + strings.getBytesReserved()
+                + index.getBytesReserved();
+    }
+
+    // ==================== Record Access (used by views) ====================
+
+    synchronized String readName(int slot, int id) {
+        checkLive(slot, id);
+        return readName(slot);
+    }
+
+    synchronized void writeName(int slot, int id, String name) {
+        checkLive(slot, id);
+        long handle = strings.put(name);
+        strings.release(slab(slot).getLong(base(slot) + NAME));
+        slab(slot).putLong(base(slot) + NAME, handle);
+        compactStringsIfWasteful();
+    }
+
+    synchronized String readCategory(int slot, int id) {
+        checkLive(slot, id);
+        long handle = slab(slot).getLong(base(slot) + CATEGORY);
+        return handle == NO_CATEGORY ? null : strings.get(handle);
+    }
+
+    synchronized void writeCategory(int slot, int id, String category) {
+        checkLive(slot, id);
+        long handle = acquireCategory(category);
+        releaseCategory(slab(slot).getLong(base(slot) + CATEGORY));
+        slab(slot).putLong(base(slot) + CATEGORY, handle);
+        compactStringsIfWasteful();
+    }
+
+    synchronized long readPrice(int slot, int id) {
+        checkLive(slot, id);
+        return slab(slot).getLong(base(slot) + PRICE);
+    }
+
+    synchronized void writePrice(int slot, int id, long priceMinor) {
+        checkLive(slot, id);
+        slab(slot).putLong(base(slot) + PRICE, priceMinor);
+    }
+
+    synchronized int readQuantity(int slot, int id) {
+        checkLive(slot, id);
+        return slab(slot).getInt(base(slot) + QUANTITY);
+    }
+
+    synchronized void writeQuantity(int slot, int id, int quantity) {
+        checkLive(slot, id);
+        slab(slot).putInt(base(slot) + QUANTITY, quantity);
+    }
+
+    synchronized void decreaseQuantity(int slot, int id, int amount) {
+        int available = readQuantity(slot, id);
+        if (amount > available) {
+            throw new InsufficientStockException(available, amount);
+        }
+        slab(slot).putInt(base(slot) + QUANTITY, available - amount);
+    }
+
+    synchronized void increaseQuantity(int slot, int id, int amount) {
+        int current = readQuantity(slot, id);
+        slab(slot).putInt(base(slot) + QUANTITY, current + amount);
+    }
+
+    // ==================== Slab Internals ====================
+
+    private int insert(int id, String name, String category, long priceMinor, int quantity) {
+        long nameHandle = strings.put(name);
+        long categoryHandle;
+        try {
+            categoryHandle = acquireCategory(category);
+        } catch (RuntimeException e) {
+            strings.release(nameHandle);
+            throw e;
+        }
+        int slot = allocateSlot();
+        try {
+            index.put(id, slot);
+        } catch (RuntimeException e) {
+            freeSlot(slot);
+            strings.release(nameHandle);
+            releaseCategory(categoryHandle);
+            throw e;
+        }
+        // The record only becomes visible to scans once it is complete and indexed
+        ByteBuffer slab = slab(slot);
+        int base = base(slot);
+        slab.putInt(base + ID, id);
+        slab.putInt(base + QUANTITY, quantity);
+        slab.putLong(base + NAME, nameHandle);
+        slab.putLong(base + CATEGORY, categoryHandle);
+        slab.putLong(base + PRICE, priceMinor);
+        slab.putInt(base + FLAGS, FLAG_LIVE);
+        size++;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        ByteBuffer slab = slab(slot);
+        int base = base(slot);
+        slab.putInt(base + FLAGS, 0);
+        slab.putInt(base + QUANTITY, freeHead);
+        freeHead = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeHead != NO_SLOT) {
+            int slot = freeHead;
+            freeHead = slab(slot).getInt(base(slot) + QUANTITY);
+            return slot;
+        }
+        int slot = highWaterSlot;
+        if (slot / RECORDS_PER_SLAB == slabCount) {
+            if (slabCount == slabs.length) {
+                slabs = Arrays.copyOf(slabs, slabCount * 2);
+            }
+            slabs[slabCount++] = ByteBuffer.allocateDirect(RECORDS_PER_SLAB * RECORD_BYTES);
+        }
+        highWaterSlot++;
+        return slot;
+    }
+
+    private long acquireCategory(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        long handle = categoryHandles.computeIfAbsent(category, strings::put);
+        categoryUses.merge(handle, 1, Integer::sum);
+        return handle;
+    }
+
+    private void releaseCategory(long handle) {
+        if (handle == NO_CATEGORY) {
+            return;
+        }
+        if (categoryUses.merge(handle, -1, Integer::sum) == 0) {
+            categoryUses.remove(handle);
+            categoryHandles.remove(strings.get(handle));
+            strings.release(handle);
+        }
+    }
+
+    private void compactStringsIfWasteful() {
+        long dead = strings.getDeadBytes();
+        if (dead < COMPACT_MIN_DEAD_BYTES || dead * 2 < strings.getBytesUsed()) {
+            return;
+        }
+        OffHeapStringArena fresh = new OffHeapStringArena();
+        Map<Long, Long> moved = new HashMap<>();
+        Map<Long, Integer> uses = new HashMap<>();
+        for (Map.Entry<String, Long> entry : categoryHandles.entrySet()) {
+            long handle = fresh.copyFrom(strings, entry.getValue());
+            moved.put(entry.getValue(), handle);
+            uses.put(handle, categoryUses.get(entry.getValue()));
+            entry.setValue(handle);
+        }
+        for (int slot = 0; slot < highWaterSlot; slot++) {
+            if (isLive(slot)) {
+                ByteBuffer slab = slab(slot);
+                int base = base(slot);
+                slab.putLong(base + NAME, fresh.copyFrom(strings, slab.getLong(base + NAME)));
+                long category = slab.getLong(base + CATEGORY);
+                if (category != NO_CATEGORY) {
+                    slab.putLong(base + CATEGORY, moved.get(category));
+                }
+            }
+        }
+        strings = fresh;
+        categoryUses = uses;
+    }
+
+    private List<Sweet> collect(IntPredicate matches) {
+        List<Sweet> results = new ArrayList<>();
+        for (int slot = 0; slot < highWaterSlot; slot++) {
+            if (isLive(slot) && matches.test(slot)) {
+                results.add(new OffHeapSweet(this, slot, slab(slot).getInt(base(slot) + ID)));
+            }
+        }
+        return results;
+    }
+
+    private int requireSlot(int id) {
+        int slot = index.get(id);
+        if (slot == OffHeapIntIndex.MISSING) {
+            throw new IllegalArgumentException("Sweet with ID " + id + " not found");
+        }
+        return slot;
+    }
+
+    private void checkLive(int slot, int id) {
+        if (slot >= highWaterSlot || !isLive(slot) || slab(slot).getInt(base(slot) + ID) != id) {
+            throw new IllegalStateException("Sweet with ID " + id + " has been deleted");
+        }
+    }
+
+    private boolean isLive(int slot) {
+        return (slab(slot).getInt(base(slot) + FLAGS) & FLAG_LIVE) != 0;
+    }
+
+    private String readName(int slot) {
+        return strings.get(slab(slot).getLong(base(slot) + NAME));
+    }
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot / RECORDS_PER_SLAB];
+    }
+
+    private static int base(int slot) {
+        return (slot % RECORDS_PER_SLAB) * RECORD_BYTES;
+    }
+}
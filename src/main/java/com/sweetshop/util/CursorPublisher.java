@@ -0,0 +1,166 @@
+package com.sweetshop.util;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Flow.Publisher that emits the items of a lazily opened cursor
+ * Each subscriber gets its own cursor and items are pulled only as the
+ * subscriber requests them, so memory stays bounded by the cursor state
+ * no matter how many items the query yields
+ *
+ * Delivery happens on the given executor; with a direct executor
+ * (Runnable::run) items are emitted on the thread calling request, and
+ * re-entrant requests from onNext are trampolined rather than recursing
+ *
+ * @param <T> item type
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class CursorPublisher<T> implements Flow.Publisher<T> {
+    private final Supplier<? extends Iterator<? extends T>> cursorFactory;
+    private final Executor executor;
+
+    /**
+     * Constructor
+     *
+     * @param cursorFactory opens a fresh cursor for each subscriber
+     * @param executor executor used to deliver signals
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public CursorPublisher(Supplier<? extends Iterator<? extends T>> cursorFactory, Executor executor) {
+        if (cursorFactory == null || executor == null) {
+            throw new IllegalArgumentException("Cursor factory and executor cannot be null");
+        }
+        this.cursorFactory = cursorFactory;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        CursorSubscription<T> subscription = new CursorSubscription<>(subscriber, cursorFactory, executor);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private static final class CursorSubscription<T> implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Supplier<? extends Iterator<? extends T>> cursorFactory;
+        private final Executor executor;
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private Iterator<? extends T> cursor;
+        private boolean done;
+
+        CursorSubscription(Flow.Subscriber<? super T> subscriber,
+                           Supplier<? extends Iterator<? extends T>> cursorFactory,
+                           Executor executor) {
+            this.subscriber = subscriber;
+            this.cursorFactory = cursorFactory;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Request must be positive: " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        /**
+         * Stops delivery; the drain loop then drops the cursor so a
+         * cancelled subscription does not pin it or the snapshot behind it
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Drain loop; only one thread runs it at a time thanks to wip
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done || cancelled) {
+                cursor = null;
+                return;
+            }
+            if (invalidRequest != null) {
+                done = true;
+                cursor = null;
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long emitted = 0;
+            long requested = demand.get();
+            while (!cancelled) {
+                boolean more;
+                T item = null;
+                try {
+                    if (cursor == null) {
+                        cursor = cursorFactory.get();
+                    }
+                    more = cursor.hasNext();
+                    if (more) {
+                        if (emitted == requested) {
+                            requested = demand.addAndGet(-emitted);
+                            emitted = 0;
+                            if (requested == 0) {
+                                return;
+                            }
+                        }
+                        item = cursor.next();
+                    }
+                } catch (RuntimeException e) {
+                    done = true;
+                    cursor = null;
+                    subscriber.onError(e);
+                    return;
+                }
+                if (!more) {
+                    done = true;
+                    cursor = null;
+                    subscriber.onComplete();
+                    return;
+                }
+                try {
+                    subscriber.onNext(item);
+                } catch (RuntimeException e) {
+                    // rule 2.13: a throwing subscriber cancels its subscription
+                    cancelled = true;
+                    cursor = null;
+                    return;
+                }
+                emitted++;
+            }
+            cursor = null;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.sweetshop.util;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, time-windowed map from request IDs to recorded outcomes
+ * Each entry also keeps a caller-defined fingerprint of the request it
+ * answered, so a request ID reused for a different request is reported
+ * as a conflict instead of replaying an unrelated outcome.
+ * Keys and values are primitive longs kept in open-addressed arrays,
+ * split over independently locked shards so concurrent lookups rarely
+ * contend. Each shard expires entries with a timer wheel: an entry is
+ * filed in the wheel slot of the tick it was recorded in, and advancing
+ * the wheel drops whole slots at once, so expiry costs nothing per
+ * lookup and needs no per-entry timestamps.
+ *
+ * Entries live for at least the window and at most one tick longer.
+ * When a shard is full its oldest slot is dropped early; those entries
+ * can no longer deduplicate retries, so size the table for the request
+ * rate over the whole window and watch getEvictionCount.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class IdempotencyTable {
+    /** Returned by get and putIfAbsent when the key is not present */
+    public static final long MISSING = Long.MIN_VALUE;
+    /** Returned by get and putIfAbsent when the key was recorded for another request */
+    public static final long CONFLICT = Long.MIN_VALUE + 1;
+
+    private static final int SHARDS = 16;
+    private static final int WHEEL_SLOTS = 64;
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    private final Shard[] shards = new Shard[SHARDS];
+    private final LongSupplier clock;
+    private final long tickMillis;
+
+    /**
+     * Constructor - uses the system clock
+     *
+     * @param windowMillis how long outcomes are remembered
+     * @param maximumSize maximum number of remembered outcomes
+     * @throws IllegalArgumentException if window or size is not positive
+     */
+    public IdempotencyTable(long windowMillis, int maximumSize) {
+        this(windowMillis, maximumSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor with a custom clock (useful for testing)
+     *
+     * @param windowMillis how long outcomes are remembered
+     * @param maximumSize maximum number of remembered outcomes
+     * @param clock supplier of epoch milliseconds
+     * @throws IllegalArgumentException if window or size is not positive or clock is null
+     */
+    public IdempotencyTable(long windowMillis, int maximumSize, LongSupplier clock) {
+        if (windowMillis <= 0 || maximumSize <= 0) {
+            throw new IllegalArgumentException("Window and maximum size must be positive");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+        this.tickMillis = (windowMillis + WHEEL_SLOTS - 2) / (WHEEL_SLOTS - 1);
+        int shardCapacity = (maximumSize + SHARDS - 1) / SHARDS;
+        long tick = currentTick();
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(shardCapacity, tick);
+        }
+    }
+
+    /**
+     * Gets the outcome recorded for a key
+     *
+     * @param key the request ID (must not be 0)
+     * @return the recorded value or MISSING
+     */
+    public long get(long key) {
+        return get(key, 0);
+    }
+
+    /**
+     * Gets the outcome recorded for a key if it answered the same request
+     *
+     * @param key the request ID (must not be 0)
+     * @param request fingerprint of the request
+     * @return the recorded value, MISSING, or CONFLICT if the key was
+     *         recorded with a different fingerprint
+     */
+    public long get(long key, long request) {
+        checkKey(key);
+        long hash = mix(key);
+        return shardFor(hash).get(key, hash, request, currentTick());
+    }
+
+    /**
+     * Records a value unless the key already has one
+     *
+     * @param key the request ID (must not be 0)
+     * @param value the outcome (must not be MISSING)
+     * @return the existing value, or MISSING if the value was recorded
+     */
+    public long putIfAbsent(long key, long value) {
+        return putIfAbsent(key, 0, value);
+    }
+
+    /**
+     * Records a value and the request it answers unless the key already has one
+     *
+     * @param key the request ID (must not be 0)
+     * @param request fingerprint of the request
+     * @param value the outcome (must not be MISSING or CONFLICT)
+     * @return the existing value, MISSING if the value was recorded, or
+     *         CONFLICT if the key was recorded with a different fingerprint
+     */
+    public long putIfAbsent(long key, long request, long value) {
+        checkKey(key);
+        if (value == MISSING || value == CONFLICT) {
+            throw new IllegalArgumentException("Value cannot be MISSING or CONFLICT");
+        }
+        long hash = mix(key);
+        return shardFor(hash).putIfAbsent(key, hash, request, value, currentTick());
+    }
+
+    /**
+     * Returns the number of remembered outcomes
+     *
+     * @return size
+     */
+    public int size() {
+        long tick = currentTick();
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size(tick);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of outcomes dropped early because a shard was full
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        long evictions = 0;
+        for (Shard shard : shards) {
+            evictions += shard.evictions();
+        }
+        return evictions;
+    }
+
+    private long currentTick() {
+        return clock.getAsLong() / tickMillis;
+    }
+
+    private Shard shardFor(long hash) {
+        return shards[(int) (hash >>> 60) & (SHARDS - 1)];
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Request ID cannot be 0");
+        }
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * One lock's worth of the table: a linear-probing hash of long keys
+     * (0 marks an empty cell) plus the timer wheel that expires them
+     */
+    private static final class Shard {
+        private final int capacity;
+        private final int maxTableSize;
+        private long[] keys = new long[INITIAL_TABLE_SIZE];
+        private long[] requests = new long[INITIAL_TABLE_SIZE];
+        private long[] values = new long[INITIAL_TABLE_SIZE];
+        private int size;
+
+        private final long[][] wheel = new long[WHEEL_SLOTS][];
+        private final int[] wheelCounts = new int[WHEEL_SLOTS];
+        private long tick;
+        private long evictions;
+
+        Shard(int capacity, long tick) {
+            this.capacity = capacity;
+            this.maxTableSize = Math.max(INITIAL_TABLE_SIZE, Integer.highestOneBit(capacity - 1) << 2);
+            this.tick = tick;
+        }
+
+        synchronized long get(long key, long hash, long request, long now) {
+            advance(now);
+            return recorded(find(key, hash), request);
+        }
+
+        synchronized long putIfAbsent(long key, long hash, long request, long value, long now) {
+            advance(now);
+            int index = find(key, hash);
+            if (index >= 0) {
+                return recorded(index, request);
+            }
+            if (size == capacity) {
+                evictOldestSlot();
+            }
+            if (size + 1 > keys.length / 2 && keys.length < maxTableSize) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            requests[slot] = request;
+            values[slot] = value;
+            size++;
+            file(key);
+            return MISSING;
+        }
+
+        private long recorded(int index, long request) {
+            if (index < 0) {
+                return MISSING;
+            }
+            return requests[index] == request ? values[index] : CONFLICT;
+        }
+
+        synchronized int size(long now) {
+            advance(now);
+            return size;
+        }
+
+        synchronized long evictions() {
+            return evictions;
+        }
+
+        // ==================== Timer Wheel ====================
+
+        /**
+         * Moves the wheel to the given tick, dropping every slot whose
+         * entries were recorded a full revolution ago
+         */
+        private void advance(long now) {
+            if (now <= tick) {
+                return;
+            }
+            long steps = Math.min(now - tick, WHEEL_SLOTS);
+            for (long i = 1; i <= steps; i++) {
+                expireSlot(slotOf(tick + i));
+            }
+            tick = now;
+        }
+
+        private void evictOldestSlot() {
+            for (int i = 1; i <= WHEEL_SLOTS; i++) {
+                int slot = slotOf(tick + i);
+                if (wheelCounts[slot] > 0) {
+                    evictions += wheelCounts[slot];
+                    expireSlot(slot);
+                    return;
+                }
+            }
+        }
+
+        private void file(long key) {
+            int slot = slotOf(tick);
+            long[] bucket = wheel[slot];
+            if (bucket == null) {
+                bucket = new long[8];
+                wheel[slot] = bucket;
+            } else if (wheelCounts[slot] == bucket.length) {
+                bucket = Arrays.copyOf(bucket, bucket.length * 2);
+                wheel[slot] = bucket;
+            }
+            bucket[wheelCounts[slot]++] = key;
+        }
+
+        private void expireSlot(int slot) {
+            long[] bucket = wheel[slot];
+            for (int i = 0; i < wheelCounts[slot]; i++) {
+                remove(bucket[i]);
+            }
+            wheelCounts[slot] = 0;
+        }
+
+        private static int slotOf(long tick) {
+            return (int) Math.floorMod(tick, (long) WHEEL_SLOTS);
+        }
+
+        // ==================== Hash Internals ====================
+
+        private int find(long key, long hash) {
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Removes a key with backward-shift deletion, so no tombstones
+         * are left behind to lengthen later probes
+         */
+        private void remove(long key) {
+            int hole = find(key, mix(key));
+            if (hole < 0) {
+                return;
+            }
+            int mask = keys.length - 1;
+            keys[hole] = 0;
+            size--;
+            int next = hole;
+            while (true) {
+                next = (next + 1) & mask;
+                if (keys[next] == 0) {
+                    return;
+                }
+                int home = (int) mix(keys[next]) & mask;
+                boolean movable = next > hole
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    keys[hole] = keys[next];
+                    requests[hole] = requests[next];
+                    values[hole] = values[next];
+                    keys[next] = 0;
+                    hole = next;
+                }
+            }
+        }
+
+        private void resize(int newSize) {
+            long[] oldKeys = keys;
+            long[] oldRequests = requests;
+            long[] oldValues = values;
+            keys = new long[newSize];
+            requests = new long[newSize];
+            values = new long[newSize];
+            int mask = newSize - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    requests[slot] = oldRequests[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sweetshop.util;
+
+/**
+ * Exact money arithmetic in minor units (paise)
+ * Amounts are held as long paise so totals and discounts never pick up
+ * binary floating-point error; rupee doubles are converted only at the
+ * edges (user input and display)
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class Money {
+    /** Minor units per rupee */
+    public static final int MINOR_PER_MAJOR = 100;
+    /** Basis points in 100% */
+    public static final int BASIS_POINTS = 10_000;
+
+    private Money() {
+    }
+
+    /**
+     * Converts rupees to paise, rounding half away from zero
+     * 
+     * @param major amount in rupees
+     * @return amount in paise
+     */
+    public static long toMinor(double major) {
+        long minor = Math.round(Math.abs(major) * MINOR_PER_MAJOR);
+        return major < 0 ? -minor : minor;
+    }
+
+    /**
+     * Converts paise to rupees for display or legacy APIs
+     * 
+     * @param minor amount in paise
+     * @return amount in rupees
+     */
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Takes a percentage off an amount, rounding half up to the nearest paisa
+     * 
+     * @param minor amount in paise
+     * @param basisPoints discount in basis points (100 = 1%)
+     * @return discounted amount in paise
+     * @throws IllegalArgumentException if minor is negative or basisPoints is outside 0..10000
+     */
+    public static long discount(long minor, int basisPoints) {
+        if (minor < 0 || basisPoints < 0 || basisPoints > BASIS_POINTS) {
+            throw new IllegalArgumentException("Invalid amount or discount");
+        }
+        long scaled = Math.multiplyExact(minor, (long) (BASIS_POINTS - basisPoints));
+        return (scaled + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    /**
+     * Formats paise as a plain decimal rupee amount, e.g. 1250 as "12.50"
+     * 
+     * @param minor amount in paise
+     * @return decimal string with two fraction digits
+     */
+    public static String toPlainString(long minor) {
+        long abs = Math.abs(minor);
+        long fraction = abs % MINOR_PER_MAJOR;
+        return (minor < 0 ? "-" : "") + abs / MINOR_PER_MAJOR + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
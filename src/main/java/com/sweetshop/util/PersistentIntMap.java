@@ -0,0 +1,336 @@
+package com.sweetshop.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Persistent (immutable) Map keyed by int
+ * A bitmap-indexed hash array mapped trie using the key bits directly,
+ * so updates copy only the O(log32 n) nodes on the path to the key and
+ * every older version stays valid and safe to read from any thread
+ *
+ * @param <V> value type
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class PersistentIntMap<V> implements Iterable<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map
+     *
+     * @param <V> value type
+     * @return empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    /**
+     * Gets the value mapped to a key
+     *
+     * @param key the key
+     * @return the value or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Node node = root;
+        int shift = 0;
+        while (node != null) {
+            int bit = 1 << ((key >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = node.children[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (child instanceof Entry) {
+                Entry entry = (Entry) child;
+                return entry.key == key ? (V) entry.value : null;
+            }
+            node = (Node) child;
+            shift += BITS;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a key is present
+     *
+     * @param key the key
+     * @return true if mapped
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a new map with the key mapped to the value
+     *
+     * @param key the key
+     * @param value the value (must not be null)
+     * @return updated map; this map is left unchanged
+     * @throws IllegalArgumentException if value is null
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        boolean[] added = new boolean[1];
+        Entry entry = new Entry(key, value);
+        Node newRoot = root == null
+                ? new Node(bitFor(key, 0), new Object[] { entry })
+                : put(root, entry, 0, added);
+        if (root == null) {
+            added[0] = true;
+        }
+        return new PersistentIntMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a new map without the key
+     *
+     * @param key the key
+     * @return updated map, or this map if the key was absent
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if (root == null || !containsKey(key)) {
+            return this;
+        }
+        Object newRoot = remove(root, key, 0);
+        if (newRoot instanceof Entry) {
+            Entry entry = (Entry) newRoot;
+            newRoot = new Node(bitFor(entry.key, 0), new Object[] { entry });
+        }
+        return new PersistentIntMap<>((Node) newRoot, size - 1);
+    }
+
+    /**
+     * Returns the number of mappings
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every value (in key-bit order, not insertion order)
+     *
+     * @param action the action to run for each value
+     */
+    public void forEach(Consumer<? super V> action) {
+        if (root != null) {
+            forEach(root, action);
+        }
+    }
+
+    /**
+     * Iterates the values lazily with memory bounded by the trie depth
+     *
+     * @return iterator over the values (remove is not supported)
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new TrieIterator<>(root);
+    }
+
+    /**
+     * Copies the values into a new unmodifiable list
+     *
+     * @return list of values
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach(values::add);
+        return Collections.unmodifiableList(values);
+    }
+
+    // ==================== Trie Internals ====================
+
+    private static int bitFor(int key, int shift) {
+        return 1 << ((key >>> shift) & MASK);
+    }
+
+    private static Node put(Node node, Entry entry, int shift, boolean[] added) {
+        int bit = bitFor(entry.key, shift);
+        int pos = Integer.bitCount(node.bitmap & (bit - 1));
+
+        if ((node.bitmap & bit) == 0) {
+            Object[] children = new Object[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, pos);
+            children[pos] = entry;
+            System.arraycopy(node.children, pos, children, pos + 1, node.children.length - pos);
+            added[0] = true;
+            return new Node(node.bitmap | bit, children);
+        }
+
+        Object child = node.children[pos];
+        Object replacement;
+        if (child instanceof Entry) {
+            Entry existing = (Entry) child;
+            if (existing.key == entry.key) {
+                replacement = entry;
+            } else {
+                replacement = merge(existing, entry, shift + BITS);
+                added[0] = true;
+            }
+        } else {
+            replacement = put((Node) child, entry, shift + BITS, added);
+        }
+
+        Object[] children = node.children.clone();
+        children[pos] = replacement;
+        return new Node(node.bitmap, children);
+    }
+
+    private static Node merge(Entry a, Entry b, int shift) {
+        int bitA = bitFor(a.key, shift);
+        int bitB = bitFor(b.key, shift);
+        if (bitA == bitB) {
+            return new Node(bitA, new Object[] { merge(a, b, shift + BITS) });
+        }
+        Object[] children = Integer.compareUnsigned(bitA, bitB) < 0
+                ? new Object[] { a, b }
+                : new Object[] { b, a };
+        return new Node(bitA | bitB, children);
+    }
+
+    /**
+     * Removes a key known to be present
+     * Returns the replacement node, a lone Entry to be collapsed into
+     * the parent, or null if the node became empty
+     */
+    private static Object remove(Node node, int key, int shift) {
+        int bit = bitFor(key, shift);
+        int pos = Integer.bitCount(node.bitmap & (bit - 1));
+        Object child = node.children[pos];
+
+        Object replacement = child instanceof Entry ? null : remove((Node) child, key, shift + BITS);
+
+        if (replacement == null) {
+            if (node.children.length == 1) {
+                return null;
+            }
+            Object[] children = new Object[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, pos);
+            System.arraycopy(node.children, pos + 1, children, pos, children.length - pos);
+            if (children.length == 1 && children[0] instanceof Entry) {
+                return children[0];
+            }
+            return new Node(node.bitmap & ~bit, children);
+        }
+
+        if (node.children.length == 1 && replacement instanceof Entry) {
+            return replacement;
+        }
+        Object[] children = node.children.clone();
+        children[pos] = replacement;
+        return new Node(node.bitmap, children);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Node node, Consumer<? super V> action) {
+        for (Object child : node.children) {
+            if (child instanceof Entry) {
+                action.accept((V) ((Entry) child).value);
+            } else {
+                forEach((Node) child, action);
+            }
+        }
+    }
+
+    private static final class TrieIterator<V> implements Iterator<V> {
+        private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS;
+
+        private final Node[] nodes = new Node[MAX_DEPTH];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth = -1;
+        private Entry next;
+
+        TrieIterator(Node root) {
+            if (root != null) {
+                nodes[0] = root;
+                depth = 0;
+                advance();
+            }
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (positions[depth] == node.children.length) {
+                    depth--;
+                    continue;
+                }
+                Object child = node.children[positions[depth]++];
+                if (child instanceof Entry) {
+                    next = (Entry) child;
+                    return;
+                }
+                depth++;
+                nodes[depth] = (Node) child;
+                positions[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) next.value;
+            advance();
+            return value;
+        }
+    }
+
+    private static final class Node {
+        final int bitmap;
+        final Object[] children;
+
+        Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+    }
+
+    private static final class Entry {
+        final int key;
+        final Object value;
+
+        Entry(int key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.sweetshop.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock counter split into per-core budgets for heavily contended items
+ * The units are divided between a central reserve and a set of stripes,
+ * each on its own cache line. A take decrements the caller's stripe with
+ * one CAS; only when that stripe runs dry does the caller lock the
+ * reserve and move a chunk of it into the stripe. When the reserve is
+ * empty too, every stripe is drained back into it, so a take fails only
+ * if the whole stock is really short: no unit is lost or oversold.
+ * Reading the available units takes no lock: moves between the reserve
+ * and the stripes bump a version around them, and a reader retries if
+ * one overlapped its sum.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class StripedStock {
+    /** Returned by tryTake when the units were taken */
+    public static final long TAKEN = -1;
+    /** Returned by tryTake after close() */
+    public static final long CLOSED = -2;
+
+    /** Longs per stripe, so each stripe owns a 128-byte line */
+    private static final int PAD = 16;
+    private static final int BUDGET = 0;
+    private static final int TAKES = 1;
+    private static final int MAX_STRIPES = 64;
+    private static final int OPTIMISTIC_READS = 4;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final Object lock = new Object();
+    private volatile long reserve;
+    /** Odd while the reserve and stripes are being rebalanced */
+    private volatile int version;
+    private boolean closed;
+
+    /**
+     * Constructor - one stripe per available processor
+     *
+     * @param units initial stock
+     * @throws IllegalArgumentException if units is negative
+     */
+    public StripedStock(long units) {
+        this(units, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor with an explicit stripe count
+     *
+     * @param units initial stock
+     * @param stripes number of stripes (rounded up to a power of two, at most 64)
+     * @throws IllegalArgumentException if units is negative or stripes is not positive
+     */
+    public StripedStock(long units, int stripes) {
+        if (units < 0 || stripes <= 0) {
+            throw new IllegalArgumentException("Units cannot be negative and stripes must be positive");
+        }
+        int count = 1;
+        while (count < stripes && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        this.cells = new AtomicLongArray(count * PAD);
+        this.mask = count - 1;
+        this.reserve = units;
+    }
+
+    /**
+     * Takes units from the stock
+     *
+     * @param units number of units to take (positive)
+     * @return TAKEN on success, CLOSED if the stock was closed, otherwise
+     *         the units available when the take was refused
+     * @throws IllegalArgumentException if units is not positive
+     */
+    public long tryTake(int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        int stripe = stripeFor(Thread.currentThread());
+        int base = stripe * PAD;
+        long budget = cells.get(base + BUDGET);
+        while (budget >= units) {
+            if (cells.compareAndSet(base + BUDGET, budget, budget - units)) {
+                cells.getAndIncrement(base + TAKES);
+                return TAKEN;
+            }
+            budget = cells.get(base + BUDGET);
+        }
+        return refillAndTake(base, units);
+    }
+
+    /**
+     * Slow path: tops the stripe up from the reserve, rebalancing all
+     * stripes into the reserve first if it cannot cover the take
+     */
+    private long refillAndTake(int base, int units) {
+        synchronized (lock) {
+            if (closed) {
+                return CLOSED;
+            }
+            version++;
+            try {
+                if (reserve < units) {
+                    drainStripes();
+                    if (reserve < units) {
+                        return reserve;
+                    }
+                }
+                long left = reserve - units;
+                long chunk = left / (2L * (mask + 1));
+                reserve = left - chunk;
+                cells.getAndAdd(base + BUDGET, chunk);
+                cells.getAndIncrement(base + TAKES);
+                return TAKEN;
+            } finally {
+                version++;
+            }
+        }
+    }
+
+    /**
+     * Adds units to the reserve
+     *
+     * @param units number of units to add (positive)
+     * @throws IllegalArgumentException if units is not positive
+     */
+    public void add(long units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        synchronized (lock) {
+            version++;
+            reserve += units;
+            version++;
+        }
+    }
+
+    /**
+     * Returns the units not yet taken
+     * Exact with respect to refills; takes running concurrently are
+     * either fully counted or not at all
+     *
+     * @return available units
+     */
+    public long available() {
+        for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+            int before = version;
+            if ((before & 1) == 0) {
+                long total = sum();
+                if (version == before) {
+                    return total;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        synchronized (lock) {
+            return sum();
+        }
+    }
+
+    private long sum() {
+        long total = reserve;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.get(i * PAD + BUDGET);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of successful takes so far
+     *
+     * @return take count
+     */
+    public long getTakeCount() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.get(i * PAD + TAKES);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of stripes
+     *
+     * @return stripe count
+     */
+    public int getStripeCount() {
+        return mask + 1;
+    }
+
+    /**
+     * Drains every stripe and refuses later takes
+     * Takes that completed before the drain remain counted
+     *
+     * @return units left in the stock
+     */
+    public long close() {
+        synchronized (lock) {
+            closed = true;
+            version++;
+            drainStripes();
+            version++;
+            return reserve;
+        }
+    }
+
+    private void drainStripes() {
+        long drained = reserve;
+        for (int i = 0; i <= mask; i++) {
+            drained += cells.getAndSet(i * PAD + BUDGET, 0);
+        }
+        reserve = drained;
+    }
+
+    private int stripeFor(Thread thread) {
+        long h = thread.getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+}
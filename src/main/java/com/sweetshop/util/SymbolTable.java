@@ -0,0 +1,324 @@
+package com.sweetshop.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Interned strings stored as UTF-8 in one growable byte arena
+ * Each distinct string is stored once and named by a small int symbol.
+ * Matching is case-insensitive on the stored bytes without decoding:
+ * ASCII letters are folded as they are compared, and strings with other
+ * characters keep a precomputed folded copy, so only those pay for a
+ * second form. Each symbol also keeps its String, so decoding one does
+ * not allocate.
+ *
+ * Entries are never freed, so a table is meant for a small closed
+ * vocabulary such as the categories of a catalog; per-item strings like
+ * names do not belong in it.
+ *
+ * Interning is synchronized; reads are lock-free and safe for any
+ * symbol the reader obtained after it was interned.
+ *
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class SymbolTable {
+    /** Symbol meaning "no string" */
+    public static final int NONE = -1;
+
+    private static final SymbolTable SHARED = new SymbolTable();
+
+    /** Ints per entry: end offset in the arena, folded symbol */
+    private static final int STRIDE = 2;
+    private static final int END = 0;
+    private static final int FOLDED = 1;
+
+    private volatile byte[] bytes = new byte[1 << 12];
+    private volatile int[] entries = new int[64 * STRIDE];
+    private volatile String[] strings = new String[64];
+    private int[] slots = new int[128];
+    private int used;
+    private int count;
+
+    /**
+     * Returns the table shared by all sweets
+     *
+     * @return shared table
+     */
+    public static SymbolTable shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the symbol for a string, storing it on first use
+     *
+     * @param value the string
+     * @return its symbol
+     * @throws IllegalArgumentException if value is null
+     */
+    public int intern(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            int symbol = lookup(utf8);
+            if (symbol != NONE) {
+                return symbol;
+            }
+            int foldedSymbol = NONE;
+            byte[] folded = foldedForm(value, utf8);
+            if (folded != null) {
+                foldedSymbol = lookup(folded);
+                if (foldedSymbol == NONE) {
+                    foldedSymbol = add(folded, new String(folded, StandardCharsets.UTF_8), NONE);
+                }
+            }
+            return add(utf8, value, foldedSymbol);
+        }
+    }
+
+    /**
+     * Decodes a symbol
+     *
+     * @param symbol the symbol
+     * @return the String it was interned from (the same instance on every call)
+     */
+    public String toString(int symbol) {
+        return strings[symbol];
+    }
+
+    /**
+     * Copies a symbol's UTF-8 bytes into a buffer without decoding them
+     *
+     * @param symbol the symbol
+     * @param target buffer to write to
+     * @param maxBytes most bytes to write; longer strings are cut at a character boundary
+     * @return number of bytes written
+     */
+    public int write(int symbol, ByteBuffer target, int maxBytes) {
+        int[] table = entries;
+        byte[] arena = bytes;
+        int start = start(table, symbol);
+        int length = prefixLength(arena, start, table[symbol * STRIDE + END] - start, maxBytes);
+        target.put(arena, start, length);
+        return length;
+    }
+
+    /**
+     * Checks whether a symbol contains a folded term, ignoring case
+     *
+     * @param symbol the symbol
+     * @param foldedTerm term from fold()
+     * @return true if the term occurs in it
+     */
+    public boolean foldedContains(int symbol, byte[] foldedTerm) {
+        int[] table = entries;
+        int folded = table[symbol * STRIDE + FOLDED];
+        int start = start(table, folded);
+        return indexOf(bytes, start, table[folded * STRIDE + END] - start, foldedTerm) >= 0;
+    }
+
+    /**
+     * Checks whether a symbol equals a folded term, ignoring case
+     *
+     * @param symbol the symbol
+     * @param foldedTerm term from fold()
+     * @return true if the folded forms are equal
+     */
+    public boolean foldedEquals(int symbol, byte[] foldedTerm) {
+        int[] table = entries;
+        int folded = table[symbol * STRIDE + FOLDED];
+        int start = start(table, folded);
+        int length = table[folded * STRIDE + END] - start;
+        return length == foldedTerm.length && indexOf(bytes, start, length, foldedTerm) == 0;
+    }
+
+    /**
+     * Returns the number of distinct strings stored
+     *
+     * @return symbol count
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Returns the number of arena bytes in use
+     *
+     * @return bytes used
+     */
+    public synchronized int getByteCount() {
+        return used;
+    }
+
+    /**
+     * Case-folds a search term the way stored strings are matched
+     *
+     * @param value the term
+     * @return folded UTF-8 bytes
+     */
+    public static byte[] fold(String value) {
+        return value.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the folded copy a string needs for matching, if any
+     * ASCII letters are folded while comparing, so only strings that
+     * fold other characters need a second form
+     *
+     * @param value the string
+     * @param utf8 its UTF-8 bytes
+     * @return folded UTF-8 bytes, or null if the bytes match as they are
+     */
+    public static byte[] foldedForm(String value, byte[] utf8) {
+        if (isAscii(utf8)) {
+            return null;
+        }
+        byte[] folded = fold(value);
+        return Arrays.equals(folded, utf8) ? null : folded;
+    }
+
+    /**
+     * Returns the length of the longest prefix of a UTF-8 range that fits
+     * in maxBytes without splitting a character
+     *
+     * @param utf8 UTF-8 bytes
+     * @param start start of the range
+     * @param length length of the range
+     * @param maxBytes most bytes allowed
+     * @return prefix length
+     */
+    public static int prefixLength(byte[] utf8, int start, int length, int maxBytes) {
+        if (length <= maxBytes) {
+            return length;
+        }
+        int end = maxBytes;
+        // the first byte left out must not be a continuation byte
+        while (end > 0 && (utf8[start + end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Finds a folded term in a range of bytes, folding ASCII letters in
+     * the range as it goes. Byte-wise matching is exact for UTF-8, which
+     * never encodes one character as part of another
+     *
+     * @param source bytes to search
+     * @param start start of the range
+     * @param length length of the range
+     * @param foldedTerm bytes to find, from fold()
+     * @return offset of the first match within the range, or -1
+     */
+    public static int indexOf(byte[] source, int start, int length, byte[] foldedTerm) {
+        if (foldedTerm.length == 0) {
+            return 0;
+        }
+        byte first = foldedTerm[0];
+        int last = start + length - foldedTerm.length;
+        for (int i = start; i <= last; i++) {
+            if (lower(source[i]) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < foldedTerm.length && lower(source[i + j]) == foldedTerm[j]) {
+                j++;
+            }
+            if (j == foldedTerm.length) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== Storage ====================
+
+    private static int start(int[] table, int symbol) {
+        return symbol == 0 ? 0 : table[(symbol - 1) * STRIDE + END];
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static boolean isAscii(byte[] utf8) {
+        for (byte b : utf8) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lookup(byte[] utf8) {
+        int[] table = entries;
+        byte[] arena = bytes;
+        int mask = slots.length - 1;
+        for (int slot = hash(utf8, 0, utf8.length) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int symbol = slots[slot] - 1;
+            int start = start(table, symbol);
+            int end = table[symbol * STRIDE + END];
+            if (end - start == utf8.length && Arrays.equals(arena, start, end, utf8, 0, utf8.length)) {
+                return symbol;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Appends a string; foldedSymbol NONE means it matches as stored
+     */
+    private int add(byte[] utf8, String value, int foldedSymbol) {
+        if (used + utf8.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, used + utf8.length));
+        }
+        if ((count + 1) * STRIDE > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            strings = Arrays.copyOf(strings, strings.length * 2);
+        }
+        int symbol = count;
+        System.arraycopy(utf8, 0, bytes, used, utf8.length);
+        used += utf8.length;
+        String[] decoded = strings;
+        decoded[symbol] = value;
+        strings = decoded;
+        int[] table = entries;
+        table[symbol * STRIDE + END] = used;
+        table[symbol * STRIDE + FOLDED] = foldedSymbol == NONE ? symbol : foldedSymbol;
+        count++;
+
+        if (count * 3 > slots.length * 2) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < count; i++) {
+                place(i);
+            }
+        } else {
+            place(symbol);
+        }
+        // republish so readers that see the symbol also see its entry
+        entries = table;
+        return symbol;
+    }
+
+    private void place(int symbol) {
+        int start = start(entries, symbol);
+        int mask = slots.length - 1;
+        int slot = hash(bytes, start, entries[symbol * STRIDE + END]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = symbol + 1;
+    }
+
+    private static int hash(byte[] source, int from, int to) {
+        int h = 0x811C9DC5;
+        for (int i = from; i < to; i++) {
+            h = (h ^ source[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
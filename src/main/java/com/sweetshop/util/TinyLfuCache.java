@@ -0,0 +1,280 @@
+package com.sweetshop.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache with W-TinyLFU admission and eviction
+ * New entries enter a small LRU window; entries evicted from the window
+ * compete with the main region's LRU victim and are admitted only if a
+ * count-min frequency sketch says they are used more often. The main
+ * region is a segmented LRU (probation and protected), so one-off keys
+ * cannot flush out popular ones.
+ *
+ * All operations are synchronized; callers should compute values
+ * outside the cache and only put the result.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public class TinyLfuCache<K, V> {
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final Consumer<? super K> evictionListener;
+
+    private long evictionCount;
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize maximum number of entries
+     * @throws IllegalArgumentException if maximumSize is less than 2
+     */
+    public TinyLfuCache(int maximumSize) {
+        this(maximumSize, key -> { });
+    }
+
+    /**
+     * Constructor with a listener for capacity evictions
+     * The listener runs inside put() while the cache is locked and must
+     * not call back into the cache; explicit removals are not reported
+     *
+     * @param maximumSize maximum number of entries
+     * @param evictionListener receives each key evicted for capacity
+     * @throws IllegalArgumentException if maximumSize is less than 2
+     */
+    public TinyLfuCache(int maximumSize, Consumer<? super K> evictionListener) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("Maximum size must be at least 2");
+        }
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - windowCapacity;
+        this.protectedCapacity = Math.max(1, mainCapacity * 4 / 5);
+        this.sketch = new FrequencySketch(maximumSize);
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Gets a cached value and records the access
+     *
+     * @param key the key
+     * @return the value or null if absent
+     */
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = protectedSegment.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            promote(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Inserts or replaces a value
+     *
+     * @param key the key
+     * @param value the value (must not be null)
+     */
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        if (window.containsKey(key)) {
+            window.put(key, value);
+            return;
+        }
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+            return;
+        }
+        if (probation.remove(key) != null) {
+            promote(key, value);
+            return;
+        }
+        window.put(key, value);
+        if (window.size() > windowCapacity) {
+            Map.Entry<K, V> candidate = removeEldest(window);
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Removes a key
+     *
+     * @param key the key
+     * @return true if an entry was removed
+     */
+    public synchronized boolean remove(K key) {
+        return window.remove(key) != null
+                || probation.remove(key) != null
+                || protectedSegment.remove(key) != null;
+    }
+
+    /**
+     * Removes every entry whose key matches
+     *
+     * @param filter key predicate
+     * @return number of entries removed
+     */
+    public synchronized int removeIf(Predicate<? super K> filter) {
+        return removeIf(window, filter) + removeIf(probation, filter) + removeIf(protectedSegment, filter);
+    }
+
+    /**
+     * Removes all entries (frequency history is kept)
+     */
+    public synchronized void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * Returns the number of cached entries
+     *
+     * @return size
+     */
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Returns the number of entries evicted for capacity
+     *
+     * @return eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // ==================== Admission Internals ====================
+
+    private void promote(K key, V value) {
+        protectedSegment.put(key, value);
+        if (protectedSegment.size() > protectedCapacity) {
+            Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private void admit(K candidateKey, V candidateValue) {
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidateKey, candidateValue);
+            return;
+        }
+        LinkedHashMap<K, V> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+        K victimKey = victimSegment.keySet().iterator().next();
+        if (sketch.frequency(candidateKey) > sketch.frequency(victimKey)) {
+            victimSegment.remove(victimKey);
+            probation.put(candidateKey, candidateValue);
+            evictionListener.accept(victimKey);
+        } else {
+            evictionListener.accept(candidateKey);
+        }
+        evictionCount++;
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> segment) {
+        Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+        Map.Entry<K, V> eldest = iterator.next();
+        Map.Entry<K, V> copy = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return copy;
+    }
+
+    private static <K, V> int removeIf(Map<K, V> segment, Predicate<? super K> filter) {
+        int removed = 0;
+        Iterator<K> iterator = segment.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (filter.test(iterator.next())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Count-min sketch with 4-bit style saturating counters and periodic
+     * halving, so frequencies age out and the sketch tracks recent use
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = { 0x97CB3127, 0xB5297A4D, 0x68E31DA4, 0x1B56C4E9 };
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize) * 2 - 1);
+            this.table = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = indexOf(hash, row);
+                if (table[row][index] < MAX_COUNT) {
+                    table[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, table[row][indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int indexOf(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9E3779B9;
+            return (h ^ (h >>> 15)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x85EBCA6B;
+            return h ^ (h >>> 13);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.sweetshop.analytics;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SweetShop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for ReplenishmentEngine
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class ReplenishmentEngineTest {
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = 24 * HOUR;
+
+    private SweetShop shop;
+    private AtomicLong now;
+    private ReplenishmentPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 100));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 100));
+        now = new AtomicLong(DAY);
+        policy = new ReplenishmentPolicy(DAY, DAY, DAY, 3 * DAY, 5);
+    }
+
+    @Test
+    @DisplayName("Test velocity tracks a steady sales rate and decays when sales stop")
+    void testVelocity() {
+        ReplenishmentEngine engine = new ReplenishmentEngine(shop, policy, ReplenishmentEngine.Mode.SUGGEST, now::get);
+        for (int hour = 0; hour < 24 * 10; hour++) {
+            now.addAndGet(HOUR);
+            shop.restockSweet(1001, 1);
+            shop.purchaseSweet(1001, 1);
+        }
+        
+        assertEquals(24.0, engine.getUnitsPerDay(1001), 1.0);
+        assertEquals(0.0, engine.getUnitsPerDay(1002));
+        now.addAndGet(DAY);
+        assertEquals(12.0, engine.getUnitsPerDay(1001), 0.5);
+    }
+
+    @Test
+    @DisplayName("Test ticks evaluate only changed sweets and suggest orders below the reorder point")
+    void testSuggestions() {
+        ReplenishmentEngine engine = new ReplenishmentEngine(shop, policy, ReplenishmentEngine.Mode.SUGGEST, now::get);
+        assertEquals(2, engine.tick());
+        assertEquals(0, engine.tick());
+        
+        for (int hour = 0; hour < 48; hour++) {
+            now.addAndGet(HOUR);
+            shop.purchaseSweet(1001, 2);
+        }
+        
+        assertEquals(1, engine.tick());
+        List<RestockSuggestion> suggestions = engine.drainSuggestions();
+        assertEquals(1, suggestions.size());
+        RestockSuggestion suggestion = suggestions.get(0);
+        assertEquals(1001, suggestion.getSweetId());
+        assertEquals(4, suggestion.getStock());
+        assertEquals(engine.getReorderPoint(1001), suggestion.getReorderPoint());
+        assertTrue(suggestion.getReorderPoint() > 4);
+        assertTrue(suggestion.getQuantity() >= suggestion.getReorderPoint());
+        assertTrue(engine.drainSuggestions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a sweet is suggested once until it is restocked")
+    void testSuggestionsAreDeduplicated() {
+        ReplenishmentEngine engine = new ReplenishmentEngine(shop, policy, ReplenishmentEngine.Mode.SUGGEST, now::get);
+        for (int hour = 0; hour < 48; hour++) {
+            now.addAndGet(HOUR);
+            shop.purchaseSweet(1001, 2);
+            engine.tick();
+        }
+        assertEquals(1, engine.drainSuggestions().size());
+        
+        shop.purchaseSweet(1001, 1);
+        engine.tick();
+        assertTrue(engine.drainSuggestions().isEmpty());
+        
+        shop.restockSweet(1001, 1);
+        shop.purchaseSweet(1001, 1);
+        engine.tick();
+        assertEquals(1, engine.drainSuggestions().size());
+    }
+
+    @Test
+    @DisplayName("Test AUTO mode restocks on the scheduler and clears stock on order")
+    void testAutoRestock() throws InterruptedException {
+        ReplenishmentPolicy instant = new ReplenishmentPolicy(DAY, 0, DAY, 3 * DAY, 5);
+        ReplenishmentEngine engine = new ReplenishmentEngine(shop, instant, ReplenishmentEngine.Mode.AUTO, now::get);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            engine.start(executor, 10);
+            for (int hour = 0; hour < 48; hour++) {
+                now.addAndGet(HOUR);
+                shop.purchaseSweet(1002, 2);
+            }
+            
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (shop.getSweet(1002).getQuantity() <= 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50);
+            engine.stop();
+            
+            assertTrue(shop.getSweet(1002).getQuantity() > engine.getReorderPoint(1002));
+            assertEquals(0, engine.getOnOrder(1002));
+            assertEquals(100, shop.getSweet(1001).getQuantity());
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
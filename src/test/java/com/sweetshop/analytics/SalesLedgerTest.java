@@ -0,0 +1,127 @@
+package com.sweetshop.analytics;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SweetShop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for SalesLedger
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class SalesLedgerTest {
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private SweetShop shop;
+    private SalesLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        ledger = new SalesLedger(now::get);
+        shop.addListener(ledger);
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 100));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 100));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 100));
+    }
+
+    @Test
+    @DisplayName("Test purchases are appended to the ledger")
+    void testPurchasesAreRecorded() {
+        shop.purchaseSweet(1001, 2);
+        shop.restockSweet(1001, 5);
+        shop.purchaseSweet(1002, 3);
+        
+        assertEquals(2, ledger.getSaleCount());
+        StringBuilder seen = new StringBuilder();
+        ledger.forEachSale((ts, id, qty, price) -> seen.append(id).append('x').append(qty)
+                .append('@').append(price).append(' '));
+        assertEquals("1001x2@5000 1002x3@1000 ", seen.toString());
+    }
+
+    @Test
+    @DisplayName("Test rolling window totals expire")
+    void testRollingWindows() {
+        shop.purchaseSweet(1001, 2);
+        now.addAndGet(90_000);
+        shop.purchaseSweet(1002, 3);
+        
+        assertEquals(3, ledger.getUnitsSold(SalesWindow.ONE_MINUTE));
+        assertEquals(5, ledger.getUnitsSold(SalesWindow.ONE_HOUR));
+        assertEquals(13_000L, ledger.getRevenueMinor(SalesWindow.ONE_HOUR));
+        assertEquals(3_000L, ledger.getCategoryRevenueMinor("Milk-Based", SalesWindow.ONE_DAY));
+        assertEquals(3_000L, ledger.getRevenueMinor(1002, SalesWindow.ONE_DAY));
+        
+        now.addAndGet(2 * 3_600_000L);
+        assertEquals(0, ledger.getUnitsSold(SalesWindow.ONE_HOUR));
+        assertEquals(2, ledger.getUnitsSold(1001, SalesWindow.ONE_DAY));
+    }
+
+    @Test
+    @DisplayName("Test top sellers are ranked by units and revenue")
+    void testTopSellers() {
+        shop.purchaseSweet(1001, 2);
+        shop.purchaseSweet(1002, 7);
+        shop.purchaseSweet(1003, 4);
+        
+        List<SalesTotal> byUnits = ledger.getTopSellers(SalesWindow.ONE_HOUR, 2);
+        assertEquals(2, byUnits.size());
+        assertEquals(1002, byUnits.get(0).getSweetId());
+        assertEquals(1003, byUnits.get(1).getSweetId());
+        
+        List<SalesTotal> byRevenue = ledger.getTopEarners(SalesWindow.ONE_HOUR, 1);
+        assertEquals("Kaju Katli", byRevenue.get(0).getName());
+        assertEquals(10_000L, byRevenue.get(0).getRevenueMinor());
+    }
+
+    @Test
+    @DisplayName("Test category totals ignore how the category is spelt")
+    void testCategoriesIgnoreCase() {
+        shop.addSweet(new Sweet(1004, "Rasmalai", "MILK-BASED", 0.1, 100));
+        shop.purchaseSweet(1002, 1);
+        shop.purchaseSweet(1004, 3);
+        
+        assertEquals(4L, ledger.getCategoryUnitsSold("milk-based", SalesWindow.ONE_HOUR));
+        assertEquals(4L, ledger.getCategoryUnitsSold("Milk-Based", SalesWindow.ONE_HOUR));
+        assertEquals(1_030L, ledger.getCategoryRevenueMinor("mILK-bASED", SalesWindow.ONE_HOUR));
+        assertEquals(0L, ledger.getCategoryUnitsSold("Nut-Based", SalesWindow.ONE_HOUR));
+    }
+
+    @Test
+    @DisplayName("Test top sellers stay exact across many sweets as windows slide")
+    void testTopSellersAtScale() {
+        SalesLedger big = new SalesLedger(now::get);
+        for (int id = 1; id <= 1_000; id++) {
+            Sweet sweet = new Sweet(id, "Sweet " + id, "Category " + (id % 7), 1.0, 0).freeze();
+            big.onPurchase(sweet, 1 + id % 5);
+            if (id % 100 == 0) {
+                big.onPurchase(sweet, 40 + id / 100);
+            }
+        }
+        List<SalesTotal> top = big.getTopSellers(SalesWindow.ONE_MINUTE, 3);
+        assertEquals(List.of(1000, 900, 800), List.of(top.get(0).getSweetId(),
+                top.get(1).getSweetId(), top.get(2).getSweetId()));
+        assertEquals(51L, top.get(0).getUnits());
+        
+        now.addAndGet(2 * 60_000L);
+        Sweet late = new Sweet(7, "Sweet 7", "Category 0", 1.0, 0).freeze();
+        big.onPurchase(late, 2);
+        top = big.getTopSellers(SalesWindow.ONE_MINUTE, 3);
+        assertEquals(1, top.size());
+        assertEquals(7, top.get(0).getSweetId());
+        assertEquals(1000, big.getTopSellers(SalesWindow.ONE_HOUR, 1).get(0).getSweetId());
+        assertEquals(1_000, big.getTopSellers(SalesWindow.ONE_HOUR, 1_000).size());
+        
+        now.addAndGet(-30_000L);
+        big.onPurchase(late, 3);
+        now.addAndGet(30_000L);
+        assertEquals(5L, big.getUnitsSold(7, SalesWindow.ONE_MINUTE));
+    }
+}
@@ -0,0 +1,93 @@
+package com.sweetshop.bench;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.FuzzyNameIndex;
+import com.sweetshop.service.SweetShop;
+
+import java.util.Random;
+
+/**
+ * Measures FuzzyNameIndex lookups over a million generated names
+ * Not a unit test; run from the IDE or with
+ * java -cp target/classes:target/test-classes com.sweetshop.bench.FuzzySearchBenchmark
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class FuzzySearchBenchmark {
+    private static final int NAMES = 1_000_000;
+    private static final int QUERIES = 2_000;
+    private static final String[] SYLLABLES = {
+        "ka", "ju", "kat", "li", "gu", "lab", "ja", "mun", "ras", "gul", "la", "mal",
+        "ai", "je", "le", "bi", "pe", "da", "bar", "fi", "lad", "doo", "sand", "esh",
+        "ha", "lwa", "kha", "ja", "soan", "pap", "di", "chum", "cham", "ma", "wa"
+    };
+
+    private static volatile int sink;
+
+    private FuzzySearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        SweetShop shop = new SweetShop();
+        String[] names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = name(random);
+            shop.addSweet(new Sweet(i + 1, names[i], "Generated", 10.0, 10));
+        }
+        long buildStart = System.nanoTime();
+        FuzzyNameIndex index = new FuzzyNameIndex(shop);
+        System.out.printf("indexed %d names in %d ms%n", index.size(), (System.nanoTime() - buildStart) / 1_000_000);
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = typo(names[random.nextInt(NAMES)], random);
+        }
+        for (int distance = 1; distance <= 2; distance++) {
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                int found = 0;
+                for (String query : queries) {
+                    found += index.search(query, distance, 10).size();
+                }
+                long elapsed = System.nanoTime() - start;
+                sink += found;
+                System.out.printf("distance %d: %.1f us/query, %.2f results/query%n",
+                        distance, elapsed / 1_000.0 / QUERIES, (double) found / QUERIES);
+            }
+        }
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(2);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return name.toString();
+    }
+
+    private static String typo(String name, Random random) {
+        StringBuilder typo = new StringBuilder(name);
+        int at = random.nextInt(typo.length());
+        switch (random.nextInt(3)) {
+            case 0:
+                typo.deleteCharAt(at);
+                break;
+            case 1:
+                typo.insert(at, (char) ('a' + random.nextInt(26)));
+                break;
+            default:
+                typo.setCharAt(at, (char) ('a' + random.nextInt(26)));
+                break;
+        }
+        return typo.toString();
+    }
+}
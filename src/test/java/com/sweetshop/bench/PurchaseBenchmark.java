@@ -0,0 +1,87 @@
+package com.sweetshop.bench;
+
+import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.PurchaseResult;
+import com.sweetshop.service.SweetShop;
+
+/**
+ * Compares the cost of successful and sold-out purchases
+ * Not a unit test; run from the IDE or with
+ * java -cp target/classes:target/test-classes com.sweetshop.bench.PurchaseBenchmark
+ * 
+ * Rows: successful purchaseSweet, sold-out purchaseSweet (stackless
+ * exception), sold-out tryPurchase (no exception) and, for reference, a
+ * sold-out purchase paying for a stack trace and a formatted message as
+ * the exception used to
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+public final class PurchaseBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int OPERATIONS = 1_000_000;
+
+    private static volatile long sink;
+
+    private PurchaseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        SweetShop shop = new SweetShop();
+        shop.addSweet(new Sweet(1, "Kaju Katli", "Nut-Based", 50.0, Integer.MAX_VALUE));
+        shop.addSweet(new Sweet(2, "Gulab Jamun", "Milk-Based", 10.0, 0));
+
+        run("purchase (in stock)", () -> {
+            shop.purchaseSweet(1, 1);
+            return 1;
+        });
+        run("purchase (sold out)", () -> {
+            try {
+                shop.purchaseSweet(2, 1);
+                return 1;
+            } catch (InsufficientStockException e) {
+                return e.getAvailable();
+            }
+        });
+        run("tryPurchase (sold out)", () -> PurchaseResult.available(shop.tryPurchase(2, 1)));
+        run("stack trace + format (sold out)", () -> {
+            try {
+                shop.purchaseSweet(2, 1);
+                return 1;
+            } catch (InsufficientStockException e) {
+                RuntimeException legacy = new InsufficientStockException(
+                    String.format("Insufficient stock. Available: %d, Requested: %d", 0, 1));
+                return legacy.getMessage().length();
+            }
+        });
+    }
+
+    private static void run(String name, Operation operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            measure(operation);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            best = Math.min(best, measure(operation));
+        }
+        System.out.printf("%-34s %8.1f ns/op%n", name, (double) best / OPERATIONS);
+    }
+
+    private static long measure(Operation operation) {
+        long result = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            result += operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += result;
+        return elapsed;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        int run();
+    }
+}
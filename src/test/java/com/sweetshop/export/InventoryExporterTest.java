@@ -0,0 +1,125 @@
+package com.sweetshop.export;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SweetShop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for InventoryExporter
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class InventoryExporterTest {
+    @TempDir
+    Path directory;
+
+    private SweetShop shop;
+    private ForkJoinPool pool;
+    private InventoryExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        for (int i = 1; i <= 100; i++) {
+            shop.addSweet(new Sweet(i, "Sweet " + i, i % 2 == 0 ? "Milk-Based" : "Nut-Based", i + 0.5, i));
+        }
+        shop.addSweet(new Sweet(101, "Kaju \"Special\", Katli", "Nut-Based", 50.05, 7));
+        pool = new ForkJoinPool(3);
+        exporter = new InventoryExporter(pool, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test CSV export writes a header, every row and escapes quotes")
+    void testCsvExport() throws IOException {
+        Path file = directory.resolve("inventory.csv");
+        assertEquals(101, exporter.export(shop.snapshot(), ExportFormat.CSV, file));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(102, lines.size());
+        assertEquals("id,name,category,price,quantity", lines.get(0));
+        assertTrue(lines.contains("101,\"Kaju \"\"Special\"\", Katli\",Nut-Based,50.05,7"));
+        assertTrue(lines.contains("3,Sweet 3,Nut-Based,3.50,3"));
+    }
+
+    @Test
+    @DisplayName("Test JSON export of a filtered snapshot and of an empty query")
+    void testJsonExport() throws IOException {
+        Path file = directory.resolve("milk.json");
+        long rows = exporter.export(shop.snapshot(),
+                sweet -> "Milk-Based".equals(sweet.getCategory()), ExportFormat.JSON, file);
+        assertEquals(50, rows);
+
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[\n  {\"id\":"));
+        assertTrue(json.endsWith("}\n]\n"));
+        assertFalse(json.contains("[,"));
+        assertEquals(50, json.split("\\{").length - 1);
+        assertTrue(json.contains("{\"id\":4,\"name\":\"Sweet 4\",\"category\":\"Milk-Based\",\"price\":4.50,\"quantity\":4}"));
+
+        Path empty = directory.resolve("empty.json");
+        assertEquals(0, exporter.export(shop.searchByCategory("Sugar-Free"), ExportFormat.JSON, empty));
+        assertEquals("[]\n", new String(Files.readAllBytes(empty), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test columnar export round-trips row groups and footer")
+    void testColumnarExport() throws IOException {
+        Path file = directory.resolve("inventory.swcol");
+        assertEquals(101, exporter.export(shop.snapshot(), ExportFormat.COLUMNAR, file));
+
+        long quantity = 0;
+        long price = 0;
+        int rows = 0;
+        int groups = 0;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            assertEquals(InventoryExporter.COLUMNAR_MAGIC, in.readInt());
+            assertEquals(InventoryExporter.COLUMNAR_VERSION, in.readInt());
+            long remaining = Files.size(file) - 8 - 16;
+            while (remaining > 0) {
+                int n = in.readInt();
+                long start = remaining;
+                int[] nameLengths = new int[n];
+                for (int i = 0; i < n; i++) in.readInt();
+                for (int i = 0; i < n; i++) quantity += in.readInt();
+                for (int i = 0; i < n; i++) price += in.readLong();
+                for (int i = 0; i < n; i++) nameLengths[i] = in.readInt();
+                int nameBytes = 0;
+                for (int length : nameLengths) nameBytes += length;
+                in.readFully(new byte[nameBytes]);
+                int categoryBytes = 0;
+                for (int i = 0; i < n; i++) categoryBytes += Math.max(0, in.readInt());
+                in.readFully(new byte[categoryBytes]);
+                remaining = start - (4 + n * 24L + nameBytes + categoryBytes);
+                rows += n;
+                groups++;
+            }
+            assertEquals(101L, in.readLong());
+            assertEquals(groups, in.readInt());
+            assertEquals(InventoryExporter.COLUMNAR_MAGIC, in.readInt());
+        }
+        assertEquals(101, rows);
+        assertEquals(13, groups);
+        assertEquals(5050L + 7, quantity);
+        assertEquals(505_000L + 5_000L + 5_005L, price);
+    }
+}
@@ -0,0 +1,156 @@
+package com.sweetshop.load;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventoryListener;
+import com.sweetshop.service.SweetShop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for LoadGenerator and its workloads
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class LoadGeneratorTest {
+    private SweetShop shop;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 1_000_000));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 1_000_000));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 0));
+    }
+
+    // ==================== Histogram Tests ====================
+
+    @Test
+    @DisplayName("Test histogram percentiles stay within the bucket precision")
+    void testHistogramPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+        assertEquals(100_000L, histogram.getCount());
+        assertEquals(1_000L, histogram.getMin());
+        assertEquals(100_000_000L, histogram.getMax());
+        assertEquals(50_000_000.0, histogram.getValueAtPercentile(50), 50_000_000 * 0.02);
+        assertEquals(99_000_000.0, histogram.getValueAtPercentile(99), 99_000_000 * 0.02);
+        
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(5);
+        histogram.add(other);
+        assertEquals(5L, histogram.getMin());
+        assertEquals(100_001L, histogram.getCount());
+    }
+
+    // ==================== Workload Tests ====================
+
+    @Test
+    @DisplayName("Test Zipf popularity favours low ranks")
+    void testZipfSkew() {
+        ZipfDistribution zipf = new ZipfDistribution(1_000, 1.0);
+        Random random = new Random(7);
+        int[] hits = new int[1_000];
+        for (int i = 0; i < 100_000; i++) {
+            hits[zipf.sample(random)]++;
+        }
+        assertTrue(hits[0] > hits[1] && hits[1] > hits[10] && hits[10] > hits[500]);
+        assertEquals(zipf.probability(0) * 100_000, hits[0], 100_000 * 0.01);
+    }
+
+    @Test
+    @DisplayName("Test a recorded synthetic run replays operation for operation")
+    void testTraceRoundTrip(@TempDir Path dir) throws Exception {
+        Workload synthetic = new SyntheticWorkload(shop.getAllSweets(), 1.0, 6, 3, 1, 4, 11);
+        Path file = dir.resolve("trace.txt");
+        TraceWorkload.record(synthetic, 500, 3, file);
+        
+        TraceWorkload trace = TraceWorkload.read(file, false);
+        assertEquals(500, trace.size());
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(synthetic.next(random).toString(), trace.next(null).toString());
+        }
+        assertNull(trace.next(null));
+        assertEquals("SEARCH gulab jamun", LoadOperation.parse("SEARCH gulab jamun").toString());
+        assertThrows(IllegalArgumentException.class, () -> LoadOperation.parse("PURCHASE 1001"));
+    }
+
+    // ==================== Run Tests ====================
+
+    @Test
+    @DisplayName("Test a throttled run issues the offered load and counts rejections")
+    void testThrottledRun() throws Exception {
+        List<LoadOperation> operations = List.of(LoadOperation.purchase(1001, 1),
+                LoadOperation.search("jamun"), LoadOperation.purchase(1003, 1),
+                LoadOperation.restock(9999, 1));
+        LoadGenerator generator = new LoadGenerator(shop, new TraceWorkload(operations, true), 2, 2_000, 1);
+        LoadReport report = generator.run(50, 300);
+        
+        assertEquals(600.0, report.getCount(), 120.0);
+        assertEquals(report.getCount(LoadOperation.Type.PURCHASE), 2 * report.getCount(LoadOperation.Type.SEARCH), 4);
+        assertEquals(report.getCount(LoadOperation.Type.RESTOCK), report.getRejectedCount(LoadOperation.Type.RESTOCK));
+        assertTrue(report.getRejectedCount(LoadOperation.Type.PURCHASE) > 0);
+        assertEquals(0L, report.getErrorCount(LoadOperation.Type.SEARCH));
+        assertTrue(report.getResponseTime().getValueAtPercentile(99) >= report.getServiceTime().getValueAtPercentile(50));
+        assertTrue(report.toString().contains("purchase"));
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(shop, null, 1, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Test a stall is charged to every operation scheduled behind it")
+    void testCoordinatedOmission() throws Exception {
+        AtomicInteger purchases = new AtomicInteger();
+        shop.addListener(new InventoryListener() {
+            @Override
+            public void onPurchase(Sweet sweet, int quantity) {
+                if (purchases.incrementAndGet() == 50) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        Workload workload = new TraceWorkload(List.of(LoadOperation.purchase(1001, 1)), true);
+        LoadReport report = new LoadGenerator(shop, workload, 1, 1_000, 1).run(0, 300);
+        
+        assertTrue(report.getServiceTime().getMax() >= 100_000_000L);
+        assertTrue(report.getServiceTime().getValueAtPercentile(90) < 10_000_000L);
+        assertTrue(report.getResponseTime().getValueAtPercentile(90) > 10_000_000L);
+    }
+
+    @Test
+    @DisplayName("Test a shop slower than the target rate reports its real throughput")
+    void testOverloadedRun() throws Exception {
+        shop.addListener(new InventoryListener() {
+            @Override
+            public void onPurchase(Sweet sweet, int quantity) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        Workload workload = new TraceWorkload(List.of(LoadOperation.purchase(1001, 1)), true);
+        LoadReport report = new LoadGenerator(shop, workload, 1, 1_000, 1).run(0, 300);
+        
+        assertTrue(report.getThroughput() < 400, report.toString());
+        assertTrue(report.getMissedCount() > 0);
+        assertEquals(300.0, report.getCount() + report.getMissedCount(), 30.0);
+        assertTrue(report.getElapsedSeconds() >= 0.3);
+    }
+}
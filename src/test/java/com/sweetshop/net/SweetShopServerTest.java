@@ -0,0 +1,182 @@
+package com.sweetshop.net;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SweetShop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for SweetShopServer and SweetShopClient
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class SweetShopServerTest {
+    private SweetShop shop;
+    private SweetShopServer server;
+    private SweetShopClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        shop = new SweetShop();
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.5, 50));
+        server = new SweetShopServer(shop, new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        client = new SweetShopClient(new InetSocketAddress("127.0.0.1", server.getPort()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Test get returns the sweet with price in minor units round-tripped")
+    void testGet() throws IOException {
+        PosResponse response = client.getSweet(1002);
+        
+        assertTrue(response.isOk());
+        assertEquals("Gulab Jamun", response.getSweet().getName());
+        assertEquals("Milk-Based", response.getSweet().getCategory());
+        assertEquals(10.5, response.getSweet().getPrice());
+        assertEquals(50, response.getSweet().getQuantity());
+        assertEquals(BinaryProtocol.STATUS_NOT_FOUND, client.getSweet(9999).getStatus());
+    }
+
+    @Test
+    @DisplayName("Test purchase and restock report the resulting stock")
+    void testPurchaseAndRestock() throws IOException {
+        PosResponse purchase = client.purchase(1001, 5);
+        assertTrue(purchase.isOk());
+        assertEquals(15, purchase.getQuantity());
+        
+        PosResponse rejected = client.purchase(1001, 100);
+        assertEquals(BinaryProtocol.STATUS_INSUFFICIENT_STOCK, rejected.getStatus());
+        assertEquals(15, rejected.getQuantity());
+        
+        assertEquals(25, client.restock(1001, 10).getQuantity());
+        assertEquals(BinaryProtocol.STATUS_INVALID_REQUEST, client.purchase(1001, 0).getStatus());
+        assertEquals(BinaryProtocol.STATUS_NOT_FOUND, client.restock(9999, 1).getStatus());
+        assertEquals(25, shop.getSweet(1001).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test restock overflow is an invalid request, not a missing sweet")
+    void testRestockOverflow() throws IOException {
+        assertEquals(BinaryProtocol.STATUS_INVALID_REQUEST, client.restock(1001, Integer.MAX_VALUE).getStatus());
+        assertEquals(20, shop.getSweet(1001).getQuantity());
+        
+        shop.markHot(1001);
+        assertEquals(BinaryProtocol.STATUS_INVALID_REQUEST, client.restock(1001, Integer.MAX_VALUE).getStatus());
+        assertTrue(client.purchase(1001, 3).isOk());
+        assertEquals(17, client.getSweet(1001).getSweet().getQuantity());
+        assertEquals(27, client.restock(1001, 10).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test long names are cut at a character boundary on the wire")
+    void testLongNamesAreTruncated() throws IOException {
+        String name = "Ka" + "\u0915".repeat(100) + "\uD83C\uDF6C".repeat(10);
+        shop.addSweet(new Sweet(1003, name, "Nut-Based", 5.0, 1));
+        
+        String sent = client.getSweet(1003).getSweet().getName();
+        
+        assertTrue(name.startsWith(sent));
+        assertEquals(2 + 84, sent.length());
+        assertEquals("Nut-Based", client.getSweet(1003).getSweet().getCategory());
+    }
+
+    @Test
+    @DisplayName("Test batched and pipelined requests are answered in order")
+    void testBatchAndPipelining() throws IOException {
+        List<PosResponse> batch = client.newBatch()
+                .purchase(1001, 1)
+                .purchase(1002, 2)
+                .get(1001)
+                .purchase(9999, 1)
+                .execute();
+        
+        assertEquals(4, batch.size());
+        assertEquals(19, batch.get(0).getQuantity());
+        assertEquals(48, batch.get(1).getQuantity());
+        assertEquals(19, batch.get(2).getSweet().getQuantity());
+        assertEquals(BinaryProtocol.STATUS_NOT_FOUND, batch.get(3).getStatus());
+        for (int i = 1; i < batch.size(); i++) {
+            assertEquals(batch.get(0).getRequestId() + i, batch.get(i).getRequestId());
+        }
+        
+        SweetShopClient.Batch pipelined = client.newBatch();
+        for (int i = 0; i < 10; i++) {
+            pipelined.purchase(1002, 1);
+        }
+        List<PosResponse> responses = pipelined.executePipelined();
+        assertEquals(38, responses.get(9).getQuantity());
+        assertEquals(38, shop.getSweet(1002).getQuantity());
+        assertEquals(14, server.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Test every sub-request of a batch is answered when one fails")
+    void testBatchAnswersEverySubRequest() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.writeInt(1 + 4 + 2 + 13 + 5 + 13);
+            out.writeByte(BinaryProtocol.OP_BATCH);
+            out.writeInt(7);
+            out.writeShort(3);
+            out.writeByte(BinaryProtocol.OP_PURCHASE);
+            out.writeInt(1);
+            out.writeInt(1001);
+            out.writeInt(1);
+            out.writeByte(99);
+            out.writeInt(2);
+            out.writeByte(BinaryProtocol.OP_PURCHASE);
+            out.writeInt(3);
+            out.writeInt(1001);
+            out.writeInt(1);
+            out.flush();
+            
+            assertEquals(9, in.readInt());
+            assertEquals(BinaryProtocol.STATUS_OK, in.readByte());
+            assertEquals(1, in.readInt());
+            assertEquals(19, in.readInt());
+            assertEquals(5, in.readInt());
+            assertEquals(BinaryProtocol.STATUS_INVALID_REQUEST, in.readByte());
+            assertEquals(2, in.readInt());
+            assertEquals(5, in.readInt());
+            assertEquals(BinaryProtocol.STATUS_INVALID_REQUEST, in.readByte());
+            assertEquals(7, in.readInt());
+        }
+        assertEquals(19, shop.getSweet(1001).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test a failing request closes only its own connection")
+    void testFailureClosesOnlyItsConnection() throws IOException {
+        shop.setPriceResolver(sweet -> {
+            if (sweet.getId() == 1002) {
+                throw new IllegalStateException("pricing failed");
+            }
+            return sweet.getPriceMinor();
+        });
+        
+        assertThrows(IOException.class, () -> client.getSweet(1002));
+        try (SweetShopClient other = new SweetShopClient(new InetSocketAddress("127.0.0.1", server.getPort()))) {
+            assertTrue(other.getSweet(1001).isOk());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sweetshop.pricing;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.SearchCache;
+import com.sweetshop.service.SweetShop;
+import com.sweetshop.util.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for PricingEngine
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class PricingEngineTest {
+    private SweetShop shop;
+    private AtomicLong now;
+    private PricingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.5, 40));
+        now = new AtomicLong(1_000);
+        engine = new PricingEngine(shop, now::get);
+    }
+
+    @Test
+    @DisplayName("Test money arithmetic is exact in paise")
+    void testMoney() {
+        assertEquals(1250L, Money.toMinor(12.5));
+        assertEquals(30L, Money.toMinor(0.1 + 0.2));
+        assertEquals(1213L, Money.toMinor(12.125));
+        assertEquals(-1213L, Money.toMinor(-12.125));
+        assertEquals(1125L, Money.discount(1250, 1000));
+        assertEquals(1L, Money.discount(1, 5000));
+        assertEquals(12.5, new Sweet(1, "Test", "Test", 12.5, 1).getPrice());
+        assertEquals(1250L, new Sweet(1, "Test", "Test", 12.5, 1).getPriceMinor());
+    }
+
+    @Test
+    @DisplayName("Test discounts apply only inside their window and the best one wins")
+    void testScheduledDiscounts() {
+        engine.addRule(DiscountRule.forCategory("milk-based", 1000, 2_000, 5_000));
+        engine.addRule(DiscountRule.forSweet(1003, 2000, 3_000, 4_000));
+        
+        assertEquals(1000L, engine.getEffectivePriceMinor(1002));
+        
+        now.set(2_000);
+        assertEquals(900L, engine.getEffectivePriceMinor(1002));
+        assertEquals(1125L, engine.getEffectivePriceMinor(1003));
+        assertEquals(5000L, engine.getEffectivePriceMinor(1001));
+        
+        now.set(3_500);
+        assertEquals(1000L, engine.getEffectivePriceMinor(1003));
+        assertEquals(2, engine.getActiveRules().size());
+        
+        now.set(5_000);
+        assertEquals(1000L, engine.getEffectivePriceMinor(1002));
+        assertTrue(engine.getActiveRules().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test sweets added after the table was built get promotional prices")
+    void testNewSweetsArePriced() {
+        engine.addRule(DiscountRule.forCategory("Milk-Based", 5000, 0, 10_000));
+        shop.addSweet(new Sweet(1004, "Rasmalai", "Milk-Based", 30.0, 10));
+        
+        assertEquals(1500L, engine.getEffectivePriceMinor(1004));
+        engine.refresh();
+        assertEquals(1500L, engine.getEffectivePriceMinor(1004));
+    }
+
+    @Test
+    @DisplayName("Test catalog changes re-price only the changed sweet without a scheduler")
+    void testCatalogChangesPatchRows() {
+        engine.addRule(DiscountRule.forCategory("Nut-Based", 5000, 0, 10_000));
+        assertEquals(1000L, engine.getEffectivePriceMinor(1002));
+        
+        shop.deleteSweet(1002);
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Nut-Based", 10.0, 50));
+        assertEquals(500L, engine.getEffectivePriceMinor(1002));
+        shop.updatePrice(1002, 20.0);
+        assertEquals(1000L, engine.getEffectivePriceMinor(1002));
+        
+        for (int i = 0; i < 2_000; i++) {
+            shop.addSweet(new Sweet(5000 + i, "Pista Roll " + i, "Nut-Based", 20.0, 1));
+        }
+        assertEquals(1000L, engine.getEffectivePriceMinor(5000));
+        assertEquals(1000L, engine.getEffectivePriceMinor(6999));
+    }
+
+    @Test
+    @DisplayName("Test category rules match regardless of the default locale")
+    void testCategoryRuleIsLocaleIndependent() {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            engine.addRule(DiscountRule.forCategory("MILK-BASED", 1000, 0, 10_000));
+            engine.refresh();
+            
+            assertEquals("milk-based", engine.getRules().get(0).getCategory());
+            assertEquals(900L, engine.getEffectivePriceMinor(1002));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    @DisplayName("Test price searches see effective prices and cached ranges are invalidated")
+    void testSearchUsesEffectivePrice() {
+        SearchCache cache = new SearchCache(shop, 100);
+        assertEquals(2, cache.searchByPriceRange(0.0, 12.5).size());
+        
+        engine.addRule(DiscountRule.forSweet(1001, 8000, 1_500, 2_000));
+        now.set(1_500);
+        engine.refresh();
+        
+        List<Integer> ids = cache.searchByPriceRange(0.0, 12.5).stream()
+                .map(Sweet::getId).sorted().collect(Collectors.toList());
+        assertEquals(List.of(1001, 1002, 1003), ids);
+        assertEquals(1001, shop.getSweetsSortedByPrice().get(0).getId());
+        assertEquals(50.0, shop.getSweet(1001).getPrice());
+    }
+}
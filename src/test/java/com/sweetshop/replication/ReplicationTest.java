@@ -0,0 +1,156 @@
+package com.sweetshop.replication;
+
+import com.sweetshop.model.Sweet;
+import com.sweetshop.service.InventoryListener;
+import com.sweetshop.service.InventorySnapshot;
+import com.sweetshop.service.SweetShop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for ReplicationPrimary and ReplicaFollower
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class ReplicationTest {
+    private SweetShop primaryShop;
+    private ReplicationPrimary primary;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        primaryShop = new SweetShop();
+        primaryShop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        primaryShop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        primary = new ReplicationPrimary(primaryShop, new InetSocketAddress("127.0.0.1", 0), 4);
+        primary.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        primary.close();
+    }
+
+    @Test
+    @DisplayName("Test replica catches up from a snapshot and then follows the log")
+    void testSnapshotThenLog() throws Exception {
+        try (ReplicaFollower follower = new ReplicaFollower(address())) {
+            follower.start();
+            assertTrue(follower.awaitVersion(primaryShop.snapshot().getVersion(), 5_000));
+            
+            primaryShop.purchaseSweet(1001, 5);
+            primaryShop.restockSweet(1002, 10);
+            primaryShop.updatePrice(1002, 12.5);
+            primaryShop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 40));
+            primaryShop.deleteSweet(1001);
+            primaryShop.renameSweet(1002, "Kala Jamun");
+            
+            assertTrue(follower.awaitVersion(primary.getVersion(), 5_000));
+            SweetShop replica = follower.getShop(1_000);
+            assertNull(replica.getSweet(1001));
+            assertEquals(60, replica.getSweet(1002).getQuantity());
+            assertEquals(1250L, replica.getSweet(1002).getPriceMinor());
+            assertEquals("Kala Jamun", replica.getSweet(1002).getName());
+            assertEquals("Rasgulla", replica.getSweet(1003).getName());
+            assertEquals(0, follower.getLagEntries());
+            assertEquals(0, follower.getLagMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Test replica falling behind the retained log resynchronizes from a snapshot")
+    void testCatchUpPastLogCapacity() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            primaryShop.purchaseSweet(1002, 1);
+        }
+        try (ReplicaFollower follower = new ReplicaFollower(address())) {
+            assertThrows(IllegalStateException.class, () -> follower.getShop(1_000));
+            follower.start();
+            assertTrue(follower.awaitVersion(primary.getVersion(), 5_000));
+            assertEquals(40, follower.getShop().getSweet(1002).getQuantity());
+            
+            for (int i = 0; i < 20; i++) {
+                primaryShop.restockSweet(1001, 1);
+            }
+            assertTrue(follower.awaitVersion(primary.getVersion(), 5_000));
+            assertEquals(40, follower.getShop().getSweet(1001).getQuantity());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a replaced primary inventory reaches the replica as one snapshot")
+    void testReplacedInventoryResynchronizes() throws Exception {
+        SweetShop replicaShop = new SweetShop();
+        AtomicInteger replaced = new AtomicInteger();
+        AtomicInteger emptied = new AtomicInteger();
+        replicaShop.addListener(new InventoryListener() {
+            @Override
+            public void onInventoryReplaced(InventorySnapshot snapshot) {
+                replaced.incrementAndGet();
+            }
+
+            @Override
+            public void onInventoryCleared() {
+                emptied.incrementAndGet();
+            }
+        });
+        try (ReplicaFollower follower = new ReplicaFollower(replicaShop, address())) {
+            follower.start();
+            assertTrue(follower.awaitVersion(primaryShop.snapshot().getVersion(), 5_000));
+            
+            primaryShop.replaceInventory(List.of(
+                    new Sweet(2001, "Soan Papdi", "Flaky", 8.0, 30),
+                    new Sweet(2002, "Peda", "Milk-Based", 6.0, 60)));
+            primaryShop.purchaseSweet(2002, 10);
+            
+            assertTrue(follower.awaitVersion(primary.getVersion(), 5_000));
+            assertNull(replicaShop.getSweet(1001));
+            assertEquals(30, replicaShop.getSweet(2001).getQuantity());
+            assertEquals(50, replicaShop.getSweet(2002).getQuantity());
+            assertEquals(2, replaced.get());
+            assertEquals(0, emptied.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a replica in a separate JVM applies the log")
+    void testReplicaProcess() throws Exception {
+        primaryShop.purchaseSweet(1001, 3);
+        long version = primary.getVersion();
+        
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ReplicaMain.class.getName(), "127.0.0.1", String.valueOf(primary.getPort()),
+                String.valueOf(version))
+                .redirectErrorStream(true)
+                .start();
+        List<String> lines;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+        assertTrue(process.waitFor(20, TimeUnit.SECONDS));
+        
+        assertEquals(0, process.exitValue(), String.join("\n", lines));
+        assertEquals(List.of("version " + version, "1001 17 5000", "1002 50 1000"), lines);
+    }
+
+    private InetSocketAddress address() {
+        return new InetSocketAddress("127.0.0.1", primary.getPort());
+    }
+}
@@ -0,0 +1,96 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for FuzzyNameIndex
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class FuzzyNameIndexTest {
+    private SweetShop shop;
+    private FuzzyNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 40));
+        shop.addSweet(new Sweet(1004, "Rasmalai", "Milk-Based", 15.0, 30));
+        index = new FuzzyNameIndex(shop);
+    }
+
+    private static List<Integer> ids(List<Sweet> sweets) {
+        return sweets.stream().map(Sweet::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test misspelt names find the sweet, closest first")
+    void testTypoTolerantSearch() {
+        assertEquals(List.of(1002), ids(index.search("gulab jamon", 2, 5)));
+        assertEquals(List.of(1003), ids(index.search("rasgula", 1, 5)));
+        assertEquals(List.of(1003), ids(index.search("RASUGLLA", 1, 5)));
+        assertEquals(List.of(1003, 1004), ids(index.search("rasgulla", 4, 5)));
+        assertEquals(List.of(1003), ids(index.search("rasgulla", 4, 1)));
+        assertTrue(index.search("jalebi", 2, 5).isEmpty());
+        assertEquals(1, FuzzyNameIndex.distance("rasuglla", "Rasgulla"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Test the index follows adds, deletes, renames and clears")
+    void testMaintenance() {
+        shop.addSweet(new Sweet(1005, "Jalebi", "Syrup-Based", 8.0, 60));
+        assertEquals(List.of(1005), ids(index.search("jelabi", 2, 5)));
+        
+        shop.deleteSweet(1003);
+        assertTrue(index.search("rasgula", 1, 5).isEmpty());
+        
+        shop.renameSweet(1002, "Kala Jamun");
+        assertTrue(index.search("gulab jamun", 1, 5).isEmpty());
+        List<Sweet> renamed = index.search("kala jamoon", 2, 5);
+        assertEquals(List.of(1002), ids(renamed));
+        assertEquals("Kala Jamun", renamed.get(0).getName());
+        
+        shop.clearInventory();
+        assertEquals(0, index.size());
+        shop.addSweet(new Sweet(1006, "Peda", "Milk-Based", 5.0, 10));
+        assertEquals(List.of(1006), ids(index.search("pedha", 1, 5)));
+    }
+
+    @Test
+    @DisplayName("Test searches see every change while copies are republished")
+    void testChangesAcrossRepublishedCopies() {
+        for (int id = 2000; id < 4500; id++) {
+            shop.addSweet(new Sweet(id, "Barfi " + id, "Milk-Based", 20.0, 5));
+        }
+        assertEquals(2504, index.size());
+        assertEquals(List.of(2500), ids(index.search("barfy 2500", 1, 5)));
+        
+        for (int id = 2000; id < 4500; id += 2) {
+            shop.deleteSweet(id);
+        }
+        shop.renameSweet(1003, "Rasgulla Special");
+        shop.renameSweet(1003, "Rasgulla Royal");
+        assertEquals(1254, index.size());
+        assertTrue(index.search("barfi 2500", 0, 5).isEmpty());
+        assertEquals(List.of(2501), ids(index.search("barfi 2501", 0, 5)));
+        assertTrue(index.search("rasgulla", 1, 5).isEmpty());
+        assertTrue(index.search("rasgulla special", 1, 5).isEmpty());
+        assertEquals(List.of(1003), ids(index.search("rasgula royal", 1, 5)));
+        
+        shop.deleteSweet(1003);
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 40));
+        assertEquals(List.of(1003), ids(index.search("rasgulla", 0, 5)));
+    }
+}
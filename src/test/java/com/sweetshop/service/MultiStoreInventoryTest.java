@@ -0,0 +1,87 @@
+package com.sweetshop.service;
+
+import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.model.Sweet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for MultiStoreInventory
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class MultiStoreInventoryTest {
+    private MultiStoreInventory inventory;
+    private int mumbai;
+    private int pune;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new MultiStoreInventory();
+        inventory.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 0));
+        inventory.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 0));
+        mumbai = inventory.addLocation("Mumbai");
+        pune = inventory.addLocation("Pune");
+    }
+
+    @Test
+    @DisplayName("Test per-location purchase and restock maintain network totals")
+    void testPurchaseAndRestock() {
+        assertEquals(20, inventory.restock(mumbai, 1001, 20));
+        assertEquals(5, inventory.restock(pune, 1001, 5));
+        assertEquals(15, inventory.purchase(mumbai, 1001, 5));
+        
+        assertEquals(20, inventory.getTotalQuantity(1001));
+        assertArrayEquals(new int[] { 15, 5 }, inventory.getQuantitiesByLocation(1001));
+        assertEquals(0, inventory.getQuantity(pune, 1002));
+        assertThrows(InsufficientStockException.class, () -> inventory.purchase(pune, 1001, 6));
+        assertThrows(IllegalArgumentException.class, () -> inventory.purchase(7, 1001, 1));
+        assertThrows(IllegalArgumentException.class, () -> inventory.restock(mumbai, 9999, 1));
+    }
+
+    @Test
+    @DisplayName("Test transfers move stock without changing the total")
+    void testTransfer() {
+        inventory.restock(mumbai, 1002, 30);
+        inventory.transfer(mumbai, pune, 1002, 12);
+        
+        assertEquals(18, inventory.getQuantity(mumbai, 1002));
+        assertEquals(12, inventory.getQuantity(pune, 1002));
+        assertEquals(30, inventory.getTotalQuantity(1002));
+        assertThrows(InsufficientStockException.class, () -> inventory.transfer(pune, mumbai, 1002, 13));
+        assertThrows(IllegalArgumentException.class, () -> inventory.transfer(pune, pune, 1002, 1));
+    }
+
+    @Test
+    @DisplayName("Test concurrent operations at different locations keep totals exact")
+    void testConcurrentLocations() throws InterruptedException {
+        for (int i = 0; i < 2000; i++) {
+            inventory.addSweet(new Sweet(2000 + i, "Sweet " + i, "Bulk", 1.0, 0));
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int location = inventory.addLocation("Outlet " + t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    inventory.restock(location, 2000 + i, 3);
+                    inventory.purchase(location, 2000 + i, 1);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(8, inventory.getTotalQuantity(3999));
+        assertEquals(2, inventory.getQuantity(5, 2500));
+        assertEquals(2002, inventory.getCatalog().size());
+    }
+}
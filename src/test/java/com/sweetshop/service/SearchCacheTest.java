@@ -0,0 +1,135 @@
+package com.sweetshop.service;
+
+import com.sweetshop.model.Sweet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for SearchCache
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class SearchCacheTest {
+    private SweetShop shop;
+    private SearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        shop = new SweetShop();
+        cache = new SearchCache(shop, 100);
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 40));
+    }
+
+    @Test
+    @DisplayName("Test repeated queries are served from the cache")
+    void testRepeatedQueriesHit() {
+        List<Sweet> first = cache.searchByCategory("Milk-Based");
+        List<Sweet> second = cache.searchByCategory("milk-based");
+        
+        assertEquals(2, first.size());
+        assertEquals(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Test mutations invalidate only the queries they touch")
+    void testPreciseInvalidation() {
+        cache.searchByCategory("Milk-Based");
+        cache.searchByCategory("Nut-Based");
+        cache.searchByName("kaju");
+        cache.searchByPriceRange(40.0, 60.0);
+        
+        shop.purchaseSweet(1002, 5);
+        shop.restockSweet(1001, 5);
+        
+        assertEquals(4, cache.size());
+        assertEquals(0, cache.getInvalidationCount());
+        assertEquals(45, cache.searchByCategory("Milk-Based").stream()
+                .filter(s -> s.getId() == 1002).findFirst().get().getQuantity());
+        assertEquals(25, cache.searchByName("kaju").get(0).getQuantity());
+        assertEquals(2, cache.getHitCount());
+        
+        shop.deleteSweet(1001);
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getInvalidationCount());
+        assertTrue(cache.searchByName("kaju").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test added sweets appear in cached results")
+    void testAddInvalidatesMatchingQueries() {
+        assertEquals(1, cache.searchByName("jam").size());
+        
+        shop.addSweet(new Sweet(1004, "Jamun Barfi", "Milk-Based", 15.0, 10));
+        
+        assertEquals(2, cache.searchByName("jam").size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Test name terms and price ranges are found through the index")
+    void testIndexedInvalidation() {
+        cache.searchByName("ras");
+        cache.searchByName("gulla");
+        cache.searchByName("jamun");
+        cache.searchByPriceRange(11.0, 13.0);
+        cache.searchByPriceRange(0.0, 100_000.0);
+        cache.searchByPriceRange(40.0, 60.0);
+        
+        shop.updatePrice(1003, 12.5);
+        
+        assertEquals(4, cache.getInvalidationCount());
+        assertEquals(2, cache.size());
+        assertEquals(12.5, cache.searchByPriceRange(11.0, 13.0).get(0).getPrice());
+    }
+
+    @Test
+    @DisplayName("Test evicted queries leave the index")
+    void testEvictedQueriesLeaveIndex() {
+        for (int i = 0; i < 500; i++) {
+            cache.searchByName("term " + i);
+        }
+        cache.searchByName("kaju");
+        
+        shop.deleteSweet(1001);
+        
+        assertTrue(cache.getInvalidationCount() <= 1);
+        assertTrue(cache.searchByName("kaju").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test capacity is bounded")
+    void testCapacityIsBounded() {
+        for (int i = 0; i < 500; i++) {
+            cache.searchByPriceRange(i, i + 1);
+        }
+        
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Test query terms fold the same way under any default locale")
+    void testLocaleIndependentTerms() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(1, cache.searchByName("KATLI").size());
+            shop.purchaseSweet(1001, 1);
+            assertEquals(19, cache.searchByName("KATLI").get(0).getQuantity());
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+}
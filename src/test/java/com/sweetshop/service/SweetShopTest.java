@@ -6,7 +6,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +47,7 @@ class SweetShopTest {
         Sweet sweet = shop.addSweet("Gulab Jamun", "Milk-Based", 10.0, 50);
         
         assertNotNull(sweet);
+        assertTrue(sweet.isFrozen());
         assertEquals(1, shop.getInventorySize());
         assertTrue(sweet.getId() >= 1001);
     }
@@ -174,6 +179,44 @@ class SweetShopTest {
         assertThrows(InsufficientStockException.class, () -> shop.purchaseSweet(1001, 10));
     }
 
+    @Test
+    @DisplayName("Test insufficient stock exception carries counts without a stack trace")
+    void testInsufficientStockExceptionCounts() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 5));
+        
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> shop.purchaseSweet(1001, 10));
+        assertEquals(5, e.getAvailable());
+        assertEquals(10, e.getRequested());
+        assertEquals("Insufficient stock. Available: 5, Requested: 10", e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("Test tryPurchase reports outcomes instead of throwing")
+    void testTryPurchase() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 5));
+        
+        long ok = shop.tryPurchase(1001, 3);
+        assertTrue(PurchaseResult.isSuccess(ok));
+        assertEquals(PurchaseResult.Status.OK, PurchaseResult.status(ok));
+        assertEquals(2, PurchaseResult.available(ok));
+        
+        long refused = shop.tryPurchase(1001, 4);
+        assertFalse(PurchaseResult.isSuccess(refused));
+        assertEquals(PurchaseResult.Status.INSUFFICIENT_STOCK, PurchaseResult.status(refused));
+        assertEquals(2, PurchaseResult.available(refused));
+        assertEquals(2, shop.getSweet(1001).getQuantity());
+        RuntimeException e = PurchaseResult.toException(refused, 1001, 4);
+        assertEquals("Insufficient stock. Available: 2, Requested: 4", e.getMessage());
+        
+        long missing = shop.tryPurchase(9999, 1);
+        assertEquals(PurchaseResult.Status.NOT_FOUND, PurchaseResult.status(missing));
+        assertEquals(0, PurchaseResult.available(missing));
+        assertTrue(PurchaseResult.toException(missing, 9999, 1) instanceof IllegalArgumentException);
+        assertThrows(IllegalArgumentException.class, () -> shop.tryPurchase(1001, 0));
+    }
+
     @Test
     @DisplayName("Test purchasing entire stock")
     void testPurchaseEntireStock() {
@@ -201,6 +244,162 @@ class SweetShopTest {
         assertThrows(IllegalArgumentException.class, () -> shop.purchaseSweet(1001, -5));
     }
 
+    @Test
+    @DisplayName("Test retried purchase with the same request ID is not applied twice")
+    void testIdempotentPurchase() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        
+        assertEquals(15, shop.purchaseSweet(1001, 5, 42L));
+        assertEquals(15, shop.purchaseSweet(1001, 5, 42L));
+        assertEquals(15, shop.getSweet(1001).getQuantity());
+        
+        assertThrows(InsufficientStockException.class, () -> shop.purchaseSweet(1001, 100, 43L));
+        shop.restockSweet(1001, 100);
+        assertThrows(InsufficientStockException.class, () -> shop.purchaseSweet(1001, 100, 43L));
+        assertEquals(115, shop.getSweet(1001).getQuantity());
+        
+        assertEquals(125, shop.restockSweet(1001, 10, 44L));
+        assertEquals(125, shop.restockSweet(1001, 10, 44L));
+        assertEquals(125, shop.getSweet(1001).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test a request ID reused for a different request is rejected")
+    void testIdempotentRequestMismatch() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        
+        assertEquals(15, shop.purchaseSweet(1001, 5, 42L));
+        assertThrows(IllegalArgumentException.class, () -> shop.purchaseSweet(1001, 6, 42L));
+        assertThrows(IllegalArgumentException.class, () -> shop.purchaseSweet(1002, 5, 42L));
+        assertThrows(IllegalArgumentException.class, () -> shop.restockSweet(1001, 5, 42L));
+        assertEquals(15, shop.getSweet(1001).getQuantity());
+        assertEquals(50, shop.getSweet(1002).getQuantity());
+        
+        InsufficientStockException rejected = assertThrows(InsufficientStockException.class,
+                () -> shop.purchaseSweet(1002, 80, 43L));
+        InsufficientStockException replayed = assertThrows(InsufficientStockException.class,
+                () -> shop.purchaseSweet(1002, 80, 43L));
+        assertEquals(rejected.getMessage(), replayed.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test request IDs dropped early from a full table are counted")
+    void testDedupEvictionCount() {
+        SweetShop small = new SweetShop(60_000, 16);
+        small.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 1000));
+        for (long requestId = 1; requestId <= 100; requestId++) {
+            small.purchaseSweet(1001, 1, requestId);
+        }
+        
+        assertTrue(small.getDedupEvictionCount() > 0);
+        assertEquals(0, shop.getDedupEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Test concurrent purchases of a hot item sell exactly the stock")
+    void testHotItemPurchases() throws InterruptedException {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 5_000));
+        List<Integer> purchased = new ArrayList<>();
+        shop.addListener(new InventoryListener() {
+            @Override
+            public void onPurchase(Sweet sweet, int quantity) {
+                purchased.add(quantity);
+            }
+        });
+        shop.markHot(1001);
+        assertTrue(shop.isHot(1001));
+        
+        int[] sold = new int[8];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < sold.length; t++) {
+            int buyer = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    try {
+                        shop.purchaseSweet(1001, 1);
+                        sold[buyer]++;
+                    } catch (InsufficientStockException e) {
+                        // sold out
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        int total = 0;
+        for (int count : sold) {
+            total += count;
+        }
+        assertEquals(5_000, total);
+        assertEquals(0, shop.snapshot().getSweet(1001).getQuantity());
+        assertEquals(5_000, purchased.stream().mapToInt(Integer::intValue).sum());
+        assertThrows(InsufficientStockException.class, () -> shop.purchaseSweet(1001, 1));
+    }
+
+    @Test
+    @DisplayName("Test a hot item keeps restocks exact and cools down without contention")
+    void testHotItemCoolsDown() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 10));
+        shop.markHot(1001);
+        
+        shop.purchaseSweet(1001, 4);
+        assertEquals(6, shop.snapshot().getSweet(1001).getQuantity());
+        assertEquals(106, shop.restockSweet(1001, 100, 7L));
+        
+        for (int i = 0; i < 64; i++) {
+            shop.purchaseSweet(1001, 1);
+        }
+        assertFalse(shop.isHot(1001));
+        assertEquals(42, shop.snapshot().getSweet(1001).getQuantity());
+        assertEquals(42, shop.getSweet(1001).getQuantity());
+        
+        shop.markHot(1001);
+        assertTrue(shop.deleteSweet(1001));
+        assertFalse(shop.isHot(1001));
+        assertThrows(IllegalArgumentException.class, () -> shop.purchaseSweet(1001, 1));
+    }
+
+    @Test
+    @DisplayName("Test a hot item reports its striped stock while the snapshot trails")
+    void testHotItemReportsStripedStock() throws Exception {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 10));
+        shop.markHot(1001);
+        CountDownLatch folding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        shop.addListener(new InventoryListener() {
+            @Override
+            public void onPurchase(Sweet sweet, int quantity) {
+                folding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        Thread buyer = new Thread(() -> shop.purchaseSweet(1001, 1));
+        buyer.start();
+        folding.await();
+        
+        long outcome = shop.tryPurchase(1001, 2);
+        assertTrue(PurchaseResult.isSuccess(outcome));
+        assertEquals(7, PurchaseResult.available(outcome));
+        assertEquals(9, shop.snapshot().getSweet(1001).getQuantity());
+        Sweet current = shop.getSweet(1001);
+        assertEquals(7, current.getQuantity());
+        assertEquals("Kaju Katli", current.getName());
+        assertTrue(current.isFrozen());
+        
+        release.countDown();
+        buyer.join();
+        assertEquals(7, shop.snapshot().getSweet(1001).getQuantity());
+    }
+
     // ==================== Restock Tests ====================
     
     @Test
@@ -260,6 +459,232 @@ class SweetShopTest {
         assertEquals(50.0, sorted.get(2).getPrice());
     }
 
+    // ==================== Snapshot Tests ====================
+    
+    @Test
+    @DisplayName("Test snapshot is unaffected by later purchases")
+    void testSnapshotIsPointInTime() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        InventorySnapshot before = shop.snapshot();
+        
+        shop.purchaseSweet(1001, 5);
+        
+        assertEquals(20, before.getSweet(1001).getQuantity());
+        assertEquals(15, shop.snapshot().getSweet(1001).getQuantity());
+        assertTrue(shop.snapshot().getVersion() > before.getVersion());
+    }
+
+    @Test
+    @DisplayName("Test a snapshot streams its sweets without building a list")
+    void testSnapshotStreamsFromTrie() {
+        for (int id = 1; id <= 100; id++) {
+            shop.addSweet(new Sweet(id, "Sweet " + id, "Milk-Based", id, 5));
+        }
+        shop.purchaseSweet(50, 1);
+        InventorySnapshot snapshot = shop.snapshot();
+        
+        assertEquals(100L, snapshot.stream().spliterator().getExactSizeIfKnown());
+        assertEquals(5050, snapshot.stream().mapToInt(Sweet::getId).sum());
+        assertEquals(4, snapshot.stream().filter(sweet -> sweet.getId() == 50).findFirst().get().getQuantity());
+        assertEquals(snapshot.getSweets(), snapshot.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Test listed sweets are read-only")
+    void testListedSweetsAreReadOnly() {
+        Sweet added = new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20);
+        shop.addSweet(added);
+        added.setQuantity(0);
+        
+        Sweet listed = shop.getAllSweets().get(0);
+        
+        assertTrue(listed.isFrozen());
+        assertTrue(shop.getSweet(1001).isFrozen());
+        assertEquals(shop.getSweet(1001), listed);
+        assertEquals(20, shop.getSweet(1001).getQuantity());
+        assertThrows(UnsupportedOperationException.class, () -> listed.setQuantity(0));
+    }
+
+    @Test
+    @DisplayName("Test snapshot reflects deletes and clears")
+    void testSnapshotReflectsDeletes() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        
+        shop.deleteSweet(1001);
+        assertNull(shop.snapshot().getSweet(1001));
+        assertEquals(1, shop.snapshot().size());
+        
+        shop.clearInventory();
+        assertEquals(0, shop.snapshot().size());
+    }
+
+    // ==================== Streaming Tests ====================
+    
+    @Test
+    @DisplayName("Test streaming delivers only what is requested")
+    void testStreamingHonoursDemand() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 40));
+        
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        shop.publishByCategory("Milk-Based").subscribe(subscriber);
+        
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.items.size());
+        assertFalse(subscriber.completed);
+        
+        subscriber.subscription.request(5);
+        assertEquals(2, subscriber.items.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("Test sorted streaming spans several batches")
+    void testSortedStreamingAcrossBatches() {
+        for (int i = 0; i < 10000; i++) {
+            shop.addSweet(new Sweet(2000 + i, "Sweet " + i, "Bulk", (i * 7919) % 1000, 1));
+        }
+        
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        shop.publishSortedByPrice().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        
+        assertEquals(10000, subscriber.items.size());
+        assertEquals(shop.getSweetsSortedByPrice().get(0).getPrice(), subscriber.items.get(0).getPrice());
+        for (int i = 1; i < subscriber.items.size(); i++) {
+            assertTrue(subscriber.items.get(i - 1).getPrice() <= subscriber.items.get(i).getPrice());
+        }
+    }
+
+    @Test
+    @DisplayName("Test sorted streaming keeps its order when prices change")
+    void testSortedStreamingIgnoresPriceChanges() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        shop.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 30.0, 40));
+        
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        shop.publishSortedByPrice().subscribe(subscriber);
+        subscriber.subscription.request(1);
+        shop.setPriceResolver(sweet -> 10000 - sweet.getPriceMinor());
+        subscriber.subscription.request(5);
+        
+        assertEquals(3, subscriber.items.size());
+        assertEquals(1002, subscriber.items.get(0).getId());
+        assertEquals(1003, subscriber.items.get(1).getId());
+        assertEquals(1001, subscriber.items.get(2).getId());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("Test sorted streaming in chunks matches the sorted lists")
+    void testSortedStreamingInChunks() {
+        int count = SortedCursor.FIRST_CHUNK * 5 + 17;
+        for (int i = 0; i < count; i++) {
+            shop.addSweet(new Sweet(5000 - i, "Sweet " + (i % 300), "Bulk", i % 40, 1));
+        }
+        
+        RecordingSubscriber byName = new RecordingSubscriber();
+        shop.publishSortedByName().subscribe(byName);
+        byName.subscription.request(1);
+        assertEquals(1, byName.items.size());
+        byName.subscription.request(Long.MAX_VALUE);
+        
+        RecordingSubscriber byPrice = new RecordingSubscriber();
+        shop.publishSortedByPrice().subscribe(byPrice);
+        byPrice.subscription.request(Long.MAX_VALUE);
+        
+        List<Sweet> names = shop.getSweetsSortedByName();
+        List<Sweet> prices = shop.getSweetsSortedByPrice();
+        assertTrue(byName.completed);
+        assertTrue(byPrice.completed);
+        assertEquals(count, byName.items.size());
+        assertEquals(count, byPrice.items.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(names.get(i).getName(), byName.items.get(i).getName());
+            assertEquals(prices.get(i).getId(), byPrice.items.get(i).getId());
+        }
+        for (int i = 1; i < count; i++) {
+            Sweet previous = byName.items.get(i - 1);
+            Sweet current = byName.items.get(i);
+            assertTrue(previous.compareNameTo(current) < 0
+                    || (previous.compareNameTo(current) == 0 && previous.getId() < current.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test a throwing subscriber is cancelled, not sent onError")
+    void testStreamingThrowingSubscriberIsCancelled() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Kaju Barfi", "Nut-Based", 45.0, 15));
+        
+        RecordingSubscriber throwing = new RecordingSubscriber() {
+            @Override
+            public void onNext(Sweet item) {
+                super.onNext(item);
+                throw new IllegalStateException("subscriber failed");
+            }
+        };
+        shop.publishAllSweets().subscribe(throwing);
+        throwing.subscription.request(5);
+        throwing.subscription.request(5);
+        
+        assertEquals(1, throwing.items.size());
+        assertNull(throwing.error);
+        assertFalse(throwing.completed);
+    }
+
+    @Test
+    @DisplayName("Test streaming cancel and invalid request")
+    void testStreamingCancelAndInvalidRequest() {
+        shop.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        shop.addSweet(new Sweet(1002, "Kaju Barfi", "Nut-Based", 45.0, 15));
+        
+        RecordingSubscriber cancelled = new RecordingSubscriber();
+        shop.publishByName("kaju").subscribe(cancelled);
+        cancelled.subscription.request(1);
+        cancelled.subscription.cancel();
+        cancelled.subscription.request(1);
+        assertEquals(1, cancelled.items.size());
+        
+        RecordingSubscriber invalid = new RecordingSubscriber();
+        shop.publishAllSweets().subscribe(invalid);
+        invalid.subscription.request(0);
+        assertTrue(invalid.error instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Subscriber that records signals and never requests on its own
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<Sweet> {
+        final List<Sweet> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Sweet item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
     // ==================== Sweet Model Tests ====================
     
     @Test
@@ -0,0 +1,174 @@
+package com.sweetshop.store;
+
+import com.sweetshop.exception.InsufficientStockException;
+import com.sweetshop.model.Sweet;
+import com.sweetshop.util.SymbolTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for OffHeapSweetStore
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class OffHeapSweetStoreTest {
+    private OffHeapSweetStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapSweetStore();
+        store.addSweet(new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 20));
+        store.addSweet(new Sweet(1002, "Gulab Jamun", "Milk-Based", 10.0, 50));
+        store.addSweet(new Sweet(1003, "Rasgulla", "Milk-Based", 12.0, 40));
+    }
+
+    @Test
+    @DisplayName("Test views read and write the off-heap record")
+    void testViewsReadAndWrite() {
+        Sweet sweet = store.getSweet(1001);
+        
+        assertEquals("Kaju Katli", sweet.getName());
+        assertEquals("Nut-Based", sweet.getCategory());
+        assertEquals(50.0, sweet.getPrice());
+        
+        sweet.setName("Kaju Barfi");
+        store.purchaseSweet(1001, 5);
+        
+        assertEquals("Kaju Barfi", store.getSweet(1001).getName());
+        assertEquals(15, sweet.getQuantity());
+        assertEquals(new Sweet(1001, "Other", "Other", 1.0, 1), sweet);
+    }
+
+    @Test
+    @DisplayName("Test purchase and restock validation")
+    void testPurchaseAndRestock() {
+        assertThrows(InsufficientStockException.class, () -> store.purchaseSweet(1002, 51));
+        assertThrows(IllegalArgumentException.class, () -> store.purchaseSweet(9999, 1));
+        assertThrows(IllegalArgumentException.class, () -> store.restockSweet(1002, 0));
+        
+        store.restockSweet(1002, 10);
+        assertEquals(60, store.getSweet(1002).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Test searches return matching views")
+    void testSearches() {
+        assertEquals(2, store.searchByCategory("milk-based").size());
+        assertEquals(1, store.searchByName("jam").size());
+        
+        List<Sweet> cheap = store.searchByPriceRange(0, 15);
+        assertEquals(2, cheap.size());
+    }
+
+    @Test
+    @DisplayName("Test deleted slots are reused and stale views fail")
+    void testDeleteAndReuse() {
+        Sweet stale = store.getSweet(1001);
+        assertTrue(store.deleteSweet(1001));
+        assertFalse(store.deleteSweet(1001));
+        assertNull(store.getSweet(1001));
+        
+        store.addSweet(new Sweet(1004, "Jalebi", "Syrup-Based", 8.0, 60));
+        
+        assertEquals(3, store.getInventorySize());
+        assertEquals("Jalebi", store.getSweet(1004).getName());
+        assertThrows(IllegalStateException.class, stale::getName);
+    }
+
+    @Test
+    @DisplayName("Test renames and deletes give their strings back to the arena")
+    void testStringChurnIsReclaimed() {
+        long before = store.getOffHeapBytes();
+        Sweet sweet = store.getSweet(1001);
+        String padding = "-".repeat(100);
+        for (int i = 0; i < 50_000; i++) {
+            sweet.setName("Kaju Katli " + i + padding);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            store.addSweet(new Sweet(5_000, "Churn " + i + padding, "Category " + i + padding, 1.0, 1));
+            store.deleteSweet(5_000);
+        }
+        
+        assertTrue(store.getOffHeapBytes() - before <= 2L * OffHeapStringArena.CHUNK_BYTES);
+        assertEquals("Kaju Katli 49999" + padding, sweet.getName());
+        assertEquals("Nut-Based", sweet.getCategory());
+        assertEquals(2, store.searchByCategory("milk-based").size());
+        assertEquals(1, store.searchByName("katli 49999").size());
+    }
+
+    @Test
+    @DisplayName("Test a rejected add leaves no record behind")
+    void testRejectedAddLeavesNoRecord() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.addSweet(new Sweet(Integer.MIN_VALUE, "Ghost Barfi", "Bulk", 1.0, 1)));
+        
+        assertEquals(3, store.getInventorySize());
+        assertTrue(store.searchByName("ghost").isEmpty());
+        assertTrue(store.searchByCategory("Bulk").isEmpty());
+        int[] count = new int[1];
+        store.forEach(sweet -> count[0]++);
+        assertEquals(3, count[0]);
+    }
+
+    @Test
+    @DisplayName("Test name search ignores the default locale")
+    void testNameSearchIgnoresDefaultLocale() {
+        store.addSweet(new Sweet(1004, "Ice Halwa", "Frozen", 30.0, 5));
+        store.addSweet(new Sweet(1005, "Çay Barfi", "Tea-Based", 20.0, 5));
+        Locale original = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(1, store.searchByName("ICE").size());
+            assertEquals(1, store.searchByName("çAY").size());
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    @DisplayName("Test adds and frozen copies keep off-heap strings out of the shared table")
+    void testStringsStayOffTheSharedTable() {
+        int symbols = SymbolTable.shared().size();
+        for (int i = 0; i < 1_000; i++) {
+            store.addSweet("Off-Heap Sweet " + i, "Off-Heap Category " + i, 5.0, 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> store.addSweet(" ", "Bulk", 5.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> store.addSweet("Peda", "Bulk", -1.0, 1));
+        
+        Sweet frozen = store.searchByName("off-heap sweet 999").get(0).freeze();
+        assertEquals(symbols, SymbolTable.shared().size());
+        assertTrue(frozen.isFrozen());
+        assertEquals("Off-Heap Sweet 999", frozen.getName());
+        assertEquals("Off-Heap Category 999", frozen.getCategory());
+        assertTrue(frozen.isInCategory(SymbolTable.fold("OFF-HEAP CATEGORY 999")));
+        assertTrue(frozen.nameContains(SymbolTable.fold("SWEET 99")));
+        assertEquals(0, frozen.freezeWithQuantity(0).getQuantity());
+        assertEquals("Off-Heap Category 999", frozen.freezeWithQuantity(0).getCategory());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setQuantity(3));
+    }
+
+    @Test
+    @DisplayName("Test large catalog round trip")
+    void testLargeCatalog() {
+        for (int i = 0; i < 100_000; i++) {
+            store.addSweet(new Sweet(10_000 + i, "Sweet " + i, "Bulk", i % 100, i % 7));
+        }
+        for (int i = 0; i < 100_000; i += 2) {
+            store.deleteSweet(10_000 + i);
+        }
+        
+        assertEquals(50_003, store.getInventorySize());
+        assertEquals("Sweet 99999", store.getSweet(109_999).getName());
+        assertNull(store.getSweet(109_998));
+        int[] count = new int[1];
+        store.forEach(sweet -> count[0]++);
+        assertEquals(50_003, count[0]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sweetshop.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for IdempotencyTable
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class IdempotencyTableTest {
+
+    @Test
+    @DisplayName("Test first value wins and is returned on replay")
+    void testPutIfAbsent() {
+        IdempotencyTable table = new IdempotencyTable(60_000, 1000);
+        
+        assertEquals(IdempotencyTable.MISSING, table.putIfAbsent(7L, 100L));
+        assertEquals(100L, table.putIfAbsent(7L, 200L));
+        assertEquals(100L, table.get(7L));
+        assertEquals(IdempotencyTable.MISSING, table.get(8L));
+        assertThrows(IllegalArgumentException.class, () -> table.get(0L));
+    }
+
+    @Test
+    @DisplayName("Test a key recorded for another request is a conflict")
+    void testRequestFingerprint() {
+        IdempotencyTable table = new IdempotencyTable(60_000, 1000);
+        
+        assertEquals(IdempotencyTable.MISSING, table.putIfAbsent(7L, 11L, 100L));
+        assertEquals(100L, table.get(7L, 11L));
+        assertEquals(IdempotencyTable.CONFLICT, table.get(7L, 12L));
+        assertEquals(IdempotencyTable.CONFLICT, table.putIfAbsent(7L, 12L, 200L));
+        assertEquals(100L, table.putIfAbsent(7L, 11L, 200L));
+    }
+
+    @Test
+    @DisplayName("Test entries expire once the window has passed")
+    void testExpiry() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        IdempotencyTable table = new IdempotencyTable(63_000, 1000, now::get);
+        for (long key = 1; key <= 500; key++) {
+            table.putIfAbsent(key, key);
+        }
+        
+        now.addAndGet(63_000);
+        assertEquals(500, table.size());
+        assertEquals(250L, table.get(250L));
+        
+        now.addAndGet(2_000);
+        assertEquals(0, table.size());
+        assertEquals(IdempotencyTable.MISSING, table.get(250L));
+    }
+
+    @Test
+    @DisplayName("Test a full table drops its oldest entries first")
+    void testCapacityEviction() {
+        AtomicLong now = new AtomicLong();
+        IdempotencyTable table = new IdempotencyTable(64_000, 16 * 64, now::get);
+        for (long key = 1; key <= 5000; key++) {
+            table.putIfAbsent(key, -key);
+            now.addAndGet(10);
+        }
+        
+        assertTrue(table.size() <= 16 * 64);
+        assertTrue(table.getEvictionCount() > 0);
+        assertEquals(-5000L, table.get(5000L));
+        assertEquals(IdempotencyTable.MISSING, table.get(1L));
+        for (long key = 4900; key <= 5000; key++) {
+            assertEquals(-key, table.get(key));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sweetshop.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for PersistentIntMap
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class PersistentIntMapTest {
+
+    @Test
+    @DisplayName("Test put and get")
+    void testPutAndGet() {
+        PersistentIntMap<String> map = PersistentIntMap.<String>empty()
+                .put(1001, "a")
+                .put(1002, "b")
+                .put(-7, "c");
+        
+        assertEquals(3, map.size());
+        assertEquals("a", map.get(1001));
+        assertEquals("c", map.get(-7));
+        assertNull(map.get(42));
+    }
+
+    @Test
+    @DisplayName("Test older versions are unchanged by updates")
+    void testOlderVersionsUnchanged() {
+        PersistentIntMap<String> v1 = PersistentIntMap.<String>empty().put(1001, "a");
+        PersistentIntMap<String> v2 = v1.put(1001, "b").put(1002, "c");
+        PersistentIntMap<String> v3 = v2.remove(1001);
+        
+        assertEquals("a", v1.get(1001));
+        assertEquals(1, v1.size());
+        assertEquals("b", v2.get(1001));
+        assertNull(v3.get(1001));
+        assertEquals(1, v3.size());
+    }
+
+    @Test
+    @DisplayName("Test random operations match HashMap")
+    void testRandomOperationsMatchHashMap() {
+        Random random = new Random(7);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000) * (random.nextBoolean() ? 1 : 1 << 20);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+        
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), map.values().size());
+    }
+}
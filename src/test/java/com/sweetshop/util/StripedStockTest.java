@@ -0,0 +1,73 @@
+package com.sweetshop.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for StripedStock
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class StripedStockTest {
+
+    @Test
+    @DisplayName("Test takes rebalance across stripes until the stock is really short")
+    void testExactAccounting() {
+        StripedStock stock = new StripedStock(10, 4);
+        assertEquals(4, stock.getStripeCount());
+        
+        assertEquals(StripedStock.TAKEN, stock.tryTake(3));
+        assertEquals(StripedStock.TAKEN, stock.tryTake(6));
+        assertEquals(1L, stock.available());
+        assertEquals(1L, stock.tryTake(2));
+        
+        stock.add(5);
+        assertEquals(StripedStock.TAKEN, stock.tryTake(6));
+        assertEquals(0L, stock.available());
+        assertEquals(3L, stock.getTakeCount());
+        assertThrows(IllegalArgumentException.class, () -> stock.tryTake(0));
+    }
+
+    @Test
+    @DisplayName("Test concurrent takes never oversell")
+    void testConcurrentTakes() throws InterruptedException {
+        StripedStock stock = new StripedStock(10_000, 8);
+        AtomicInteger sold = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    if (stock.tryTake(1 + i % 3) == StripedStock.TAKEN) {
+                        sold.addAndGet(1 + i % 3);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(10_000L, sold.get() + stock.available());
+        assertTrue(stock.available() < 3);
+    }
+
+    @Test
+    @DisplayName("Test close drains the stripes and refuses later takes")
+    void testClose() {
+        StripedStock stock = new StripedStock(100, 2);
+        assertEquals(StripedStock.TAKEN, stock.tryTake(10));
+        
+        assertEquals(90L, stock.close());
+        assertEquals(StripedStock.CLOSED, stock.tryTake(1));
+        assertEquals(90L, stock.available());
+    }
+}
@@ -0,0 +1,145 @@
+package com.sweetshop.util;
+
+import com.sweetshop.model.Sweet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 Test Suite for SymbolTable
+ * 
+ * @author Sweet Shop Management System
+ * @version 1.0
+ */
+class SymbolTableTest {
+
+    @Test
+    @DisplayName("Test strings are stored once and match case-insensitively without decoding")
+    void testInternAndFold() {
+        SymbolTable table = new SymbolTable();
+        int kaju = table.intern("Kaju Katli");
+        assertEquals(kaju, table.intern("Kaju Katli"));
+        
+        assertEquals(1, table.size());
+        assertEquals("Kaju Katli", table.toString(kaju));
+        
+        assertTrue(table.foldedContains(kaju, SymbolTable.fold("KATLI")));
+        assertTrue(table.foldedContains(kaju, SymbolTable.fold("")));
+        assertFalse(table.foldedContains(kaju, SymbolTable.fold("katlis")));
+        assertTrue(table.foldedEquals(kaju, SymbolTable.fold("KAJU katli")));
+        assertFalse(table.foldedEquals(kaju, SymbolTable.fold("Kaju")));
+        
+        int pedha = table.intern("PEḌĀ Bārfī");
+        assertEquals(3, table.size());
+        assertEquals("PEḌĀ Bārfī", table.toString(pedha));
+        assertTrue(table.foldedContains(pedha, SymbolTable.fold("ḍā BĀRF")));
+        assertTrue(table.foldedEquals(pedha, SymbolTable.fold("peḍā bārfī")));
+        assertThrows(IllegalArgumentException.class, () -> table.intern(null));
+    }
+
+    @Test
+    @DisplayName("Test symbols are copied into buffers and cut at character boundaries")
+    void testWriteCutsAtCharacterBoundary() {
+        SymbolTable table = new SymbolTable();
+        int pedha = table.intern("Peḍā");
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        
+        assertEquals(5, table.write(pedha, buffer, 6));
+        assertEquals(7, table.write(pedha, buffer, 16));
+        assertEquals("PeḍPeḍā", new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+        assertEquals(0, SymbolTable.prefixLength("ā".getBytes(StandardCharsets.UTF_8), 0, 2, 1));
+    }
+
+    @Test
+    @DisplayName("Test sweets share symbols and keep them across renames and snapshots")
+    void testSweetSymbols() {
+        Sweet sweet = new Sweet(1001, "Gulab Jamun", "Milk-Based", 10.0, 5);
+        Sweet other = new Sweet(1002, "Rasgulla", "MILK-BASED", 12.0, 5);
+        byte[] milk = SymbolTable.fold("milk-based");
+        assertTrue(sweet.isInCategory(milk));
+        assertTrue(other.isInCategory(milk));
+        assertEquals("MILK-BASED", other.getCategory());
+        
+        sweet.setName("Kala Jamun");
+        Sweet frozen = sweet.freeze();
+        assertEquals("Kala Jamun", frozen.getName());
+        assertTrue(frozen.nameContains(SymbolTable.fold("la ja")));
+        assertFalse(frozen.nameContains(SymbolTable.fold("gulab")));
+        
+        sweet.setCategory(null);
+        assertNull(sweet.getCategory());
+        assertFalse(sweet.isInCategory(milk));
+    }
+
+    @Test
+    @DisplayName("Test names stay out of the shared table and compare without decoding")
+    void testNamesAreOwnedBySweets() {
+        Sweet first = new Sweet(1001, "Kaju Katli", "Nut-Based", 50.0, 5);
+        int symbols = SymbolTable.shared().size();
+        for (int i = 0; i < 1_000; i++) {
+            first.setName("Kaju Katli " + i);
+            new Sweet(2000 + i, "Sweet " + i, "Nut-Based", 10.0, 1);
+        }
+        assertEquals(symbols, SymbolTable.shared().size());
+        assertSame(first.getCategory(), first.freeze().getCategory());
+        
+        Sweet accented = new Sweet(1002, "PEḌĀ Bārfī", null, 20.0, 5);
+        assertTrue(accented.nameContains(SymbolTable.fold("ḍā BĀRF")));
+        assertEquals("PEḌĀ Bārfī", accented.freeze().getName());
+        Sweet barfi = new Sweet(1003, "Barfi", null, 20.0, 5);
+        Sweet zebra = new Sweet(1004, "Zebra Ladoo", null, 20.0, 5);
+        assertTrue(barfi.compareNameTo(zebra) < 0);
+        assertTrue(accented.compareNameTo(barfi) > 0);
+        assertEquals(0, barfi.compareNameTo(barfi.freeze()));
+        assertEquals(Integer.signum("Barfi".compareTo("Kaju Katli 999")),
+                Integer.signum(barfi.compareNameTo(first)));
+    }
+
+    @Test
+    @DisplayName("Test concurrent interning returns one symbol per string")
+    void testConcurrentIntern() throws InterruptedException {
+        SymbolTable table = new SymbolTable();
+        int[][] symbols = new int[4][2_000];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int[] mine = symbols[t];
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < mine.length; i++) {
+                    mine[i] = table.intern("sweet " + i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(2_000, table.size());
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(symbols[0][i], symbols[3][i]);
+            assertEquals("sweet " + i, table.toString(symbols[1][i]));
+        }
+    }
+
+    @Test
+    @DisplayName("Test name order matches String order for supplementary characters")
+    void testNameOrderMatchesStringOrder() {
+        String[] names = {"Barfi", "Barfi \uD83C\uDF6C", "Barfi \uFF21", "Barfi \uE000", "Barfi \u00E9",
+                "Barfi \uD7FF", "Barfi \uD83C\uDF6D", "Barf", "\uFF41 Peda", "\uD83C\uDF6C Peda"};
+        for (String name : names) {
+            for (String otherName : names) {
+                Sweet sweet = new Sweet(1001, name, null, 1.0, 1);
+                Sweet other = new Sweet(1002, otherName, null, 1.0, 1);
+                assertEquals(Integer.signum(name.compareTo(otherName)), Integer.signum(sweet.compareNameTo(other)),
+                        name + " vs " + otherName);
+            }
+        }
+    }
+}